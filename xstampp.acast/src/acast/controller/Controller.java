@@ -1223,8 +1223,7 @@ public class Controller extends AbstractDataModel implements IDataModel,
 
   @Override
   public ControlStructureController getControlStructureController() {
-    // TODO Auto-generated method stub
-    return null;
+    return this.controlStructureController;
   }
 
   @Override
@@ -14,10 +14,10 @@ import org.eclipse.core.runtime.jobs.Job;
 import acast.controller.Controller;
 import acast.ui.accidentDescription.ProximalEvent;
 import acast.ui.accidentDescription.Responsibility;
-import acast.wizards.BufferedCSVWriter;
 import messages.Messages;
 import xstampp.astpa.model.interfaces.ITableModel;
 import xstampp.model.IDataModel;
+import xstampp.util.BufferedCSVWriter;
 
 public class CastCSVExport extends Job {
 
@@ -84,20 +84,16 @@ public class CastCSVExport extends Job {
 		writer.write(title);
 		writer.newLine();
 		String description = this.model.getAccidentDescription();
-		for (int length = 0; length < description.length(); length += 200) {
-			writer.writeCell();
-			writer.writeCell(description.substring(length, Math.min(description.length(), length + 199)));
-			writer.newLine();
-		}
+		writer.writeCell();
+		writer.writeCell(description);
+		writer.newLine();
 		writer.newLine();
 		writer.write("Accident Company");
 		writer.newLine();
 		description = this.model.getAccidentCompany();
-		for (int length = 0; length < description.length(); length += 200) {
-			writer.writeCell();
-			writer.writeCell(description.substring(length, Math.min(description.length(), length + 199)));
-			writer.newLine();
-		}
+		writer.writeCell();
+		writer.writeCell(description);
+		writer.newLine();
 		writer.newLine();
 		writer.write("Accident Date");
 		writer.newLine();
@@ -111,11 +107,9 @@ public class CastCSVExport extends Job {
 		writer.write("Accident Location");
 		writer.newLine();
 		description = this.model.getAccidentLocation();
-		for (int length = 0; length < description.length(); length += 200) {
-			writer.writeCell();
-			writer.writeCell(description.substring(length, Math.min(description.length(), length + 199)));
-			writer.newLine();
-		}
+		writer.writeCell();
+		writer.writeCell(description);
+		writer.newLine();
 	}
 
 	protected void exportAsCSV(List<ITableModel> models, BufferedCSVWriter csvWriter, String title) throws IOException {
@@ -129,7 +123,7 @@ public class CastCSVExport extends Job {
 		int i = 0;
 		for (ITableModel data : models) {
 			i++;
-			csvWriter.writeCell(Integer.toString(i));
+			csvWriter.writeCell(i);
 			csvWriter.writeCell(data.getTitle());
 			csvWriter.write(data.getDescription());
 			csvWriter.newLine();
@@ -149,7 +143,7 @@ public class CastCSVExport extends Job {
 		if (!models.isEmpty()) {
 			for (ProximalEvent data : models) {
 				i++;
-				csvWriter.writeCell(Integer.toString(i));
+				csvWriter.writeCell(i);
 				csvWriter.writeCell(data.getDate());
 				csvWriter.writeCell(data.getTime());
 				csvWriter.write(data.getDescription());
@@ -178,7 +172,7 @@ public class CastCSVExport extends Job {
 				i = 0;
 				for (Responsibility resp : this.model.getResponsibilitiesListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -193,7 +187,7 @@ public class CastCSVExport extends Job {
 				i = 0;
 				for (Responsibility resp : this.model.getContextListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -208,7 +202,7 @@ public class CastCSVExport extends Job {
 				i = 0;
 				for (Responsibility resp : this.model.getUnsafeActionListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -223,7 +217,7 @@ public class CastCSVExport extends Job {
 				i = 0;
 				for (Responsibility resp : this.model.getFlawListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -238,7 +232,7 @@ public class CastCSVExport extends Job {
 				i = 0;
 				for (Responsibility resp : this.model.getFeedbackListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -253,7 +247,7 @@ public class CastCSVExport extends Job {
 				i = 0;
 				for (Responsibility resp : this.model.getCoordinationListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -279,7 +273,7 @@ public class CastCSVExport extends Job {
 				int i = 0;
 				for (Responsibility resp : this.model.getRecommendationListforComponent(id)) {
 					i++;
-					csvWriter.writeCell(Integer.toString(i));
+					csvWriter.writeCell(i);
 					csvWriter.write(resp.getDescription());
 					csvWriter.newLine();
 				}
@@ -1,19 +1,15 @@
 package acast.jobs;
 
-import java.net.URL;
 import java.util.UUID;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.URIResolver;
-import javax.xml.transform.stream.StreamSource;
 
 import acast.controller.Controller;
 import xstampp.ui.common.ProjectManager;
 import xstampp.util.ExportPackage;
+import xstampp.util.FopResources;
 
 /**
  * Eclipse job that handles the export
@@ -72,21 +68,8 @@ public class ExportJob extends xstampp.astpa.util.jobs.ExportJob {
 
 	@Override
 	protected Transformer getxslTransformer(String resource, Class loader) {
-		URL xslUrl = this.getClass().getResource(resource);
-
-		if (xslUrl == null) {
-			return null;
-		}
 		try {
-			StreamSource transformXSLSource = new StreamSource(xslUrl.openStream());
-			TransformerFactory transfact = TransformerFactory.newInstance();
-			transfact.setURIResolver(new URIResolver() {
-				@Override
-				public Source resolve(String href, String base) {
-					return new StreamSource(this.getClass().getClassLoader().getResourceAsStream("/" + href)); //$NON-NLS-1$
-				}
-			});
-			return transfact.newTransformer(transformXSLSource);
+			return FopResources.newTransformer(resource, this.getClass());
 		} catch (Exception e) {
 			return null;
 		}
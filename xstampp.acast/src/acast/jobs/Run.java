@@ -7,6 +7,9 @@ import java.util.List;
 import java.util.Observable;
 import java.util.UUID;
 
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
 import messages.Messages;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -20,13 +23,16 @@ import acast.controller.Controller;
 import xstampp.model.ObserverValue;
 import xstampp.ui.common.ProjectManager;
 import xstampp.util.ExportPackage;
+import xstampp.util.JAXBExportJob;
+import xstampp.util.ParallelJobQueue;
 import xstampp.util.XstamppJob;
 
 /**
  * an export job which run s a complete export in all available formats. the
- * export is managed through the implementation of
- * <code> IJobChangeListener</code> which counts all scheduled jobs and notifys
- * the system when the export is finished
+ * model is marshalled only once and shared by the exports which are run in
+ * parallel by a {@link ParallelJobQueue}, the export is managed through the
+ * implementation of <code> IJobChangeListener</code> which counts all
+ * scheduled jobs and notifys the system when the export is finished
  * 
  * @author Lukas Balzer
  * @since 2.0
@@ -56,6 +62,13 @@ public class Run extends XstamppJob implements IJobChangeListener {
 	private UUID projectID;
 	private String dir;
 	private int counter = 0;
+	private ParallelJobQueue jobQueue;
+	private byte[] modelXml;
+	/**
+	 * the report job as long as its control structure images have been created but it has not been
+	 * scheduled yet, the images are deleted by the job itself once it is done
+	 */
+	private ExportJob unscheduledReport;
 	private String[] xslMap = new String[] { "Accident Description", "/fopAccidentDescription.xsl", "Hazards", "/fopHazards.xsl",
 			"Safety Constraints", "/fopSafetyConstraints.xsl", "Proximal Events", "/fopProxEvents.xsl",
 			"Roles and Responsibilities", "/fopResponsibilities.xsl", "Findings and Recommendations",
@@ -92,13 +105,33 @@ public class Run extends XstamppJob implements IJobChangeListener {
 		this.exportImages = true;
 		this.exportPDFs = true;
 		this.exportReport = true;
+		this.jobQueue = new ParallelJobQueue();
 		this.addJobChangeListener(this);
 	}
 
+	@Override
+	protected void canceling() {
+		this.jobQueue.cancel();
+		super.canceling();
+	}
+
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
 		monitor.beginTask(Messages.ExportPdf, IProgressMonitor.UNKNOWN);
 		ProjectManager.getContainerInstance().getDataModel(this.projectID).prepareForExport();
+		ExportJob pdfRepJob = null;
+		if (this.exportReport) {
+			ExportPackage data = new ExportPackage(getName(), this.dir + getName() + ".pdf", //$NON-NLS-1$
+					"/fopxsl.xsl",Controller.class);
+			data.setDataModelClazz(Controller.class);
+			pdfRepJob = new ExportJob(this.projectID, data, true, this.decoSwitch); //$NON-NLS-1$
+			pdfRepJob.setCSDirty();
+			pdfRepJob.setCSImagePath(this.dir + IMAGE_DIR);
+			// the control structure images must be stored in the model before it is marshalled
+			pdfRepJob.createCSImages();
+			this.unscheduledReport = pdfRepJob;
+		}
+		this.modelXml = marshalModel();
 
 		if (this.exportCSVs) {
 			monitor.setTaskName(Messages.ExportingCSV);
@@ -109,7 +142,9 @@ public class Run extends XstamppJob implements IJobChangeListener {
 						this.dir + CSV_DIR + File.separator + this.csvMap[i] + ".csv", //$NON-NLS-1$
 						';', ProjectManager.getContainerInstance().getDataModel(this.projectID), values);
 				job.addJobChangeListener(this);
-				job.schedule();
+				if (!this.jobQueue.add(job, 1, monitor)) {
+					return Status.CANCEL_STATUS;
+				}
 			}
 		}
 
@@ -125,10 +160,14 @@ public class Run extends XstamppJob implements IJobChangeListener {
 				job.showPreview(false);
 				job.addJobChangeListener(this);
 				if (i==0){
+					// this job renders its own control structure images and marshals the model itself
 					job.setCSDirty();
+				} else {
+					job.setModelXml(this.modelXml);
+				}
+				if (!this.jobQueue.add(job, 1, monitor)) {
+					return Status.CANCEL_STATUS;
 				}
-
-				job.schedule();
 			}
 		}
 
@@ -142,26 +181,46 @@ public class Run extends XstamppJob implements IJobChangeListener {
 				data.setDataModelClazz(Controller.class);
 				ExportJob pdfJob = new ExportJob(this.projectID, data, true, false);
 				pdfJob.showPreview(false);
+				pdfJob.setModelXml(this.modelXml);
 				pdfJob.addJobChangeListener(this);
-				pdfJob.schedule();
+				if (!this.jobQueue.add(pdfJob, 1, monitor)) {
+					return Status.CANCEL_STATUS;
+				}
 			}
 		}
 
-		if (this.exportReport) {
-			ExportPackage data = new ExportPackage(getName(), this.dir + getName() + ".pdf", //$NON-NLS-1$
-					"/fopxsl.xsl",Controller.class);
-			data.setDataModelClazz(Controller.class);
-			ExportJob pdfRepJob = new ExportJob(this.projectID, data, true, this.decoSwitch); //$NON-NLS-1$
-			pdfRepJob.setCSDirty();
-			pdfRepJob.setCSImagePath(this.dir + IMAGE_DIR);
+		if (pdfRepJob != null) {
+			pdfRepJob.setModelXml(this.modelXml);
 			pdfRepJob.showPreview(false);
 			pdfRepJob.addJobChangeListener(this);
-			pdfRepJob.schedule();
+			if (!this.jobQueue.add(pdfRepJob, 1, monitor)) {
+				return Status.CANCEL_STATUS;
+			}
+			this.unscheduledReport = null;
 		}
 
+		if (!this.jobQueue.joinAll(monitor)) {
+			return Status.CANCEL_STATUS;
+		}
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * marshals the prepared model once so that it can be shared by the xsl exports
+	 * 
+	 * @return the xml of the model or <code>null</code> if it could not be
+	 *         marshalled in which case each export marshals the model itself
+	 */
+	private byte[] marshalModel() {
+		try {
+			return JAXBExportJob.marshal(JAXBContext.newInstance(Controller.class),
+					ProjectManager.getContainerInstance().getDataModel(this.projectID));
+		} catch (JAXBException e) {
+			ProjectManager.getLOGGER().error(e.getMessage(), e);
+			return null;
+		}
+	}
+
 	@Override
 	public void aboutToRun(IJobChangeEvent event) {
 		// do nothing
@@ -174,7 +233,10 @@ public class Run extends XstamppJob implements IJobChangeListener {
 
 	@Override
 	public void done(IJobChangeEvent event) {
-
+		if (event.getJob() == this && this.unscheduledReport != null) {
+			this.unscheduledReport.deleteCSImages();
+			this.unscheduledReport = null;
+		}
 		this.counter--;
 		if (this.counter == 0) {
 			// this command
@@ -0,0 +1,144 @@
+package astpa.test.controlstructure;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xstampp.astpa.controlstructure.utilities.CSConnectionRouter;
+
+/**
+ * Tests the routes which are found by the A* search of the
+ * {@link CSConnectionRouter} around the components which are set as obstacles
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class CSConnectionRouterTest {
+
+	private static final Point RIGHT = new Point(1, 0);
+	private static final Rectangle AREA = new Rectangle(-200, -200, 1000, 1000);
+
+	private CSConnectionRouter router;
+
+	@Before
+	public void setUp() {
+		this.router = new CSConnectionRouter();
+	}
+
+	/**
+	 * Tests that the route is a straight line if no component is in the way
+	 */
+	@Test
+	public void straightPathTest() {
+		List<Point> path = this.router.searchPath(new Point(0, 0), new Point(100, 0), RIGHT, AREA);
+		assertPath(path, new Point(0, 0), new Point(100, 0));
+		Assert.assertEquals(0, getBends(path));
+		Assert.assertEquals(100, getLength(path));
+	}
+
+	/**
+	 * Tests that the route leads around a component in the minimal distance
+	 * with the fewest bends
+	 */
+	@Test
+	public void obstacleTest() {
+		Rectangle obstacle = new Rectangle(40, -20, 20, 40);
+		this.router.setObstacle(UUID.randomUUID(), obstacle);
+		List<Point> path = this.router.searchPath(new Point(0, 0), new Point(100, 0), RIGHT, AREA);
+		assertPath(path, new Point(0, 0), new Point(100, 0));
+		assertAvoids(path, obstacle.getExpanded(CSConnectionRouter.INTERVALL - 1,
+				CSConnectionRouter.INTERVALL - 1));
+		// the route passes the component and enters the last point from the side
+		Assert.assertEquals(3, getBends(path));
+		// the route passes the component in the distance INTERVALL
+		Assert.assertEquals(100 + 2 * (20 + CSConnectionRouter.INTERVALL), getLength(path));
+	}
+
+	/**
+	 * Tests that the route doesn't turn back into the direction from which the
+	 * first point has been reached
+	 */
+	@Test
+	public void orientationTest() {
+		List<Point> path = this.router.searchPath(new Point(0, 0), new Point(100, 0), new Point(-1, 0),
+				AREA);
+		assertPath(path, new Point(0, 0), new Point(100, 0));
+		Assert.assertTrue(path.get(1).x <= 0);
+		Assert.assertEquals(2, getBends(path));
+	}
+
+	/**
+	 * Tests that a removed component is no longer avoided and that there is no
+	 * route to a point which is enclosed by components
+	 */
+	@Test
+	public void enclosedTest() {
+		UUID top = UUID.randomUUID();
+		this.router.setObstacle(top, new Rectangle(460, 460, 80, 10));
+		this.router.setObstacle(UUID.randomUUID(), new Rectangle(460, 530, 80, 10));
+		this.router.setObstacle(UUID.randomUUID(), new Rectangle(460, 460, 10, 80));
+		this.router.setObstacle(UUID.randomUUID(), new Rectangle(530, 460, 10, 80));
+		Assert.assertNull(this.router.searchPath(new Point(0, 0), new Point(500, 500), RIGHT, AREA));
+
+		this.router.setObstacle(top, null);
+		List<Point> path = this.router.searchPath(new Point(0, 0), new Point(500, 500), RIGHT, AREA);
+		assertPath(path, new Point(0, 0), new Point(500, 500));
+		// the route enters the enclosure from the top
+		Assert.assertEquals(500, path.get(path.size() - 2).x);
+		Assert.assertTrue(path.get(path.size() - 2).y < 460);
+	}
+
+	/**
+	 * asserts that the path starts and ends with the given points and consists
+	 * of horizontal and vertical lines
+	 */
+	private static void assertPath(List<Point> path, Point from, Point to) {
+		Assert.assertNotNull(path);
+		Assert.assertEquals(from, path.get(0));
+		Assert.assertEquals(to, path.get(path.size() - 1));
+		for (int i = 1; i < path.size(); i++) {
+			Point before = path.get(i - 1);
+			Point point = path.get(i);
+			Assert.assertTrue((before.x == point.x) || (before.y == point.y));
+		}
+	}
+
+	/**
+	 * asserts that no line of the path leads through the inside of the given
+	 * bounds
+	 */
+	private static void assertAvoids(List<Point> path, Rectangle bounds) {
+		for (int i = 1; i < path.size(); i++) {
+			Point before = path.get(i - 1);
+			Point point = path.get(i);
+			Rectangle line = new Rectangle(Math.min(before.x, point.x), Math.min(before.y, point.y),
+					Math.abs(point.x - before.x) + 1, Math.abs(point.y - before.y) + 1);
+			Assert.assertFalse(line + " intersects " + bounds, line.intersects(bounds));
+		}
+	}
+
+	private static int getBends(List<Point> path) {
+		int bends = 0;
+		for (int i = 2; i < path.size(); i++) {
+			boolean horizontal = path.get(i - 2).y == path.get(i - 1).y;
+			if (horizontal != (path.get(i - 1).y == path.get(i).y)) {
+				bends++;
+			}
+		}
+		return bends;
+	}
+
+	private static int getLength(List<Point> path) {
+		int length = 0;
+		for (int i = 1; i < path.size(); i++) {
+			length += Math.abs(path.get(i).x - path.get(i - 1).x)
+					+ Math.abs(path.get(i).y - path.get(i - 1).y);
+		}
+		return length;
+	}
+}
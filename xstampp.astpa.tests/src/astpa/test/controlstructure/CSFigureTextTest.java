@@ -0,0 +1,109 @@
+package astpa.test.controlstructure;
+
+import java.util.UUID;
+
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xstampp.astpa.controlstructure.figure.ComponentFigure;
+import xstampp.astpa.controlstructure.figure.RootFigure;
+
+/**
+ * Tests that the text layout of a figure outside of the viewport is only
+ * skipped in an interactive editor, figures which are exported or printed must
+ * always show their text
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class CSFigureTextTest {
+
+	private static final String TEXT = "Controller";
+
+	private Viewport viewport;
+	private RootFigure root;
+	private ComponentFigure figure;
+
+	@Before
+	public void setUp() {
+		this.viewport = new Viewport(true);
+		this.root = new RootFigure(UUID.randomUUID());
+		this.viewport.setContents(this.root);
+		this.figure = new ComponentFigure(UUID.randomUUID(), false);
+		this.root.add(this.figure);
+	}
+
+	/**
+	 * Tests that a figure outside of an unsized viewport, like the one of the
+	 * image export, is laid out with its text
+	 */
+	@Test
+	public void exportTest() {
+		render();
+		assertTextLaidOut();
+	}
+
+	/**
+	 * Tests that a viewport without a client area never skips the text layout,
+	 * even if the root figure defers the text layout
+	 */
+	@Test
+	public void unsizedViewportTest() {
+		this.root.setDeferTextLayout(true);
+		render();
+		assertTextLaidOut();
+	}
+
+	/**
+	 * Tests that a viewer which doesn't defer the text layout lays out the
+	 * text of a figure outside of its viewport
+	 */
+	@Test
+	public void notDeferredTest() {
+		this.viewport.setBounds(new Rectangle(0, 0, 200, 200));
+		render();
+		assertTextLaidOut();
+	}
+
+	/**
+	 * Tests that the editor skips the text layout of a figure outside of the
+	 * viewport and that the text is laid out as soon as the deferral is turned
+	 * off, e.g. for printing
+	 */
+	@Test
+	public void editorTest() {
+		this.viewport.setBounds(new Rectangle(0, 0, 200, 200));
+		this.root.setDeferTextLayout(true);
+		render();
+		Assert.assertEquals(0, this.figure.getTextField().getBounds().width);
+
+		this.root.setDeferTextLayout(false);
+		assertTextLaidOut();
+	}
+
+	/**
+	 * Tests that the editor lays out the text of a figure in the viewport
+	 */
+	@Test
+	public void visibleFigureTest() {
+		this.viewport.setBounds(new Rectangle(0, 0, 2000, 2000));
+		this.root.setDeferTextLayout(true);
+		render();
+		assertTextLaidOut();
+	}
+
+	private void render() {
+		this.figure.setLayout(new Rectangle(1000, 1000, 120, 40));
+		this.figure.setText(TEXT);
+		this.figure.refresh();
+	}
+
+	private void assertTextLaidOut() {
+		Assert.assertEquals(TEXT, this.figure.getText());
+		// the width of the figure without the margins of the text
+		Assert.assertEquals(116, this.figure.getTextField().getBounds().width);
+	}
+}
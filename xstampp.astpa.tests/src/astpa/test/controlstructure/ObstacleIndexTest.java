@@ -0,0 +1,91 @@
+package astpa.test.controlstructure;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xstampp.astpa.controlstructure.utilities.ObstacleIndex;
+
+/**
+ * Tests that the {@link ObstacleIndex} finds exactly the components which
+ * intersect with an area, after the components have been moved or removed
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class ObstacleIndexTest {
+
+	private ObstacleIndex index;
+	private UUID first;
+	private UUID second;
+	private UUID third;
+
+	@Before
+	public void setUp() {
+		this.index = new ObstacleIndex();
+		this.first = UUID.randomUUID();
+		this.second = UUID.randomUUID();
+		this.third = UUID.randomUUID();
+		this.index.put(this.first, new Rectangle(0, 0, 50, 50));
+		this.index.put(this.second, new Rectangle(300, 300, 50, 50));
+		this.index.put(this.third, new Rectangle(1000, 0, 200, 50));
+	}
+
+	/**
+	 * Tests that a query returns the components in the area, both for small
+	 * areas which are looked up in the buckets and for large areas
+	 */
+	@Test
+	public void queryTest() {
+		List<Rectangle> result = this.index.query(new Rectangle(0, 0, 100, 100));
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals(new Rectangle(0, 0, 50, 50), result.get(0));
+
+		// the third component spans several buckets
+		result = this.index.query(new Rectangle(1150, 10, 10, 10));
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals(new Rectangle(1000, 0, 200, 50), result.get(0));
+
+		Assert.assertTrue(this.index.query(new Rectangle(100, 100, 100, 100)).isEmpty());
+		Assert.assertEquals(3, this.index.query(new Rectangle(-100, -100, 2000, 2000)).size());
+		Assert.assertEquals(new Rectangle(0, 0, 1200, 350), this.index.getBounds());
+	}
+
+	/**
+	 * Tests that moved and removed components are only found at their new
+	 * location and that the index keeps a copy of the bounds
+	 */
+	@Test
+	public void updateTest() {
+		Rectangle bounds = new Rectangle(600, 600, 50, 50);
+		this.index.put(this.first, bounds);
+		bounds.setLocation(0, 0);
+		Assert.assertTrue(this.index.query(new Rectangle(0, 0, 100, 100)).isEmpty());
+		Assert.assertEquals(new Rectangle(600, 600, 50, 50), this.index.get(this.first));
+		Assert.assertEquals(1, this.index.query(new Rectangle(620, 620, 10, 10)).size());
+
+		Assert.assertEquals(new Rectangle(300, 300, 50, 50), this.index.remove(this.second));
+		Assert.assertNull(this.index.remove(this.second));
+		Assert.assertTrue(this.index.query(new Rectangle(300, 300, 50, 50)).isEmpty());
+		Assert.assertEquals(2, this.index.getIds().size());
+		Assert.assertFalse(this.index.getIds().contains(this.second));
+	}
+
+	/**
+	 * Tests that components with negative coordinates are stored in the right
+	 * buckets
+	 */
+	@Test
+	public void negativeCoordinatesTest() {
+		UUID id = UUID.randomUUID();
+		this.index.put(id, new Rectangle(-200, -200, 50, 50));
+		List<Rectangle> result = this.index.query(new Rectangle(-160, -160, 5, 5));
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals(new Rectangle(-200, -200, 50, 50), result.get(0));
+		Assert.assertTrue(this.index.query(new Rectangle(-100, -100, 5, 5)).isEmpty());
+	}
+}
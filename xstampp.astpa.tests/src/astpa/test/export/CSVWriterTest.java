@@ -0,0 +1,144 @@
+package astpa.test.export;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xstampp.util.BufferedCSVWriter;
+
+/**
+ * Tests that the cells written by the {@link BufferedCSVWriter} are read back
+ * unchanged by a csv parser as it is defined by RFC 4180
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class CSVWriterTest {
+
+	/**
+	 * Writes cells which contain the separator, quotes and line breaks and
+	 * tests that each cell is parsed back unchanged
+	 */
+	@Test
+	public void roundTripTest() throws IOException {
+		String[] cells = new String[] { "plain", "with;separator", "with \"quotes\"", "\"", "line\nbreak",
+				"windows\r\nbreak", "", "trailing;" };
+		StringWriter out = new StringWriter();
+		BufferedCSVWriter writer = new BufferedCSVWriter(out, ';');
+		for (String cell : cells) {
+			writer.writeCell(cell);
+		}
+		writer.newLine();
+		writer.close();
+
+		List<List<String>> rows = parse(out.toString(), ';');
+		Assert.assertEquals(1, rows.size());
+		List<String> expected = new ArrayList<>(Arrays.asList(cells));
+		// every cell ends with the separator so the line ends with an empty cell
+		expected.add("");
+		Assert.assertEquals(expected, rows.get(0));
+	}
+
+	/**
+	 * Tests that numbers, empty cells and text which is written in several
+	 * parts are written as single cells
+	 */
+	@Test
+	public void mixedCellsTest() throws IOException {
+		StringWriter out = new StringWriter();
+		BufferedCSVWriter writer = new BufferedCSVWriter(out, ',');
+		writer.writeCell(0);
+		writer.writeCell(-42);
+		writer.writeCell(Integer.MIN_VALUE);
+		writer.writeCell(Integer.MAX_VALUE);
+		writer.writeCell((String) null);
+		writer.writeCell();
+		writer.write("Role - ");
+		writer.write("a, b");
+		writer.newLine();
+		writer.write("ID");
+		writer.writeCell(7);
+		writer.write("last \"cell\"");
+		writer.close();
+
+		List<List<String>> rows = parse(out.toString(), ',');
+		Assert.assertEquals(2, rows.size());
+		Assert.assertEquals(Arrays.asList("0", "-42", Integer.toString(Integer.MIN_VALUE),
+				Integer.toString(Integer.MAX_VALUE), "", "", "Role - a, b"), rows.get(0));
+		Assert.assertEquals(Arrays.asList("ID7", "last \"cell\""), rows.get(1));
+	}
+
+	/**
+	 * Tests that a cell which is larger than the cell buffer of the writer is
+	 * written unchanged
+	 */
+	@Test
+	public void largeCellTest() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			text.append("description ").append(i).append(i % 10 == 0 ? "\n" : "; \"");
+		}
+		StringWriter out = new StringWriter();
+		BufferedCSVWriter writer = new BufferedCSVWriter(out, ';');
+		writer.writeCell("UCA1.1");
+		writer.write(text.toString());
+		writer.newLine();
+		writer.close();
+
+		List<List<String>> rows = parse(out.toString(), ';');
+		Assert.assertEquals(1, rows.size());
+		Assert.assertEquals(Arrays.asList("UCA1.1", text.toString()), rows.get(0));
+	}
+
+	/**
+	 * parses the given csv text as it is defined by RFC 4180, each line ends
+	 * with a CRLF
+	 */
+	private static List<List<String>> parse(String csv, char separator) {
+		List<List<String>> rows = new ArrayList<>();
+		List<String> row = new ArrayList<>();
+		StringBuilder cell = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (i < csv.length()) {
+			char c = csv.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+					cell.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					cell.append(c);
+				}
+			} else if (c == '"') {
+				Assert.assertEquals("a quote must start a cell", 0, cell.length());
+				quoted = true;
+			} else if (c == separator) {
+				row.add(cell.toString());
+				cell.setLength(0);
+			} else if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+				row.add(cell.toString());
+				cell.setLength(0);
+				rows.add(row);
+				row = new ArrayList<>();
+				i++;
+			} else {
+				Assert.assertFalse("line breaks must be quoted", c == '\r' || c == '\n');
+				cell.append(c);
+			}
+			i++;
+		}
+		Assert.assertFalse("the last cell is not closed", quoted);
+		if (cell.length() > 0 || !row.isEmpty()) {
+			row.add(cell.toString());
+			rows.add(row);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,182 @@
+package astpa.test.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import xstampp.util.DocxStreamWriter;
+
+/**
+ * Tests that the {@link DocxStreamWriter} writes a valid docx package which
+ * contains the parts of the template
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class DocxStreamWriterTest {
+
+	private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+	/**
+	 * Writes paragraphs, a table with merged cells and a picture with the
+	 * default template and checks the parts of the package
+	 */
+	@Test
+	public void defaultTemplateTest() throws Exception {
+		byte[] image = new byte[] { 1, 2, 3 };
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DocxStreamWriter writer = new DocxStreamWriter(out, null)) {
+			writer.writeParagraph("Title & <Report>", new DocxStreamWriter.RunStyle().setBold(true).setFill("ff0000"),
+					DocxStreamWriter.ALIGN_CENTER);
+			writer.startParagraph(null);
+			writer.writeRun("first line\nsecond\tline\u0001", null);
+			writer.endParagraph();
+			writer.startTable(1000, 2000);
+			writer.startRow(true);
+			writer.writeCell("ID", "cccccc", null, null);
+			writer.writeCell("Name", "cccccc", null, null);
+			writer.endRow();
+			for (int i = 0; i < 3; i++) {
+				writer.startRow(false);
+				writer.startCell(null, i == 0 ? DocxStreamWriter.MERGE_RESTART : DocxStreamWriter.MERGE_CONTINUE);
+				writer.endCell();
+				writer.writeCell("row " + i, null, null, DocxStreamWriter.ALIGN_LEFT);
+				writer.endRow();
+			}
+			writer.endTable();
+			writer.writePicture(image, "png", 400, 200);
+		}
+		Map<String, byte[]> parts = unzip(out.toByteArray());
+		Assert.assertTrue(parts.containsKey("word/styles.xml"));
+		Assert.assertTrue(parts.containsKey("word/header1.xml"));
+		Assert.assertArrayEquals(image, parts.get("word/media/image1.png"));
+
+		Document document = parse(parts.get("word/document.xml"));
+		Element body = (Element) document.getElementsByTagNameNS(W_NS, "body").item(0);
+		Assert.assertTrue(body.getTextContent().contains("Title & <Report>"));
+		Assert.assertTrue(body.getTextContent().contains("first linesecondline"));
+		Assert.assertEquals(4, document.getElementsByTagNameNS(W_NS, "tr").getLength());
+		Assert.assertEquals(1, document.getElementsByTagNameNS(W_NS, "tblHeader").getLength());
+		Assert.assertEquals(3, document.getElementsByTagNameNS(W_NS, "vMerge").getLength());
+		// every cell must contain a paragraph
+		Assert.assertEquals(8, document.getElementsByTagNameNS(W_NS, "tc").getLength());
+		for (int i = 0; i < 8; i++) {
+			Element cell = (Element) document.getElementsByTagNameNS(W_NS, "tc").item(i);
+			Assert.assertEquals(1, cell.getElementsByTagNameNS(W_NS, "p").getLength());
+		}
+		// the section properties of the template are the last child of the body
+		Element section = (Element) body.getLastChild();
+		Assert.assertEquals("sectPr", section.getLocalName());
+		Assert.assertEquals(1, section.getElementsByTagNameNS(W_NS, "headerReference").getLength());
+
+		String rels = new String(parts.get("word/_rels/document.xml.rels"), StandardCharsets.UTF_8);
+		Assert.assertTrue(rels.contains("rIdHeader1"));
+		Assert.assertTrue(rels.contains("media/image1.png"));
+		String types = new String(parts.get("[Content_Types].xml"), StandardCharsets.UTF_8);
+		Assert.assertTrue(types.contains("Extension=\"png\""));
+		Assert.assertTrue(types.contains("/word/header1.xml"));
+	}
+
+	/**
+	 * Tests that the parts and the page settings of a template file are used
+	 * and that the content of the template body is replaced
+	 */
+	@Test
+	public void templateFileTest() throws Exception {
+		File template = File.createTempFile("template", ".docx");
+		try {
+			try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(template))) {
+				addEntry(zip, "[Content_Types].xml",
+						"<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+								+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+								+ "<Override PartName=\"/word/document.xml\" ContentType=\"template\"/>"
+								+ "<Override PartName=\"/word/footer2.xml\" ContentType=\"footer\"/></Types>");
+				addEntry(zip, "word/_rels/document.xml.rels",
+						"<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+								+ "<Relationship Id=\"rIdImage1\" Type=\"footer\" Target=\"footer2.xml\"/></Relationships>");
+				addEntry(zip, "word/footer2.xml", "<ftr/>");
+				addEntry(zip, "word/document.xml", "<x:document xmlns:x=\"" + W_NS + "\" "
+						+ "xmlns:rel=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+						+ "<x:body><x:p><x:r><x:t>template text</x:t></x:r></x:p><x:sectPr>"
+						+ "<x:footerReference x:type=\"default\" rel:id=\"rIdImage1\"/><x:pgSz x:w=\"16838\" x:h=\"11906\"/>"
+						+ "</x:sectPr></x:body></x:document>");
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (DocxStreamWriter writer = new DocxStreamWriter(out, template)) {
+				writer.writeParagraph("content", null, null);
+				writer.writePicture(new byte[] { 4 }, "jpg", 10, 10);
+			}
+			Map<String, byte[]> parts = unzip(out.toByteArray());
+			Assert.assertEquals("<ftr/>", new String(parts.get("word/footer2.xml"), StandardCharsets.UTF_8));
+			Assert.assertFalse(parts.containsKey("word/styles.xml"));
+
+			Document document = parse(parts.get("word/document.xml"));
+			Assert.assertEquals("content", document.getDocumentElement().getTextContent());
+			Element footer = (Element) document.getElementsByTagNameNS(W_NS, "footerReference").item(0);
+			Assert.assertEquals("rIdImage1", footer.getAttributeNS(
+					"http://schemas.openxmlformats.org/officeDocument/2006/relationships", "id"));
+			Element size = (Element) document.getElementsByTagNameNS(W_NS, "pgSz").item(0);
+			Assert.assertEquals("16838", size.getAttributeNS(W_NS, "w"));
+
+			// the image must not take the id of the template relationship
+			String rels = new String(parts.get("word/_rels/document.xml.rels"), StandardCharsets.UTF_8);
+			Assert.assertTrue(rels.contains("Target=\"footer2.xml\""));
+			Assert.assertTrue(rels.contains("Id=\"rIdImage1_\""));
+			String types = new String(parts.get("[Content_Types].xml"), StandardCharsets.UTF_8);
+			Assert.assertTrue(types.contains("ContentType=\"image/jpeg\""));
+			Assert.assertFalse(types.contains("ContentType=\"template\""));
+		} finally {
+			template.delete();
+		}
+	}
+
+	private static void addEntry(ZipOutputStream zip, String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(StandardCharsets.UTF_8));
+		zip.closeEntry();
+	}
+
+	private static Map<String, byte[]> unzip(byte[] docx) throws IOException {
+		Map<String, byte[]> parts = new HashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(docx))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				Assert.assertFalse("duplicate part " + entry.getName(), parts.containsKey(entry.getName()));
+				parts.put(entry.getName(), readAll(zip));
+			}
+		}
+		return parts;
+	}
+
+	private static byte[] readAll(InputStream stream) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int read;
+		while ((read = stream.read(buffer)) >= 0) {
+			data.write(buffer, 0, read);
+		}
+		return data.toByteArray();
+	}
+
+	private static Document parse(byte[] xml) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+	}
+}
@@ -0,0 +1,301 @@
+package astpa.test.export;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.fop.apps.Fop;
+import org.apache.fop.apps.FopFactory;
+import org.apache.xmlgraphics.util.MimeConstants;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+
+import xstampp.astpa.model.DataModelController;
+import xstampp.util.FopResources;
+
+/**
+ * Tests that the pdf stylesheets split large tables into several page
+ * sequences so that FOP only keeps a bounded number of pages in memory
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class LargeTableExportTest {
+
+	private static final String FO_NS = "http://www.w3.org/1999/XSL/Format";
+	private static final long MB = 1024 * 1024;
+
+	/**
+	 * Tests that a small uca table is rendered in one page sequence which
+	 * prints the total number of pages
+	 */
+	@Test
+	public void smallUcaTableTest() throws Exception {
+		Document fo = transform("/fopuca.xsl", createModel(10, 0), null);
+		NodeList sequences = fo.getElementsByTagNameNS(FO_NS, "page-sequence");
+		Assert.assertEquals(1, sequences.getLength());
+		Assert.assertEquals("total", ((Element) sequences.item(0)).getAttribute("id"));
+		Assert.assertEquals(1, fo.getElementsByTagNameNS(FO_NS, "page-number-citation-last").getLength());
+	}
+
+	/**
+	 * Tests that a large uca table is split into one page sequence for each
+	 * chunk of control actions and that each page sequence repeats the table
+	 * header
+	 */
+	@Test
+	public void largeUcaTableTest() throws Exception {
+		Document fo = transform("/fopuca.xsl", createModel(60, 0), "25");
+		NodeList sequences = fo.getElementsByTagNameNS(FO_NS, "page-sequence");
+		Assert.assertEquals(3, sequences.getLength());
+		// the number of pages is a forward reference which would keep all pages in memory
+		Assert.assertEquals(0, fo.getElementsByTagNameNS(FO_NS, "page-number-citation-last").getLength());
+		for (int i = 0; i < sequences.getLength(); i++) {
+			Element sequence = (Element) sequences.item(i);
+			Assert.assertTrue(sequence.getElementsByTagNameNS(FO_NS, "table-header").getLength() > 0);
+			String text = sequence.getTextContent();
+			Assert.assertTrue(text.contains("Control Action " + (i * 25)));
+			Assert.assertFalse(text.contains("Control Action " + ((i + 1) * 25)));
+		}
+	}
+
+	/**
+	 * Tests that a large context table is split into page sequences of at most
+	 * table.chunk.size rows
+	 */
+	@Test
+	public void largeContextTableTest() throws Exception {
+		Document fo = transform("/fopContextTable.xsl", createModel(1, 1000), "250");
+		NodeList sequences = fo.getElementsByTagNameNS(FO_NS, "page-sequence");
+		// 4 page sequences for the context provided and one for the context not provided
+		Assert.assertEquals(5, sequences.getLength());
+		Assert.assertEquals(0, fo.getElementsByTagNameNS(FO_NS, "page-number-citation-last").getLength());
+		for (int i = 0; i < sequences.getLength(); i++) {
+			Element sequence = (Element) sequences.item(i);
+			Assert.assertTrue(sequence.getElementsByTagNameNS(FO_NS, "table-header").getLength() > 0);
+			// the rows of the chunk and the empty first row of the table
+			Element flow = (Element) sequence.getElementsByTagNameNS(FO_NS, "flow").item(0);
+			Element body = (Element) flow.getElementsByTagNameNS(FO_NS, "table-body").item(0);
+			Assert.assertTrue(body.getElementsByTagNameNS(FO_NS, "table-row").getLength() <= 251);
+		}
+	}
+
+	/**
+	 * Tests that the report renders every section and each chunk of the uca
+	 * table in its own page sequence
+	 */
+	@Test
+	public void reportTest() throws Exception {
+		Document fo = transform("/fopxsl.xsl", createModel(60, 0), "25");
+		NodeList sequences = fo.getElementsByTagNameNS(FO_NS, "page-sequence");
+		// the front page, 12 sections and 3 chunks of the uca table
+		Assert.assertEquals(16, sequences.getLength());
+		Assert.assertEquals(0, fo.getElementsByTagNameNS(FO_NS, "page-number-citation-last").getLength());
+		int ucaSequences = 0;
+		for (int i = 0; i < sequences.getLength(); i++) {
+			Element sequence = (Element) sequences.item(i);
+			Assert.assertEquals("", sequence.getAttribute("id"));
+			if (sequence.getTextContent().contains("UCA ")) {
+				Assert.assertTrue(sequence.getElementsByTagNameNS(FO_NS, "table-header").getLength() > 0);
+				ucaSequences++;
+			}
+		}
+		Assert.assertEquals(3, ucaSequences);
+	}
+
+	/**
+	 * Tests that a report whose uca table is not split prints the total number
+	 * of pages, which is the last page of the last page sequence
+	 */
+	@Test
+	public void smallReportTest() throws Exception {
+		Document fo = transform("/fopxsl.xsl", createModel(10, 0), null);
+		NodeList sequences = fo.getElementsByTagNameNS(FO_NS, "page-sequence");
+		Assert.assertEquals(14, sequences.getLength());
+		Element last = (Element) sequences.item(sequences.getLength() - 1);
+		Assert.assertEquals("total", last.getAttribute("id"));
+		Assert.assertTrue(fo.getElementsByTagNameNS(FO_NS, "page-number-citation-last").getLength() > 0);
+	}
+
+	/**
+	 * Renders a context table with several thousand rows with FOP and samples
+	 * the heap after each page sequence, the retained heap must stay bounded
+	 * instead of growing with the number of rendered pages
+	 */
+	@Test
+	public void largeTableExportTest() throws Exception {
+		Transformer transformer = FopResources.newTransformer("/fopContextTable.xsl", DataModelController.class);
+		transformer.setParameter("page.layout", "A4");
+		FopFactory fopFactory = FopResources.getFopFactory();
+		Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, fopFactory.newFOUserAgent(), new NullStream());
+		String model = createModel(2, 2000);
+		HeapSampler sampler = new HeapSampler(fop.getDefaultHandler());
+		transformer.transform(new StreamSource(new StringReader(model)), new SAXResult(sampler));
+
+		Assert.assertTrue(fop.getResults().getPageCount() > 100);
+		Assert.assertTrue(sampler.samples > 10);
+		Assert.assertTrue("the export retained " + (sampler.max - sampler.baseline) / MB + " MB",
+				sampler.max - sampler.baseline < 64 * MB);
+		Assert.assertTrue("the retained heap grew by " + (sampler.max - sampler.first) / MB + " MB",
+				sampler.max - sampler.first < 16 * MB);
+	}
+
+	private static Document transform(String xsl, String model, String chunkSize) throws Exception {
+		Transformer transformer = FopResources.newTransformer(xsl, DataModelController.class);
+		transformer.setParameter("page.layout", "A4");
+		if (chunkSize != null) {
+			transformer.setParameter("uca.chunk.size", chunkSize);
+			transformer.setParameter("table.chunk.size", chunkSize);
+		}
+		DOMResult result = new DOMResult();
+		transformer.transform(new StreamSource(new StringReader(model)), result);
+		return (Document) result.getNode();
+	}
+
+	/**
+	 * creates the xml of a model with the given number of safety critical
+	 * control actions, each with one unsafe control action and the given number
+	 * of combinations in the context provided
+	 */
+	private static String createModel(int controlActions, int combinations) {
+		StringBuilder xml = new StringBuilder();
+		xml.append("<dataModelController><projectdata><projectName>Test</projectName></projectdata>");
+		xml.append("<cac><controlactions>");
+		for (int i = 0; i < controlActions; i++) {
+			xml.append("<controlaction><title>Control Action ").append(i).append("</title>");
+			xml.append("<isSafetyCritical>true</isSafetyCritical>");
+			xml.append("<dependenciesForProvided><variableName>variable</variableName></dependenciesForProvided>");
+			xml.append("<dependenciesForNotProvided><variableName>variable</variableName></dependenciesForNotProvided>");
+			xml.append("<PMCombisWhenProvided>");
+			for (int j = 0; j < combinations; j++) {
+				xml.append("<combinationOfPMValues><valueNames><name>value ").append(j);
+				xml.append("</name></valueNames><hazardousAnyTime>true</hazardousAnyTime></combinationOfPMValues>");
+			}
+			xml.append("</PMCombisWhenProvided><PMCombisWhenNotProvided><combinationOfPMValues>");
+			xml.append("<valueNames><name>value</name></valueNames><hazardous>true</hazardous>");
+			xml.append("</combinationOfPMValues></PMCombisWhenNotProvided>");
+			xml.append("<unsafecontrolactions><unsafecontrolaction><description>UCA ").append(i);
+			xml.append("</description><type>NOT_GIVEN</type></unsafecontrolaction></unsafecontrolactions>");
+			xml.append("</controlaction>");
+		}
+		xml.append("</controlactions></cac></dataModelController>");
+		return xml.toString();
+	}
+
+	/**
+	 * forwards the formatting objects to FOP and samples the used heap after a
+	 * garbage collection whenever a page sequence has been rendered
+	 */
+	private static class HeapSampler implements ContentHandler {
+		private final ContentHandler handler;
+		private final MemoryMXBean memory;
+		private final long baseline;
+		private long first;
+		private long max;
+		private int samples;
+
+		public HeapSampler(ContentHandler handler) {
+			this.handler = handler;
+			this.memory = ManagementFactory.getMemoryMXBean();
+			this.baseline = sample();
+			this.first = -1;
+		}
+
+		private long sample() {
+			System.gc();
+			return this.memory.getHeapMemoryUsage().getUsed();
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			this.handler.endElement(uri, localName, qName);
+			if (FO_NS.equals(uri) && "page-sequence".equals(localName)) {
+				long used = sample();
+				if (this.first < 0) {
+					this.first = used;
+				}
+				this.max = Math.max(this.max, used);
+				this.samples++;
+			}
+		}
+
+		@Override
+		public void setDocumentLocator(Locator locator) {
+			this.handler.setDocumentLocator(locator);
+		}
+
+		@Override
+		public void startDocument() throws SAXException {
+			this.handler.startDocument();
+		}
+
+		@Override
+		public void endDocument() throws SAXException {
+			this.handler.endDocument();
+		}
+
+		@Override
+		public void startPrefixMapping(String prefix, String uri) throws SAXException {
+			this.handler.startPrefixMapping(prefix, uri);
+		}
+
+		@Override
+		public void endPrefixMapping(String prefix) throws SAXException {
+			this.handler.endPrefixMapping(prefix);
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes atts)
+				throws SAXException {
+			this.handler.startElement(uri, localName, qName, atts);
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException {
+			this.handler.characters(ch, start, length);
+		}
+
+		@Override
+		public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+			this.handler.ignorableWhitespace(ch, start, length);
+		}
+
+		@Override
+		public void processingInstruction(String target, String data) throws SAXException {
+			this.handler.processingInstruction(target, data);
+		}
+
+		@Override
+		public void skippedEntity(String name) throws SAXException {
+			this.handler.skippedEntity(name);
+		}
+	}
+
+	/**
+	 * discards the rendered document
+	 */
+	private static class NullStream extends OutputStream {
+		@Override
+		public void write(int b) {
+			// the document is not needed
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// the document is not needed
+		}
+	}
+}
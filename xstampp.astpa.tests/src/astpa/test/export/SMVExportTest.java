@@ -0,0 +1,153 @@
+package astpa.test.export;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.model.controlstructure.components.ComponentType;
+import xstampp.astpa.model.interfaces.IExtendedDataModel.ScenarioType;
+import xstampp.astpa.util.jobs.SMVExportJob;
+import xstampp.model.AbstractLtlProviderData;
+import xstampp.model.IValueCombie;
+
+/**
+ * Tests the SMV module which is written by the {@link SMVExportJob}
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class SMVExportTest {
+
+	private DataModelController controller;
+	private UUID processModel;
+	private UUID controlAction;
+	private File smvFile;
+
+	@Before
+	public void setUp() throws Exception {
+		this.controller = new DataModelController();
+		UUID root = this.controller.setRoot(new Rectangle(), "root");
+		UUID component = this.controller.addComponent(root, new Rectangle(), "Controller",
+				ComponentType.CONTROLLER, -1);
+		this.processModel = this.controller.addComponent(component, new Rectangle(), "Process Model",
+				ComponentType.PROCESS_MODEL, -1);
+		addVariable("mode", "on", "off");
+		addVariable("level", "<5", ">5", "5");
+		this.controlAction = this.controller.addControlAction("Start Pump", "");
+		this.controller.addControlAction("Stop Pump", "");
+		this.smvFile = File.createTempFile("model", ".smv");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.smvFile.delete();
+	}
+
+	/**
+	 * Tests that the variables are declared as enumerations and that comparisons
+	 * are translated into comparisons of enumeration constants
+	 */
+	@Test
+	public void moduleTest() throws Exception {
+		AbstractLtlProviderData data = new AbstractLtlProviderData();
+		data.setLtl("[] (((mode==on)&&(level<5)) -> !((controlAction==StartPump)))");
+		this.controller.addRuleEntry(ScenarioType.BASIC_SCENARIO, data, this.controlAction,
+				IValueCombie.TYPE_ANYTIME);
+
+		Assert.assertEquals(IStatus.OK, export().getSeverity());
+		String module = new String(Files.readAllBytes(this.smvFile.toPath()), StandardCharsets.UTF_8);
+		Assert.assertTrue(module.contains("MODULE main"));
+		Assert.assertTrue(module.contains("  mode : {on, off};"));
+		Assert.assertTrue(module.contains("  level : {lt_5, gt_5, 5};"));
+		Assert.assertTrue(module.contains("  controlAction : {none, StartPump, StopPump};"));
+		Assert.assertTrue(module.contains(
+				"LTLSPEC G (((mode = on) & (level = lt_5)) -> !((controlAction = StartPump)))"));
+		// enumeration constants can only be compared for equality
+		Assert.assertFalse(module.contains("<"));
+		Assert.assertFalse(module.contains(">5"));
+		Assert.assertEquals(0, this.smvFile.getParentFile().listFiles(new TempFileFilter()).length);
+	}
+
+	/**
+	 * Tests that the export fails without touching the existing file if two
+	 * variables have the same identifier
+	 */
+	@Test
+	public void nameClashTest() throws Exception {
+		addVariable("mode ", "on");
+		Files.write(this.smvFile.toPath(), "old".getBytes(StandardCharsets.UTF_8));
+
+		IStatus status = export();
+		Assert.assertEquals(IStatus.ERROR, status.getSeverity());
+		Assert.assertTrue(status.getMessage().contains("mode"));
+		Assert.assertEquals("old", new String(Files.readAllBytes(this.smvFile.toPath()), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Tests that a value which has the name of a variable is reported as a
+	 * clash
+	 */
+	@Test
+	public void constantClashTest() throws Exception {
+		addVariable("on", "true", "false");
+		Assert.assertEquals(IStatus.ERROR, export().getSeverity());
+	}
+
+	/**
+	 * Tests that names which are keywords of SMV are escaped in the declarations and the formulas
+	 * and that an escaped name clashes with a name which already has the suffix
+	 */
+	@Test
+	public void reservedWordTest() throws Exception {
+		addVariable("next", "TRUE", "FALSE");
+		AbstractLtlProviderData data = new AbstractLtlProviderData();
+		data.setLtl("[] ((next==TRUE) -> !((controlAction==StartPump)))");
+		this.controller.addRuleEntry(ScenarioType.BASIC_SCENARIO, data, this.controlAction,
+				IValueCombie.TYPE_ANYTIME);
+
+		Assert.assertEquals(IStatus.OK, export().getSeverity());
+		String module = new String(Files.readAllBytes(this.smvFile.toPath()), StandardCharsets.UTF_8);
+		Assert.assertTrue(module.contains("  next_ : {TRUE_, FALSE_};"));
+		Assert.assertTrue(module.contains("LTLSPEC G ((next_ = TRUE_) -> !((controlAction = StartPump)))"));
+
+		addVariable("next_", "on");
+		IStatus status = export();
+		Assert.assertEquals(IStatus.ERROR, status.getSeverity());
+		Assert.assertTrue(status.getMessage().contains("next_"));
+	}
+
+	private IStatus export() throws InterruptedException {
+		SMVExportJob job = new SMVExportJob("SMV", this.smvFile.getPath(), this.controller);
+		job.schedule();
+		job.join();
+		return job.getResult();
+	}
+
+	private void addVariable(String name, String... values) {
+		UUID variable = this.controller.addComponent(this.processModel, new Rectangle(), name,
+				ComponentType.PROCESS_VARIABLE, -1);
+		for (String value : values) {
+			this.controller.addComponent(variable, new Rectangle(), value, ComponentType.PROCESS_VALUE, -1);
+		}
+	}
+
+	/**
+	 * accepts the temporary files of the export of the test file
+	 */
+	private class TempFileFilter implements java.io.FileFilter {
+		@Override
+		public boolean accept(File file) {
+			return file.getName().startsWith(SMVExportTest.this.smvFile.getName())
+					&& file.getName().endsWith(".tmp");
+		}
+	}
+}
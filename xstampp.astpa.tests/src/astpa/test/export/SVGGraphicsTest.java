@@ -0,0 +1,166 @@
+package astpa.test.export;
+
+import java.io.ByteArrayInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import xstampp.astpa.controlstructure.utilities.SVGGraphics;
+
+/**
+ * Paints primitives, texts and clipped content with the {@link SVGGraphics}
+ * and tests that the parsed svg document contains the painted elements
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class SVGGraphicsTest {
+
+	private static final String SVG_NS = "http://www.w3.org/2000/svg";
+
+	/**
+	 * Tests that lines, rectangles, ovals and polylines are written with their
+	 * coordinates, colors and line style
+	 */
+	@Test
+	public void primitivesTest() throws Exception {
+		SVGGraphics graphics = new SVGGraphics(200, 100);
+		graphics.setForegroundColor(Display.getDefault().getSystemColor(SWT.COLOR_RED));
+		graphics.setBackgroundColor(Display.getDefault().getSystemColor(SWT.COLOR_BLUE));
+		graphics.drawLine(0, 0, 10, 20);
+		graphics.fillRectangle(5, 5, 20, 10);
+		graphics.drawOval(10, 10, 40, 20);
+		graphics.setLineStyle(SWT.LINE_DASH);
+		graphics.setLineWidth(2);
+		graphics.drawPolyline(new PointList(new int[] { 0, 0, 10, 0, 10, 10 }));
+		graphics.dispose();
+
+		Document svg = parse(graphics);
+		Element root = svg.getDocumentElement();
+		Assert.assertEquals("200", root.getAttribute("width"));
+		Assert.assertEquals("100", root.getAttribute("height"));
+
+		Element line = element(svg, "line", 0);
+		Assert.assertEquals("10", line.getAttribute("x2"));
+		Assert.assertEquals("20", line.getAttribute("y2"));
+		Assert.assertEquals("#ff0000", line.getAttribute("stroke"));
+
+		Element rect = element(svg, "rect", 0);
+		Assert.assertEquals("#0000ff", rect.getAttribute("fill"));
+		Assert.assertEquals("20", rect.getAttribute("width"));
+
+		Element ellipse = element(svg, "ellipse", 0);
+		Assert.assertEquals("30", ellipse.getAttribute("cx"));
+		Assert.assertEquals("20", ellipse.getAttribute("rx"));
+		Assert.assertEquals("none", ellipse.getAttribute("fill"));
+
+		Element polyline = element(svg, "polyline", 0);
+		Assert.assertEquals("0,0 10,0 10,10", polyline.getAttribute("points"));
+		Assert.assertEquals("2", polyline.getAttribute("stroke-width"));
+		// the dash pattern is scaled by the line width
+		Assert.assertEquals("36 12", polyline.getAttribute("stroke-dasharray"));
+	}
+
+	/**
+	 * Tests that texts are escaped and split into lines and that the
+	 * translation is written as transformation of the element
+	 */
+	@Test
+	public void textTest() throws Exception {
+		SVGGraphics graphics = new SVGGraphics(200, 100);
+		graphics.translate(5, 7);
+		graphics.drawString("a<b & \"c\"", 0, 0);
+		graphics.drawText("one\ntwo", 0, 20);
+
+		Document svg = parse(graphics);
+		NodeList texts = svg.getElementsByTagNameNS(SVG_NS, "text");
+		Assert.assertEquals(3, texts.getLength());
+		Element text = (Element) texts.item(0);
+		Assert.assertEquals("a<b & \"c\"", text.getTextContent());
+		Assert.assertEquals("matrix(1 0 0 1 5 7)", text.getAttribute("transform"));
+		Assert.assertEquals("one", texts.item(1).getTextContent());
+		Assert.assertEquals("two", texts.item(2).getTextContent());
+		int first = Integer.parseInt(((Element) texts.item(1)).getAttribute("y"));
+		int second = Integer.parseInt(((Element) texts.item(2)).getAttribute("y"));
+		Assert.assertTrue(first < second);
+	}
+
+	/**
+	 * Tests that clipped elements are grouped with a clip path in document
+	 * coordinates and that the clip is restored by popState
+	 */
+	@Test
+	public void clipTest() throws Exception {
+		SVGGraphics graphics = new SVGGraphics(200, 100);
+		graphics.pushState();
+		graphics.clipRect(new Rectangle(10, 10, 50, 50));
+		graphics.translate(5, 5);
+		Assert.assertEquals(new Rectangle(5, 5, 50, 50), graphics.getClip(new Rectangle()));
+		graphics.drawRectangle(0, 0, 100, 100);
+		graphics.popState();
+		Assert.assertEquals(new Rectangle(0, 0, 200, 100), graphics.getClip(new Rectangle()));
+		graphics.drawLine(0, 0, 200, 100);
+
+		Document svg = parse(graphics);
+		Element clipped = (Element) element(svg, "rect", 0).getParentNode();
+		Element unclipped = (Element) element(svg, "line", 0).getParentNode();
+		Element clip = clipPath(svg, clipped);
+		Assert.assertEquals("10", clip.getAttribute("x"));
+		Assert.assertEquals("10", clip.getAttribute("y"));
+		Assert.assertEquals("50", clip.getAttribute("width"));
+		Assert.assertEquals("50", clip.getAttribute("height"));
+		clip = clipPath(svg, unclipped);
+		Assert.assertEquals("200", clip.getAttribute("width"));
+		Assert.assertEquals("100", clip.getAttribute("height"));
+	}
+
+	private static Document parse(SVGGraphics graphics) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(graphics.toByteArray()));
+	}
+
+	/**
+	 * @return the painted element with the given name and index, the elements
+	 *         which define the clip paths are skipped
+	 */
+	private static Element element(Document svg, String name, int index) {
+		NodeList elements = svg.getElementsByTagNameNS(SVG_NS, name);
+		int count = 0;
+		for (int i = 0; i < elements.getLength(); i++) {
+			if (!"clipPath".equals(elements.item(i).getParentNode().getLocalName()) && count++ == index) {
+				return (Element) elements.item(i);
+			}
+		}
+		Assert.fail("no " + name + " element with the index " + index);
+		return null;
+	}
+
+	/**
+	 * @return the rectangle of the clip path the given group refers to
+	 */
+	private static Element clipPath(Document svg, Element group) {
+		Assert.assertEquals("g", group.getLocalName());
+		String reference = group.getAttribute("clip-path");
+		Assert.assertTrue(reference.startsWith("url(#"));
+		String id = reference.substring(5, reference.length() - 1);
+		NodeList clipPaths = svg.getElementsByTagNameNS(SVG_NS, "clipPath");
+		for (int i = 0; i < clipPaths.getLength(); i++) {
+			Element clipPath = (Element) clipPaths.item(i);
+			if (id.equals(clipPath.getAttribute("id"))) {
+				return (Element) clipPath.getElementsByTagNameNS(SVG_NS, "rect").item(0);
+			}
+		}
+		Assert.fail("no clip path with the id " + id);
+		return null;
+	}
+}
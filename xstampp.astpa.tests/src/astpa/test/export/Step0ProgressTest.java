@@ -0,0 +1,70 @@
+package astpa.test.export;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Test;
+
+import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.util.jobs.statistics.Step0Progress;
+import xstampp.model.ObserverValue;
+
+/**
+ * Tests the progress sheet of the hazards, accidents and safety constraints
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class Step0ProgressTest {
+
+	/**
+	 * Tests that the completion of a hazard is not overwritten by the cells of
+	 * its accidents and safety constraints
+	 */
+	@Test
+	public void hazardProgressTest() throws Exception {
+		DataModelController model = new DataModelController();
+		// a hazard with two accidents which both have a safety constraint
+		UUID complete = model.addHazard("Hazard 1", "complete");
+		UUID acc1 = model.addAccident("Accident 1", "");
+		UUID acc2 = model.addAccident("Accident 2", "");
+		model.addLink(acc1, complete);
+		model.addLink(acc2, complete);
+		model.getLinkController().addLink(ObserverValue.ACC_S0_LINK, acc1,
+				model.addSafetyConstraint("Constraint 1", ""));
+		model.getLinkController().addLink(ObserverValue.ACC_S0_LINK, acc2,
+				model.addSafetyConstraint("Constraint 2", ""));
+		// a hazard with one accident without safety constraints and one with a safety constraint
+		UUID half = model.addHazard("Hazard 2", "half");
+		UUID acc3 = model.addAccident("Accident 3", "");
+		model.addLink(acc3, half);
+		model.addLink(acc1, half);
+		// a hazard without accidents
+		UUID empty = model.addHazard("Hazard 3", "empty");
+
+		try (XSSFWorkbook wb = new XSSFWorkbook()) {
+			new Step0Progress(wb, model).createStep1Sheet();
+			Sheet sheet = wb.getSheetAt(0);
+			Map<String, String> completion = new HashMap<>();
+			for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+				Row row = sheet.getRow(i);
+				String id = row.getCell(0).getStringCellValue();
+				if (!id.isEmpty()) {
+					completion.put(id, row.getCell(8).getStringCellValue());
+				}
+			}
+			Assert.assertEquals(3, completion.size());
+			Assert.assertEquals(String.format("%.1f", 100f) + "%",
+					completion.get(model.getHazard(complete).getIdString()));
+			Assert.assertEquals(String.format("%.1f", 50f) + "%",
+					completion.get(model.getHazard(half).getIdString()));
+			Assert.assertEquals(String.format("%.1f", 0f) + "%",
+					completion.get(model.getHazard(empty).getIdString()));
+		}
+	}
+}
@@ -4,12 +4,14 @@ import static org.junit.Assert.*;
 
 import java.util.UUID;
 
+import org.eclipse.draw2d.geometry.Rectangle;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.model.controlstructure.components.ComponentType;
 import xstampp.astpa.model.extendedData.interfaces.IExtendedDataController;
 import xstampp.astpa.model.interfaces.IExtendedDataModel;
 import xstampp.astpa.model.interfaces.IExtendedDataModel.ScenarioType;
@@ -49,4 +51,27 @@ public class ExtendedDataModelTest {
     
   }
 
+  /**
+   * Tests that the versions of the control structure and the control actions are only increased
+   * by changes which affect the context tables
+   */
+  @Test
+  public void versionTest() {
+    DataModelController controller = (DataModelController) dataModel;
+    UUID root = controller.setRoot(new Rectangle(), "root");
+    UUID component = controller.addComponent(root, new Rectangle(0, 0, 10, 10), "Controller",
+        ComponentType.CONTROLLER, -1);
+    int structureVersion = controller.getControlStructureVersion();
+    controller.changeComponentLayout(component, new Rectangle(10, 10, 10, 10), true);
+    Assert.assertEquals(structureVersion, controller.getControlStructureVersion());
+    controller.changeComponentText(component, "Renamed");
+    Assert.assertTrue(structureVersion < controller.getControlStructureVersion());
+
+    UUID other = controller.addControlAction("Control Action 2", "");
+    int version = controller.getControlActionVersion(controlAction);
+    controller.setCASafetyCritical(controlAction, true);
+    Assert.assertTrue(version < controller.getControlActionVersion(controlAction));
+    Assert.assertEquals(0, controller.getControlActionVersion(other));
+  }
+
 }
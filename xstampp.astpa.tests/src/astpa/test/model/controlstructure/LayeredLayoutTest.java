@@ -0,0 +1,135 @@
+package astpa.test.model.controlstructure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import xstampp.astpa.model.controlstructure.LayeredLayout;
+import xstampp.astpa.model.controlstructure.components.ComponentType;
+import xstampp.astpa.model.controlstructure.components.ConnectionType;
+
+/**
+ * Tests that the {@link LayeredLayout} places the components of a control
+ * structure in their hierarchy without overlapping them
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class LayeredLayoutTest {
+
+	/**
+	 * Tests a control loop in which the components are placed in the wrong
+	 * order and the feedback is drawn as a simple arrow
+	 */
+	@Test
+	public void controlLoopTest() {
+		UUID controller = UUID.randomUUID();
+		UUID actuator = UUID.randomUUID();
+		UUID sensor = UUID.randomUUID();
+		UUID process = UUID.randomUUID();
+		UUID text = UUID.randomUUID();
+		LayeredLayout layout = new LayeredLayout();
+		layout.addComponent(process, ComponentType.CONTROLLED_PROCESS, new Rectangle(0, 0, 150, 60));
+		layout.addComponent(sensor, ComponentType.SENSOR, new Rectangle(0, 0, 100, 40));
+		layout.addComponent(controller, ComponentType.CONTROLLER, new Rectangle(0, 500, 120, 60));
+		layout.addComponent(actuator, ComponentType.ACTUATOR, new Rectangle(300, 0, 100, 40));
+		layout.addComponent(text, ComponentType.TEXTFIELD, new Rectangle(0, 0, -1, -1));
+		layout.addConnection(controller, actuator, ConnectionType.ARROW_SIMPLE);
+		layout.addConnection(actuator, process, ConnectionType.ARROW_SIMPLE);
+		layout.addConnection(process, sensor, ConnectionType.ARROW_SIMPLE);
+		layout.addConnection(sensor, controller, ConnectionType.ARROW_SIMPLE);
+		// connections to unknown components are ignored
+		layout.addConnection(sensor, UUID.randomUUID(), ConnectionType.ARROW_SIMPLE);
+
+		Map<UUID, Rectangle> result = layout.compute(100);
+		Assert.assertEquals(5, result.size());
+		Assert.assertTrue(result.get(controller).bottom() < result.get(actuator).y);
+		Assert.assertTrue(result.get(controller).bottom() < result.get(sensor).y);
+		Assert.assertTrue(result.get(actuator).bottom() < result.get(process).y);
+		Assert.assertTrue(result.get(sensor).bottom() < result.get(process).y);
+		// the size of the components is kept
+		Assert.assertEquals(150, result.get(process).width);
+		Assert.assertEquals(-1, result.get(text).width);
+		assertNoOverlaps(result);
+	}
+
+	/**
+	 * Tests that a dashed arrow is placed as a feedback from the lower to the
+	 * upper component
+	 */
+	@Test
+	public void feedbackTest() {
+		UUID upper = UUID.randomUUID();
+		UUID lower = UUID.randomUUID();
+		LayeredLayout layout = new LayeredLayout();
+		layout.addComponent(upper, ComponentType.ACTUATOR, new Rectangle(0, 0, 100, 40));
+		layout.addComponent(lower, ComponentType.ACTUATOR, new Rectangle(0, 0, 100, 40));
+		layout.addConnection(lower, upper, ConnectionType.ARROW_DASHED);
+
+		Map<UUID, Rectangle> result = layout.compute(100);
+		Assert.assertTrue(result.get(upper).bottom() < result.get(lower).y);
+	}
+
+	/**
+	 * Lays out a hierarchy of 125 control loops with 500 components and tests
+	 * that it is computed in less than a second
+	 */
+	@Test
+	public void largeStructureTest() {
+		Random random = new Random(0);
+		LayeredLayout layout = new LayeredLayout();
+		List<UUID> controllers = new ArrayList<>();
+		for (int i = 0; i < 125; i++) {
+			UUID controller = UUID.randomUUID();
+			UUID actuator = UUID.randomUUID();
+			UUID sensor = UUID.randomUUID();
+			UUID process = UUID.randomUUID();
+			layout.addComponent(controller, ComponentType.CONTROLLER, randomLayout(random));
+			layout.addComponent(actuator, ComponentType.ACTUATOR, randomLayout(random));
+			layout.addComponent(sensor, ComponentType.SENSOR, randomLayout(random));
+			layout.addComponent(process, ComponentType.CONTROLLED_PROCESS, randomLayout(random));
+			layout.addConnection(controller, actuator, ConnectionType.ARROW_SIMPLE);
+			layout.addConnection(actuator, process, ConnectionType.ARROW_SIMPLE);
+			layout.addConnection(process, sensor, ConnectionType.ARROW_SIMPLE);
+			layout.addConnection(sensor, controller, ConnectionType.ARROW_DASHED);
+			if (!controllers.isEmpty()) {
+				UUID parent = controllers.get(random.nextInt(controllers.size()));
+				layout.addConnection(parent, controller, ConnectionType.ARROW_SIMPLE);
+				layout.addConnection(controller, parent, ConnectionType.ARROW_DASHED);
+			}
+			controllers.add(controller);
+		}
+
+		long start = System.currentTimeMillis();
+		Map<UUID, Rectangle> result = layout.compute(500);
+		Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+		Assert.assertEquals(500, result.size());
+		assertNoOverlaps(result);
+	}
+
+	private static Rectangle randomLayout(Random random) {
+		return new Rectangle(random.nextInt(3000), random.nextInt(3000), 80 + random.nextInt(80),
+				40 + random.nextInt(40));
+	}
+
+	private static void assertNoOverlaps(Map<UUID, Rectangle> result) {
+		List<Rectangle> layouts = new ArrayList<>(result.values());
+		for (int i = 0; i < layouts.size(); i++) {
+			Assert.assertTrue(layouts.get(i).x >= 0 && layouts.get(i).y >= 0);
+			for (int j = i + 1; j < layouts.size(); j++) {
+				Rectangle first = layouts.get(i);
+				Rectangle second = layouts.get(j);
+				Assert.assertFalse(first.x < second.x + Math.max(second.width, 1)
+						&& second.x < first.x + Math.max(first.width, 1)
+						&& first.y < second.y + Math.max(second.height, 1)
+						&& second.y < first.y + Math.max(first.height, 1));
+			}
+		}
+	}
+}
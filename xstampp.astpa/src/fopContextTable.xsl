@@ -20,6 +20,9 @@
 	<xsl:param name="header.omit" select="false" />
 	<xsl:param name="page.layout" select="A4" />
 	<xsl:param name="page.title" select="''" />
+	<!-- the number of rows of a context table which are rendered in one page sequence, FOP keeps
+		only the pages of the current page sequence in memory -->
+	<xsl:param name="table.chunk.size" select="250" />
 
 	<xsl:template match="/*">
 		<fo:root>
@@ -27,76 +30,144 @@
 			<fo:layout-master-set>
 				<xsl:call-template name="layout" />
 			</fo:layout-master-set>
-			<fo:page-sequence white-space-collapse="true" id="total">
-				<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
-				<fo:static-content flow-name="xsl-region-before">
-					<xsl:call-template name="astpaHead">
-						<xsl:with-param name="pdfTitle" select="$page.title" />
-					</xsl:call-template>
-				</fo:static-content>
-
-				<!-- Footer-Block -->
-				<fo:static-content flow-name="xsl-region-after">
-					<xsl:call-template name="astpaFooter" />
-				</fo:static-content>
-
-				<fo:flow flow-name="xsl-region-body">
+			<!-- the safety critical control actions are selected in each for-each as xalan iterates a
+				node-set variable several times after it has been used in a location path -->
+			<xsl:variable name="rowCount"
+				select="count(cac/controlactions/controlaction[isSafetyCritical = 'true']/PMCombisWhenProvided/combinationOfPMValues[valueNames/name])
+					+ count(cac/controlactions/controlaction[isSafetyCritical = 'true']/PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name])" />
+			<xsl:choose>
+				<xsl:when test="$table.chunk.size &lt;= 0 or $rowCount &lt;= $table.chunk.size">
+					<fo:page-sequence white-space-collapse="true" id="total">
+						<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
+						<xsl:call-template name="astpaStaticContent">
+							<xsl:with-param name="pdfTitle" select="$page.title" />
+						</xsl:call-template>
 
-					<!-- *************** Context Table Template *************** -->
-					<fo:block>
-						<xsl:variable name="contentSize">
-							<xsl:attribute name="select">7</xsl:attribute>
-						</xsl:variable>
-						<xsl:for-each
-							select="cac/controlactions/controlaction[isSafetyCritical = 'true']">
-							<xsl:choose>
-								<!-- ################### Context Table Template ################### -->
-								<xsl:when
-									test="dependenciesForProvided/variableName and PMCombisWhenProvided/combinationOfPMValues[valueNames/name]">
-									<fo:block space-after="5pt" page-break-after="avoid">
+						<fo:flow flow-name="xsl-region-body">
 
-										<xsl:attribute name="font-size"><xsl:value-of
-											select="$title.size" />pt</xsl:attribute>
-										Context Table of control action
-										<xsl:value-of select="$contentSize" />
-										in context provided
-									</fo:block>
-									<fo:block text-align="center" page-break-after="always">
-										<xsl:call-template name="contextProvidedTable">
-											<xsl:with-param name="varSize" select="$text.size" />
-											<xsl:with-param name="headSize" select="$table.head.size" />
-											<xsl:with-param name="omitHeader" select="$header.omit" />
+							<!-- *************** Context Table Template *************** -->
+							<fo:block>
+								<xsl:for-each
+									select="cac/controlactions/controlaction[isSafetyCritical = 'true']">
+									<xsl:if
+										test="dependenciesForProvided/variableName and PMCombisWhenProvided/combinationOfPMValues[valueNames/name]">
+										<xsl:call-template name="contextTableBlock">
+											<xsl:with-param name="provided" select="true()" />
+											<xsl:with-param name="rows"
+												select="PMCombisWhenProvided/combinationOfPMValues[valueNames/name]" />
 										</xsl:call-template>
-									</fo:block>
-								</xsl:when>
-							</xsl:choose>
-							<xsl:choose>
-								<xsl:when
-									test="dependenciesForNotProvided/variableName and PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]">
-									<fo:block space-after="5pt" page-break-after="avoid">
-
-										<xsl:attribute name="font-size"><xsl:value-of
-											select="$title.size" />pt</xsl:attribute>
-										Context Table of control action
-										<xsl:value-of select="title" />
-										in context not provided
-									</fo:block>
-									<fo:block text-align="center" page-break-after="always">
-										<xsl:call-template name="contextNOTProvidedTable">
-											<xsl:with-param name="varSize" select="$text.size" />
-											<xsl:with-param name="headSize" select="$table.head.size" />
-											<xsl:with-param name="omitHeader" select="$header.omit" />
+									</xsl:if>
+									<xsl:if
+										test="dependenciesForNotProvided/variableName and PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]">
+										<xsl:call-template name="contextTableBlock">
+											<xsl:with-param name="provided" select="false()" />
+											<xsl:with-param name="rows"
+												select="PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]" />
 										</xsl:call-template>
-									</fo:block>
-								</xsl:when>
-							</xsl:choose>
-						</xsl:for-each>
-					</fo:block>
-				</fo:flow>
-			</fo:page-sequence>
+									</xsl:if>
+								</xsl:for-each>
+							</fo:block>
+						</fo:flow>
+					</fo:page-sequence>
+				</xsl:when>
+				<xsl:otherwise>
+					<!-- each context table is split into page sequences of table.chunk.size rows, the table
+						header is repeated in each page sequence -->
+					<xsl:for-each
+						select="cac/controlactions/controlaction[isSafetyCritical = 'true']">
+						<xsl:if
+							test="dependenciesForProvided/variableName and PMCombisWhenProvided/combinationOfPMValues[valueNames/name]">
+							<xsl:call-template name="contextPageSequences">
+								<xsl:with-param name="provided" select="true()" />
+								<xsl:with-param name="rows"
+									select="PMCombisWhenProvided/combinationOfPMValues[valueNames/name]" />
+							</xsl:call-template>
+						</xsl:if>
+						<xsl:if
+							test="dependenciesForNotProvided/variableName and PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]">
+							<xsl:call-template name="contextPageSequences">
+								<xsl:with-param name="provided" select="false()" />
+								<xsl:with-param name="rows"
+									select="PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]" />
+							</xsl:call-template>
+						</xsl:if>
+					</xsl:for-each>
+				</xsl:otherwise>
+			</xsl:choose>
 		</fo:root>
 	</xsl:template>
 
+	<!-- ################### Page sequences of one Context-Table ################### -->
+	<!-- creates a page sequence for the rows from index start to start + table.chunk.size and calls
+		itself for the remaining rows -->
+	<xsl:template name="contextPageSequences">
+		<xsl:param name="provided" select="true()" />
+		<xsl:param name="rows" />
+		<xsl:param name="start" select="0" />
+		<fo:page-sequence white-space-collapse="true">
+			<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
+			<xsl:call-template name="astpaStaticContent">
+				<xsl:with-param name="pdfTitle" select="$page.title" />
+				<xsl:with-param name="showTotal" select="false()" />
+			</xsl:call-template>
+			<fo:flow flow-name="xsl-region-body">
+				<xsl:call-template name="contextTableBlock">
+					<xsl:with-param name="provided" select="$provided" />
+					<xsl:with-param name="rows"
+						select="$rows[position() &gt; $start and position() &lt;= $start + $table.chunk.size]" />
+					<xsl:with-param name="showTitle" select="$start = 0" />
+				</xsl:call-template>
+			</fo:flow>
+		</fo:page-sequence>
+		<xsl:if test="count($rows) &gt; $start + $table.chunk.size">
+			<xsl:call-template name="contextPageSequences">
+				<xsl:with-param name="provided" select="$provided" />
+				<xsl:with-param name="rows" select="$rows" />
+				<xsl:with-param name="start" select="$start + $table.chunk.size" />
+			</xsl:call-template>
+		</xsl:if>
+	</xsl:template>
+
+	<!-- ################### Title and Context-Table of a control action ################### -->
+	<xsl:template name="contextTableBlock">
+		<xsl:param name="provided" select="true()" />
+		<xsl:param name="rows" />
+		<xsl:param name="showTitle" select="true()" />
+		<xsl:if test="$showTitle">
+			<fo:block space-after="5pt" page-break-after="avoid">
+
+				<xsl:attribute name="font-size"><xsl:value-of
+					select="$title.size" />pt</xsl:attribute>
+				Context Table of control action
+				<xsl:value-of select="title" />
+				<xsl:choose>
+					<xsl:when test="$provided"><xsl:text> in context provided</xsl:text></xsl:when>
+					<xsl:otherwise><xsl:text> in context not provided</xsl:text></xsl:otherwise>
+				</xsl:choose>
+			</fo:block>
+		</xsl:if>
+		<fo:block text-align="center" page-break-after="always">
+			<xsl:choose>
+				<xsl:when test="$provided">
+					<xsl:call-template name="contextProvidedTable">
+						<xsl:with-param name="varSize" select="$text.size" />
+						<xsl:with-param name="headSize" select="$table.head.size" />
+						<xsl:with-param name="omitHeader" select="$header.omit" />
+						<xsl:with-param name="rows" select="$rows" />
+					</xsl:call-template>
+				</xsl:when>
+				<xsl:otherwise>
+					<xsl:call-template name="contextNOTProvidedTable">
+						<xsl:with-param name="varSize" select="$text.size" />
+						<xsl:with-param name="headSize" select="$table.head.size" />
+						<xsl:with-param name="omitHeader" select="$header.omit" />
+						<xsl:with-param name="rows" select="$rows" />
+					</xsl:call-template>
+				</xsl:otherwise>
+			</xsl:choose>
+		</fo:block>
+	</xsl:template>
+
 
 	<!-- ################### Context-Table ################### -->
 	<xsl:template name="contextProvidedTable">
@@ -104,6 +175,9 @@
 		<xsl:param name="headSize" select="14" />
 		<xsl:param name="caTitle" select="title" />
 		<xsl:param name="omitHeader" select="false" />
+		<!-- the combinations which are listed in this table -->
+		<xsl:param name="rows"
+			select="PMCombisWhenProvided/combinationOfPMValues[valueNames/name]" />
 		<fo:table border="none" space-after="30pt">
 			<xsl:variable name="columns"
 				select="count(dependenciesForProvided/variableName)+4" />
@@ -184,8 +258,7 @@
 				<xsl:choose>
 					<!-- Checks whether some hazards are defined -->
 					<xsl:when test="PMCombisWhenProvided/combinationOfPMValues">
-						<xsl:for-each
-							select="PMCombisWhenProvided/combinationOfPMValues[valueNames/name]">
+						<xsl:for-each select="$rows">
 							<fo:table-row border="none">
 								<xsl:if test="position() mod 2 = 0">
 									<xsl:attribute name="background-color">#D9D9D9</xsl:attribute>
@@ -272,6 +345,9 @@
 		<xsl:param name="headSize" select="14" />
 		<xsl:param name="caTitle" select="title" />
 		<xsl:param name="omitHeader" select="false" />
+		<!-- the combinations which are listed in this table -->
+		<xsl:param name="rows"
+			select="PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]" />
 		<fo:table border="none" space-after="30pt">
 			<xsl:attribute name="table-omit-header-at-break"><xsl:value-of select="$omitHeader" /></xsl:attribute>
 			<fo:table-column border-style="solid" />
@@ -336,8 +412,7 @@
 				<xsl:choose>
 					<!-- Checks whether some hazards are defined -->
 					<xsl:when test="PMCombisWhenNotProvided/combinationOfPMValues">
-						<xsl:for-each
-							select="PMCombisWhenNotProvided/combinationOfPMValues[valueNames/name]">
+						<xsl:for-each select="$rows">
 							<fo:table-row border="none">
 								<xsl:if test="position() mod 2 = 0">
 									<xsl:attribute name="background-color">#D9D9D9</xsl:attribute>
@@ -20,6 +20,9 @@
 	<xsl:param name="header.omit" select="false" />
 	<xsl:param name="page.layout" select="A4" />
 	<xsl:param name="page.title" select="''" />
+	<!-- the number of control actions which are rendered in one page sequence, FOP keeps only the
+		pages of the current page sequence in memory -->
+	<xsl:param name="uca.chunk.size" select="25" />
 
 	<xsl:template match="/*">
 		<fo:root>
@@ -27,40 +30,76 @@
 			<fo:layout-master-set>
 				<xsl:call-template name="layout" />
 			</fo:layout-master-set>
-			<fo:page-sequence white-space-collapse="true" id="total">
-				<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
-				<fo:static-content flow-name="xsl-region-before">
-					<xsl:call-template name="astpaHead">
-						<xsl:with-param name="pdfTitle" select="$page.title" />
+			<xsl:variable name="controlActions" select="cac/controlactions/controlaction" />
+			<xsl:variable name="chunkSize">
+				<xsl:choose>
+					<xsl:when test="$uca.chunk.size &gt; 0"><xsl:value-of select="$uca.chunk.size" /></xsl:when>
+					<xsl:otherwise><xsl:value-of select="count($controlActions)" /></xsl:otherwise>
+				</xsl:choose>
+			</xsl:variable>
+			<xsl:choose>
+				<xsl:when test="count($controlActions) &lt;= $chunkSize">
+					<xsl:call-template name="ucaPageSequence">
+						<xsl:with-param name="controlActions" select="$controlActions" />
+						<xsl:with-param name="showTitle" select="true()" />
+						<xsl:with-param name="showTotal" select="true()" />
 					</xsl:call-template>
-				</fo:static-content>
+				</xsl:when>
+				<xsl:otherwise>
+					<!-- one page sequence for each chunk of control actions, the table header is
+						repeated in each page sequence -->
+					<xsl:for-each select="$controlActions[(position() - 1) mod $chunkSize = 0]">
+						<xsl:variable name="start" select="(position() - 1) * $chunkSize" />
+						<xsl:variable name="first" select="position() = 1" />
+						<xsl:for-each select="/*">
+							<xsl:call-template name="ucaPageSequence">
+								<xsl:with-param name="controlActions"
+									select="$controlActions[position() &gt; $start and position() &lt;= $start + $chunkSize]" />
+								<xsl:with-param name="showTitle" select="$first" />
+								<xsl:with-param name="showTotal" select="false()" />
+							</xsl:call-template>
+						</xsl:for-each>
+					</xsl:for-each>
+				</xsl:otherwise>
+			</xsl:choose>
+		</fo:root>
+	</xsl:template>
 
-				<!-- Footer-Block -->
-				<fo:static-content flow-name="xsl-region-after">
-					<xsl:call-template name="astpaFooter" />
-				</fo:static-content>
-				<fo:flow flow-name="xsl-region-body">
+	<!-- ################### Page sequence with a part of the Unsafe Control Actions Table ################### -->
+	<xsl:template name="ucaPageSequence">
+		<xsl:param name="controlActions" />
+		<xsl:param name="showTitle" select="true()" />
+		<xsl:param name="showTotal" select="true()" />
+		<fo:page-sequence white-space-collapse="true">
+			<xsl:if test="$showTotal">
+				<xsl:attribute name="id">total</xsl:attribute>
+			</xsl:if>
+			<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
+			<xsl:call-template name="astpaStaticContent">
+				<xsl:with-param name="pdfTitle" select="$page.title" />
+				<xsl:with-param name="showTotal" select="$showTotal" />
+			</xsl:call-template>
+			<fo:flow flow-name="xsl-region-body">
 
-					<!-- *************** Unsafe Control Actions *************** -->
-					<fo:block>
+				<!-- *************** Unsafe Control Actions *************** -->
+				<fo:block>
+					<xsl:if test="$showTitle">
 						<fo:block space-after="5pt" page-break-after="avoid">
 							<xsl:attribute name="font-size"><xsl:value-of
 								select="$title.size" />pt</xsl:attribute>
 							Unsafe Control Actions
 						</fo:block>
-						<!-- Unsafe Control Actions-Table-Template -->
-						<xsl:call-template name="ucaTable">
-							<xsl:with-param name="varSize" select="$text.size" />
-							<xsl:with-param name="headSize" select="$table.head.size" />
-							<xsl:with-param name="omitHeader" select="$header.omit" />
-						</xsl:call-template>
-					</fo:block>
-
-
-
-				</fo:flow>
-			</fo:page-sequence>
-		</fo:root>
+					</xsl:if>
+					<!-- Unsafe Control Actions-Table-Template -->
+					<xsl:call-template name="ucaTable">
+						<xsl:with-param name="varSize" select="$text.size" />
+						<xsl:with-param name="headSize" select="$table.head.size" />
+						<xsl:with-param name="omitHeader" select="$header.omit" />
+						<xsl:with-param name="controlActions" select="$controlActions" />
+					</xsl:call-template>
+				</fo:block>
+			</fo:flow>
+		</fo:page-sequence>
 	</xsl:template>
 
 
@@ -21,6 +21,14 @@
     <xsl:import href="fopSystemDescription.xsl" />
 	<xsl:param name="page.layout" select="A4" />
 	<xsl:param name="page.title" select="''" />
+	<!-- the number of control actions which are rendered in one page sequence, FOP keeps only the
+		pages of the current page sequence in memory -->
+	<xsl:param name="uca.chunk.size" select="25" />
+	<!-- whether the footer shows the total page count, the total count is a forward reference
+		which holds all pages of the report until the end of the document, thus it is only shown
+		if the unsafe control actions table is not split into several page sequences -->
+	<xsl:variable name="page.total"
+		select="$uca.chunk.size &lt;= 0 or count(/*/cac/controlactions/controlaction) &lt;= $uca.chunk.size" />
 
 	<xsl:template match="/*">
 		<fo:root>
@@ -83,22 +91,10 @@
 			</fo:page-sequence>
 
 			<!-- +++++ Common Page content +++++ -->
-			<fo:page-sequence white-space-collapse="true" id="total">
-				<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
-
-				<!-- Header-Block -->
-				<fo:static-content flow-name="xsl-region-before">
-					<xsl:call-template name="astpaHead">
-						<xsl:with-param name="pdfTitle" select="$page.title" />
-					</xsl:call-template>
-				</fo:static-content>
-
-				<!-- Footer-Block -->
-				<fo:static-content flow-name="xsl-region-after">
-					<xsl:call-template name="astpaFooter" />
-				</fo:static-content>
-
-				<fo:flow flow-name="xsl-region-body">
+			<!-- every section is rendered in its own page sequence, FOP keeps only the pages of the
+				current page sequence in memory -->
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Accidents *************** -->
 					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
@@ -108,8 +104,11 @@
 						<!-- Accidents-Table-Template -->
 						<xsl:call-template name="accidentsTable" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
-
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Hazard table *************** -->
 					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
@@ -119,7 +118,11 @@
 						<!-- Hazard-Table-Template -->
 						<xsl:call-template name="hazardTable" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Safety Constraints table *************** -->
 					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
@@ -129,7 +132,11 @@
 						<!-- Safety Constraint-Table-Template -->
 						<xsl:call-template name="safetyConstraintsTable" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** System Goals table *************** -->
 					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
@@ -139,9 +146,13 @@
 						<!-- System Goals-Table-Template -->
 						<xsl:call-template name="systemGoalsTable" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Design Requirements table *************** -->
-					<fo:block page-break-after="always">
+					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
 							page-break-after="avoid">
 							Design Requirements
@@ -149,44 +160,28 @@
 						<!-- Design Requirements-Table-Template -->
 						<xsl:call-template name="designRequirementsTable" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Control Structure Diagram *************** -->
-					<fo:block page-break-after="always">
+					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
 							page-break-after="avoid">
 							Control Structure Diagram
 						</fo:block>
 						<fo:block>
-							<xsl:if test="exportinformation/csImagePath">
-								<xsl:choose>
-									<xsl:when test="$page.layout = 'A4'">
-										<fo:external-graphic
-											inline-progression-dimension.maximum="100%" height="29.7cm"
-											width="16cm" content-height="scale-down-to-fit"
-											content-width="scale-down-to-fit">
-											<xsl:attribute name="src">
-										<!-- Path of the Control Structure via haz-file -->
-										<xsl:value-of select="exportinformation/csImagePath" />
-										</xsl:attribute>
-										</fo:external-graphic>
-									</xsl:when>
-									<xsl:otherwise>
-										<fo:external-graphic
-											inline-progression-dimension.maximum="100%" height="16cm"
-											width="29.7cm" content-height="scale-down-to-fit"
-											content-width="scale-down-to-fit">
-											<xsl:attribute name="src">
-										<!-- Path of the Control Structure via haz-file -->
-										<xsl:value-of select="exportinformation/csImagePath" />
-										</xsl:attribute>
-										</fo:external-graphic>
-									</xsl:otherwise>
-								</xsl:choose>
-							</xsl:if>
+							<xsl:call-template name="controlStructureImage">
+								<xsl:with-param name="path" select="exportinformation/csImagePath" />
+							</xsl:call-template>
 						</fo:block>
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
-
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Control Actions table *************** -->
 					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
@@ -196,19 +191,45 @@
 						<!-- Control Actions-Table-Template -->
 						<xsl:call-template name="controlActionsTable" />
 					</fo:block>
-
-					<!-- *************** Unsafe Control Actions *************** -->
-					<fo:block>
-						<fo:block font-size="24pt" space-after="5pt"
-							page-break-after="avoid">
-							Unsafe Control Actions
-						</fo:block>
-						<!-- Unsafe Control Actions-Table-Template -->
-						<xsl:call-template name="ucaTable" />
-					</fo:block>
-
+				</xsl:with-param>
+			</xsl:call-template>
+
+			<!-- *************** Unsafe Control Actions *************** -->
+			<!-- one page sequence for each chunk of control actions, the table header is repeated
+				in each page sequence -->
+			<xsl:variable name="controlActions" select="cac/controlactions/controlaction" />
+			<xsl:variable name="chunkSize">
+				<xsl:choose>
+					<xsl:when test="$uca.chunk.size &gt; 0"><xsl:value-of select="$uca.chunk.size" /></xsl:when>
+					<xsl:otherwise><xsl:value-of select="count($controlActions)" /></xsl:otherwise>
+				</xsl:choose>
+			</xsl:variable>
+			<xsl:choose>
+				<xsl:when test="count($controlActions) &lt;= $chunkSize">
+					<xsl:call-template name="ucaReportPageSequence">
+						<xsl:with-param name="controlActions" select="$controlActions" />
+						<xsl:with-param name="showTitle" select="true()" />
+					</xsl:call-template>
+				</xsl:when>
+				<xsl:otherwise>
+					<xsl:for-each select="$controlActions[(position() - 1) mod $chunkSize = 0]">
+						<xsl:variable name="start" select="(position() - 1) * $chunkSize" />
+						<xsl:variable name="first" select="position() = 1" />
+						<xsl:for-each select="/*">
+							<xsl:call-template name="ucaReportPageSequence">
+								<xsl:with-param name="controlActions"
+									select="$controlActions[position() &gt; $start and position() &lt;= $start + $chunkSize]" />
+								<xsl:with-param name="showTitle" select="$first" />
+							</xsl:call-template>
+						</xsl:for-each>
+					</xsl:for-each>
+				</xsl:otherwise>
+			</xsl:choose>
+
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Corresponding Safety Constraints *************** -->
-					<fo:block page-break-after="always">
+					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
 							page-break-after="avoid">
 							Corresponding Safety
@@ -217,9 +238,13 @@
 						<!-- Unsafe Control Actions-Table-Template -->
 						<xsl:call-template name="correspondingSafetyConstraintsTable" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Design Requirements Step 1 *************** -->
-					<fo:block page-break-after="always">
+					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
 							page-break-after="avoid">
 							Design Requirements Step 1
@@ -227,9 +252,13 @@
 						<!-- Unsafe Control Actions-Table-Template -->
 						<xsl:call-template name="designRequirementsStep1Table" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Design Requirements Step 2 *************** -->
-					<fo:block page-break-after="always">
+					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
 							page-break-after="avoid">
 							Design Requirements Step 2
@@ -237,42 +266,29 @@
 						<!-- Unsafe Control Actions-Table-Template -->
 						<xsl:call-template name="designRequirementsStep2Table" />
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
-
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="content">
 					<!-- *************** Control Structure Diagram with Process Model *************** -->
-					<fo:block page-break-after="always">
-
+					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
 							page-break-after="avoid">
 							Control Structure Diagram
 							with Process Model
 						</fo:block>
-
-						<xsl:choose>
-							<xsl:when test="$page.layout = 'A4'">
-								<fo:external-graphic
-									inline-progression-dimension.maximum="100%" height="29.7cm"
-									width="16cm" content-height="scale-down-to-fit" content-width="scale-down-to-fit">
-									<xsl:attribute name="src">
-										<!-- Path of the Control Structure via haz-file -->
-										<xsl:value-of select="exportinformation/cspmImagePath" />
-										</xsl:attribute>
-								</fo:external-graphic>
-							</xsl:when>
-							<xsl:otherwise>
-								<fo:external-graphic
-									inline-progression-dimension.maximum="100%" height="16cm"
-									width="29.7cm" content-height="scale-down-to-fit"
-									content-width="scale-down-to-fit">
-									<xsl:attribute name="src">
-										<!-- Path of the Control Structure via haz-file -->
-										<xsl:value-of select="exportinformation/cspmImagePath" />
-										</xsl:attribute>
-								</fo:external-graphic>
-							</xsl:otherwise>
-						</xsl:choose>
+						<xsl:call-template name="controlStructureImage">
+							<xsl:with-param name="path" select="exportinformation/cspmImagePath" />
+						</xsl:call-template>
 					</fo:block>
+				</xsl:with-param>
+			</xsl:call-template>
 
+			<!-- the last page sequence holds the id of the total page count -->
+			<xsl:call-template name="reportPageSequence">
+				<xsl:with-param name="id" select="'total'" />
+				<xsl:with-param name="content">
 					<!-- *************** Causal Factors Table *************** -->
 					<fo:block>
 						<fo:block font-size="24pt" space-after="5pt"
@@ -282,8 +298,8 @@
 						<!-- Causal Factors-Table-Template -->
 						<xsl:call-template name="causalFactorsTable" />
 					</fo:block>
-				</fo:flow>
-			</fo:page-sequence>
+				</xsl:with-param>
+			</xsl:call-template>
 
 			<!-- ++++++++++++++++++++++++++++++++++++++++++++++++++++++ -->
 			<!-- +++++++++++++++++++++ END OF PDF +++++++++++++++++++++ -->
@@ -292,7 +308,72 @@
 		</fo:root>
 	</xsl:template>
 
+	<!-- ################### Page sequence of one section of the report ################### -->
+	<xsl:template name="reportPageSequence">
+		<!-- the blocks of the section -->
+		<xsl:param name="content" />
+		<xsl:param name="id" select="''" />
+		<fo:page-sequence white-space-collapse="true">
+			<xsl:if test="$page.total and $id != ''">
+				<xsl:attribute name="id"><xsl:value-of select="$id" /></xsl:attribute>
+			</xsl:if>
+			<xsl:attribute name="master-reference"><xsl:value-of select="$page.layout" /></xsl:attribute>
+			<xsl:call-template name="astpaStaticContent">
+				<xsl:with-param name="pdfTitle" select="$page.title" />
+				<xsl:with-param name="showTotal" select="$page.total" />
+			</xsl:call-template>
+			<fo:flow flow-name="xsl-region-body">
+				<xsl:copy-of select="$content" />
+			</fo:flow>
+		</fo:page-sequence>
+	</xsl:template>
 
+	<!-- ################### Page sequence with a part of the Unsafe Control Actions Table ################### -->
+	<xsl:template name="ucaReportPageSequence">
+		<xsl:param name="controlActions" />
+		<xsl:param name="showTitle" select="true()" />
+		<xsl:call-template name="reportPageSequence">
+			<xsl:with-param name="content">
+				<fo:block>
+					<xsl:if test="$showTitle">
+						<fo:block font-size="24pt" space-after="5pt"
+							page-break-after="avoid">
+							Unsafe Control Actions
+						</fo:block>
+					</xsl:if>
+					<!-- Unsafe Control Actions-Table-Template -->
+					<xsl:call-template name="ucaTable">
+						<xsl:with-param name="controlActions" select="$controlActions" />
+					</xsl:call-template>
+				</fo:block>
+			</xsl:with-param>
+		</xsl:call-template>
+	</xsl:template>
 
-</xsl:stylesheet>
+	<!-- ################### Control Structure image scaled to the page layout ################### -->
+	<xsl:template name="controlStructureImage">
+		<!-- the path of the image via haz-file -->
+		<xsl:param name="path" />
+		<xsl:if test="$path">
+			<xsl:choose>
+				<xsl:when test="$page.layout = 'A4'">
+					<fo:external-graphic
+						inline-progression-dimension.maximum="100%" height="29.7cm"
+						width="16cm" content-height="scale-down-to-fit"
+						content-width="scale-down-to-fit">
+						<xsl:attribute name="src"><xsl:value-of select="$path" /></xsl:attribute>
+					</fo:external-graphic>
+				</xsl:when>
+				<xsl:otherwise>
+					<fo:external-graphic
+						inline-progression-dimension.maximum="100%" height="16cm"
+						width="29.7cm" content-height="scale-down-to-fit"
+						content-width="scale-down-to-fit">
+						<xsl:attribute name="src"><xsl:value-of select="$path" /></xsl:attribute>
+					</fo:external-graphic>
+				</xsl:otherwise>
+			</xsl:choose>
+		</xsl:if>
+	</xsl:template>
 
+</xsl:stylesheet>
@@ -78,7 +78,10 @@
 	
 	
 	<!-- ################### Footer ################### -->
+	<!-- showTotal: whether the number of pages is printed, the number of pages is a forward reference
+		which keeps all pages in memory until the page sequence with the id total is finished -->
 	<xsl:template name="astpaFooter">
+		<xsl:param name="showTotal" select="true()" />
 		<fo:table>
 			<fo:table-body>
 				<fo:table-row>
@@ -87,8 +90,10 @@
 						<fo:block font-size="10pt" text-align="center">
 							Page &#x0020;
 							<fo:page-number />
-							of
-							<fo:page-number-citation-last ref-id="total"/>
+							<xsl:if test="$showTotal">
+								of
+								<fo:page-number-citation-last ref-id="total"/>
+							</xsl:if>
 						</fo:block>
 					</fo:table-cell>
 				</fo:table-row>
@@ -101,6 +106,27 @@
 		</fo:table>
 	</xsl:template>
 	
+	<!-- ################### Head and Footer of a page sequence ################### -->
+	<!-- can be called from any context, the head and footer are always created for the root element -->
+	<xsl:template name="astpaStaticContent">
+		<xsl:param name="pdfTitle" select="NON" />
+		<xsl:param name="showTotal" select="true()" />
+		<xsl:for-each select="/*">
+			<fo:static-content flow-name="xsl-region-before">
+				<xsl:call-template name="astpaHead">
+					<xsl:with-param name="pdfTitle" select="$pdfTitle" />
+				</xsl:call-template>
+			</fo:static-content>
+
+			<!-- Footer-Block -->
+			<fo:static-content flow-name="xsl-region-after">
+				<xsl:call-template name="astpaFooter">
+					<xsl:with-param name="showTotal" select="$showTotal" />
+				</xsl:call-template>
+			</fo:static-content>
+		</xsl:for-each>
+	</xsl:template>
+	
 	<!-- ################### Heading-Background-Color ################### -->
 	<xsl:template name="headTheme">
 		<xsl:if test="exportinformation/backgroundColor">
@@ -1451,6 +1477,8 @@
       <xsl:param name="headSize" select="14"/> 
       <xsl:param name="omitHeader" select="false"/>       
     <xsl:param name="value"/>
+      <!-- the control actions which are listed in this table -->
+      <xsl:param name="controlActions" select="cac/controlactions/controlaction"/>
 		<fo:table border="none" space-after="30pt">
            <xsl:attribute name="table-omit-header-at-break"><xsl:value-of select="$omitHeader" /></xsl:attribute>
 			<fo:table-column column-number="1" column-width="20%"
@@ -1560,8 +1588,8 @@
            <xsl:attribute name="font-size"><xsl:value-of select="$varSize" />pt</xsl:attribute>
 				<xsl:choose>
 					<!-- Checks if there are some Control Actions already defined -->
-					<xsl:when test="cac/controlactions/controlaction">
-						<xsl:for-each select="cac/controlactions/controlaction">
+					<xsl:when test="$controlActions">
+						<xsl:for-each select="$controlActions">
 							<fo:table-row border-bottom="2pt solid black"
 								border-top="2pt solid black">
 								<fo:table-cell padding="4px" background-color="#FFFFFF"
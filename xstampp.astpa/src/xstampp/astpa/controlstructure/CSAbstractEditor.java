@@ -15,18 +15,22 @@ import java.awt.Event;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.EventObject;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
+import java.util.Set;
 import java.util.UUID;
 
 import messages.Messages;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.draw2d.ColorConstants;
@@ -46,9 +50,11 @@ import org.eclipse.gef.MouseWheelHandler;
 import org.eclipse.gef.MouseWheelZoomHandler;
 import org.eclipse.gef.Request;
 import org.eclipse.gef.RequestConstants;
+import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CommandStack;
 import org.eclipse.gef.commands.CommandStackEvent;
 import org.eclipse.gef.commands.CommandStackEventListener;
+import org.eclipse.gef.commands.CompoundCommand;
 import org.eclipse.gef.dnd.TemplateTransferDragSourceListener;
 import org.eclipse.gef.editparts.ScalableRootEditPart;
 import org.eclipse.gef.editparts.ZoomManager;
@@ -121,6 +127,8 @@ import org.eclipse.ui.part.EditorPart;
 import org.eclipse.ui.services.ISourceProviderService;
 
 import messages.Messages;
+import xstampp.astpa.controlstructure.controller.commands.ComponentAutoLayoutCommand;
+import xstampp.astpa.controlstructure.controller.commands.ControlStructureAbstractCommand;
 import xstampp.astpa.controlstructure.controller.commands.CopyComponentCommand;
 import xstampp.astpa.controlstructure.controller.editparts.CSAbstractEditPart;
 import xstampp.astpa.controlstructure.controller.editparts.CSConnectionEditPart;
@@ -129,16 +137,19 @@ import xstampp.astpa.controlstructure.controller.editparts.RootEditPart;
 import xstampp.astpa.controlstructure.controller.factorys.CSEditPartFactory;
 import xstampp.astpa.controlstructure.controller.factorys.CSPaletteEditPartFactory;
 import xstampp.astpa.controlstructure.figure.IControlStructureFigure;
+import xstampp.astpa.controlstructure.figure.RootFigure;
 import xstampp.astpa.controlstructure.utilities.CSContextMenuProvider;
 import xstampp.astpa.controlstructure.utilities.CSPalettePage;
 import xstampp.astpa.controlstructure.utilities.CSPalettePreferences;
 import xstampp.astpa.controlstructure.utilities.CSTemplateTransferDropTargetListener;
+import xstampp.astpa.model.controlstructure.LayeredLayout;
 import xstampp.astpa.model.controlstructure.components.ComponentType;
 import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
 import xstampp.astpa.model.interfaces.IControlStructureEditorDataModel;
 import xstampp.astpa.model.interfaces.ITableModel;
 import xstampp.astpa.util.commands.RenameRootComponentHandler;
 import xstampp.astpa.util.jobs.CSExportJob;
+import xstampp.astpa.util.jobs.CSLayoutJob;
 import xstampp.model.IDataModel;
 import xstampp.model.ObserverValue;
 import xstampp.preferences.IControlStructureConstants;
@@ -198,6 +209,11 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 	private static final int SCLAE_TEXT_WIDTH = 150;
 	private static final int SCALE_FONT = 10;
 	protected static final int IMG_EXPAND = 10;
+	/**
+	 * the time in milliseconds the automatic layout may spend to reduce the
+	 * crossings of the connections
+	 */
+	private static final long LAYOUT_TIME_BUDGET = 500;
 	private IRectangleComponent root;
 	private ToolBar toolBar;
 	private ZoomManager zoomManager;
@@ -220,6 +236,14 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 
 	private boolean selectAddedParts = false;
 
+	// the ids which are changed by the command which is currently executed, undone
+	// or redone, null if the command changes the structure of the diagram
+	private Collection<UUID> commandChanges = null;
+	private boolean commandActive = false;
+	private final Set<UUID> pendingChanges = new HashSet<>();
+	private boolean pendingFullRefresh = false;
+	private boolean refreshScheduled = false;
+
 	private IPreferenceStore store;
 
 	private ArrayList<ISelectionChangedListener> selectionListeners;
@@ -292,6 +316,8 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 		this.setGraphicalViewer(viewer);
 		viewer.setProperty(STEP_EDITOR, this.getId());
 		viewer.setProperty(IS_DECORATED, this.decoSwitch.getSelection());
+		// only the editor skips the text layout of figures outside of the viewport
+		viewer.setProperty(DEFER_TEXT_LAYOUT, true);
 		viewer.addSelectionChangedListener(this);
 		viewer.createControl(parent);
 		this.hookGraphicalViewer();
@@ -485,10 +511,24 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 			}
 		});
 
+		final Button autoLayoutButton = new Button(this.toolBar, SWT.PUSH);
+		autoLayoutButton.setText("Auto Layout"); //$NON-NLS-1$
+		data = new FormData();
+		data.height = CSAbstractEditor.TOOL_HEIGHT;
+		data.left = new FormAttachment(preferenceButton, 5);
+		autoLayoutButton.setLayoutData(data);
+		autoLayoutButton.addSelectionListener(new SelectionAdapter() {
+
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				autoLayout();
+			}
+		});
+
 		data = new FormData();
 		data.height = CSAbstractEditor.TOOL_HEIGHT;
 		data.width = 200;
-		data.left = new FormAttachment(preferenceButton, 30);
+		data.left = new FormAttachment(autoLayoutButton, 30);
 		this.positionLabel = new Label(this.toolBar, SWT.CENTER);
 		this.positionLabel.setText(" ----- x ----- "); //$NON-NLS-1$
 		this.positionLabel.setLayoutData(data);
@@ -670,7 +710,20 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 		registry.registerAction(action);
 		this.selectionActions.add(action.getId());
 
-		action = new PrintAction(this);
+		action = new PrintAction(this) {
+			@Override
+			public void run() {
+				// the printed figures must show their text even if they are outside of the viewport
+				RootFigure root = (RootFigure) ((RootEditPart) getGraphicalViewer().getContents())
+						.getFigure();
+				root.setDeferTextLayout(false);
+				try {
+					super.run();
+				} finally {
+					root.setDeferTextLayout(true);
+				}
+			}
+		};
 
 		registry.registerAction(action);
 		this.setActionRegistry(registry);
@@ -795,15 +848,46 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 			@Override
 			public void stackChanged(CommandStackEvent event) {
 				if (event.isPreChangeEvent()) {
+					CSAbstractEditor.this.commandChanges = getChangedIds(event.getCommand());
+					CSAbstractEditor.this.commandActive = true;
 					getModelInterface().lockUpdate();
 				} else if (event.isPostChangeEvent()) {
 					getModelInterface().releaseLockAndUpdate(
 							new ObserverValue[] { ObserverValue.CONTROL_STRUCTURE, ObserverValue.CONTROL_ACTION });
+					CSAbstractEditor.this.commandActive = false;
+					CSAbstractEditor.this.commandChanges = null;
 				}
 			}
 		});
 	}
 
+	/**
+	 * collects the ids of the components and connections which are changed by
+	 * the given command, the commands of a compound command are collected together
+	 * so that one gesture results in one refresh
+	 * 
+	 * @param command
+	 *            the command which is executed, undone or redone
+	 * @return the changed ids or null if the whole diagram must be refreshed
+	 */
+	private static Collection<UUID> getChangedIds(Command command) {
+		if (command instanceof ControlStructureAbstractCommand) {
+			return ((ControlStructureAbstractCommand) command).getChangedIds();
+		}
+		if (command instanceof CompoundCommand) {
+			Set<UUID> ids = new HashSet<>();
+			for (Object child : ((CompoundCommand) command).getCommands()) {
+				Collection<UUID> childIds = getChangedIds((Command) child);
+				if (childIds == null) {
+					return null;
+				}
+				ids.addAll(childIds);
+			}
+			return ids;
+		}
+		return null;
+	}
+
 	/**
 	 * Lazily creates and returns the action registry.
 	 * 
@@ -1000,6 +1084,42 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 		}
 	}
 
+	/**
+	 * computes a layered layout for the components of the current root in a
+	 * background job and executes the result as one command on the command
+	 * stack of this editor
+	 */
+	protected void autoLayout() {
+		final String stepId = (String) this.getGraphicalViewer().getProperty(IControlStructureEditor.STEP_EDITOR);
+		final UUID rootId = this.root.getId();
+		getModelInterface().setActiveRoot(rootId);
+		LayeredLayout layout = getModelInterface().getControlStructureController()
+				.createLayeredLayout(stepId.equals(CSEditor.ID));
+		final CSLayoutJob layoutJob = new CSLayoutJob(layout, CSAbstractEditor.LAYOUT_TIME_BUDGET, this.getProjectID());
+		layoutJob.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				if (!event.getResult().isOK()) {
+					return;
+				}
+				Display.getDefault().asyncExec(new Runnable() {
+
+					@Override
+					public void run() {
+						if (CSAbstractEditor.this.getGraphicalViewer().getControl().isDisposed()) {
+							return;
+						}
+						ComponentAutoLayoutCommand command = new ComponentAutoLayoutCommand(rootId,
+								getModelInterface(), stepId);
+						command.setLayouts(layoutJob.getResult());
+						getCommandStack().execute(command);
+					}
+				});
+			}
+		});
+		layoutJob.schedule();
+	}
+
 	protected boolean printStructure(String path, int imgOffset, String name, String processName, boolean decorate) {
 
 		Job exportJob = new CSExportJob(path, imgOffset,
@@ -1036,16 +1156,22 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 		ObserverValue type = (ObserverValue) updatedValue;
 
 		if (getUpdateValues().contains(updatedValue)) {
-			Display.getDefault().asyncExec(new Runnable() {
+			// changes which are not made by a command of this editor refresh the whole diagram
+			if (this.commandActive && this.commandChanges != null) {
+				this.pendingChanges.addAll(this.commandChanges);
+			} else {
+				this.pendingFullRefresh = true;
+			}
+			if (!this.refreshScheduled) {
+				this.refreshScheduled = true;
+				Display.getDefault().asyncExec(new Runnable() {
 
-				@Override
-				public void run() {
-					CSAbstractEditPart root = (CSAbstractEditPart) getGraphicalViewer().getContents();
-					if (root != null) {
-						root.refresh();
+					@Override
+					public void run() {
+						refreshEditParts();
 					}
-				}
-			});
+				});
+			}
 			List<IControlStructureEditPart> addedParts = ((CSEditPartFactory) this.getGraphicalViewer()
 					.getEditPartFactory()).fetchNewParts();
 			if (this.selectAddedParts && !addedParts.isEmpty()) {
@@ -1059,6 +1185,30 @@ public abstract class CSAbstractEditor extends StandartEditorPart
 
 	}
 
+	/**
+	 * refreshes the edit parts which have been changed since the last refresh,
+	 * the whole diagram is refreshed if the changes are unknown
+	 */
+	private void refreshEditParts() {
+		this.refreshScheduled = false;
+		List<UUID> changes = new ArrayList<>(this.pendingChanges);
+		boolean fullRefresh = this.pendingFullRefresh;
+		this.pendingChanges.clear();
+		this.pendingFullRefresh = false;
+		if (getGraphicalViewer() == null || getGraphicalViewer().getControl().isDisposed()) {
+			return;
+		}
+		CSAbstractEditPart root = (CSAbstractEditPart) getGraphicalViewer().getContents();
+		if (root == null) {
+			return;
+		}
+		if (fullRefresh || !(root instanceof RootEditPart)) {
+			root.refresh();
+		} else if (!changes.isEmpty()) {
+			((RootEditPart) root).refreshParts(changes);
+		}
+	}
+
 	@Override
 	public void mouseDoubleClick(MouseEvent e) {
 		List<EditPart> selection = this.getGraphicalViewer().getSelectedEditParts();
@@ -44,6 +44,15 @@ public interface IControlStructureEditor extends CommandStackListener, CommandSt
    */
   public static final String STEP_EDITOR = "step"; //$NON-NLS-1$
 
+  /**
+   * this property is set to <code>true</code> by viewers in which the text
+   * layout of figures outside of the viewport may be skipped, it is not set
+   * for viewers which export the control structure
+   * 
+   * @author Lukas Balzer
+   */
+  public static final String DEFER_TEXT_LAYOUT = "deferTextLayout"; //$NON-NLS-1$
+
   /**
    * makes sure that the both layouts of step 1 and 3 are only synchronized on
    * their initial call
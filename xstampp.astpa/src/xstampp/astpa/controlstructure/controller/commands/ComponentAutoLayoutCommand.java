@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 A-STPA Stupro Team Uni Stuttgart (Lukas Balzer, Adam
+ * Grahovac, Jarkko Heidenwag, Benedikt Markt, Jaqueline Patzek, Sebastian
+ * Sieber, Fabian Toth, Patrick Wickenhäuser, Aliaksei Babkovich, Aleksander
+ * Zotov).
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+
+package xstampp.astpa.controlstructure.controller.commands;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import xstampp.astpa.controlstructure.CSEditor;
+import xstampp.astpa.model.controlstructure.LayeredLayout;
+import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
+import xstampp.astpa.model.interfaces.IControlStructureEditorDataModel;
+
+/**
+ * Changes the layouts of several components at once, this is used to apply the result of a
+ * {@link LayeredLayout} so that the whole layout can be undone in one step.
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class ComponentAutoLayoutCommand extends ControlStructureAbstractCommand {
+
+  private Map<UUID, Rectangle> layouts;
+  private Map<UUID, Rectangle> oldLayouts;
+
+  /**
+   *
+   * @param rootId
+   *          the id of the root component which contains the components
+   * @param model
+   *          The dataModel which contains all model classes
+   * @param stepID
+   *          the stepEditor ID
+   */
+  public ComponentAutoLayoutCommand(UUID rootId, IControlStructureEditorDataModel model,
+      String stepID) {
+    super(rootId, model, stepID);
+    this.layouts = new HashMap<>();
+    this.oldLayouts = new HashMap<>();
+    setLabel("Auto Layout"); //$NON-NLS-1$
+  }
+
+  /**
+   * @param layouts
+   *          the new layouts mapped to the ids of the components
+   */
+  public void setLayouts(Map<UUID, Rectangle> layouts) {
+    this.layouts = layouts;
+  }
+
+  @Override
+  public boolean canExecute() {
+    return !this.layouts.isEmpty();
+  }
+
+  @Override
+  public void execute() {
+    super.execute();
+    boolean step1 = this.getStepID().equals(CSEditor.ID);
+    this.oldLayouts.clear();
+    for (Entry<UUID, Rectangle> entry : this.layouts.entrySet()) {
+      IRectangleComponent component = this.getDataModel().getComponent(entry.getKey());
+      if (component != null) {
+        this.oldLayouts.put(entry.getKey(), component.getLayout(step1));
+        this.getDataModel().changeComponentLayout(entry.getKey(), entry.getValue(), step1);
+      }
+    }
+  }
+
+  @Override
+  public Collection<UUID> getChangedIds() {
+    return new ArrayList<>(this.layouts.keySet());
+  }
+
+  @Override
+  public void undo() {
+    super.execute();
+    boolean step1 = this.getStepID().equals(CSEditor.ID);
+    for (Entry<UUID, Rectangle> entry : this.oldLayouts.entrySet()) {
+      this.getDataModel().changeComponentLayout(entry.getKey(), entry.getValue(), step1);
+    }
+  }
+}
@@ -13,6 +13,8 @@
 
 package xstampp.astpa.controlstructure.controller.commands;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 
 import org.eclipse.draw2d.geometry.Dimension;
@@ -122,6 +124,11 @@ public class ComponentChangeLayoutCommand extends
 
   }
 
+  @Override
+  public Collection<UUID> getChangedIds() {
+    return Collections.singletonList(this.model.getId());
+  }
+
   @Override
   public void undo() {
     this.getDataModel().changeComponentLayout(this.model.getId(),
@@ -13,6 +13,8 @@
 
 package xstampp.astpa.controlstructure.controller.commands;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 
 import org.eclipse.draw2d.geometry.Rectangle;
@@ -63,6 +65,11 @@ public class ComponentRenameCommand extends ControlStructureAbstractCommand {
         this.newName);
   }
 
+  @Override
+  public Collection<UUID> getChangedIds() {
+    return Collections.singletonList(this.model.getId());
+  }
+
   @Override
   public void undo() {
     this.getDataModel().changeComponentText(this.model.getId(),
@@ -11,6 +11,8 @@
  ******************************************************************************/
 package xstampp.astpa.controlstructure.controller.commands;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 
 import org.eclipse.draw2d.geometry.Point;
@@ -53,6 +55,11 @@ public final class ConnectionCreateBendpointCommand extends ControlStructureAbst
         location.y);
   }
 
+  @Override
+  public Collection<UUID> getChangedIds() {
+    return Collections.singletonList(link.getId());
+  }
+
   /**
    * Reinsert the bendpoint in the link.
    */
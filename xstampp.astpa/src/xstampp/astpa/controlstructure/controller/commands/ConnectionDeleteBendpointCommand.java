@@ -11,6 +11,8 @@
  ******************************************************************************/
 package xstampp.astpa.controlstructure.controller.commands;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 
 import org.eclipse.draw2d.geometry.Point;
@@ -52,6 +54,11 @@ public final class ConnectionDeleteBendpointCommand extends ControlStructureAbst
         location.y);
   }
 
+  @Override
+  public Collection<UUID> getChangedIds() {
+    return Collections.singletonList(link.getId());
+  }
+
   /**
    * Reinsert the bendpoint in the link.
    */
@@ -11,6 +11,8 @@
  ******************************************************************************/
 package xstampp.astpa.controlstructure.controller.commands;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 
 import org.eclipse.draw2d.geometry.Point;
@@ -41,6 +43,11 @@ public final class ConnectionMoveBendpointCommand extends ControlStructureAbstra
         oldLocation.y, newLocation.x, newLocation.y);
   }
 
+  @Override
+  public Collection<UUID> getChangedIds() {
+    return Collections.singletonList(link.getId());
+  }
+
   @Override
   public void undo() {
     getDataModel().getControlStructureController().changeBendPoint(link.getId(), newLocation.x,
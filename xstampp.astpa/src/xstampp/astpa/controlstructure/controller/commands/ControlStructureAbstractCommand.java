@@ -14,6 +14,7 @@
 package xstampp.astpa.controlstructure.controller.commands;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
@@ -135,4 +136,16 @@ public abstract class ControlStructureAbstractCommand extends Command {
   public void execute() {
     getDataModel().setActiveRoot(getRootId());
   }
+
+  /**
+   * the editor uses the ids returned by this method to refresh only the edit parts of the changed
+   * components and the connections which are attached to them.
+   *
+   * @return the ids of the components and connections which are changed by this command, or
+   *         <b>null</b> if the command changes the structure of the diagram so that all edit parts
+   *         must be refreshed
+   */
+  public Collection<UUID> getChangedIds() {
+    return null;
+  }
 }
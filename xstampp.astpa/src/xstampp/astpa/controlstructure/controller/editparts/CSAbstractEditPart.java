@@ -14,7 +14,11 @@
 package xstampp.astpa.controlstructure.controller.editparts;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.eclipse.draw2d.ConnectionAnchor;
@@ -153,7 +157,30 @@ public abstract class CSAbstractEditPart extends AbstractGraphicalEditPart
     getFigure().refresh();
 
     for (Object child : this.getChildren()) {
-      ((IControlStructureEditPart) child).refresh();
+      // the models of the children are already refreshed by refreshModel
+      if (child instanceof CSAbstractEditPart) {
+        ((CSAbstractEditPart) child).refreshVisuals();
+      } else {
+        ((IControlStructureEditPart) child).refresh();
+      }
+    }
+  }
+
+  /**
+   * refreshes the figure of this edit part with the layout and the text of its
+   * model component, the child edit parts are not created or removed.
+   * 
+   * @author Lukas Balzer
+   */
+  public void refreshPart() {
+    IRectangleComponent modelTemp = this.dataModel.getComponent(this.getId());
+    if (modelTemp != null) {
+      String stepID = (String) this.getViewer().getProperty(
+          IControlStructureEditor.STEP_EDITOR);
+      this.getFigure().setLayout(modelTemp.getLayout(stepID
+          .equals(CSEditor.ID)));
+      this.getFigure().setText(modelTemp.getText());
+      this.refreshVisuals();
     }
   }
 
@@ -235,6 +262,41 @@ public abstract class CSAbstractEditPart extends AbstractGraphicalEditPart
 
   }
 
+  /**
+   * refreshes the registered connection edit parts which have one of the given
+   * ids or which are attached to a component with one of the given ids.
+   * Connections which are attached to a refreshed connection are refreshed as
+   * well.
+   * 
+   * @author Lukas Balzer
+   * 
+   * @param ids
+   *          the ids of the changed components and connections
+   */
+  public void refreshConnections(Collection<UUID> ids) {
+    Set<UUID> changedIds = new HashSet<>(ids);
+    List<IConnection> connections = new ArrayList<>(this.connectionRegisty);
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      Iterator<IConnection> iterator = connections.iterator();
+      while (iterator.hasNext()) {
+        IConnection connection = iterator.next();
+        if (changedIds.contains(connection.getId())
+            || changedIds.contains(connection.getSourceAnchor().getOwnerId())
+            || changedIds.contains(connection.getTargetAnchor().getOwnerId())) {
+          iterator.remove();
+          changedIds.add(connection.getId());
+          changed = true;
+          Object editPart = this.getViewer().getEditPartRegistry().get(connection);
+          if (editPart instanceof CSConnectionEditPart) {
+            ((CSConnectionEditPart) editPart).refresh();
+          }
+        }
+      }
+    }
+  }
+
   /**
    * @author Benedikt Markt
    */
@@ -13,10 +13,19 @@
 
 package xstampp.astpa.controlstructure.controller.editparts;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 import org.eclipse.draw2d.BendpointConnectionRouter;
 import org.eclipse.draw2d.ConnectionLayer;
 import org.eclipse.draw2d.IFigure;
-import org.eclipse.draw2d.ManhattanConnectionRouter;
+import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.draw2d.geometry.Translatable;
 import org.eclipse.gef.EditPolicy;
 import org.eclipse.gef.LayerConstants;
@@ -26,9 +35,13 @@ import org.eclipse.gef.editpolicies.SnapFeedbackPolicy;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 import messages.Messages;
+import xstampp.astpa.controlstructure.CSEditor;
+import xstampp.astpa.controlstructure.IControlStructureEditor;
 import xstampp.astpa.controlstructure.controller.policys.CSConnectionPolicy;
 import xstampp.astpa.controlstructure.controller.policys.CSEditPolicy;
 import xstampp.astpa.controlstructure.figure.RootFigure;
+import xstampp.astpa.controlstructure.utilities.CSConnectionRouter;
+import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
 import xstampp.astpa.model.interfaces.IControlStructureEditorDataModel;
 
 /**
@@ -43,6 +56,8 @@ import xstampp.astpa.model.interfaces.IControlStructureEditorDataModel;
  */
 public class RootEditPart extends CSAbstractEditPart {
 
+  private CSConnectionRouter router;
+
   /**
    * this constuctor sets the unique ID of this EditPart which is the same in
    * its model and figure
@@ -67,9 +82,12 @@ public class RootEditPart extends CSAbstractEditPart {
     RootFigure figureTemp = new RootFigure(this.getId());
     figureTemp.setPreferenceStore(getStore());
     figureTemp.setFocusTraversable(false);
+    figureTemp.setDeferTextLayout(Boolean.TRUE
+        .equals(getViewer().getProperty(IControlStructureEditor.DEFER_TEXT_LAYOUT)));
     ConnectionLayer connLayer = (ConnectionLayer) this
         .getLayer(LayerConstants.CONNECTION_LAYER);
-    connLayer.setConnectionRouter(new ManhattanConnectionRouter());
+    this.router = new CSConnectionRouter();
+    connLayer.setConnectionRouter(this.router);
 
     return figureTemp;
   }
@@ -88,6 +106,7 @@ public class RootEditPart extends CSAbstractEditPart {
 
   @Override
   public void refresh() {
+    this.updateObstacles(null);
     this.refreshConnections();
     this.refreshChildren();
     for (Object child : this.getChildren()) {
@@ -99,6 +118,80 @@ public class RootEditPart extends CSAbstractEditPart {
     this.refreshConnections();
   }
 
+  /**
+   * refreshes only the edit parts of the components with the given ids and the
+   * connections which are attached to them or to one of their children, the
+   * structure of the edit part tree is not changed.
+   * 
+   * @author Lukas Balzer
+   * 
+   * @param ids
+   *          the ids of the components and connections which have been changed
+   */
+  public void refreshParts(Collection<UUID> ids) {
+    Map<UUID, CSAbstractEditPart> parts = new HashMap<>();
+    for (Object child : this.getChildren()) {
+      collectParts((CSAbstractEditPart) child, parts);
+    }
+    List<CSAbstractEditPart> changedParts = new ArrayList<>();
+    Set<UUID> movedIds = new HashSet<>(ids);
+    for (UUID id : ids) {
+      CSAbstractEditPart part = parts.get(id);
+      if (part != null) {
+        changedParts.add(part);
+        // the children are moved together with their parent
+        Map<UUID, CSAbstractEditPart> children = new HashMap<>();
+        collectParts(part, children);
+        movedIds.addAll(children.keySet());
+      }
+    }
+    for (CSAbstractEditPart part : changedParts) {
+      part.refreshPart();
+    }
+    this.updateObstacles(ids);
+    this.refreshConnections(movedIds);
+  }
+
+  /**
+   * passes the layouts of the top level components to the connection router,
+   * so the router doesn't have to look at all components for each connection
+   *
+   * @param ids
+   *          the ids of the components which have been changed or null if all
+   *          components must be passed
+   */
+  private void updateObstacles(Collection<UUID> ids) {
+    if (this.router == null) {
+      return;
+    }
+    boolean step1 = this.getViewer().getProperty(IControlStructureEditor.STEP_EDITOR)
+        .equals(CSEditor.ID);
+    if (ids == null) {
+      Map<UUID, Rectangle> layouts = new HashMap<>();
+      for (IRectangleComponent child : this.getModelChildren()) {
+        layouts.put(child.getId(), child.getLayout(step1));
+      }
+      this.router.setObstacles(layouts);
+      return;
+    }
+    Set<UUID> changedIds = new HashSet<>(ids);
+    for (IRectangleComponent child : this.getModelChildren()) {
+      if (changedIds.contains(child.getId())) {
+        this.router.setObstacle(child.getId(), child.getLayout(step1));
+      }
+    }
+  }
+
+  private static void collectParts(CSAbstractEditPart part,
+      Map<UUID, CSAbstractEditPart> parts) {
+    parts.put(part.getId(), part);
+    for (Object child : part.getChildren()) {
+      if (child instanceof CSAbstractEditPart) {
+        collectParts((CSAbstractEditPart) child, parts);
+      }
+    }
+  }
+
   @Override
   protected void refreshVisuals() {
 
@@ -13,6 +13,8 @@
 
 package xstampp.astpa.controlstructure.figure;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
@@ -21,7 +23,9 @@ import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.draw2d.ConnectionAnchor;
 import org.eclipse.draw2d.Figure;
 import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.LineBorder;
+import org.eclipse.draw2d.Viewport;
 import org.eclipse.draw2d.XYLayout;
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Point;
@@ -30,6 +34,7 @@ import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
 
 import xstampp.astpa.controlstructure.utilities.CSTextLabel;
 
@@ -63,6 +68,39 @@ public abstract class CSFigure extends Figure implements IControlStructureFigure
   protected Rectangle rect;
   private String text;
   private boolean hideBorder = false;
+  private boolean textPending = false;
+  private boolean layoutScheduled = false;
+  private Viewport viewport;
+
+  /**
+   * lays out the pending text once the viewport has been scrolled, the layout
+   * is done after the scroll event so that no layout is done while the
+   * viewport is painted
+   */
+  private final PropertyChangeListener viewportListener = new PropertyChangeListener() {
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+      if (!CSFigure.this.layoutScheduled) {
+        CSFigure.this.layoutScheduled = true;
+        Display.getDefault().asyncExec(new Runnable() {
+
+          @Override
+          public void run() {
+            CSFigure.this.layoutScheduled = false;
+            layoutPendingText();
+          }
+        });
+      }
+    }
+  };
+
+  /**
+   * below this scale the text and the details of a figure are drawn as simple
+   * placeholders
+   */
+  public static final double DETAIL_SCALE = 0.5;
+  private static final int PLACEHOLDER_HEIGHT = 10;
 
   /**
    * the xOrientations array which stores the locations on the x-axis as
@@ -117,9 +155,28 @@ public abstract class CSFigure extends Figure implements IControlStructureFigure
     this.setBackgroundColor(ColorConstants.white);
   }
 
+  @Override
+  public void validate() {
+    // the figure may have been moved into the viewport since its text layout
+    // has been skipped
+    layoutPendingText();
+    super.validate();
+  }
+
+  @Override
+  public void removeNotify() {
+    setViewport(null);
+    this.textPending = false;
+    super.removeNotify();
+  }
+
   @Override
   public void paintChildren(Graphics graphics) {
-    super.paintChildren(graphics);
+    if (graphics.getAbsoluteScale() < CSFigure.DETAIL_SCALE) {
+      paintPlaceholders(graphics);
+    } else {
+      super.paintChildren(graphics);
+    }
     if ((this.image != null) && this.withIcon) {
       double newPos = CSFigure.IMG_WIDTH * Math.min(1, graphics.getAbsoluteScale());
       Rectangle rect = this.textLabel.getBounds();
@@ -132,6 +189,156 @@ public abstract class CSFigure extends Figure implements IControlStructureFigure
     }
   }
 
+  /**
+   * paints the children for the overview zoom levels, the text is drawn as a
+   * bar and the children which show details are drawn as boxes without their
+   * own children
+   *
+   * @author Lukas Balzer
+   *
+   * @param graphics
+   *          the graphics which are used to paint this figure
+   */
+  private void paintPlaceholders(Graphics graphics) {
+    Rectangle clip = graphics.getClip(new Rectangle());
+    graphics.pushState();
+    for (Object child : getChildren()) {
+      IFigure figure = (IFigure) child;
+      Rectangle bounds = figure.getBounds();
+      if (!figure.isVisible() || !bounds.intersects(clip)) {
+        continue;
+      }
+      graphics.setBackgroundColor(ColorConstants.lightGray);
+      if (figure == this.textLabel) {
+        if ((this.text != null) && !this.text.isEmpty()) {
+          int height = Math.min(bounds.height / 2, CSFigure.PLACEHOLDER_HEIGHT);
+          graphics.fillRectangle(bounds.x + 2, bounds.y + (bounds.height - height) / 2,
+              bounds.width - 4, height);
+        }
+      } else if ((figure instanceof CSFigure) && ((CSFigure) figure).isDetail()) {
+        graphics.fillRectangle(bounds);
+      } else {
+        graphics.clipRect(bounds);
+        figure.paint(graphics);
+      }
+      graphics.restoreState();
+    }
+    graphics.popState();
+  }
+
+  /**
+   * figures which show details of a component are drawn as simple boxes below
+   * the {@link #DETAIL_SCALE}
+   *
+   * @return whether this figure shows details of a component, false by default
+   */
+  protected boolean isDetail() {
+    return false;
+  }
+
+  /**
+   * decides whether the text layout of this figure can be skipped because the
+   * figure lies outside of the visible area, the skipped layout is done as soon
+   * as the figure is scrolled into the viewport. The layout is only skipped in
+   * a viewer whose {@link RootFigure} defers the text layout and whose viewport
+   * has a client area, thus figures which are exported or printed always
+   * show their text
+   *
+   * @author Lukas Balzer
+   *
+   * @param area
+   *          the new bounds of this figure
+   * @return whether the text layout should be skipped
+   */
+  protected boolean deferTextLayout(Rectangle area) {
+    Viewport parentViewport = findViewport();
+    this.textPending = (parentViewport != null) && (area != null) && !area.isEmpty()
+        && !parentViewport.getClientArea().isEmpty() && !isInViewport(parentViewport, area);
+    setViewport(this.textPending ? parentViewport : null);
+    return this.textPending;
+  }
+
+  /**
+   * lays out the text which has been skipped by {@link #deferTextLayout(Rectangle)}
+   * if this figure is now visible in the viewport
+   */
+  private void layoutPendingText() {
+    if (this.textPending && (this.viewport != null) && (getParent() != null)
+        && isInViewport(this.viewport, this.rect)) {
+      this.isDirty = true;
+      refresh();
+    }
+  }
+
+  /**
+   * lays out the text of this figure and of all its children which has been
+   * skipped by {@link #deferTextLayout(Rectangle)}, e.g. before the figures are
+   * printed
+   */
+  public void layoutDeferredText() {
+    if (this.textPending) {
+      this.textPending = false;
+      setViewport(null);
+      this.isDirty = true;
+      refresh();
+    }
+    for (Object child : getChildren()) {
+      if (child instanceof CSFigure) {
+        ((CSFigure) child).layoutDeferredText();
+      }
+    }
+  }
+
+  /**
+   * registers the listener which lays out the pending text on the given
+   * viewport and removes it from the previous one
+   */
+  private void setViewport(Viewport newViewport) {
+    if (this.viewport != newViewport) {
+      if (this.viewport != null) {
+        this.viewport.removePropertyChangeListener(Viewport.PROPERTY_VIEW_LOCATION,
+            this.viewportListener);
+      }
+      this.viewport = newViewport;
+      if (newViewport != null) {
+        newViewport.addPropertyChangeListener(Viewport.PROPERTY_VIEW_LOCATION,
+            this.viewportListener);
+      }
+    }
+  }
+
+  /**
+   * @return the viewport which shows this figure or null if there is none or
+   *         if the {@link RootFigure} of this figure doesn't defer the text
+   *         layout
+   */
+  private Viewport findViewport() {
+    boolean deferred = false;
+    IFigure parent = this;
+    while ((parent != null) && !(parent instanceof Viewport)) {
+      if (parent instanceof RootFigure) {
+        deferred = ((RootFigure) parent).isTextLayoutDeferred();
+      }
+      parent = parent.getParent();
+    }
+    return deferred ? (Viewport) parent : null;
+  }
+
+  /**
+   * @param parentViewport
+   *          the viewport which shows this figure
+   * @param area
+   *          an area in the coordinates of the parent of this figure
+   * @return whether the area is visible in the client area of the viewport
+   */
+  private boolean isInViewport(Viewport parentViewport, Rectangle area) {
+    Rectangle visible = parentViewport.getClientArea();
+    parentViewport.translateToAbsolute(visible);
+    Rectangle absoluteArea = area.getCopy();
+    getParent().translateToAbsolute(absoluteArea);
+    return absoluteArea.intersects(visible);
+  }
+
   @Override
   public void setText(String text) {
     if (this.text == null || !text.equals(this.text)) {
@@ -207,20 +414,24 @@ public abstract class CSFigure extends Figure implements IControlStructureFigure
           ((IControlStructureFigure) child).refresh();
         }
       }
-      if (this.getChildren().size() > 1) {
-        // the height of the rectangle is set to the ideal height for
-        // the
-        // given width
-        this.textLabel.setSize(this.getBounds().width - this.leftMargin - 4, -1);
-        this.setConstraint(this.textLabel, this.textLabel.getBounds());
-      } else {
-
-        this.getTextField().setSize(new Dimension(rect.width - this.leftMargin - 4, rect.height));
-        this.setConstraint(this.textLabel,
-            new Rectangle(this.leftMargin, 1, rect.width - this.leftMargin - 4, rect.height));
+      // the text of a figure outside of the viewport is laid out when the
+      // figure is scrolled into the viewport
+      if (!deferTextLayout(rect)) {
+        if (this.getChildren().size() > 1) {
+          // the height of the rectangle is set to the ideal height for
+          // the
+          // given width
+          this.textLabel.setSize(this.getBounds().width - this.leftMargin - 4, -1);
+          this.setConstraint(this.textLabel, this.textLabel.getBounds());
+        } else {
+
+          this.getTextField().setSize(new Dimension(rect.width - this.leftMargin - 4, rect.height));
+          this.setConstraint(this.textLabel,
+              new Rectangle(this.leftMargin, 1, rect.width - this.leftMargin - 4, rect.height));
+        }
+        this.textLabel.setText(text);
+        this.textLabel.repaint();
       }
-      this.textLabel.setText(text);
-      this.textLabel.repaint();
       this.getParent().setConstraint(this, rect);
 
     }
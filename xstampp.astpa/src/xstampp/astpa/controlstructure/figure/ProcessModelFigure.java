@@ -42,4 +42,9 @@ public class ProcessModelFigure extends CSFigure {
     // there's no decoration on process components
   }
 
+  @Override
+  protected boolean isDetail() {
+    return true;
+  }
+
 }
@@ -53,11 +53,13 @@ public class ProcessValueFigure extends CSFigure {
 
   @Override
   public void refresh() {
-
-    this.getTextField().setLocation(new Point(0, 0));
-    this.getTextField().setSize(this.getTextField().getPreferredSize(rect.width, -1));
-    this.getTextField().revalidate();
-    this.setConstraint(this.getTextField(), this.getTextField().getBounds());
+    // outside of the viewport the size of the last text layout is used
+    if (!deferTextLayout(rect)) {
+      this.getTextField().setLocation(new Point(0, 0));
+      this.getTextField().setSize(this.getTextField().getPreferredSize(rect.width, -1));
+      this.getTextField().revalidate();
+      this.setConstraint(this.getTextField(), this.getTextField().getBounds());
+    }
     Rectangle size = new Rectangle(rect.getLocation(), getTextField().getSize());
     for (Object child : getChildren()) {
       if (child instanceof IControlStructureFigure) {
@@ -96,6 +98,11 @@ public class ProcessValueFigure extends CSFigure {
     // there's no decoration on process components
   }
 
+  @Override
+  protected boolean isDetail() {
+    return true;
+  }
+
   /**
    * @return the autoPositioning
    */
@@ -53,6 +53,7 @@ public class RootFigure extends CSFigure implements MouseMotionListener {
   private List<IFigure> componentList = new ArrayList<>();
   private boolean generalEnable = false;
   private boolean hasDeco;
+  private boolean deferTextLayout = false;
 
   /**
    * Constructs the RootFigure which is used as the basis of the
@@ -176,6 +177,32 @@ public class RootFigure extends CSFigure implements MouseMotionListener {
 
   }
 
+  /**
+   * the text layout of figures outside of the viewport is only skipped if it
+   * is enabled for their root figure, it must only be enabled in an
+   * interactive editor since exported or printed figures must show their text
+   *
+   * @author Lukas Balzer
+   * @param deferTextLayout
+   *          whether the text layout of figures outside of the viewport is
+   *          skipped until they are scrolled into the viewport, if false the
+   *          skipped text of all figures is laid out
+   */
+  public void setDeferTextLayout(boolean deferTextLayout) {
+    this.deferTextLayout = deferTextLayout;
+    if (!deferTextLayout) {
+      layoutDeferredText();
+    }
+  }
+
+  /**
+   * @return whether the text layout of figures outside of the viewport is
+   *         skipped, false by default
+   */
+  public boolean isTextLayoutDeferred() {
+    return this.deferTextLayout;
+  }
+
   public void setConstraint(Rectangle r) {
     setBounds(getBounds().union(r));
   }
@@ -63,7 +63,13 @@ public class TextFieldFigure extends CSFigure {
 
   @Override
   public void refresh() {
-    if (isDirty) {
+    if (isDirty && deferTextLayout(rect)) {
+      // the size of the text is calculated when the figure is scrolled into
+      // the viewport
+      this.isDirty = false;
+      this.getParent().setConstraint(this, rect);
+      this.setBounds(rect);
+    } else if (isDirty) {
       this.isDirty = false;
       this.getTextField().setText(getText());
       int width = -1;
@@ -3,17 +3,27 @@
  * Grahovac, Jarkko Heidenwag, Benedikt Markt, Jaqueline Patzek, Sebastian
  * Sieber, Fabian Toth, Patrick Wickenhäuser, Aliaksei Babkovich, Aleksander
  * Zotov).
- * 
+ *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License v1.0 which
  * accompanies this distribution, and is available at
  * http://www.eclipse.org/legal/epl-v10.html
- * 
+ *
  *******************************************************************************/
 
 package xstampp.astpa.controlstructure.utilities;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.UUID;
 
 import org.eclipse.draw2d.AbstractRouter;
 import org.eclipse.draw2d.Connection;
@@ -23,26 +33,27 @@ import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
 import org.eclipse.draw2d.geometry.Rectangle;
 
-import xstampp.astpa.controlstructure.CSEditor;
-import xstampp.astpa.controlstructure.IControlStructureEditor;
-import xstampp.astpa.controlstructure.controller.editparts.RootEditPart;
 import xstampp.astpa.controlstructure.figure.CSAnchor;
-import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
 
 /**
- * this class routes the connections around all drawn components if needed
- * 
- * ----the algorithm currently runs probably unstable and will may cause
- * exceptions!!!----
- * 
+ * this class routes the connections around all drawn components if needed.
+ * <p>
+ * The bounds of the components are stored in an {@link ObstacleIndex} which
+ * is updated by the owner of the router whenever a component changes its
+ * layout, see {@link #setObstacle(UUID, Rectangle)}. A connection which
+ * intersects with a component is routed with an A* search over the sparse
+ * grid which is spanned by the borders of the nearby components. The route of
+ * each connection is cached until its end points change or a component is
+ * moved into or out of the area of the route.
+ *
  * @author Lukas Balzer
- * 
+ *
  */
 public class CSConnectionRouter extends AbstractRouter {
 
   private ManhattanConnectionRouter manhattanRouter = new ManhattanConnectionRouter();
-  private RootEditPart owner;
-  private int[][] csMatrix;
+  private final ObstacleIndex obstacles;
+  private final Map<Connection, Route> routes;
 
   /**
    * the minimal distance between a connection and a Component
@@ -50,493 +61,404 @@ public class CSConnectionRouter extends AbstractRouter {
   public static final int INTERVALL = 10;
 
   /**
-   * this value is added to fields in the matrix which should not be visited
-   * by a connection
+   * the route is first searched in this distance around the end points of the
+   * connection before all components are considered
    */
-  private static final int SPACE_RESERVED = 0;
+  private static final int SEARCH_MARGIN = 200;
 
   /**
-   * This constant says wheter a field in a matrix has been visited or not
+   * the costs of a bend which are added to the length of a route
    */
-  private static final int NOT_VISITED = Integer.MAX_VALUE;
+  private static final int BEND_COSTS = 2 * INTERVALL;
 
   /**
    * route decides whether it the connection calculated by the manhattanRouter
    * intersects with a child or not with this tolerance
    */
   private static final Insets INTERSECTION_THRESHOLD = new Insets(3, 3, 3, 3);
-  private static final Point RESERVED_POINT = new Point(-1, -1);
 
   /**
-   * this constant a Point with the coordinates (-1,0), it is used to tell
-   * that the path-recursion moves up
+   * the directions right, left, up and down in which the search moves, a
+   * direction and its opposite only differ in the lowest bit
    */
-  private static final Point RIGHT = new Point(1, 0);
+  private static final int[] DIRECTION_X = new int[] { 1, -1, 0, 0 };
+  private static final int[] DIRECTION_Y = new int[] { 0, 0, -1, 1 };
 
   /**
-   * this constant a Point with the coordinates (1,0), it is used to tell that
-   * the path-recursion moves left
-   */
-  private static final Point LEFT = new Point(1, 0);
-
-  /**
-   * this constant a Point with the coordinates (0,-1), it is used to tell
-   * that the path-recursion moves up
-   */
-  private static final Point UP = new Point(0, -1);
-
-  /**
-   * this constant a Point with the coordinates (0,1), it is used to tell that
-   * the path-recursion moves down
-   */
-  private static final Point DOWN = new Point(0, 1);
-
-  /**
-   * this constant a Point with the coordinates (0,0), it is used to tell that
-   * the path-recursion has terminated
-   */
-  private static final Point STILL = new Point(0, 0);
-
-  /**
-   * 
+   * creates a router without any components, the components around which the
+   * connections are routed must be set with
+   * {@link #setObstacles(Map)} and {@link #setObstacle(UUID, Rectangle)}
+   *
    * @author Lukas Balzer
-   * 
-   * @param ownerPart
-   *          the Part in which the connections should be calculated in
    */
-  public CSConnectionRouter(RootEditPart ownerPart) {
-    this.owner = ownerPart;
+  public CSConnectionRouter() {
+    this.obstacles = new ObstacleIndex();
+    this.routes = new HashMap<>();
   }
 
   @Override
   public void route(Connection connection) {
     this.manhattanRouter.route(connection);
-    if ((connection.getTargetAnchor() instanceof CSAnchor)
-        && (connection.getSourceAnchor() instanceof CSAnchor)
-        && this.insectOwner(connection)) {
-      // idealize is only called in the case that the connection
-      // intersects with a component
-      this.idealize(connection);
-    }
-  }
-
-  /**
-   * 
-   * @author Lukas Balzer
-   * 
-   * @param connection
-   *          the connection which should be idealized
-   */
-  public void idealize(Connection connection) {
-    if (!this.fillMatrix()) {
+    if (!(connection.getTargetAnchor() instanceof CSAnchor)
+        || !(connection.getSourceAnchor() instanceof CSAnchor)) {
       return;
     }
-    PointList tempPoints = new PointList();
-    Point endOrientation = ((CSAnchor) connection.getTargetAnchor())
-        .getOrientation();
-
-    Point startOrientation = ((CSAnchor) connection.getSourceAnchor())
-        .getOrientation();
-
     Point start = connection.getPoints().getFirstPoint();
-    tempPoints.addPoint(connection.getPoints().getFirstPoint());
     Point end = connection.getPoints().getLastPoint();
-
-    do {
-      start.translate(startOrientation);
-    } while (this.csMatrix[start.x][start.y] == CSConnectionRouter.SPACE_RESERVED);
-
-    if (connection.getTargetAnchor() instanceof CSAnchor) {
-      do {
-        end.translate(endOrientation);
-      } while (this.csMatrix[end.x][end.y] == CSConnectionRouter.SPACE_RESERVED);
-
-    }
-
-    tempPoints = this.idealPath(tempPoints, start.x, start.y, 0,
-        startOrientation, end, false, false);
-    tempPoints.addPoint(connection.getPoints().getLastPoint());
-
-    connection.setPoints(tempPoints);
-  }
-
-  /**
-   * this function moves recursively in the direction to the end point and
-   * marks the shortest path,moving a straight line
-   * 
-   * @author Lukas
-   * 
-   * @param list
-   * @param x
-   *          the current x position
-   * @param y
-   *          the current y position
-   * @param dist
-   *          the current distance of the path
-   * @param direction
-   *          the direction in which the algorithm moves, this information
-   *          is needed to calculate the distance
-   * @param end
-   *          the end point
-   * @param forceY
-   * @param forceX
-   * @return
-   */
-  private PointList idealPath(PointList list, int x, int y, int distance,
-      Point direction, Point end, boolean forceY, boolean forceX) {
-
-    boolean yForced = forceY;
-    boolean xForced = forceX;
-    int changeX;
-    int changeY;
-    // the initial value is one, dist sums up the knots needed to reech the
-    // end
-    int dist = distance + list.size();
-    PointList idealPoints = list.getCopy();
-
-    if (end.equals(x, y)) {
-      idealPoints.addPoint(end);
-    } else if (this.csMatrix[x][y] == CSConnectionRouter.SPACE_RESERVED) {
-      return null;
-    } else if (direction.equals(CSConnectionRouter.STILL)) {
-      return null;
-    } else if (this.csMatrix[x][y] < dist) {
-      idealPoints.addPoint(CSConnectionRouter.RESERVED_POINT);
-    } else {
-      this.csMatrix[x][y] = dist;
-      PointList xList = this.calcXlists(direction, x, y);
-      PointList yList = this.calcYlists(direction, x, y);
-      PointList yTemp = null;
-      PointList xTemp = null;
-
-      // if the algorithm cannot move in y direction, the x-direction is
-      // forced
-      changeY = this.signOf(end.y - y, yForced, direction.y);
-      xForced = (this.csMatrix[x][y + changeY] == CSConnectionRouter.SPACE_RESERVED);
-
-      // if the algorithm cannot move in x direction, the y-direction is
-      // forced
-      changeX = this.signOf(end.x - x, xForced, direction.x);
-      yForced = (this.csMatrix[x + changeX][y] == CSConnectionRouter.SPACE_RESERVED);
-
-      xTemp = this.idealPath(xList, x + changeX, y, dist,
-          this.xChange(changeX, direction.x), end, yForced, xForced);
-
-      yTemp = this.idealPath(yList, x, y + changeY, dist,
-          this.yChange(changeY, direction.y), end, yForced, xForced);
-      if (this.foundEnd(yTemp, end)) {
-        idealPoints.addAll(yTemp);
-        return idealPoints;
-      }
-      if (this.isRedundant(yTemp, xTemp)) {
-        return null;
-      }
-
-      // if the algorithm does not find a path in x- or y-direction
-      // xTemp is calculated again with forced attributes
-      if (this.isNull(yTemp, xTemp)) {
-        changeX = this.absMax(direction.x);
-        xTemp = this.idealPath(xList, x + changeX, y, dist,
-            this.xChange(changeX, direction.x), end, false, true);
-
-        // if xTemp is still null yTemp is recalculated
-        if (xTemp == null) {
-          changeY = this.absMax(direction.y);
-          yTemp = this.idealPath(xList, x, y + changeY, dist,
-              this.yChange(changeY, direction.y), end, true,
-              false);
+    Route route = this.routes.get(connection);
+    if ((route == null) || !route.start.equals(start) || !route.end.equals(end)) {
+      PointList points = connection.getPoints().getCopy();
+      Rectangle area = points.getBounds().getCopy();
+      // the connection is only rerouted in the case that it intersects with a
+      // component
+      if (this.intersectsObstacle(points)) {
+        PointList idealPoints = this.findPath(connection, start, end);
+        if (idealPoints != null) {
+          points = idealPoints;
+          area.union(points.getBounds());
         }
-
       }
-      if (!this.isNull(yTemp, xTemp)) {
-        idealPoints.addAll(this.choose(xTemp, yTemp));
-      }
-
+      route = new Route(start, end, points, area);
+      this.routes.put(connection, route);
     }
-
-    return idealPoints;
+    connection.setPoints(route.points.getCopy());
   }
 
-  /**
-   * 
-   * 
-   * @author Lukas Balzer
-   * 
-   * @param a
-   *          a path
-   * @param b
-   *          an other path
-   * @return if both paths are null
-   */
-  private boolean isNull(PointList a, PointList b) {
-    if ((a == null) && (b == null)) {
-      return true;
-    }
-
-    return false;
+  @Override
+  public void remove(Connection connection) {
+    this.routes.remove(connection);
+    super.remove(connection);
   }
 
   /**
-   * The list which leads in the opposite direction gets the current Point as
-   * a member
-   * 
+   * routes the connection around all components which are in its way
+   *
    * @author Lukas Balzer
-   * 
+   *
+   * @param connection
+   *          the connection which should be idealized
    */
-  private PointList calcXlists(Point currentDir, int x, int y) {
-    PointList xList = new PointList();
-    if (currentDir.equals(CSConnectionRouter.UP)
-        || currentDir.equals(CSConnectionRouter.DOWN)) {
-      xList.addPoint(new Point(x, y));
+  public void idealize(Connection connection) {
+    PointList points = this.findPath(connection, connection.getPoints().getFirstPoint(),
+        connection.getPoints().getLastPoint());
+    if (points != null) {
+      connection.setPoints(points);
     }
-    return xList;
   }
 
   /**
-   * The list which leads in the opposite direction gets the current Point as
-   * a member
-   * 
-   * @author Lukas Balzer
-   * 
+   * sets the bounds of all components around which the connections are
+   * routed, components which are not contained in the map are removed
+   *
+   * @param allBounds
+   *          the bounds of the components mapped to their ids
    */
-  private PointList calcYlists(Point currentDir, int x, int y) {
-    PointList xList = new PointList();
-    if (currentDir.equals(CSConnectionRouter.LEFT)
-        || currentDir.equals(CSConnectionRouter.RIGHT)) {
-      xList.addPoint(new Point(x, y));
+  public void setObstacles(Map<UUID, Rectangle> allBounds) {
+    for (UUID id : this.obstacles.getIds()) {
+      if (!allBounds.containsKey(id)) {
+        this.setObstacle(id, null);
+      }
+    }
+    for (Entry<UUID, Rectangle> entry : allBounds.entrySet()) {
+      this.setObstacle(entry.getKey(), entry.getValue());
     }
-    return xList;
   }
 
   /**
-   * this normalizes a given value and returns the normal value
+   * sets the bounds of a component around which the connections are routed,
+   * the connections whose routes pass the old or the new bounds are routed
+   * again
+   *
+   * @param id
+   *          the id of the component
+   * @param bounds
+   *          the new bounds of the component or null if the component has been
+   *          removed
    */
-  private int absMax(int direct) {
-    if (direct == 0) {
-      return 1;
+  public void setObstacle(UUID id, Rectangle bounds) {
+    Rectangle oldBounds = this.obstacles.get(id);
+    if (bounds == null) {
+      if (oldBounds != null) {
+        this.obstacles.remove(id);
+        this.invalidateRoutes(oldBounds);
+      }
+    } else if ((oldBounds == null) || !oldBounds.equals(bounds)) {
+      this.obstacles.put(id, bounds);
+      this.invalidateRoutes(bounds);
+      if (oldBounds != null) {
+        this.invalidateRoutes(oldBounds);
+      }
     }
-    return direct;
   }
 
   /**
-   * 
-   * @author Lukas Balzer
-   * @return the smaller list, or null if the lists are empty
+   * removes all cached routes which pass the given bounds of a component and
+   * revalidates their connections so that they are routed again
    */
-  private PointList choose(PointList a, PointList b) {
-    if ((a == null) && (b == null)) {
-      return null;
-    } else if ((a == null) && (b != null)) {
-      return b;
-    } else if ((a != null) && (b == null)) {
-      return a;
-    } else if ((a != null) && (a.size() >= b.size())) {
-      return b;
+  private void invalidateRoutes(Rectangle bounds) {
+    Rectangle expanded = bounds.getExpanded(CSConnectionRouter.INTERVALL,
+        CSConnectionRouter.INTERVALL);
+    Iterator<Entry<Connection, Route>> iterator = this.routes.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<Connection, Route> entry = iterator.next();
+      if (entry.getValue().area.intersects(expanded)) {
+        iterator.remove();
+        entry.getKey().revalidate();
+      }
     }
-    return a;
   }
 
-  private boolean foundEnd(PointList list, Point end) {
-    if ((list != null) && list.getLastPoint().equals(end)) {
-      return true;
+  private boolean intersectsObstacle(PointList points) {
+    for (Rectangle bounds : this.obstacles.query(points.getBounds())) {
+      Rectangle childRect = bounds.getCopy();
+      childRect.shrink(CSConnectionRouter.INTERSECTION_THRESHOLD);
+      if (points.intersects(childRect)) {
+        return true;
+      }
     }
     return false;
   }
 
-  private boolean isRedundant(PointList a, PointList b) {
-    boolean bRedundant = false;
-    boolean aRedundant = false;
-    if ((a != null)
-        && a.getLastPoint().equals(CSConnectionRouter.RESERVED_POINT)) {
-      aRedundant = true;
-    }
-    if ((b != null)
-        && b.getLastPoint().equals(CSConnectionRouter.RESERVED_POINT)) {
-      bRedundant = true;
-
-    }
-    if ((a == null) && bRedundant) {
-      return true;
-    }
-    if ((b == null) && aRedundant) {
-      return true;
-    }
-    return aRedundant && bRedundant;
-  }
-
   /**
-   * calculates the leading sign of delta or returns one if it's forced
-   * 
-   * @author Lukas Balzer
-   * 
-   * @param delta
-   *          the int the leading sign is needed
-   * @param force
-   *          if the function should return 1
-   * @param movement
-   *          says if the algorithm moves in positive or negative direction
-   * @return the sign of delta or, if forced, the offset
+   * searches a route which leaves the source component and enters the target
+   * component in the direction of their anchors, first only the components
+   * around the end points are considered and if no route is found there all
+   * components are considered
+   *
+   * @return the points of the route or null if there is no route
    */
-  private int signOf(int delta, boolean force, int movement) {
-
-    if (force) {
-      return movement;
-    }
-    if (delta < 0) {
-      return -1;
+  private PointList findPath(Connection connection, Point start, Point end) {
+    Point startOrientation = ((CSAnchor) connection.getSourceAnchor()).getOrientation();
+    Point endOrientation = ((CSAnchor) connection.getTargetAnchor()).getOrientation();
+    Point from = new Point(start.x + startOrientation.x * (CSConnectionRouter.INTERVALL + 1),
+        start.y + startOrientation.y * (CSConnectionRouter.INTERVALL + 1));
+    Point to = new Point(end.x + endOrientation.x * (CSConnectionRouter.INTERVALL + 1),
+        end.y + endOrientation.y * (CSConnectionRouter.INTERVALL + 1));
+
+    Rectangle area = new Rectangle(from, to).expand(CSConnectionRouter.SEARCH_MARGIN,
+        CSConnectionRouter.SEARCH_MARGIN);
+    List<Point> path = this.searchPath(from, to, startOrientation, area);
+    if (path == null) {
+      Rectangle allBounds = this.obstacles.getBounds();
+      if (allBounds == null || area.contains(allBounds)) {
+        return null;
+      }
+      area.union(allBounds).expand(CSConnectionRouter.SEARCH_MARGIN,
+          CSConnectionRouter.SEARCH_MARGIN);
+      path = this.searchPath(from, to, startOrientation, area);
+      if (path == null) {
+        return null;
+      }
     }
-    if (delta > 0) {
-      return 1;
+    PointList points = new PointList();
+    addPoint(points, start);
+    for (Point point : path) {
+      addPoint(points, point);
     }
-
-    return 0;
+    addPoint(points, end);
+    return points;
   }
 
   /**
-   * 
-   * 
-   * @author Lukas Balzer
-   * 
-   * @param dist
-   * @param direction
-   * @return
+   * searches the shortest route with the fewest bends between the two points
+   * with an A* search. The nodes of the search are the crossings of the lines
+   * through the end points and the borders of the components in the area, so
+   * the number of nodes only depends on the number of components in the area
+   *
+   * @param from
+   *          the first point of the route
+   * @param to
+   *          the last point of the route
+   * @param orientation
+   *          the direction in which the first point has been reached, the
+   *          route may bend at the first point but it can't turn back
+   * @param area
+   *          the area in which the route must be located
+   * @return the corners of the route or null if there is no route in the area
    */
-  private Point xChange(int move, int direction) {
-    if (move == -direction) {
-      return CSConnectionRouter.STILL;
-    } else if (move < 0) {
-      return CSConnectionRouter.LEFT;
-    } else if (move > 0) {
-      return CSConnectionRouter.RIGHT;
-    } else {
-      return CSConnectionRouter.STILL;
+  public List<Point> searchPath(Point from, Point to, Point orientation, Rectangle area) {
+    List<Rectangle> blocks = new ArrayList<>();
+    List<Rectangle> clippedBlocks = new ArrayList<>();
+    TreeSet<Integer> xValues = new TreeSet<>(Arrays.asList(from.x, to.x, area.x, area.right()));
+    TreeSet<Integer> yValues = new TreeSet<>(Arrays.asList(from.y, to.y, area.y, area.bottom()));
+    for (Rectangle bounds : this.obstacles.query(area)) {
+      Rectangle block = bounds.getExpanded(CSConnectionRouter.INTERVALL,
+          CSConnectionRouter.INTERVALL);
+      Rectangle clipped = block.getIntersection(area);
+      if (!clipped.isEmpty()) {
+        blocks.add(block);
+        clippedBlocks.add(clipped);
+        xValues.add(clipped.x);
+        xValues.add(clipped.right());
+        yValues.add(clipped.y);
+        yValues.add(clipped.bottom());
+      }
     }
-  }
-
-  /**
-   * 
-   * 
-   * @author Lukas Balzer
-   * 
-   * @param dist
-   * @param direction
-   * @return
-   */
-  private Point yChange(int move, int direction) {
-    if (move < 0) {
-      return CSConnectionRouter.UP;
-    } else if (move > 0) {
-      return CSConnectionRouter.DOWN;
-    } else if (move == -direction) {
-      return CSConnectionRouter.STILL;
-    } else {
-      return CSConnectionRouter.STILL;
+    int[] xs = toArray(xValues);
+    int[] ys = toArray(yValues);
+    int width = xs.length;
+    int nodeCount = width * ys.length;
+
+    // the crossings inside of a component and the edges which lead through a
+    // component are blocked, the edges on the border are free. A border which
+    // has been clipped by the area lies inside of the component
+    boolean[] blockedNodes = new boolean[nodeCount];
+    boolean[] blockedRight = new boolean[nodeCount];
+    boolean[] blockedDown = new boolean[nodeCount];
+    for (int i = 0; i < blocks.size(); i++) {
+      Rectangle block = blocks.get(i);
+      Rectangle clipped = clippedBlocks.get(i);
+      int left = Arrays.binarySearch(xs, clipped.x);
+      int right = Arrays.binarySearch(xs, clipped.right());
+      int top = Arrays.binarySearch(ys, clipped.y);
+      int bottom = Arrays.binarySearch(ys, clipped.bottom());
+      int innerLeft = block.x < clipped.x ? left - 1 : left;
+      int innerRight = block.right() > clipped.right() ? right + 1 : right;
+      int innerTop = block.y < clipped.y ? top - 1 : top;
+      int innerBottom = block.bottom() > clipped.bottom() ? bottom + 1 : bottom;
+      for (int row = top; row <= bottom; row++) {
+        for (int column = left; column <= right; column++) {
+          int node = row * width + column;
+          boolean innerRow = (row > innerTop) && (row < innerBottom);
+          boolean innerColumn = (column > innerLeft) && (column < innerRight);
+          blockedNodes[node] |= innerRow && innerColumn;
+          blockedRight[node] |= innerRow && (column < right);
+          blockedDown[node] |= innerColumn && (row < bottom);
+        }
+      }
     }
-  }
-
-  /**
-   * 
-   * creates a matrix containing:<br/>
-   * if(child stored at this position)<br/>
-   * --SPACE_RESERVED<br/>
-   * else<br/>
-   * --NOT_VISITED
-   * 
-   * @return whether the matrix could be created or not
-   * @author Lukas Balzer
-   * 
-   * @see SPACE_RESERVED
-   * @see NOT_VISITED
-   */
-  private boolean fillMatrix() {
-
-    int xThreshold = this.owner.getFigure().getBounds().width + 1;
-
-    int yThreshold = this.owner.getFigure().getBounds().height + 1;
-    int[][] childMap = this.raster(xThreshold, yThreshold);
-
-    Iterator<IRectangleComponent> childIterator = this.owner
-        .getModelChildren().iterator();
-    int x;
-    int y;
-    while (childIterator.hasNext()) {
-      Rectangle childRect = childIterator.next().getLayout(
-          this.owner.getViewer()
-              .getProperty(IControlStructureEditor.STEP_EDITOR)
-              .toString().equals(CSEditor.ID));
-
-      // iterates over all points of the child and sets them to 0
-      // in the childMap
-      for (int xOffset = -CSConnectionRouter.INTERVALL; xOffset < (childRect.width
-          + CSConnectionRouter.INTERVALL); xOffset++) {
-        x = xOffset + childRect.x;
-        if ((x < 0) || (x > xThreshold)) {
-          x = 0;
+    int startNode = Arrays.binarySearch(ys, from.y) * width + Arrays.binarySearch(xs, from.x);
+    int endNode = Arrays.binarySearch(ys, to.y) * width + Arrays.binarySearch(xs, to.x);
+    blockedNodes[startNode] = false;
+    blockedNodes[endNode] = false;
+
+    // each state is a node together with the direction in which it was entered
+    int[] costs = new int[nodeCount * 4];
+    int[] parents = new int[nodeCount * 4];
+    Arrays.fill(costs, Integer.MAX_VALUE);
+    PriorityQueue<Long> queue = new PriorityQueue<>();
+    for (int direction = 0; direction < 4; direction++) {
+      boolean isOrientation = (DIRECTION_X[direction] == orientation.x)
+          && (DIRECTION_Y[direction] == orientation.y);
+      if (isOrientation || orientation.equals(0, 0)) {
+        int state = startNode * 4 + direction;
+        costs[state] = 0;
+        parents[state] = -1;
+        queue.add(((long) distance(xs, ys, width, startNode, to) << 32) | state);
+      }
+    }
+    while (!queue.isEmpty()) {
+      long entry = queue.poll();
+      int state = (int) entry;
+      int node = state / 4;
+      int direction = state % 4;
+      if ((entry >>> 32) > (long) costs[state] + distance(xs, ys, width, node, to)) {
+        // the state has been reached with lower costs in the meantime
+        continue;
+      }
+      if (node == endNode) {
+        return this.createPath(xs, ys, width, parents, state);
+      }
+      int column = node % width;
+      int row = node / width;
+      for (int next = 0; next < 4; next++) {
+        if (next == (direction ^ 1)) {
+          continue;
         }
-        for (int yOffset = -CSConnectionRouter.INTERVALL; yOffset < (childRect.height
-            + CSConnectionRouter.INTERVALL); yOffset++) {
-          y = yOffset + childRect.y;
-          if ((y < 0) || (y > yThreshold)) {
-            y = 0;
-          }
-          try {
-            childMap[x][y] = CSConnectionRouter.SPACE_RESERVED;
-          } catch (IndexOutOfBoundsException e) {
-            return false;
-          }
-
+        int nextColumn = column + DIRECTION_X[next];
+        int nextRow = row + DIRECTION_Y[next];
+        if ((nextColumn < 0) || (nextColumn >= width) || (nextRow < 0)
+            || (nextRow >= ys.length)) {
+          continue;
+        }
+        int nextNode = nextRow * width + nextColumn;
+        boolean blockedEdge;
+        if (next == 0) {
+          blockedEdge = blockedRight[node];
+        } else if (next == 1) {
+          blockedEdge = blockedRight[nextNode];
+        } else if (next == 2) {
+          blockedEdge = blockedDown[nextNode];
+        } else {
+          blockedEdge = blockedDown[node];
+        }
+        if (blockedEdge || blockedNodes[nextNode]) {
+          continue;
+        }
+        int nextCosts = costs[state] + Math.abs(xs[nextColumn] - xs[column])
+            + Math.abs(ys[nextRow] - ys[row]);
+        if (next != direction) {
+          nextCosts += CSConnectionRouter.BEND_COSTS;
+        }
+        int nextState = nextNode * 4 + next;
+        if (nextCosts < costs[nextState]) {
+          costs[nextState] = nextCosts;
+          parents[nextState] = state;
+          long estimate = (long) nextCosts + distance(xs, ys, width, nextNode, to);
+          queue.add((estimate << 32) | nextState);
         }
       }
-
     }
-
-    this.createCsMatrix(childMap);
-    return true;
+    return null;
   }
 
-  private int[][] raster(int xThreshold, int yThreshold) {
-    int[][] childMap = new int[xThreshold][yThreshold];
-    for (int x = 0; x < xThreshold; x++) {
-      for (int y = 0; y < yThreshold; y++) {
-        if ((x == 0) || (y == 0)) {
-          childMap[x][y] = CSConnectionRouter.SPACE_RESERVED;
-        } else if ((x == (xThreshold - 1)) || (y == (yThreshold - 1))) {
-          childMap[x][y] = CSConnectionRouter.SPACE_RESERVED;
-        } else {
-          childMap[x][y] = CSConnectionRouter.NOT_VISITED;
-        }
-      }
+  private List<Point> createPath(int[] xs, int[] ys, int width, int[] parents, int endState) {
+    List<Point> path = new ArrayList<>();
+    for (int state = endState; state >= 0; state = parents[state]) {
+      int node = state / 4;
+      path.add(0, new Point(xs[node % width], ys[node / width]));
     }
-    return childMap;
+    return path;
   }
 
-  private boolean insectOwner(Connection conn) {
-    Iterator<IRectangleComponent> childIterator = this.owner
-        .getModelChildren().iterator();
-    Rectangle childRect;
-    while (childIterator.hasNext()) {
+  private static int distance(int[] xs, int[] ys, int width, int node, Point to) {
+    return Math.abs(xs[node % width] - to.x) + Math.abs(ys[node / width] - to.y);
+  }
 
-      childRect = childIterator.next().getLayout(true).getCopy();
+  private static int[] toArray(Collection<Integer> values) {
+    int[] array = new int[values.size()];
+    int index = 0;
+    for (int value : values) {
+      array[index++] = value;
+    }
+    return array;
+  }
 
-      childRect.shrink(CSConnectionRouter.INTERSECTION_THRESHOLD);
-      if (conn.getPoints().intersects(childRect)) {
-        return true;
+  /**
+   * adds the point to the list, a point which is equal to the last point is
+   * skipped and the last point is replaced if it lies on a line between its
+   * predecessor and the new point
+   */
+  private static void addPoint(PointList points, Point point) {
+    int size = points.size();
+    if ((size > 0) && points.getLastPoint().equals(point)) {
+      return;
+    }
+    if (size > 1) {
+      Point before = points.getPoint(size - 2);
+      Point last = points.getLastPoint();
+      if (((before.x == last.x) && (last.x == point.x))
+          || ((before.y == last.y) && (last.y == point.y))) {
+        points.removePoint(size - 1);
       }
     }
-    return false;
+    points.addPoint(point);
   }
 
   /**
-   * 
-   * @author Lukas Balzer
-   * 
-   * @param newMatrix
-   *          a 2D array of integers which stores all pixels Whether there
-   *          is an component or not
+   * the cached route of a connection
    */
-  public void createCsMatrix(int[][] newMatrix) {
-    this.csMatrix = new int[newMatrix.length][newMatrix[0].length];
-    this.csMatrix = newMatrix.clone();
+  private static final class Route {
+    private final Point start;
+    private final Point end;
+    private final PointList points;
+    private final Rectangle area;
+
+    private Route(Point start, Point end, PointList points, Rectangle area) {
+      this.start = start;
+      this.end = end;
+      this.points = points;
+      this.area = area;
+    }
   }
-
 }
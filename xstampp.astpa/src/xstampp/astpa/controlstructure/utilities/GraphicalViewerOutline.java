@@ -10,9 +10,12 @@
  *******************************************************************************/
 package xstampp.astpa.controlstructure.utilities;
 
+import java.util.Map;
+
 import org.eclipse.draw2d.LightweightSystem;
 import org.eclipse.draw2d.RectangleFigure;
 import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.draw2d.parts.ScrollableThumbnail;
 import org.eclipse.gef.EditPartViewer;
 import org.eclipse.gef.LayerConstants;
@@ -22,6 +25,7 @@ import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IPartListener;
 import org.eclipse.ui.IPartListener2;
@@ -33,6 +37,11 @@ import xstampp.astpa.controlstructure.CSAbstractEditor;
 
 public class GraphicalViewerOutline extends ViewPart implements IPartListener {
 
+  /**
+   * the minimal time in milliseconds between two repaints of the thumbnail
+   */
+  private static final int REPAINT_INTERVAL = 250;
+
   private ScrollableThumbnail thumbnail;
   private DisposeListener disposeListener;
   private EditPartViewer viewer;
@@ -83,19 +92,24 @@ public class GraphicalViewerOutline extends ViewPart implements IPartListener {
         .getActiveEditor() instanceof CSAbstractEditor) {
       CSAbstractEditor editor = (CSAbstractEditor) PlatformUI.getWorkbench()
           .getActiveWorkbenchWindow().getActivePage().getActiveEditor();
-      this.thumbnail = new ScrollableThumbnail();
+      if (this.thumbnail != null) {
+        this.thumbnail.deactivate();
+      }
+      this.thumbnail = new ThrottledThumbnail();
       this.thumbnail.setViewport((Viewport) ((ScalableRootEditPart) editor.getGraphicalViewer()
           .getRootEditPart()).getFigure());
-      RectangleFigure f = new RectangleFigure();
-      f.setBounds(((ScalableRootEditPart) editor.getGraphicalViewer().getRootEditPart())
-          .getLayer(LayerConstants.PRINTABLE_LAYERS).getBounds());
-      this.thumbnail.setSource(f);
+      // the figures are drawn as placeholders at the scale of the thumbnail
+      this.thumbnail.setSource(((ScalableRootEditPart) editor.getGraphicalViewer()
+          .getRootEditPart()).getLayer(LayerConstants.PRINTABLE_LAYERS));
 
       this.lws.setContents(this.thumbnail);
     } else {
       IEditorPart editor = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage()
           .getActiveEditor();
       this.lws.setContents(new RectangleFigure());
+      if (this.thumbnail != null) {
+        this.thumbnail.deactivate();
+      }
       this.thumbnail = null;
     }
   }
@@ -123,4 +137,48 @@ public class GraphicalViewerOutline extends ViewPart implements IPartListener {
     // TODO Auto-generated method stub
 
   }
+
+  /**
+   * a thumbnail which collects the changes of the diagram and repaints them at
+   * most every {@link GraphicalViewerOutline#REPAINT_INTERVAL} milliseconds
+   *
+   * @author Lukas Balzer
+   *
+   */
+  private static class ThrottledThumbnail extends ScrollableThumbnail {
+    private Rectangle damage;
+    @SuppressWarnings("rawtypes")
+    private Map dirtyRegions;
+    private final Runnable repaint = new Runnable() {
+
+      @Override
+      public void run() {
+        if (ThrottledThumbnail.this.damage != null) {
+          Rectangle pendingDamage = ThrottledThumbnail.this.damage;
+          ThrottledThumbnail.this.damage = null;
+          ThrottledThumbnail.super.notifyPainting(pendingDamage,
+              ThrottledThumbnail.this.dirtyRegions);
+        }
+      }
+    };
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public void notifyPainting(Rectangle damage, Map dirtyRegions) {
+      this.dirtyRegions = dirtyRegions;
+      if (this.damage == null) {
+        this.damage = damage.getCopy();
+        Display.getDefault().timerExec(GraphicalViewerOutline.REPAINT_INTERVAL, this.repaint);
+      } else {
+        this.damage.union(damage);
+      }
+    }
+
+    @Override
+    public void deactivate() {
+      this.damage = null;
+      Display.getDefault().timerExec(-1, this.repaint);
+      super.deactivate();
+    }
+  }
 }
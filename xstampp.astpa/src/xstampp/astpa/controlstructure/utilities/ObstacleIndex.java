@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 A-STPA Stupro Team Uni Stuttgart (Lukas Balzer, Adam
+ * Grahovac, Jarkko Heidenwag, Benedikt Markt, Jaqueline Patzek, Sebastian
+ * Sieber, Fabian Toth, Patrick Wickenhäuser, Aliaksei Babkovich, Aleksander
+ * Zotov).
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+
+package xstampp.astpa.controlstructure.utilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * a uniform grid of buckets which stores the bounds of the components, so
+ * that only the components near a connection must be looked at by the
+ * {@link CSConnectionRouter}
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class ObstacleIndex {
+
+  /**
+   * the side length of the buckets in which the bounds of the components are
+   * stored
+   */
+  private static final int BUCKET_SIZE = 128;
+
+  private final Map<UUID, Rectangle> bounds = new HashMap<>();
+  private final Map<Long, List<UUID>> buckets = new HashMap<>();
+
+  /**
+   * @param id
+   *          the id of a component
+   * @return the bounds of the component or null if the index doesn't contain
+   *         the component
+   */
+  public Rectangle get(UUID id) {
+    return this.bounds.get(id);
+  }
+
+  /**
+   * @return a copy of the ids of all components in the index
+   */
+  public Set<UUID> getIds() {
+    return new HashSet<>(this.bounds.keySet());
+  }
+
+  /**
+   * @return the bounds of all components or null if there are no components
+   */
+  public Rectangle getBounds() {
+    Rectangle result = null;
+    for (Rectangle rect : this.bounds.values()) {
+      result = result == null ? rect.getCopy() : result.union(rect);
+    }
+    return result;
+  }
+
+  /**
+   * stores a copy of the bounds of the component, the old bounds of the
+   * component are replaced
+   *
+   * @param id
+   *          the id of the component
+   * @param rect
+   *          the bounds of the component
+   */
+  public void put(UUID id, Rectangle rect) {
+    remove(id);
+    Rectangle copy = rect.getCopy();
+    this.bounds.put(id, copy);
+    for (long key : keys(copy)) {
+      List<UUID> bucket = this.buckets.get(key);
+      if (bucket == null) {
+        bucket = new ArrayList<>();
+        this.buckets.put(key, bucket);
+      }
+      bucket.add(id);
+    }
+  }
+
+  /**
+   * @param id
+   *          the id of the component which is removed
+   * @return the removed bounds or null if the index didn't contain the
+   *         component
+   */
+  public Rectangle remove(UUID id) {
+    Rectangle old = this.bounds.remove(id);
+    if (old != null) {
+      for (long key : keys(old)) {
+        List<UUID> bucket = this.buckets.get(key);
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+          this.buckets.remove(key);
+        }
+      }
+    }
+    return old;
+  }
+
+  /**
+   * @param area
+   *          the area in which the components are searched
+   * @return the bounds of all components which intersect with the area
+   */
+  public List<Rectangle> query(Rectangle area) {
+    List<Rectangle> result = new ArrayList<>();
+    long bucketCount = (long) (bucket(area.right()) - bucket(area.x) + 1)
+        * (bucket(area.bottom()) - bucket(area.y) + 1);
+    if (bucketCount > this.bounds.size()) {
+      // a large area is faster compared with all components
+      for (Rectangle rect : this.bounds.values()) {
+        if (rect.intersects(area)) {
+          result.add(rect);
+        }
+      }
+      return result;
+    }
+    Set<UUID> found = new HashSet<>();
+    for (long key : keys(area)) {
+      List<UUID> bucket = this.buckets.get(key);
+      if (bucket != null) {
+        for (UUID id : bucket) {
+          Rectangle rect = this.bounds.get(id);
+          if (found.add(id) && rect.intersects(area)) {
+            result.add(rect);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private static List<Long> keys(Rectangle rect) {
+    List<Long> keys = new ArrayList<>();
+    for (int column = bucket(rect.x); column <= bucket(rect.right()); column++) {
+      for (int row = bucket(rect.y); row <= bucket(rect.bottom()); row++) {
+        keys.add(((long) column << 32) | (row & 0xffffffffL));
+      }
+    }
+    return keys;
+  }
+
+  private static int bucket(int coordinate) {
+    return Math.floorDiv(coordinate, BUCKET_SIZE);
+  }
+}
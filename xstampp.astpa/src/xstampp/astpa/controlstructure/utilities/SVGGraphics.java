@@ -0,0 +1,797 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.astpa.controlstructure.utilities;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.draw2d.FigureUtilities;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A draw2d {@link Graphics} which records everything that is painted on it as a scalable vector
+ * graphic (SVG).<br>
+ * Figures are painted on this graphics exactly as on a {@link org.eclipse.draw2d.SWTGraphics}, but
+ * instead of pixels each draw call creates an SVG element, so the size of the document depends
+ * only on the number of figures and not on the scale it is painted with. Images which are drawn
+ * by the figures are embedded as PNG.<br>
+ * The font metrics are calculated with {@link FigureUtilities}, thus this graphics must be used
+ * on the ui thread.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class SVGGraphics extends Graphics {
+
+  private static final String SVG_NS = "http://www.w3.org/2000/svg"; //$NON-NLS-1$
+  private static final String XLINK_NS = "http://www.w3.org/1999/xlink"; //$NON-NLS-1$
+
+  private final int width;
+  private final int height;
+  private final float fontScale;
+  private final StringBuilder defs;
+  private final StringBuilder body;
+  private final Map<Rectangle2D, String> clipIds;
+  private final Map<Image, String> images;
+  private final Deque<State> stack;
+  private State state;
+  private Rectangle2D groupClip;
+  private int nextId;
+
+  /**
+   * the properties of the graphics which are saved by {@link #pushState()}
+   */
+  private static class State {
+    private AffineTransform transform = new AffineTransform();
+    // the clip is stored in the coordinates of the document
+    private Rectangle2D clip;
+    private Color foreground;
+    private Color background;
+    private Font font;
+    private float lineWidth = 1;
+    private int lineStyle = SWT.LINE_SOLID;
+    private float[] lineDash;
+    private int lineCap = SWT.CAP_FLAT;
+    private int lineJoin = SWT.JOIN_MITER;
+    private int alpha = 255;
+    private int antialias = SWT.DEFAULT;
+    private int textAntialias = SWT.DEFAULT;
+    private boolean xorMode;
+
+    private State copy() {
+      State copy = new State();
+      copy.set(this);
+      return copy;
+    }
+
+    private void set(State other) {
+      this.transform = new AffineTransform(other.transform);
+      this.clip = other.clip;
+      this.foreground = other.foreground;
+      this.background = other.background;
+      this.font = other.font;
+      this.lineWidth = other.lineWidth;
+      this.lineStyle = other.lineStyle;
+      this.lineDash = other.lineDash;
+      this.lineCap = other.lineCap;
+      this.lineJoin = other.lineJoin;
+      this.alpha = other.alpha;
+      this.antialias = other.antialias;
+      this.textAntialias = other.textAntialias;
+      this.xorMode = other.xorMode;
+    }
+  }
+
+  /**
+   * creates a new empty document with the given size, the initial clip covers the whole document
+   *
+   * @param width
+   *          the width of the document
+   * @param height
+   *          the height of the document
+   */
+  public SVGGraphics(int width, int height) {
+    this.width = Math.max(1, width);
+    this.height = Math.max(1, height);
+    this.defs = new StringBuilder();
+    this.body = new StringBuilder();
+    this.clipIds = new HashMap<>();
+    this.images = new IdentityHashMap<>();
+    this.stack = new ArrayDeque<>();
+    this.state = new State();
+    this.state.clip = new Rectangle2D.Double(0, 0, this.width, this.height);
+    this.state.foreground = Display.getDefault().getSystemColor(SWT.COLOR_BLACK);
+    this.state.background = Display.getDefault().getSystemColor(SWT.COLOR_WHITE);
+    this.state.font = Display.getDefault().getSystemFont();
+    // font heights are given in points and must be converted to pixels
+    this.fontScale = Display.getDefault().getDPI().y / 72f;
+    this.nextId = 0;
+  }
+
+  /**
+   * @return the complete svg document encoded in UTF-8
+   */
+  public byte[] toByteArray() {
+    return toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder document = new StringBuilder(this.body.length() + this.defs.length() + 512);
+    document.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+    document.append("<svg xmlns=\"").append(SVG_NS).append("\" xmlns:xlink=\"") //$NON-NLS-1$ //$NON-NLS-2$
+        .append(XLINK_NS).append("\" version=\"1.1\" width=\"").append(this.width) //$NON-NLS-1$
+        .append("\" height=\"").append(this.height).append("\" viewBox=\"0 0 ") //$NON-NLS-1$ //$NON-NLS-2$
+        .append(this.width).append(' ').append(this.height).append("\">\n"); //$NON-NLS-1$
+    if (this.defs.length() > 0) {
+      document.append("<defs>\n").append(this.defs).append("</defs>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    document.append(this.body);
+    if (this.groupClip != null) {
+      document.append("</g>\n"); //$NON-NLS-1$
+    }
+    document.append("</svg>\n"); //$NON-NLS-1$
+    return document.toString();
+  }
+
+  @Override
+  public void dispose() {
+    this.stack.clear();
+    this.images.clear();
+  }
+
+  // ======================== clipping and transformation ========================
+
+  @Override
+  public void clipRect(Rectangle r) {
+    Rectangle2D clip = toDocument(r.x, r.y, r.width, r.height);
+    Rectangle2D.intersect(this.state.clip, clip, clip);
+    if (clip.getWidth() < 0 || clip.getHeight() < 0) {
+      clip.setRect(clip.getX(), clip.getY(), 0, 0);
+    }
+    this.state.clip = clip;
+  }
+
+  @Override
+  public void setClip(Rectangle r) {
+    this.state.clip = toDocument(r.x, r.y, r.width, r.height);
+  }
+
+  @Override
+  public Rectangle getClip(Rectangle rect) {
+    Rectangle2D clip = this.state.clip;
+    try {
+      AffineTransform inverse = this.state.transform.createInverse();
+      clip = inverse.createTransformedShape(clip).getBounds2D();
+    } catch (NoninvertibleTransformException e) {
+      // the clip can only be given in document coordinates
+    }
+    int x = (int) Math.floor(clip.getX());
+    int y = (int) Math.floor(clip.getY());
+    rect.setBounds(x, y, (int) Math.ceil(clip.getMaxX()) - x, (int) Math.ceil(clip.getMaxY()) - y);
+    return rect;
+  }
+
+  @Override
+  public void translate(int dx, int dy) {
+    this.state.transform.translate(dx, dy);
+  }
+
+  @Override
+  public void translate(float dx, float dy) {
+    this.state.transform.translate(dx, dy);
+  }
+
+  @Override
+  public void scale(double amount) {
+    this.state.transform.scale(amount, amount);
+  }
+
+  @Override
+  public void scale(float horizontal, float vertical) {
+    this.state.transform.scale(horizontal, vertical);
+  }
+
+  @Override
+  public void rotate(float degrees) {
+    this.state.transform.rotate(Math.toRadians(degrees));
+  }
+
+  @Override
+  public double getAbsoluteScale() {
+    return Math.sqrt(Math.abs(this.state.transform.getDeterminant()));
+  }
+
+  @Override
+  public void pushState() {
+    this.stack.push(this.state.copy());
+  }
+
+  @Override
+  public void popState() {
+    this.state.set(this.stack.pop());
+  }
+
+  @Override
+  public void restoreState() {
+    this.state.set(this.stack.peek());
+  }
+
+  // ======================== drawing ========================
+
+  @Override
+  public void drawArc(int x, int y, int w, int h, int offset, int length) {
+    if (Math.abs(length) >= 360) {
+      drawOval(x, y, w, h);
+      return;
+    }
+    appendElement("path", stroke()).append(" d=\"").append(arc(x, y, w, h, offset, length, false)) //$NON-NLS-1$ //$NON-NLS-2$
+        .append("\"/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void fillArc(int x, int y, int w, int h, int offset, int length) {
+    if (Math.abs(length) >= 360) {
+      fillOval(x, y, w, h);
+      return;
+    }
+    appendElement("path", fill()).append(" d=\"").append(arc(x, y, w, h, offset, length, true)) //$NON-NLS-1$ //$NON-NLS-2$
+        .append("\"/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void drawFocus(int x, int y, int w, int h) {
+    appendElement("rect", stroke() + " stroke-dasharray=\"1 1\"") //$NON-NLS-1$ //$NON-NLS-2$
+        .append(rect(x, y, w, h)).append("/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void drawImage(Image srcImage, int x, int y) {
+    org.eclipse.swt.graphics.Rectangle bounds = srcImage.getBounds();
+    appendElement("image", opacity()).append(rect(x, y, bounds.width, bounds.height)) //$NON-NLS-1$
+        .append(" preserveAspectRatio=\"none\" xlink:href=\"").append(getImageId(srcImage)) //$NON-NLS-1$
+        .append("\"/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void drawImage(Image srcImage, int x1, int y1, int w1, int h1, int x2, int y2, int w2,
+      int h2) {
+    int imgWidth = srcImage.getBounds().width;
+    int imgHeight = srcImage.getBounds().height;
+    // the nested viewport shows the source rectangle of the image stretched to the target
+    appendElement("svg", opacity()).append(rect(x2, y2, w2, h2)).append(" viewBox=\"") //$NON-NLS-1$ //$NON-NLS-2$
+        .append(x1).append(' ').append(y1).append(' ').append(w1).append(' ').append(h1)
+        .append("\" preserveAspectRatio=\"none\"><image").append(rect(0, 0, imgWidth, imgHeight)) //$NON-NLS-1$
+        .append(" xlink:href=\"").append(getImageId(srcImage)).append("\"/></svg>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void drawLine(int x1, int y1, int x2, int y2) {
+    appendElement("line", stroke()).append(" x1=\"").append(x1).append("\" y1=\"").append(y1) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        .append("\" x2=\"").append(x2).append("\" y2=\"").append(y2).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+  }
+
+  @Override
+  public void drawOval(int x, int y, int w, int h) {
+    appendElement("ellipse", stroke()).append(ellipse(x, y, w, h)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void fillOval(int x, int y, int w, int h) {
+    appendElement("ellipse", fill()).append(ellipse(x, y, w, h)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void drawPolygon(PointList points) {
+    appendElement("polygon", stroke()).append(points(points)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void fillPolygon(PointList points) {
+    appendElement("polygon", fill()).append(points(points)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void drawPolyline(PointList points) {
+    appendElement("polyline", stroke()).append(points(points)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void drawRectangle(int x, int y, int width, int height) {
+    appendElement("rect", stroke()).append(rect(x, y, width, height)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void fillRectangle(int x, int y, int width, int height) {
+    appendElement("rect", fill()).append(rect(x, y, width, height)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  @Override
+  public void drawRoundRectangle(Rectangle r, int arcWidth, int arcHeight) {
+    appendElement("rect", stroke()).append(rect(r.x, r.y, r.width, r.height)) //$NON-NLS-1$
+        .append(corners(arcWidth, arcHeight)).append("/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void fillRoundRectangle(Rectangle r, int arcWidth, int arcHeight) {
+    appendElement("rect", fill()).append(rect(r.x, r.y, r.width, r.height)) //$NON-NLS-1$
+        .append(corners(arcWidth, arcHeight)).append("/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void fillGradient(int x, int y, int w, int h, boolean vertical) {
+    String id = "gradient" + this.nextId++; //$NON-NLS-1$
+    this.defs.append("<linearGradient id=\"").append(id).append("\" x1=\"0\" y1=\"0\" x2=\"") //$NON-NLS-1$ //$NON-NLS-2$
+        .append(vertical ? 0 : 1).append("\" y2=\"").append(vertical ? 1 : 0).append("\">") //$NON-NLS-1$ //$NON-NLS-2$
+        .append("<stop offset=\"0\" stop-color=\"").append(color(this.state.foreground)) //$NON-NLS-1$
+        .append("\"/><stop offset=\"1\" stop-color=\"").append(color(this.state.background)) //$NON-NLS-1$
+        .append("\"/></linearGradient>\n"); //$NON-NLS-1$
+    appendElement("rect", "fill=\"url(#" + id + ")\"" + opacity()).append(rect(x, y, w, h)) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        .append("/>\n"); //$NON-NLS-1$
+  }
+
+  @Override
+  public void drawString(String s, int x, int y) {
+    appendText(s, x, y, false, false);
+  }
+
+  @Override
+  public void fillString(String s, int x, int y) {
+    appendText(s, x, y, false, true);
+  }
+
+  @Override
+  public void drawText(String s, int x, int y) {
+    appendText(s, x, y, true, false);
+  }
+
+  @Override
+  public void fillText(String s, int x, int y) {
+    appendText(s, x, y, true, true);
+  }
+
+  // ======================== properties ========================
+
+  @Override
+  public Color getBackgroundColor() {
+    return this.state.background;
+  }
+
+  @Override
+  public void setBackgroundColor(Color rgb) {
+    this.state.background = rgb;
+  }
+
+  @Override
+  public Color getForegroundColor() {
+    return this.state.foreground;
+  }
+
+  @Override
+  public void setForegroundColor(Color rgb) {
+    this.state.foreground = rgb;
+  }
+
+  @Override
+  public Font getFont() {
+    return this.state.font;
+  }
+
+  @Override
+  public void setFont(Font f) {
+    this.state.font = f;
+  }
+
+  @Override
+  public FontMetrics getFontMetrics() {
+    return FigureUtilities.getFontMetrics(this.state.font);
+  }
+
+  @Override
+  public int getLineStyle() {
+    return this.state.lineStyle;
+  }
+
+  @Override
+  public void setLineStyle(int style) {
+    this.state.lineStyle = style;
+  }
+
+  @Override
+  public void setLineDash(int[] dash) {
+    if (dash == null) {
+      this.state.lineDash = null;
+      return;
+    }
+    float[] floatDash = new float[dash.length];
+    for (int i = 0; i < dash.length; i++) {
+      floatDash[i] = dash[i];
+    }
+    setLineDash(floatDash);
+  }
+
+  @Override
+  public void setLineDash(float[] dash) {
+    this.state.lineDash = dash == null ? null : dash.clone();
+    if (dash != null) {
+      this.state.lineStyle = SWT.LINE_CUSTOM;
+    }
+  }
+
+  @Override
+  public void setLineDashOffset(float value) {
+    // the dash offset is not significant for the exported image
+  }
+
+  @Override
+  public int getLineWidth() {
+    return (int) this.state.lineWidth;
+  }
+
+  @Override
+  public void setLineWidth(int width) {
+    this.state.lineWidth = width;
+  }
+
+  @Override
+  public float getLineWidthFloat() {
+    return this.state.lineWidth;
+  }
+
+  @Override
+  public void setLineWidthFloat(float width) {
+    this.state.lineWidth = width;
+  }
+
+  @Override
+  public int getLineCap() {
+    return this.state.lineCap;
+  }
+
+  @Override
+  public void setLineCap(int cap) {
+    this.state.lineCap = cap;
+  }
+
+  @Override
+  public int getLineJoin() {
+    return this.state.lineJoin;
+  }
+
+  @Override
+  public void setLineJoin(int join) {
+    this.state.lineJoin = join;
+  }
+
+  @Override
+  public int getAlpha() {
+    return this.state.alpha;
+  }
+
+  @Override
+  public void setAlpha(int alpha) {
+    this.state.alpha = alpha;
+  }
+
+  @Override
+  public int getAntialias() {
+    return this.state.antialias;
+  }
+
+  @Override
+  public void setAntialias(int value) {
+    this.state.antialias = value;
+  }
+
+  @Override
+  public int getTextAntialias() {
+    return this.state.textAntialias;
+  }
+
+  @Override
+  public void setTextAntialias(int value) {
+    this.state.textAntialias = value;
+  }
+
+  @Override
+  public boolean getXORMode() {
+    return this.state.xorMode;
+  }
+
+  @Override
+  public void setXORMode(boolean b) {
+    // xor painting is only used for feedback and can not be expressed in svg
+    this.state.xorMode = b;
+  }
+
+  // ======================== svg output ========================
+
+  /**
+   * starts a new element in the body of the document, the element is placed in a group clipped
+   * with the current clip and is transformed with the current transformation
+   */
+  private StringBuilder appendElement(String name, String paint) {
+    if (!this.state.clip.equals(this.groupClip)) {
+      if (this.groupClip != null) {
+        this.body.append("</g>\n"); //$NON-NLS-1$
+      }
+      this.groupClip = this.state.clip;
+      this.body.append("<g clip-path=\"url(#").append(getClipId(this.groupClip)).append(")\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    this.body.append('<').append(name);
+    if (!this.state.transform.isIdentity()) {
+      double[] matrix = new double[6];
+      this.state.transform.getMatrix(matrix);
+      this.body.append(" transform=\"matrix("); //$NON-NLS-1$
+      for (int i = 0; i < matrix.length; i++) {
+        this.body.append(i == 0 ? "" : " ").append(number(matrix[i])); //$NON-NLS-1$ //$NON-NLS-2$
+      }
+      this.body.append(")\""); //$NON-NLS-1$
+    }
+    return this.body.append(' ').append(paint);
+  }
+
+  private void appendText(String s, int x, int y, boolean multiLine, boolean fillBackground) {
+    if (s == null || s.isEmpty()) {
+      return;
+    }
+    FontMetrics metrics = getFontMetrics();
+    String[] lines = multiLine ? s.replace('\t', ' ').split("\r\n|\r|\n", -1) //$NON-NLS-1$
+        : new String[] { s };
+    if (fillBackground) {
+      Dimension extent = FigureUtilities.getTextExtents(s, this.state.font);
+      appendElement("rect", fill()).append(rect(x, y, extent.width, extent.height)).append("/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    FontData data = this.state.font.getFontData()[0];
+    StringBuilder style = new StringBuilder();
+    style.append("fill=\"").append(color(this.state.foreground)).append('"').append(opacity()) //$NON-NLS-1$
+        .append(" font-family=\"").append(escape(data.getName())).append("\" font-size=\"") //$NON-NLS-1$ //$NON-NLS-2$
+        .append(number(data.getHeight() * this.fontScale)).append('"');
+    if ((data.getStyle() & SWT.BOLD) != 0) {
+      style.append(" font-weight=\"bold\""); //$NON-NLS-1$
+    }
+    if ((data.getStyle() & SWT.ITALIC) != 0) {
+      style.append(" font-style=\"italic\""); //$NON-NLS-1$
+    }
+    // swt places the text with its upper left corner, svg places the baseline
+    int baseline = y + metrics.getLeading() + metrics.getAscent();
+    for (int i = 0; i < lines.length; i++) {
+      if (!lines[i].isEmpty()) {
+        appendElement("text", style.toString()).append(" xml:space=\"preserve\" x=\"").append(x) //$NON-NLS-1$ //$NON-NLS-2$
+            .append("\" y=\"").append(baseline + i * metrics.getHeight()).append("\">") //$NON-NLS-1$ //$NON-NLS-2$
+            .append(escape(lines[i])).append("</text>\n"); //$NON-NLS-1$
+      }
+    }
+  }
+
+  private String getClipId(Rectangle2D clip) {
+    String id = this.clipIds.get(clip);
+    if (id == null) {
+      id = "clip" + this.nextId++; //$NON-NLS-1$
+      this.clipIds.put(clip, id);
+      this.defs.append("<clipPath id=\"").append(id).append("\"><rect x=\"") //$NON-NLS-1$ //$NON-NLS-2$
+          .append(number(clip.getX())).append("\" y=\"").append(number(clip.getY())) //$NON-NLS-1$
+          .append("\" width=\"").append(number(clip.getWidth())).append("\" height=\"") //$NON-NLS-1$ //$NON-NLS-2$
+          .append(number(clip.getHeight())).append("\"/></clipPath>\n"); //$NON-NLS-1$
+    }
+    return id;
+  }
+
+  /**
+   * @return a data url containing the given image encoded as png, each image is encoded only once
+   */
+  private String getImageId(Image image) {
+    String url = this.images.get(image);
+    if (url == null) {
+      ImageLoader loader = new ImageLoader();
+      loader.data = new ImageData[] { image.getImageData() };
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      loader.save(stream, SWT.IMAGE_PNG);
+      url = "data:image/png;base64," //$NON-NLS-1$
+          + Base64.getEncoder().encodeToString(stream.toByteArray());
+      this.images.put(image, url);
+    }
+    return url;
+  }
+
+  private String stroke() {
+    StringBuilder stroke = new StringBuilder();
+    stroke.append("fill=\"none\" stroke=\"").append(color(this.state.foreground)) //$NON-NLS-1$
+        .append("\" stroke-width=\"").append(number(Math.max(1, this.state.lineWidth))).append('"'); //$NON-NLS-1$
+    if (this.state.lineCap == SWT.CAP_ROUND) {
+      stroke.append(" stroke-linecap=\"round\""); //$NON-NLS-1$
+    } else if (this.state.lineCap == SWT.CAP_SQUARE) {
+      stroke.append(" stroke-linecap=\"square\""); //$NON-NLS-1$
+    }
+    if (this.state.lineJoin == SWT.JOIN_ROUND) {
+      stroke.append(" stroke-linejoin=\"round\""); //$NON-NLS-1$
+    } else if (this.state.lineJoin == SWT.JOIN_BEVEL) {
+      stroke.append(" stroke-linejoin=\"bevel\""); //$NON-NLS-1$
+    }
+    float[] dash = getDash();
+    if (dash != null && dash.length > 0) {
+      stroke.append(" stroke-dasharray=\""); //$NON-NLS-1$
+      for (int i = 0; i < dash.length; i++) {
+        stroke.append(i == 0 ? "" : " ").append(number(dash[i])); //$NON-NLS-1$ //$NON-NLS-2$
+      }
+      stroke.append('"');
+    }
+    return stroke.append(opacity()).toString();
+  }
+
+  /**
+   * @return the dash pattern of the current line style, the predefined patterns are the ones swt
+   *         uses for a line width of 1 and are scaled by the line width like in swt
+   */
+  private float[] getDash() {
+    float[] dash;
+    switch (this.state.lineStyle) {
+    case SWT.LINE_DASH:
+      dash = new float[] { 18, 6 };
+      break;
+    case SWT.LINE_DOT:
+      dash = new float[] { 3, 3 };
+      break;
+    case SWT.LINE_DASHDOT:
+      dash = new float[] { 9, 6, 3, 6 };
+      break;
+    case SWT.LINE_DASHDOTDOT:
+      dash = new float[] { 9, 3, 3, 3, 3, 3 };
+      break;
+    case SWT.LINE_CUSTOM:
+      return this.state.lineDash;
+    default:
+      return null;
+    }
+    for (int i = 0; i < dash.length; i++) {
+      dash[i] *= Math.max(1, this.state.lineWidth);
+    }
+    return dash;
+  }
+
+  private String fill() {
+    return "fill=\"" + color(this.state.background) + "\"" + opacity(); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  private String opacity() {
+    if (this.state.alpha >= 255) {
+      return ""; //$NON-NLS-1$
+    }
+    return " opacity=\"" + number(this.state.alpha / 255d) + "\""; //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  private static String rect(int x, int y, int w, int h) {
+    return " x=\"" + x + "\" y=\"" + y + "\" width=\"" + Math.max(0, w) + "\" height=\"" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        + Math.max(0, h) + "\""; //$NON-NLS-1$
+  }
+
+  private static String corners(int arcWidth, int arcHeight) {
+    return " rx=\"" + number(arcWidth / 2d) + "\" ry=\"" + number(arcHeight / 2d) + "\""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+  }
+
+  private static String ellipse(int x, int y, int w, int h) {
+    return " cx=\"" + number(x + w / 2d) + "\" cy=\"" + number(y + h / 2d) + "\" rx=\"" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        + number(w / 2d) + "\" ry=\"" + number(h / 2d) + "\""; //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  private static String points(PointList points) {
+    StringBuilder list = new StringBuilder(" points=\""); //$NON-NLS-1$
+    int[] coordinates = points.toIntArray();
+    for (int i = 0; i + 1 < coordinates.length; i += 2) {
+      list.append(i == 0 ? "" : " ").append(coordinates[i]).append(',').append(coordinates[i + 1]); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    return list.append('"').toString();
+  }
+
+  /**
+   * creates the path data of an arc, the angles are given like in swt counter-clockwise in
+   * degrees with 0 at 3 o'clock
+   */
+  private static String arc(int x, int y, int w, int h, int offset, int length, boolean pie) {
+    double rx = w / 2d;
+    double ry = h / 2d;
+    double cx = x + rx;
+    double cy = y + ry;
+    double start = Math.toRadians(offset);
+    double end = Math.toRadians(offset + length);
+    StringBuilder path = new StringBuilder();
+    if (pie) {
+      path.append("M ").append(number(cx)).append(' ').append(number(cy)).append(" L "); //$NON-NLS-1$ //$NON-NLS-2$
+    } else {
+      path.append("M "); //$NON-NLS-1$
+    }
+    path.append(number(cx + rx * Math.cos(start))).append(' ')
+        .append(number(cy - ry * Math.sin(start))).append(" A ").append(number(rx)).append(' ') //$NON-NLS-1$
+        .append(number(ry)).append(" 0 ").append(Math.abs(length) > 180 ? 1 : 0) //$NON-NLS-1$
+        .append(length > 0 ? " 0 " : " 1 ").append(number(cx + rx * Math.cos(end))).append(' ') //$NON-NLS-1$ //$NON-NLS-2$
+        .append(number(cy - ry * Math.sin(end)));
+    if (pie) {
+      path.append(" Z"); //$NON-NLS-1$
+    }
+    return path.toString();
+  }
+
+  private Rectangle2D toDocument(int x, int y, int w, int h) {
+    return this.state.transform.createTransformedShape(new Rectangle2D.Double(x, y, w, h))
+        .getBounds2D();
+  }
+
+  private static String color(Color color) {
+    if (color == null || color.isDisposed()) {
+      return "none"; //$NON-NLS-1$
+    }
+    return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue()); //$NON-NLS-1$
+  }
+
+  private static String number(double value) {
+    if (value == Math.rint(value) && !Double.isInfinite(value)) {
+      return Long.toString((long) value);
+    }
+    String text = String.format(Locale.ENGLISH, "%.3f", value); //$NON-NLS-1$
+    int end = text.length();
+    while (text.charAt(end - 1) == '0') {
+      end--;
+    }
+    if (text.charAt(end - 1) == '.') {
+      end--;
+    }
+    return text.substring(0, end);
+  }
+
+  private static String escape(String text) {
+    StringBuilder escaped = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+      case '&':
+        escaped.append("&amp;"); //$NON-NLS-1$
+        break;
+      case '<':
+        escaped.append("&lt;"); //$NON-NLS-1$
+        break;
+      case '>':
+        escaped.append("&gt;"); //$NON-NLS-1$
+        break;
+      case '"':
+        escaped.append("&quot;"); //$NON-NLS-1$
+        break;
+      default:
+        if (c >= 0x20 || c == '\t') {
+          escaped.append(c);
+        }
+      }
+    }
+    return escaped.toString();
+  }
+}
@@ -12,6 +12,9 @@
 package xstampp.astpa.model;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Dictionary;
@@ -28,6 +31,10 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.Platform;
@@ -192,6 +199,11 @@ public class DataModelController extends AbstractDataModel
   private boolean refreshLock;
   private List<ObserverValue> blockedUpdates;
   private IUserSystem userSystem;
+  private final Object exportLock = new Object();
+  private boolean preparingExport;
+  private int exportPreparations;
+  private int controlStructureVersion;
+  private final Map<UUID, Integer> controlActionVersions = new HashMap<>();
 
   public void setVersion(String astpaVersion) {
     this.astpaVersion = astpaVersion;
@@ -248,24 +260,119 @@ public class DataModelController extends AbstractDataModel
 
   }
 
+  /**
+   * {@inheritDoc}<br>
+   * If the model is already being prepared by another thread this call doesn't prepare the model
+   * again but waits until that preparation is finished, jobs which wait for the preparation can
+   * use {@link #waitForExportInfo(long)}.
+   */
   @Override
   public boolean prepareForExport() {
+    synchronized (this.exportLock) {
+      // a preview which has prepared the model before must not remove the preparation
+      this.exportPreparations++;
+      if (this.preparingExport) {
+        awaitPreparation();
+        return this.exportInformation != null;
+      }
+      this.preparingExport = true;
+      this.exportInformation = null;
+    }
+    prepareModel();
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}<br>
+   * The preparation is shared with the exports, a model which is prepared for an export is used by
+   * the preview as it is and only the exports remove their preparation with
+   * {@link #prepareForSave()}.
+   */
+  @Override
+  public int prepareForPreview() {
+    int preparation;
+    synchronized (this.exportLock) {
+      awaitPreparation();
+      if (this.preparingExport || this.exportInformation != null) {
+        return 0;
+      }
+      this.preparingExport = true;
+      preparation = ++this.exportPreparations;
+    }
+    prepareModel();
+    return preparation;
+  }
+
+  @Override
+  public void releasePreview(int preparation) {
+    synchronized (this.exportLock) {
+      // the lock is held so that no export can prepare the model while it is cleaned up
+      if (preparation != 0 && preparation == this.exportPreparations
+          && this.exportInformation != null) {
+        prepareForSave();
+      }
+    }
+  }
+
+  private void awaitPreparation() {
+    try {
+      while (this.preparingExport) {
+        this.exportLock.wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 
-    this.exportInformation = null;
-    this.getHazAccController().prepareForExport(getLinkController(), this.getSdsController());
-    getSdsController().prepareForExport(getLinkController(), getHazAccController(),
-        getControlActionController(), getCausalFactorController());
-    this.extendedDataController.prepareForExport();
-    this.getControlActionController().prepareForExport(getLinkController(),
-        this.getHazAccController(),
-        this.controlStructureController, ignoreLtlValue.getText(), this.extendedDataController,
-        getSdsController());
-    this.causalFactorController.prepareForExport(this.getHazAccController(),
-        getRoot().getChildren(), getAllScenarios(true, true, true), getAllUnsafeControlActions());
-    this.projectDataManager.prepareForExport();
-    this.exportInformation = new ExportInformation();
+  private void prepareModel() {
+    ExportInformation information = null;
+    try {
+      this.getHazAccController().prepareForExport(getLinkController(), this.getSdsController());
+      getSdsController().prepareForExport(getLinkController(), getHazAccController(),
+          getControlActionController(), getCausalFactorController());
+      this.extendedDataController.prepareForExport();
+      this.getControlActionController().prepareForExport(getLinkController(),
+          this.getHazAccController(),
+          this.controlStructureController, ignoreLtlValue.getText(), this.extendedDataController,
+          getSdsController());
+      this.causalFactorController.prepareForExport(this.getHazAccController(),
+          getRoot().getChildren(), getAllScenarios(true, true, true), getAllUnsafeControlActions());
+      this.projectDataManager.prepareForExport();
+      information = new ExportInformation();
+    } finally {
+      synchronized (this.exportLock) {
+        this.exportInformation = information;
+        this.preparingExport = false;
+        this.exportLock.notifyAll();
+      }
+    }
     ProjectManager.getLOGGER().debug("Project: " + getProjectName() + " prepared for export");
-    return true;
+  }
+
+  /**
+   * blocks the calling thread until the model has been prepared with {@link #prepareForExport()}
+   * or the given timeout has passed. Jobs should call this repeatedly with a short timeout so that
+   * they can react to a cancellation in between.
+   *
+   * @param timeout
+   *          the maximum time to wait in milliseconds
+   * @return the export information of the prepared model or <code>null</code> if the model has not
+   *         been prepared within the timeout
+   * @throws InterruptedException
+   *           if the calling thread is interrupted while waiting
+   */
+  public ExportInformation waitForExportInfo(long timeout) throws InterruptedException {
+    long end = System.currentTimeMillis() + timeout;
+    synchronized (this.exportLock) {
+      while (this.preparingExport || this.exportInformation == null) {
+        long remaining = end - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return null;
+        }
+        this.exportLock.wait(remaining);
+      }
+      return this.exportInformation;
+    }
   }
 
   @Override
@@ -289,7 +396,9 @@ public class DataModelController extends AbstractDataModel
     if (!this.getSdsController().prepareForSave()) {
       this.sdsController = null;
     }
-    this.exportInformation = null;
+    synchronized (this.exportLock) {
+      this.exportInformation = null;
+    }
     releaseLockAndUpdate(null);
     ProjectManager.getLOGGER().debug("Project: " + getProjectName() + " prepared for save");
   }
@@ -325,7 +434,7 @@ public class DataModelController extends AbstractDataModel
 
     if (this.controlStructureController.getComponent(notProvidedVariable) != null) {
       this.getControlActionController().addNotProvidedVariable(caID, notProvidedVariable);
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
     } else {
       LOGGER.debug("given provided id is not related to a valid component");
     }
@@ -336,7 +445,7 @@ public class DataModelController extends AbstractDataModel
 
     if (this.controlStructureController.getComponent(providedVariable) != null) {
       this.getControlActionController().addProvidedVariable(caID, providedVariable);
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
     } else {
       LOGGER.debug("given provided id is not related to a valid component");
     }
@@ -426,7 +535,7 @@ public class DataModelController extends AbstractDataModel
       result = this.controlStructureController.addComponent(parentId, layout, text, type, index);
     }
     if (result != null) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
     }
     return result;
   }
@@ -441,7 +550,7 @@ public class DataModelController extends AbstractDataModel
     UUID result = this.controlStructureController.addConnection(sourceAnchor, targetAnchor,
         connectionType);
     if (result != null) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
     }
     return result;
   }
@@ -644,7 +753,7 @@ public class DataModelController extends AbstractDataModel
    */
   public boolean addValuesWhenNotProvided(UUID caID, NotProvidedValuesCombi valueWhenNotProvided) {
     if (this.getControlActionController().addValueWhenNotProvided(caID, valueWhenNotProvided)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -663,7 +772,7 @@ public class DataModelController extends AbstractDataModel
    */
   public boolean addValueWhenProvided(UUID caID, ProvidedValuesCombi valueWhenProvided) {
     if (this.getControlActionController().addValueWhenProvided(caID, valueWhenProvided)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -702,7 +811,7 @@ public class DataModelController extends AbstractDataModel
 
     if (this.controlStructureController.changeComponentText(componentId, text)) {
       this.setControlActionTitle(this.getComponent(componentId).getControlActionLink(), text);
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -715,7 +824,7 @@ public class DataModelController extends AbstractDataModel
     }
 
     if (this.controlStructureController.changeConnectionSource(connectionId, sourceAnchor)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -728,7 +837,7 @@ public class DataModelController extends AbstractDataModel
     }
 
     if (this.controlStructureController.changeConnectionTarget(connectionId, targetAnchor)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -741,7 +850,7 @@ public class DataModelController extends AbstractDataModel
     }
 
     if (this.controlStructureController.changeConnectionType(connectionId, connectionType)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -1321,7 +1430,7 @@ public class DataModelController extends AbstractDataModel
   @Override
   public boolean linkControlAction(UUID caId, UUID componentId) {
     if (this.getControlActionController().setComponentLink(componentId, caId)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_ACTION);
+      this.setControlActionChanged(caId, ObserverValue.CONTROL_ACTION);
       return true;
     }
     return false;
@@ -1375,7 +1484,7 @@ public class DataModelController extends AbstractDataModel
       return false;
     }
     if (this.controlStructureController.recoverComponent(parentId, componentId)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -1387,7 +1496,7 @@ public class DataModelController extends AbstractDataModel
       return false;
     }
     if (this.controlStructureController.recoverConnection(connectionId)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -1439,7 +1548,7 @@ public class DataModelController extends AbstractDataModel
   @Override
   public boolean removeCANotProvidedVariable(UUID caID, UUID notProvidedVariable) {
     if (this.getControlActionController().removeNotProvidedVariable(caID, notProvidedVariable)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -1448,7 +1557,7 @@ public class DataModelController extends AbstractDataModel
   @Override
   public boolean removeCAProvidedVariable(UUID caID, UUID providedVariable) {
     if (this.getControlActionController().removeProvidedVariable(caID, providedVariable)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -1482,7 +1591,7 @@ public class DataModelController extends AbstractDataModel
       removeComponent(child.getId());
     }
     if (this.controlStructureController.removeComponent(componentId)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
 
@@ -1496,7 +1605,7 @@ public class DataModelController extends AbstractDataModel
     }
 
     if (this.controlStructureController.removeConnection(connectionId)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       return true;
     }
     return false;
@@ -1518,7 +1627,7 @@ public class DataModelController extends AbstractDataModel
 
       this.setUnsavedAndChanged(ObserverValue.CONTROL_ACTION);
       if (refreshCS) {
-        this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+        this.setControlStructureChanged();
       }
       return true;
     }
@@ -1668,7 +1777,7 @@ public class DataModelController extends AbstractDataModel
    */
   public boolean removeValueWhenNotProvided(UUID caID, UUID combieId) {
     if (this.getControlActionController().removeValueWhenNotProvided(caID, combieId)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -1687,7 +1796,7 @@ public class DataModelController extends AbstractDataModel
    */
   public boolean removeValueWhenProvided(UUID caID, UUID combieId) {
     if (this.getControlActionController().removeValueWhenProvided(caID, combieId)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -1750,7 +1859,7 @@ public class DataModelController extends AbstractDataModel
    */
   public boolean setCASafetyCritical(UUID caID, boolean isSafetyCritical) {
     if (this.getControlActionController().setSafetyCritical(caID, isSafetyCritical)) {
-      setUnsavedAndChanged(ObserverValue.Extended_DATA);
+      setControlActionChanged(caID, ObserverValue.Extended_DATA);
       return true;
     }
     return false;
@@ -1789,7 +1898,7 @@ public class DataModelController extends AbstractDataModel
           controlAction);
       changeCallback.setDescriptionChange(oldDescription, description);
       pushToUndo(changeCallback);
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_ACTION);
+      this.setControlActionChanged(controlActionId, ObserverValue.CONTROL_ACTION);
       return true;
     }
     return false;
@@ -1813,11 +1922,11 @@ public class DataModelController extends AbstractDataModel
           controlAction);
       changeCallback.setTitleChange(oldTitle, title);
       pushToUndo(changeCallback);
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_ACTION);
+      this.setControlActionChanged(controlActionId, ObserverValue.CONTROL_ACTION);
       return true;
     }
     if (changeComponentText(((ControlAction) controlAction).getComponentLink(), title)) {
-      this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+      this.setControlStructureChanged();
       result = true;
     }
     return result;
@@ -1844,6 +1953,7 @@ public class DataModelController extends AbstractDataModel
   @Override
   public void setCSComponentComment(UUID componentId, String comment) {
     this.controlStructureController.setComment(componentId, comment);
+    this.controlStructureVersion++;
   }
 
   @Override
@@ -1851,10 +1961,10 @@ public class DataModelController extends AbstractDataModel
     if (this.exportInformation == null) {
       return false;
     }
-    Image img = new Image(null, path);
+    int[] size = getImageSize(path);
     File imgFile = new File(path);
-    this.exportInformation.setCsImageWidth(String.valueOf(img.getBounds().width));
-    this.exportInformation.setCsImageHeight(String.valueOf(img.getBounds().height));
+    this.exportInformation.setCsImageWidth(String.valueOf(size[0]));
+    this.exportInformation.setCsImageHeight(String.valueOf(size[1]));
     return this.exportInformation.setCsImagePath(imgFile.toURI().toString());
   }
 
@@ -1863,14 +1973,45 @@ public class DataModelController extends AbstractDataModel
     if (this.exportInformation == null) {
       return false;
     }
-    Image img = new Image(null, path);
+    int[] size = getImageSize(path);
     File imgFile = new File(path);
-    this.exportInformation.setCsPmImageWidth(String.valueOf(img.getBounds().width));
-    this.exportInformation.setCsPmImageHeight(String.valueOf(img.getBounds().height));
+    this.exportInformation.setCsPmImageWidth(String.valueOf(size[0]));
+    this.exportInformation.setCsPmImageHeight(String.valueOf(size[1]));
 
     return this.exportInformation.setCspmImagePath(imgFile.toURI().toString());
   }
 
+  /**
+   * @param path
+   *          the path of an image file or of an svg file
+   * @return the width and height of the image, the size of an svg is read from the attributes of
+   *         its root element so that the vector graphic must not be rendered
+   */
+  private static int[] getImageSize(String path) {
+    if (path.endsWith(".svg")) { //$NON-NLS-1$
+      try (InputStream stream = new FileInputStream(path)) {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(stream);
+        try {
+          while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+              return new int[] { Integer.parseInt(reader.getAttributeValue(null, "width")), //$NON-NLS-1$
+                  Integer.parseInt(reader.getAttributeValue(null, "height")) }; //$NON-NLS-1$
+            }
+          }
+        } finally {
+          reader.close();
+        }
+      } catch (IOException | XMLStreamException | NumberFormatException e) {
+        LOGGER.error("could not read the size of " + path, e); //$NON-NLS-1$
+      }
+      return new int[] { 0, 0 };
+    }
+    Image img = new Image(null, path);
+    int[] size = new int[] { img.getBounds().width, img.getBounds().height };
+    img.dispose();
+    return size;
+  }
+
   @Override
   public boolean setDesignRequirementDescription(UUID designRequirementId, String description) {
     return getSdsController().setDesignRequirementDescription(ObserverValue.DESIGN_REQUIREMENT,
@@ -1977,7 +2118,7 @@ public class DataModelController extends AbstractDataModel
   @Override
   public void setRelativeOfComponent(UUID componentId, UUID relativeId) {
     this.controlStructureController.setRelativeOfComponent(componentId, relativeId);
-    setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+    setControlStructureChanged();
     setUnsavedAndChanged(ObserverValue.CONTROL_ACTION);
   }
 
@@ -2137,16 +2278,25 @@ public class DataModelController extends AbstractDataModel
   public void setValuesWhenCANotProvided(UUID caID,
       List<NotProvidedValuesCombi> valuesWhenNotProvided) {
     this.getControlActionController().setValuesWhenNotProvided(caID, valuesWhenNotProvided);
-    setUnsavedAndChanged(ObserverValue.Extended_DATA);
+    setControlActionChanged(caID, ObserverValue.Extended_DATA);
   }
 
   @Override
   public void setValuesWhenCAProvided(UUID caID, List<ProvidedValuesCombi> valuesWhenProvided) {
     this.getControlActionController().setValuesWhenProvided(caID, valuesWhenProvided);
-    setUnsavedAndChanged(ObserverValue.Extended_DATA);
+    setControlActionChanged(caID, ObserverValue.Extended_DATA);
 
   }
 
+  @Override
+  public boolean setCombieHazardous(UUID caID, UUID combieId, String type, boolean hazardous) {
+    if (this.getControlActionController().setCombieHazardous(caID, combieId, type, hazardous)) {
+      setControlActionChanged(caID, ObserverValue.COMBINATION_STATES);
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public boolean synchronizeLayouts() {
     if (this.getRoot() == null) {
@@ -2174,6 +2324,36 @@ public class DataModelController extends AbstractDataModel
 
   }
 
+  /**
+   * increases the version of the control structure and notifies the observers about a change of
+   * the control structure, this is used for all changes except changes of the layout
+   */
+  private void setControlStructureChanged() {
+    this.controlStructureVersion++;
+    this.setUnsavedAndChanged(ObserverValue.CONTROL_STRUCTURE);
+  }
+
+  /**
+   * increases the version of the given control action and notifies the observers with the given
+   * value
+   */
+  private void setControlActionChanged(UUID controlActionId, ObserverValue value) {
+    Integer version = this.controlActionVersions.get(controlActionId);
+    this.controlActionVersions.put(controlActionId, version == null ? 1 : version + 1);
+    this.setUnsavedAndChanged(value);
+  }
+
+  @Override
+  public int getControlStructureVersion() {
+    return this.controlStructureVersion;
+  }
+
+  @Override
+  public int getControlActionVersion(UUID controlActionId) {
+    Integer version = this.controlActionVersions.get(controlActionId);
+    return version == null ? 0 : version;
+  }
+
   @Override
   public void updateValue(ObserverValue value) {
     this.setChanged();
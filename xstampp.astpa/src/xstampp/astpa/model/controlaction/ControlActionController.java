@@ -623,6 +623,15 @@ public class ControlActionController extends Observable implements IControlActio
     return action.removeValueWhenProvided(combieId);
   }
 
+  @Override
+  public boolean setCombieHazardous(UUID caID, UUID combieId, String type, boolean hazardous) {
+    ControlAction action = getInternalControlAction(caID);
+    if (action == null) {
+      return false;
+    }
+    return action.setCombieHazardous(combieId, type, hazardous);
+  }
+
   @Override
   public List<UUID> getNotProvidedVariables(UUID caID) {
     ControlAction action = getInternalControlAction(caID);
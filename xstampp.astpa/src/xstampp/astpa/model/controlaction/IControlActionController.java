@@ -421,6 +421,22 @@ public interface IControlActionController {
    */
   boolean removeValueWhenProvided(UUID caID, UUID combieId);
 
+  /**
+   * sets the hazardous flag of the given type for a single value combination of the control
+   * action without replacing the list of value combinations
+   * 
+   * @param caID
+   *          the uuid object of the control action
+   * @param combieId
+   *          the id of the value combination
+   * @param type
+   *          one of the <code>TYPE</code> constants defined in {@link IValueCombie}
+   * @param hazardous
+   *          the new value of the flag
+   * @return whether the combination was found and the flag has been changed
+   */
+  boolean setCombieHazardous(UUID caID, UUID combieId, String type, boolean hazardous);
+
   /**
    * @param caID
    *          the control action id which is used to look up the action
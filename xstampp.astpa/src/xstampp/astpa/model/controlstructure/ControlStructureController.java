@@ -595,6 +595,40 @@ public class ControlStructureController extends Observable {
     return result;
   }
 
+  /**
+   * Creates a {@link LayeredLayout} which contains a snapshot of the top level components of the
+   * active root and of the connections between them. Connections between nested components are
+   * added for the top level components which contain them.
+   * 
+   * @param step1
+   *          if the layout of step 1 should be used
+   * @return a layout which can be computed outside of the ui thread
+   */
+  public LayeredLayout createLayeredLayout(boolean step1) {
+    LayeredLayout layout = new LayeredLayout();
+    Map<UUID, UUID> owners = new HashMap<>();
+    for (IRectangleComponent child : _getActiveRoot().getChildren(step1)) {
+      layout.addComponent(child.getId(), child.getComponentType(), child.getLayout(step1));
+      addOwner(child, child.getId(), owners);
+    }
+    for (CSConnection connection : this.connections) {
+      UUID source = owners.get(connection.getSourceAnchor().getOwnerId());
+      UUID target = owners.get(connection.getTargetAnchor().getOwnerId());
+      if (source != null && target != null) {
+        layout.addConnection(source, target, connection.getConnectionType());
+      }
+    }
+    return layout;
+  }
+
+  private static void addOwner(IRectangleComponent component, UUID ownerId,
+      Map<UUID, UUID> owners) {
+    owners.put(component.getId(), ownerId);
+    for (IRectangleComponent child : component.getChildren()) {
+      addOwner(child, ownerId, owners);
+    }
+  }
+
   /**
    * Gets all components of an internal type. Do not use outside the data model.
    * 
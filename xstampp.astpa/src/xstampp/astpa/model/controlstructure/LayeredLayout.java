@@ -0,0 +1,530 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 A-STPA Stupro Team Uni Stuttgart (Lukas Balzer, Adam Grahovac, Jarkko
+ * Heidenwag, Benedikt Markt, Jaqueline Patzek, Sebastian Sieber, Fabian Toth, Patrick Wickenhäuser,
+ * Aliaksei Babkovich, Aleksander Zotov).
+ *
+ * All rights reserved. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+
+package xstampp.astpa.model.controlstructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import xstampp.astpa.model.controlstructure.components.ComponentType;
+import xstampp.astpa.model.controlstructure.components.ConnectionType;
+
+/**
+ * A layered (Sugiyama style) layout for the top level components of a control structure.<br>
+ * The layout works on a snapshot of the components and connections so that it can be computed
+ * outside of the ui thread. The components are arranged in four phases:
+ * <ol>
+ * <li>the connections are directed downwards, a simple arrow points from the controlling to the
+ * controlled component and a dashed arrow (a feedback) is reversed, connections which point from a
+ * controlled process to a controller are reversed as well and remaining cycles are broken by
+ * reversing the back edges of a depth first search</li>
+ * <li>each component is assigned to a layer by the longest path which leads to it, controllers are
+ * placed above actuators and sensors which are placed above the controlled processes</li>
+ * <li>the crossings between neighboring layers are reduced by barycenter sweeps</li>
+ * <li>the components are placed next to their neighbors without changing their size</li>
+ * </ol>
+ * The first, second and last phase are linear in the size of the structure, the time budget given
+ * to {@link #compute(long)} only limits how long the crossings and positions are improved.
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class LayeredLayout {
+
+  /**
+   * the vertical space between two layers
+   */
+  public static final int LAYER_SPACING = 80;
+
+  /**
+   * the horizontal space between two components of a layer
+   */
+  public static final int NODE_SPACING = 40;
+
+  private static final int MARGIN = 20;
+  private static final int DUMMY_WIDTH = 10;
+  private static final int DEFAULT_WIDTH = 120;
+  private static final int DEFAULT_HEIGHT = 40;
+  private static final int MAX_SWEEPS = 24;
+  private static final int MAX_PLACEMENT_PASSES = 8;
+
+  private final Map<UUID, Node> nodes;
+  private final List<Node[]> edges;
+  private List<List<Node>> layers;
+  private long deadline;
+
+  private static class Node {
+    private final UUID id;
+    private final int rank;
+    private final Rectangle layout;
+    private final int width;
+    private final int height;
+    private final Set<Node> successors = new LinkedHashSet<>();
+    private final List<Node> upper = new ArrayList<>();
+    private final List<Node> lower = new ArrayList<>();
+    private int layer;
+    private int index;
+    private double x;
+    private double barycenter;
+
+    Node(UUID id, int rank, Rectangle layout) {
+      this.id = id;
+      this.rank = rank;
+      this.layout = layout;
+      this.width = layout.width > 0 ? layout.width : DEFAULT_WIDTH;
+      this.height = layout.height > 0 ? layout.height : DEFAULT_HEIGHT;
+      this.x = layout.x + this.width / 2.0;
+    }
+
+    Node(double x) {
+      this.id = null;
+      this.rank = 0;
+      this.layout = null;
+      this.width = DUMMY_WIDTH;
+      this.height = 0;
+      this.x = x;
+    }
+  }
+
+  private static final Comparator<Node> BY_BARYCENTER = new Comparator<Node>() {
+
+    @Override
+    public int compare(Node o1, Node o2) {
+      return Double.compare(o1.barycenter, o2.barycenter);
+    }
+  };
+
+  public LayeredLayout() {
+    this.nodes = new LinkedHashMap<>();
+    this.edges = new ArrayList<>();
+  }
+
+  /**
+   * adds a component which should be placed by this layout, the current horizontal order of the
+   * components is used as the initial order of each layer.
+   *
+   * @param componentId
+   *          the id of the component
+   * @param type
+   *          the type of the component which determines its level in the hierarchy
+   * @param layout
+   *          the current layout of the component, the size of the component is kept
+   */
+  public void addComponent(UUID componentId, ComponentType type, Rectangle layout) {
+    this.nodes.put(componentId, new Node(componentId, getRank(type), layout.getCopy()));
+  }
+
+  /**
+   * adds a connection between two components which have been added to this layout, connections to
+   * unknown components or from a component to itself are ignored.
+   *
+   * @param sourceId
+   *          the id of the component the connection starts at
+   * @param targetId
+   *          the id of the component the connection points to
+   * @param type
+   *          the type of the connection, a dashed arrow is treated as a feedback which points
+   *          upwards
+   */
+  public void addConnection(UUID sourceId, UUID targetId, ConnectionType type) {
+    Node source = this.nodes.get(sourceId);
+    Node target = this.nodes.get(targetId);
+    if (source == null || target == null || source == target) {
+      return;
+    }
+    if (type == ConnectionType.ARROW_DASHED) {
+      this.edges.add(new Node[] { target, source });
+    } else {
+      this.edges.add(new Node[] { source, target });
+    }
+  }
+
+  /**
+   * computes the layout of all components which have been added to this layout.
+   *
+   * @param timeBudget
+   *          the time in milliseconds after which the crossing reduction and the placement are
+   *          stopped
+   * @return a map which contains the new layout for the id of each component
+   */
+  public Map<UUID, Rectangle> compute(long timeBudget) {
+    this.deadline = System.nanoTime() + timeBudget * 1000000L;
+    Map<UUID, Rectangle> result = new HashMap<>();
+    if (this.nodes.isEmpty()) {
+      return result;
+    }
+    removeCycles();
+    assignLayers();
+    reduceCrossings();
+    placeNodes(result);
+    return result;
+  }
+
+  private static int getRank(ComponentType type) {
+    if (type == ComponentType.CONTROLLER) {
+      return 0;
+    }
+    if (type == ComponentType.CONTROLLED_PROCESS) {
+      return 2;
+    }
+    return 1;
+  }
+
+  private boolean hasTime() {
+    return System.nanoTime() < this.deadline;
+  }
+
+  /**
+   * directs all edges downwards in the hierarchy and reverses the back edges of a depth first
+   * search which starts at the controllers, so that the successors of the nodes form a dag
+   */
+  private void removeCycles() {
+    Map<Node, List<Node>> out = new HashMap<>();
+    for (Node node : this.nodes.values()) {
+      out.put(node, new ArrayList<Node>());
+    }
+    for (Node[] edge : this.edges) {
+      if (edge[0].rank > edge[1].rank) {
+        out.get(edge[1]).add(edge[0]);
+      } else {
+        out.get(edge[0]).add(edge[1]);
+      }
+    }
+    List<Node> order = new ArrayList<>(this.nodes.values());
+    Collections.sort(order, new Comparator<Node>() {
+
+      @Override
+      public int compare(Node o1, Node o2) {
+        return Integer.compare(o1.rank, o2.rank);
+      }
+    });
+
+    // 0 = unvisited, 1 = on the stack, 2 = finished
+    Map<Node, Integer> state = new HashMap<>();
+    List<Node> stack = new ArrayList<>();
+    List<Integer> positions = new ArrayList<>();
+    for (Node start : order) {
+      if (state.containsKey(start)) {
+        continue;
+      }
+      state.put(start, 1);
+      stack.add(start);
+      positions.add(0);
+      while (!stack.isEmpty()) {
+        int top = stack.size() - 1;
+        Node node = stack.get(top);
+        int position = positions.get(top);
+        List<Node> targets = out.get(node);
+        if (position == targets.size()) {
+          state.put(node, 2);
+          stack.remove(top);
+          positions.remove(top);
+          continue;
+        }
+        positions.set(top, position + 1);
+        Node target = targets.get(position);
+        Integer targetState = state.get(target);
+        if (targetState == null) {
+          node.successors.add(target);
+          state.put(target, 1);
+          stack.add(target);
+          positions.add(0);
+        } else if (targetState == 1) {
+          if (!node.successors.contains(target)) {
+            target.successors.add(node);
+          }
+        } else if (!target.successors.contains(node)) {
+          node.successors.add(target);
+        }
+      }
+    }
+  }
+
+  /**
+   * assigns the layers by the longest path in the dag and inserts dummy nodes for all edges which
+   * span more than one layer
+   */
+  private void assignLayers() {
+    boolean[] ranks = new boolean[3];
+    for (Node node : this.nodes.values()) {
+      ranks[node.rank] = true;
+    }
+    int[] minLayer = new int[3];
+    for (int i = 1; i < 3; i++) {
+      minLayer[i] = minLayer[i - 1] + (ranks[i - 1] ? 1 : 0);
+    }
+
+    Map<Node, Integer> inDegree = new HashMap<>();
+    for (Node node : this.nodes.values()) {
+      for (Node successor : node.successors) {
+        Integer degree = inDegree.get(successor);
+        inDegree.put(successor, degree == null ? 1 : degree + 1);
+      }
+    }
+    List<Node> queue = new ArrayList<>();
+    for (Node node : this.nodes.values()) {
+      node.layer = minLayer[node.rank];
+      if (!inDegree.containsKey(node)) {
+        queue.add(node);
+      }
+    }
+    int maxLayer = 0;
+    for (int i = 0; i < queue.size(); i++) {
+      Node node = queue.get(i);
+      maxLayer = Math.max(maxLayer, node.layer);
+      for (Node successor : node.successors) {
+        successor.layer = Math.max(successor.layer, node.layer + 1);
+        int degree = inDegree.get(successor) - 1;
+        inDegree.put(successor, degree);
+        if (degree == 0) {
+          queue.add(successor);
+        }
+      }
+    }
+
+    this.layers = new ArrayList<>();
+    for (int i = 0; i <= maxLayer; i++) {
+      this.layers.add(new ArrayList<Node>());
+    }
+    for (Node node : this.nodes.values()) {
+      this.layers.get(node.layer).add(node);
+    }
+    for (Node node : this.nodes.values()) {
+      for (Node successor : node.successors) {
+        Node upper = node;
+        for (int layer = node.layer + 1; layer < successor.layer; layer++) {
+          double ratio = (layer - node.layer) / (double) (successor.layer - node.layer);
+          Node dummy = new Node(node.x + (successor.x - node.x) * ratio);
+          dummy.layer = layer;
+          this.layers.get(layer).add(dummy);
+          connect(upper, dummy);
+          upper = dummy;
+        }
+        connect(upper, successor);
+      }
+    }
+    for (List<Node> layer : this.layers) {
+      for (Node node : layer) {
+        node.barycenter = node.x;
+      }
+      Collections.sort(layer, BY_BARYCENTER);
+      updateIndices(layer);
+    }
+  }
+
+  private static void connect(Node upper, Node lower) {
+    upper.lower.add(lower);
+    lower.upper.add(upper);
+  }
+
+  private static void updateIndices(List<Node> layer) {
+    for (int i = 0; i < layer.size(); i++) {
+      layer.get(i).index = i;
+    }
+  }
+
+  /**
+   * sorts the layers by the barycenters of their neighbors alternating downwards and upwards and
+   * keeps the order with the fewest crossings
+   */
+  private void reduceCrossings() {
+    int bestCrossings = countCrossings();
+    List<List<Node>> best = copyLayers();
+    for (int sweep = 0; sweep < MAX_SWEEPS && bestCrossings > 0 && hasTime(); sweep++) {
+      boolean down = sweep % 2 == 0;
+      if (down) {
+        for (int i = 1; i < this.layers.size(); i++) {
+          sortLayer(this.layers.get(i), true);
+        }
+      } else {
+        for (int i = this.layers.size() - 2; i >= 0; i--) {
+          sortLayer(this.layers.get(i), false);
+        }
+      }
+      int crossings = countCrossings();
+      if (crossings < bestCrossings) {
+        bestCrossings = crossings;
+        best = copyLayers();
+      }
+    }
+    this.layers = best;
+    for (List<Node> layer : this.layers) {
+      updateIndices(layer);
+    }
+  }
+
+  private static void sortLayer(List<Node> layer, boolean byUpper) {
+    for (Node node : layer) {
+      List<Node> neighbors = byUpper ? node.upper : node.lower;
+      if (neighbors.isEmpty()) {
+        node.barycenter = node.index;
+      } else {
+        double sum = 0;
+        for (Node neighbor : neighbors) {
+          sum += neighbor.index;
+        }
+        node.barycenter = sum / neighbors.size();
+      }
+    }
+    Collections.sort(layer, BY_BARYCENTER);
+    updateIndices(layer);
+  }
+
+  private List<List<Node>> copyLayers() {
+    List<List<Node>> copy = new ArrayList<>(this.layers.size());
+    for (List<Node> layer : this.layers) {
+      copy.add(new ArrayList<>(layer));
+    }
+    return copy;
+  }
+
+  /**
+   * counts the crossings between all neighboring layers by counting the inversions of the lower
+   * ends of the edges which are sorted by their upper ends
+   */
+  private int countCrossings() {
+    int crossings = 0;
+    for (int i = 0; i + 1 < this.layers.size(); i++) {
+      int size = this.layers.get(i + 1).size();
+      int[] tree = new int[size + 1];
+      int count = 0;
+      for (Node node : this.layers.get(i)) {
+        int[] ends = new int[node.lower.size()];
+        for (int j = 0; j < ends.length; j++) {
+          ends[j] = node.lower.get(j).index;
+        }
+        Arrays.sort(ends);
+        for (int end : ends) {
+          // count the edges which have been added before and end right of this edge
+          int lessOrEqual = 0;
+          for (int k = end + 1; k > 0; k -= k & -k) {
+            lessOrEqual += tree[k];
+          }
+          crossings += count - lessOrEqual;
+        }
+        for (int end : ends) {
+          for (int k = end + 1; k <= size; k += k & -k) {
+            tree[k]++;
+          }
+          count++;
+        }
+      }
+    }
+    return crossings;
+  }
+
+  /**
+   * places the nodes of each layer next to each other and moves them towards the center of their
+   * neighbors, the order of the nodes and the spacing between them is kept
+   */
+  private void placeNodes(Map<UUID, Rectangle> result) {
+    double maxWidth = 0;
+    for (List<Node> layer : this.layers) {
+      double cursor = 0;
+      for (Node node : layer) {
+        node.x = cursor + node.width / 2.0;
+        cursor += node.width + NODE_SPACING;
+      }
+      maxWidth = Math.max(maxWidth, cursor);
+    }
+    for (List<Node> layer : this.layers) {
+      if (!layer.isEmpty()) {
+        Node last = layer.get(layer.size() - 1);
+        double offset = (maxWidth - (last.x + last.width / 2.0 + NODE_SPACING)) / 2;
+        for (Node node : layer) {
+          node.x += offset;
+        }
+      }
+    }
+    for (int pass = 0; pass < MAX_PLACEMENT_PASSES && hasTime(); pass++) {
+      boolean down = pass % 2 == 0;
+      if (down) {
+        for (int i = 1; i < this.layers.size(); i++) {
+          alignLayer(this.layers.get(i), true);
+        }
+      } else {
+        for (int i = this.layers.size() - 2; i >= 0; i--) {
+          alignLayer(this.layers.get(i), false);
+        }
+      }
+    }
+
+    double minX = Double.MAX_VALUE;
+    for (Node node : this.nodes.values()) {
+      minX = Math.min(minX, node.x - node.width / 2.0);
+    }
+    int y = MARGIN;
+    for (List<Node> layer : this.layers) {
+      int height = 0;
+      for (Node node : layer) {
+        height = Math.max(height, node.height);
+      }
+      for (Node node : layer) {
+        if (node.id != null) {
+          Rectangle layout = node.layout.getCopy();
+          layout.x = (int) Math.round(node.x - node.width / 2.0 - minX) + MARGIN;
+          layout.y = y + (height - node.height) / 2;
+          result.put(node.id, layout);
+        }
+      }
+      y += height + LAYER_SPACING;
+    }
+  }
+
+  /**
+   * moves the nodes of the layer to the mean position of their neighbors, nodes which would overlap
+   * are pushed to the right and the layer is then shifted back by the mean displacement
+   */
+  private static void alignLayer(List<Node> layer, boolean byUpper) {
+    if (layer.isEmpty()) {
+      return;
+    }
+    double[] desired = new double[layer.size()];
+    for (int i = 0; i < layer.size(); i++) {
+      Node node = layer.get(i);
+      List<Node> neighbors = byUpper ? node.upper : node.lower;
+      if (neighbors.isEmpty()) {
+        desired[i] = node.x;
+      } else {
+        double sum = 0;
+        for (Node neighbor : neighbors) {
+          sum += neighbor.x;
+        }
+        desired[i] = sum / neighbors.size();
+      }
+    }
+    double shift = 0;
+    double[] placed = new double[layer.size()];
+    for (int i = 0; i < layer.size(); i++) {
+      placed[i] = desired[i];
+      if (i > 0) {
+        double gap = (layer.get(i - 1).width + layer.get(i).width) / 2.0 + NODE_SPACING;
+        placed[i] = Math.max(placed[i], placed[i - 1] + gap);
+      }
+      shift += placed[i] - desired[i];
+    }
+    shift /= layer.size();
+    for (int i = 0; i < layer.size(); i++) {
+      layer.get(i).x = placed[i] - shift;
+    }
+  }
+}
@@ -223,7 +223,8 @@ public class ExtendedDataController implements IExtendedDataController {
 
   private boolean updateRefinedRule(AbstractLTLProvider provider, AbstractLtlProviderData data,
       UUID linkedControlActionID) {
-    boolean changed = false;
+    boolean changed = ((RefinedSafetyRule) provider)
+        .setCriticalValueIds(data.getCriticalValueIds());
     changed = changed || ((RefinedSafetyRule) provider).setLtlProperty(data.getLtlProperty());
     changed = changed || ((RefinedSafetyRule) provider)
         .setRefinedSafetyConstraint(data.getRefinedSafetyConstraint());
@@ -60,6 +60,7 @@ public class RefinedSafetyRule extends AbstractLTLProvider {
     this.rUCA = data.getRefinedUca();
     this.ltl = data.getLtlProperty();
     this.relatedUCAs = data.getUcaLinks();
+    this.criticalValueIds = data.getCriticalValueIds();
     this.caID = caId;
     this.type = type;
 
@@ -222,6 +223,20 @@ public class RefinedSafetyRule extends AbstractLTLProvider {
     return true;
   }
 
+  /**
+   * @param criticalValueIds
+   *          the ids of the process model values which form the critical combination
+   * @return whether the ids have been changed
+   */
+  public boolean setCriticalValueIds(List<UUID> criticalValueIds) {
+    if (criticalValueIds == null
+        || (this.criticalValueIds != null && this.criticalValueIds.equals(criticalValueIds))) {
+      return false;
+    }
+    this.criticalValueIds = criticalValueIds;
+    return true;
+  }
+
   /**
    * @param controlAction
    *          the controlAction to set
@@ -133,6 +133,12 @@ public interface IExtendedDataModel extends IDataModel, IExtendedDataController
 
   List<IValueCombie> getIValuesWhenCANotProvided(UUID id);
 
+  /**
+   * {@link IControlActionController#setCombieHazardous(UUID, UUID, String, boolean)}<br>
+   * triggers an update for {@link ObserverValue#COMBINATION_STATES} if the flag was changed
+   */
+  boolean setCombieHazardous(UUID caID, UUID combieId, String type, boolean hazardous);
+
   int getUCANumber(UUID ucaID);
 
   List<UCAHazLink> getAllUCALinks();
@@ -149,6 +155,25 @@ public interface IExtendedDataModel extends IDataModel, IExtendedDataController
    */
   List<IControlAction> getAllControlActionsU();
 
+  /**
+   * {@link IUnsafeControlActionDataModel#getControlActionU(UUID)}
+   */
+  IControlAction getControlActionU(UUID controlActionId);
+
+  /**
+   * @return a counter which is increased whenever the components or texts of the control structure
+   *         change, changes of the layout are not counted
+   */
+  int getControlStructureVersion();
+
+  /**
+   * @param controlActionId
+   *          the id of a control action
+   * @return a counter which is increased whenever the data of the control action, its linked
+   *         variables or its value combinations change
+   */
+  int getControlActionVersion(UUID controlActionId);
+
   /**
    * {@link IControlActionViewDataModel#getAllControlActions()}
    */
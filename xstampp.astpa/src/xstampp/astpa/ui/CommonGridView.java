@@ -74,13 +74,10 @@ public abstract class CommonGridView<T extends IDataModel> extends AbstractFilte
   protected final void reloadTable() {
     if (!this.grid.fetchUpdateLock()) {
       this.lockreload = true;
-      int tmp = this.grid.getGrid().getVerticalBar().getSelection();
-      this.grid.persistedScrollIndex = tmp;
       this.grid.clearRows();
       this.fillTable();
       this.grid.reloadTable();
       this.lockreload = false;
-      this.grid.getGrid().getVerticalBar().setSelection(tmp);
     }
   }
 
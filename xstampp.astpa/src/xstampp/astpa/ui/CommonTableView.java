@@ -24,7 +24,6 @@ import org.eclipse.jface.action.MenuManager;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.layout.TableColumnLayout;
 import org.eclipse.jface.preference.PreferenceConverter;
-import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.CellEditor;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ColumnViewer;
@@ -108,9 +107,16 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
 
   private List<LinkSupport<?>> linkFields;
   private TableViewer tableViewer;
+  private LazyTableContentProvider contentProvider;
 
   private boolean internalUpdate;
 
+  /**
+   * the entry which has been changed in this view, only its row is updated when the change is
+   * notified by the data model.
+   */
+  private Object changedEntry;
+
   private EnumSet<ObserverValue> updateValues;
   private Label itemsLabel, filterLabel, descriptionLabel;
 
@@ -439,7 +445,7 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
         ProjectManager.getContainerInstance().getDataModel(this.getProjectID()));
     this.createCommonTableView(parent, tableHeader);
     this.setFilter(new ATableFilter());
-    this.getTableViewer().addFilter(this.getFilter());
+    this.contentProvider.setFilter(this.getFilter());
   }
 
   /**
@@ -567,8 +573,10 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
       @Override
       public void modifyText(ModifyEvent e) {
         internalUpdate = true;
+        changedEntry = selectedEntry;
         Text text = (Text) e.widget;
         updateDescription(getCurrentSelection(), text.getText());
+        changedEntry = null;
       }
     });
     if (linkFields.size() > 0) {
@@ -596,7 +604,7 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
   private void createTableViewer(Composite tableComposite) {
     // the table viewer
     this.setTableViewer(new TableViewer(tableComposite,
-        SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.MULTI | SWT.WRAP));
+        SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.MULTI | SWT.WRAP | SWT.VIRTUAL));
     TableColumnLayout tableColumnLayout = new TableColumnLayout();
     tableComposite.setLayout(tableColumnLayout);
     setTableColumnLayout(tableColumnLayout);
@@ -615,7 +623,8 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
     });
     // Listener for showing the description of the selected accident
     this.getTableViewer().addSelectionChangedListener(new CommonSelectionChangedListener());
-    this.getTableViewer().setContentProvider(new ArrayContentProvider());
+    this.contentProvider = new LazyTableContentProvider();
+    this.getTableViewer().setContentProvider(this.contentProvider);
     this.getTableViewer().getTable().setLinesVisible(true);
     this.getTableViewer().getTable().setHeaderVisible(true);
     if (Activator.getDefault().getPreferenceStore()
@@ -628,12 +637,7 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
       nrColumn.setLabelProvider(new ColumnLabelProvider() {
         @Override
         public String getText(Object element) {
-          Object input = getTableViewer().getInput();
-          String content = new String();
-          if (input instanceof List<?>) {
-            content = Integer.toString(((List<?>) input).indexOf(element) + 1);
-          }
-          return content;
+          return Integer.toString(contentProvider.indexOf(element) + 1);
         }
       });
       nrColumn.getColumn().setResizable(true);
@@ -745,8 +749,6 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
         getFilterTextField().setText(""); //$NON-NLS-1$
         addNewEntry();
         refreshView();
-        updateTable();
-        refreshView();
       }
     };
 
@@ -922,12 +924,39 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
   protected abstract void moveEntry(UUID id, boolean moveUp);
 
   /**
+   * Updates the input of the table and filters it again, this must be called when the filter has
+   * changed.
+   * 
    * @author Jarkko Heidenwag
    * 
    */
   public void refreshView() {
-    this.getTableViewer().refresh(true, true);
     this.updateTable();
+    this.contentProvider.refresh();
+  }
+
+  /**
+   * Sets the entries of the table. After the first call only the rows of entries which have been
+   * added or removed are updated, if no row has been added or removed the row of the entry which
+   * has been changed in this view is updated or if the change came from elsewhere the visible rows
+   * are updated.<br>
+   * Implementations of {@link #updateTable()} should call this instead of setting the input of the
+   * table viewer.
+   * 
+   * @param entries
+   *          the current entries of the table
+   */
+  protected void setTableInput(List<?> entries) {
+    if (this.getTableViewer().getInput() == null) {
+      this.getTableViewer().setInput(entries);
+    } else if (!this.contentProvider.update(entries)) {
+      if (this.changedEntry != null) {
+        this.getTableViewer().update(this.changedEntry, null);
+      } else {
+        this.getTableViewer().refresh();
+      }
+    }
+    this.changedEntry = null;
   }
 
   @Override
@@ -944,7 +973,7 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
   public void update(Observable dataModelController, Object updatedValue) {
     super.update(dataModelController, updatedValue);
     if (updateValues.contains(updatedValue)) {
-      this.refreshView();
+      this.updateTable();
       for (LinkSupport<?> linkSupport : linkFields) {
         linkSupport.update(getCurrentSelection());
       }
@@ -992,7 +1021,6 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
         }
         this.getDescriptionWidget().setText(""); //$NON-NLS-1$
         getDataInterface().releaseLockAndUpdate(new ObserverValue[0]);
-        updateTable();
         this.refreshView();
       }
     } else {
@@ -1064,7 +1092,9 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
     @Override
     protected void setValue(Object element, Object value) {
       UUID uuid = ((ATableModel) element).getId();
+      changedEntry = element;
       updateTitle(uuid, String.valueOf(value));
+      changedEntry = null;
     }
 
     protected Object getValue(String string) {
@@ -1099,7 +1129,9 @@ public abstract class CommonTableView<T extends IDataModel> extends StandartEdit
 
         @Override
         protected void setValue(Object element, Object value) {
+          changedEntry = element;
           model.setSeverity(element, Severity.values()[(int) value]);
+          changedEntry = null;
         }
 
         @Override
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 A-STPA Stupro Team Uni Stuttgart (Lukas Balzer, Adam
+ * Grahovac, Jarkko Heidenwag, Benedikt Markt, Jaqueline Patzek, Sebastian
+ * Sieber, Fabian Toth, Patrick Wickenhäuser, Aliaksei Babkovich, Aleksander
+ * Zotov).
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+
+package xstampp.astpa.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+
+/**
+ * A content provider for a {@link TableViewer} which is created with <code>SWT.VIRTUAL</code>. The
+ * table only requests the elements of the visible rows and a new list of entries is compared with
+ * the shown entries so that only the rows which have been added or removed are cleared.<br>
+ * Since a viewer does not apply its filters to a lazy content provider the filter is set on this
+ * provider instead.
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class LazyTableContentProvider implements ILazyContentProvider {
+
+  private TableViewer viewer;
+  private ViewerFilter filter;
+  private List<?> input;
+  private List<Object> elements;
+
+  public LazyTableContentProvider() {
+    this.input = Collections.emptyList();
+    this.elements = new ArrayList<>();
+  }
+
+  @Override
+  public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+    this.viewer = (TableViewer) viewer;
+    if (newInput instanceof List<?>) {
+      this.input = (List<?>) newInput;
+    } else {
+      this.input = Collections.emptyList();
+    }
+    this.elements = filter(this.input);
+    this.viewer.setItemCount(this.elements.size());
+  }
+
+  @Override
+  public void updateElement(int index) {
+    if (index < this.elements.size()) {
+      this.viewer.replace(this.elements.get(index), index);
+    }
+  }
+
+  /**
+   * sets the filter which selects the elements of the input that are shown in the table and
+   * refreshes the table.
+   *
+   * @param filter
+   *          a filter or <b>null</b> to show all elements
+   */
+  public void setFilter(ViewerFilter filter) {
+    this.filter = filter;
+    refresh();
+  }
+
+  /**
+   * filters the input again and clears all rows of the table, this must be called when the filter
+   * has changed.
+   */
+  public void refresh() {
+    if (this.viewer != null && !this.viewer.getTable().isDisposed()) {
+      this.elements = filter(this.input);
+      this.viewer.setItemCount(this.elements.size());
+      this.viewer.refresh();
+    }
+  }
+
+  /**
+   * compares the given entries with the shown entries and only clears the rows which have been
+   * added or removed or which have moved.
+   *
+   * @param newInput
+   *          the current list of entries
+   * @return <b>true</b> if rows have been added, removed or moved, <b>false</b> if the same
+   *         elements are shown in the same order, in that case the labels of changed elements must
+   *         be updated by the caller
+   */
+  public boolean update(List<?> newInput) {
+    if (this.viewer == null || this.viewer.getTable().isDisposed()) {
+      return false;
+    }
+    this.input = newInput;
+    List<Object> newElements = filter(newInput);
+    int oldSize = this.elements.size();
+    int newSize = newElements.size();
+    int prefix = 0;
+    while (prefix < oldSize && prefix < newSize
+        && Objects.equals(this.elements.get(prefix), newElements.get(prefix))) {
+      prefix++;
+    }
+    if (prefix == oldSize && prefix == newSize) {
+      return false;
+    }
+    int end = newSize;
+    if (oldSize == newSize) {
+      // the rows after the last changed row are still at their index
+      while (end > prefix
+          && Objects.equals(this.elements.get(end - 1), newElements.get(end - 1))) {
+        end--;
+      }
+    }
+    this.elements = newElements;
+    this.viewer.setItemCount(newSize);
+    for (int i = prefix; i < end; i++) {
+      this.viewer.clear(i);
+    }
+    return true;
+  }
+
+  /**
+   * @param element
+   *          an element of the input
+   * @return the index of the element in the unfiltered input or -1 if it is not part of the input
+   */
+  public int indexOf(Object element) {
+    return this.input.indexOf(element);
+  }
+
+  @Override
+  public void dispose() {
+    this.elements.clear();
+  }
+
+  private List<Object> filter(List<?> entries) {
+    List<Object> result = new ArrayList<>(entries.size());
+    for (Object entry : entries) {
+      if (this.filter == null || this.filter.select(this.viewer, this.input, entry)) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+}
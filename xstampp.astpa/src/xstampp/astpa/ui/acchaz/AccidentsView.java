@@ -88,7 +88,7 @@ public class AccidentsView extends CommonTableView<IAccidentViewDataModel> {
    */
   @Override
   public void updateTable() {
-    AccidentsView.this.getTableViewer().setInput(this.getDataInterface().getAllAccidents());
+    AccidentsView.this.setTableInput(this.getDataInterface().getAllAccidents());
   }
 
   @Override
@@ -68,7 +68,7 @@ public class HazardsView extends CommonTableView<IHazardViewDataModel> {
    */
   @Override
   public void updateTable() {
-    HazardsView.this.getTableViewer().setInput(this.getDataInterface().getAllHazards());
+    HazardsView.this.setTableInput(this.getDataInterface().getAllHazards());
   }
 
   @Override
@@ -97,6 +97,7 @@ public class CausalScenariosView extends AbstractFilteredEditor {
     public ScenarioEditor(GridWrapper grid, String initialText, Boolean showDelete,
         Boolean readOnly, UUID ruleId) {
       super(grid, initialText, !CausalScenariosView.this.readOnly && showDelete, readOnly, ruleId);
+      setUseInlineEditor(true);
     }
 
     @Override
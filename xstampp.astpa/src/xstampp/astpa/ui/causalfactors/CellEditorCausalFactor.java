@@ -28,6 +28,7 @@ public class CellEditorCausalFactor extends GridCellTextEditor {
   public CellEditorCausalFactor(GridWrapper gridWrapper, ICausalFactorDataModel dataInterface,
       String initialText, UUID componentId, UUID factorId) {
     super(gridWrapper, initialText, factorId);
+    setUseInlineEditor(true);
     setReadOnly(false);
     setShowDelete(true);
     this.dataInterface = dataInterface;
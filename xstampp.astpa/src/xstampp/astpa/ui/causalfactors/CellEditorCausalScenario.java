@@ -40,6 +40,7 @@ public class CellEditorCausalScenario extends GridCellTextEditor {
       ICausalFactorEntry entry, ICausalComponent component, ICausalFactor factor, UUID ruleId,
       ScenarioType type) {
     super(gridWrapper, dataInterface.getRefinedScenario(ruleId).getSafetyRule(), ruleId);
+    setUseInlineEditor(true);
     this.entry = entry;
     this.type = type;
     this.componentId = component.getId();
@@ -29,6 +29,7 @@ public class CellEditorCausalScenarioConstraint extends GridCellTextEditor {
       UUID ruleId, ScenarioType type) {
     super(gridWrapper, dataInterface.getRefinedScenario(ruleId).getRefinedSafetyConstraint(),
         ruleId);
+    setUseInlineEditor(true);
     if (type != ScenarioType.CAUSAL_SCENARIO) {
       setReadOnly(true);
     }
@@ -29,6 +29,7 @@ public class CellEditorFactorNote extends GridCellTextEditor {
   public CellEditorFactorNote(GridWrapper gridWrapper, ICausalFactorDataModel dataInterface,
       UUID componentId, UUID factorId, ICausalFactorEntry entry) {
     super(gridWrapper, entry.getNote(), factorId);
+    setUseInlineEditor(true);
     this.dataInterface = dataInterface;
     this.componentId = componentId;
     this.factorId = factorId;
@@ -34,6 +34,7 @@ public class CellEditorSafetyConstraint extends GridCellTextEditor {
     super(gridWrapper,
         dataInterface.getCausalFactorController().getConstraintTextFor(entry.getConstraintId()),
         factorId);
+    setUseInlineEditor(true);
     this.entry = entry;
     setShowDelete(true);
     this.causalDataInterface = dataInterface;
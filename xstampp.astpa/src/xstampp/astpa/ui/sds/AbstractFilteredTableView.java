@@ -18,7 +18,6 @@ import java.util.List;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.layout.TableColumnLayout;
-import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.CellEditor;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ColumnViewer;
@@ -50,6 +49,7 @@ import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.Text;
 
 import messages.Messages;
+import xstampp.astpa.ui.LazyTableContentProvider;
 import xstampp.model.IDataModel;
 import xstampp.ui.common.ProjectManager;
 import xstampp.ui.editors.StandartEditorPart;
@@ -138,8 +138,9 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
     @Override
     protected void setValue(Object element, Object value) {
       supportProvider.setEditValue(element, value);
-      tableViewer.refresh(true, true);
-      tableViewer.setInput(getInput());
+      if (!contentProvider.update(getInput())) {
+        tableViewer.update(element, null);
+      }
     }
   }
 
@@ -155,7 +156,7 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
 
     @Override
     public Color getBackground(Object element) {
-      int index = ((List<?>) tableViewer.getInput()).indexOf(element);
+      int index = contentProvider.indexOf(element);
       if (index % 2 == 0) {
         return ColorManager.registerColor("EVEN_TABLE_ENTRY", new RGB(230, 230, 230));
       }
@@ -165,6 +166,7 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
 
   private IDataModel dataInterface;
   private TableViewer tableViewer;
+  private LazyTableContentProvider contentProvider;
   protected ModeFilter filter;
   private Text filterTextField;
   private TableViewerColumn safetyConstraintsColumn;
@@ -262,7 +264,6 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
         AbstractFilteredTableView.this.filter
             .setSearchText(AbstractFilteredTableView.this.filterTextField
                 .getText());
-        AbstractFilteredTableView.this.tableViewer.refresh(true, true);
         tableViewer.setInput(getInput());
       }
     });
@@ -276,13 +277,13 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
     tableComposite.setLayout(tableColumnLayout);
     // setting up the table viewer
     this.tableViewer = new TableViewer(tableComposite, SWT.BORDER
-        | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.MULTI);
-    this.tableViewer.setContentProvider(new ArrayContentProvider());
+        | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.MULTI | SWT.VIRTUAL);
+    this.contentProvider = new LazyTableContentProvider();
+    this.tableViewer.setContentProvider(this.contentProvider);
     this.tableViewer.getTable().setLinesVisible(true);
     this.tableViewer.getTable().setHeaderVisible(true);
-    if (this.filter != null) {
-      AbstractFilteredTableView.this.tableViewer.addFilter(this.filter);
-    }
+    // a viewer does not filter the elements of a lazy content provider
+    this.contentProvider.setFilter(this.filter);
 
     for (int i = 0; i < headers.length; i++) {
       TableViewerColumn column = new TableViewerColumn(
@@ -356,8 +357,7 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
   }
 
   protected final void packColumns() {
-    this.tableViewer.refresh(true, true);
-    this.tableViewer.setInput(getInput());
+    refresh();
     for (int i = 0; i < refreshVector.length; i++) {
       TableColumn col = this.tableViewer.getTable().getColumn(i);
       if (refreshVector[i]) {
@@ -375,10 +375,18 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
     return dataInterface;
   }
 
+  /**
+   * updates the rows of the entries which have been added or removed since the last update or
+   * all visible rows if no entry has been added or removed.
+   */
   protected void refresh() {
-    if (!this.tableViewer.getTable().isDisposed()) {
-      this.tableViewer.refresh(true, true);
+    if (this.tableViewer.getTable().isDisposed()) {
+      return;
+    }
+    if (this.tableViewer.getInput() == null) {
       this.tableViewer.setInput(getInput());
+    } else if (!this.contentProvider.update(getInput())) {
+      this.tableViewer.refresh();
     }
   }
 
@@ -391,7 +399,6 @@ public abstract class AbstractFilteredTableView extends StandartEditorPart {
   private void emptyFilter() {
     this.filter.setSearchText(""); //$NON-NLS-1$
     this.filterTextField.setText(""); //$NON-NLS-1$
-    this.tableViewer.refresh(true, true);
     this.tableViewer.setInput(getInput());
   }
 
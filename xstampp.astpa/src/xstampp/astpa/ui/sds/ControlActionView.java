@@ -133,8 +133,7 @@ public class ControlActionView extends CommonTableView<IControlActionViewDataMod
    */
   @Override
   public void updateTable() {
-    ControlActionView.this.getTableViewer()
-        .setInput(this.getDataInterface().getAllControlActions());
+    ControlActionView.this.setTableInput(this.getDataInterface().getAllControlActions());
   }
 
   @Override
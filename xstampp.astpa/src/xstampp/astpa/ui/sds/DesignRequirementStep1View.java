@@ -61,7 +61,7 @@ public class DesignRequirementStep1View extends CommonTableView<IDesignRequireme
    */
   @Override
   public void updateTable() {
-    DesignRequirementStep1View.this.getTableViewer().setInput(this.getDataInterface()
+    DesignRequirementStep1View.this.setTableInput(this.getDataInterface()
         .getSdsController().getAllDesignRequirements(ObserverValue.DESIGN_REQUIREMENT_STEP1));
   }
 
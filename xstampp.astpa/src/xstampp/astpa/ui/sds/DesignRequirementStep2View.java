@@ -62,7 +62,7 @@ public class DesignRequirementStep2View extends CommonTableView<IDesignRequireme
    */
   @Override
   public void updateTable() {
-    DesignRequirementStep2View.this.getTableViewer().setInput(this.getDataInterface()
+    DesignRequirementStep2View.this.setTableInput(this.getDataInterface()
         .getSdsController().getAllDesignRequirements(ObserverValue.DESIGN_REQUIREMENT_STEP2));
   }
 
@@ -65,8 +65,7 @@ public class DesignRequirementView extends CommonTableView<IDesignRequirementVie
    */
   @Override
   public void updateTable() {
-    DesignRequirementView.this.getTableViewer()
-        .setInput(this.getDataInterface().getAllDesignRequirements());
+    DesignRequirementView.this.setTableInput(this.getDataInterface().getAllDesignRequirements());
   }
 
   @Override
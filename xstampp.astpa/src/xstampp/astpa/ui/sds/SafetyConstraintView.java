@@ -75,8 +75,7 @@ public class SafetyConstraintView extends CommonTableView<ISafetyConstraintViewD
    */
   @Override
   public void updateTable() {
-    SafetyConstraintView.this.getTableViewer()
-        .setInput(this.getDataInterface().getAllSafetyConstraints());
+    SafetyConstraintView.this.setTableInput(this.getDataInterface().getAllSafetyConstraints());
   }
 
   @Override
@@ -54,7 +54,7 @@ public class SystemGoalView extends CommonTableView<ISystemGoalViewDataModel> {
    */
   @Override
   public void updateTable() {
-    SystemGoalView.this.getTableViewer().setInput(this.getDataInterface().getAllSystemGoals());
+    SystemGoalView.this.setTableInput(this.getDataInterface().getAllSystemGoals());
   }
 
   @Override
@@ -130,6 +130,7 @@ public class UnsafeControlActionsView extends CommonGridView<IUnsafeControlActio
     public UnsafeControlActionCell(GridWrapper grid, String initialText, UUID uca,
         boolean canDelete) {
       super(grid, initialText, uca);
+      setUseInlineEditor(true);
       setShowDelete(canDelete);
       setReadOnly(!canDelete);
     }
@@ -13,6 +13,7 @@ package xstampp.astpa.util.jobs;
 import java.awt.Desktop;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Observable;
 import java.util.UUID;
@@ -28,6 +29,7 @@ import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.gef.LayerConstants;
 import org.eclipse.gef.editparts.ScalableRootEditPart;
 import org.eclipse.gef.ui.parts.ScrollingGraphicalViewer;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
@@ -45,9 +47,11 @@ import xstampp.astpa.controlstructure.IControlStructureEditor;
 import xstampp.astpa.controlstructure.controller.editparts.RootEditPart;
 import xstampp.astpa.controlstructure.controller.factorys.CSEditPartFactory;
 import xstampp.astpa.controlstructure.figure.RootFigure;
+import xstampp.astpa.controlstructure.utilities.SVGGraphics;
 import xstampp.astpa.model.DataModelController;
 import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
 import xstampp.astpa.model.interfaces.IControlStructureEditorDataModel;
+import xstampp.preferences.IControlStructureConstants;
 import xstampp.ui.common.ProjectManager;
 import xstampp.util.XstamppJob;
 
@@ -59,6 +63,24 @@ import xstampp.util.XstamppJob;
  */
 public class CSExportJob extends XstamppJob {
 
+  /**
+   * the image type of a scalable vector graphic, the value must not collide with the image types
+   * defined in {@link SWT}
+   */
+  private static final int IMAGE_SVG = 100;
+  /**
+   * the preferences which change the appearance of the rendered control structure and are
+   * therefore part of the key of a cached rendering
+   */
+  private static final String[] APPEARANCE_PREFERENCES = {
+      IControlStructureConstants.CONTROLSTRUCTURE_CONTROLLER_COLOR,
+      IControlStructureConstants.CONTROLSTRUCTURE_ACTUATOR_COLOR,
+      IControlStructureConstants.CONTROLSTRUCTURE_PROCESS_COLOR,
+      IControlStructureConstants.CONTROLSTRUCTURE_SENSOR_COLOR,
+      IControlStructureConstants.CONTROLSTRUCTURE_FONT_COLOR,
+      IControlStructureConstants.CONTROLSTRUCTURE_FONT,
+      IControlStructureConstants.CONTROLSTRUCTURE_PROCESS_MODEL_BORDER,
+      IControlStructureConstants.CONTROLSTRUCTURE_SHOW_LISTOFCA_BORDER };
   private String path;
   private String editorId;
   private int imageType;
@@ -93,6 +115,7 @@ public class CSExportJob extends XstamppJob {
    * @see ImageLoader
    * @see SWT#IMAGE_PNG
    * @see SWT#IMAGE_JPEG
+   * @see SVGGraphics
    */
   public CSExportJob(String path, int imgOffset, String editorId,
       UUID projectId, boolean showPreview, boolean decorate) {
@@ -113,11 +136,22 @@ public class CSExportJob extends XstamppJob {
       this.imageType = SWT.IMAGE_BMP;
     } else if (path.endsWith("jpg")) { //$NON-NLS-1$
       this.imageType = SWT.IMAGE_JPEG;
+    } else if (path.endsWith("svg")) { //$NON-NLS-1$
+      this.imageType = IMAGE_SVG;
     } else {
       this.imageType = -1;
     }
   }
 
+  /**
+   * this constructor creates a new Job which writes the control structure as png into the given
+   * stream
+   *
+   * @param stream
+   *          the stream the image is written to or <code>null</code> if the image is only
+   *          requested with {@link #getRendering()}
+   * @see #CSExportJob(String, int, String, UUID, boolean, boolean)
+   */
   public CSExportJob(ByteArrayOutputStream stream, int imgOffset, String editorId,
       UUID projectId, boolean decorate) {
     this((String) null, imgOffset, editorId, projectId, false, decorate);
@@ -160,24 +194,99 @@ public class CSExportJob extends XstamppJob {
   }
 
   /**
-   * this method prints the control structure
+   * this method prints the control structure, the encoded image is taken from the
+   * {@link CSImageCache} if the control structure has already been rendered with the same settings
+   * and has not been changed since
    * 
    * @author Lukas Balzer
    * 
    * @return
    */
   public synchronized IStatus getPrintableRoot() {
-    Runnable run = new CSImageCalculator();
+    CSImageCache.Rendering rendering = getRendering();
+    if (rendering == null) {
+      return Status.CANCEL_STATUS;
+    }
+    this.ratio = rendering.getRatio();
 
-    Display.getDefault().syncExec(run);
-    while (this.printableFigure == null) {
-      // wait
+    if (outputStream != null) {
+      outputStream.write(rendering.getImage(), 0, rendering.getImage().length);
+    } else {
+      try (FileOutputStream imageStream = new FileOutputStream(this.path)) {
+        imageStream.write(rendering.getImage());
+      } catch (IOException e) {
+        setError(e);
+        return Status.CANCEL_STATUS;
+      }
+      File imageFile = new File(this.path);
+      if (imageFile.exists() && this.showPreview) {
+        if (Desktop.isDesktopSupported()) {
+          try {
+            Desktop.getDesktop().open(imageFile);
+          } catch (IOException e) {
+            return Status.CANCEL_STATUS;
+          }
+        }
+      }
     }
+    return Status.OK_STATUS;
+  }
 
+  /**
+   * renders the control structure or takes the rendering from the {@link CSImageCache}, the
+   * encoded image is not copied so it can be embedded directly into a document
+   *
+   * @return the rendering or <code>null</code> if the control structure could not be rendered
+   */
+  public synchronized CSImageCache.Rendering getRendering() {
     if (this.imageType < 0) {
-      return Status.CANCEL_STATUS;
+      return null;
     }
-    Rectangle clipRectangle = getClippingRectangle();
+    CSImageCache.Rendering rendering;
+    if (this.model instanceof Observable) {
+      // the cache must observe the model to notice changes of the control structure
+      Observable observable = (Observable) this.model;
+      IRectangleComponent root = this.model.getRoot();
+      StringBuilder key = new StringBuilder();
+      key.append(root == null ? "" : root.getId()).append(this.editorId).append(this.deco); //$NON-NLS-1$
+      key.append(this.imgOffset).append('.').append(this.imageType);
+      IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+      for (String preference : APPEARANCE_PREFERENCES) {
+        key.append('.').append(store.getString(preference));
+      }
+      int version = CSImageCache.getVersion(this.projectID, observable);
+      rendering = CSImageCache.get(this.projectID, observable, key.toString(), version);
+      if (rendering == null) {
+        rendering = render();
+        if (rendering != null) {
+          CSImageCache.put(this.projectID, observable, key.toString(), version, rendering);
+        }
+      }
+    } else {
+      rendering = render();
+    }
+    if (rendering != null) {
+      this.ratio = rendering.getRatio();
+    }
+    return rendering;
+  }
+
+  /**
+   * renders the control structure, only the figures are created and painted on the ui thread
+   * the clipping and the encoding of the image is done on the calling thread
+   * 
+   * @return the encoded image or <code>null</code> if the control structure could not be rendered
+   */
+  private CSImageCache.Rendering render() {
+    CSImageCalculator calculator = new CSImageCalculator();
+    Display.getDefault().syncExec(calculator);
+    if (calculator.vectorImage != null) {
+      return new CSImageCache.Rendering(calculator.vectorImage, calculator.vectorRatio);
+    }
+    if (this.srcImage == null) {
+      return null;
+    }
+    Rectangle clipRectangle = calculator.clipRectangle;
 
     // this additional Image is created with the actual Bounds
     // and the first one is clipped inside the scaled image
@@ -194,26 +303,18 @@ public class CSExportJob extends XstamppJob {
           this.imgOffset, this.imgOffset, clipRectangle.width,
           clipRectangle.height));
     }
-    ratio = (float) scaledImage.getBounds().width / scaledImage.getBounds().height;
+    float imageRatio = (float) scaledImage.getBounds().width / scaledImage.getBounds().height;
     ImageLoader imgLoader = new ImageLoader();
     imgLoader.data = new ImageData[] { scaledImage.getImageData() };
-    if (outputStream != null) {
-      imgLoader.save(outputStream, this.imageType);
-    } else {
-
-      imgLoader.save(this.path, this.imageType);
-      File imageFile = new File(this.path);
-      if (imageFile.exists() && this.showPreview) {
-        if (Desktop.isDesktopSupported()) {
-          try {
-            Desktop.getDesktop().open(imageFile);
-          } catch (IOException e) {
-            return Status.CANCEL_STATUS;
-          }
-        }
-      }
-    }
-    return Status.OK_STATUS;
+    graphics.dispose();
+    imageGC.dispose();
+    scaledImage.dispose();
+    this.srcImage.dispose();
+    this.srcImage = null;
+
+    ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
+    imgLoader.save(imageStream, this.imageType);
+    return new CSImageCache.Rendering(imageStream.toByteArray(), imageRatio);
   }
 
   /**
@@ -232,7 +333,7 @@ public class CSExportJob extends XstamppJob {
    * 
    * @author Lukas Balzer
    *
-   * @return a rectangle which describes the bounds of the control structure
+   * @return a rectangle which describes the unscaled bounds of the control structure
    */
   private Rectangle getClippingRectangle() {
     boolean isFirst = true;
@@ -271,7 +372,15 @@ public class CSExportJob extends XstamppJob {
     // the clipRectangle is minimally located at (0,0)
     clipRectangle.x = Math.max(0, clipRectangle.x);
     clipRectangle.y = Math.max(0, clipRectangle.y);
-    clipRectangle.scale(this.factor);
+    return clipRectangle;
+  }
+
+  /**
+   * @return the clip rectangle scaled to the source image, the rectangle is cut so that it lies
+   *         inside of the image
+   */
+  private Rectangle getImageClippingRectangle() {
+    Rectangle clipRectangle = getClippingRectangle().scale(this.factor);
     if ((clipRectangle.height + clipRectangle.y) > this.srcImage
         .getBounds().height) {
       clipRectangle.height = this.srcImage.getBounds().height
@@ -285,17 +394,20 @@ public class CSExportJob extends XstamppJob {
   }
 
   private class CSImageCalculator implements Runnable {
+    private Rectangle clipRectangle;
+    private byte[] vectorImage;
+    private float vectorRatio;
 
     @Override
     public void run() {
-      Shell shell = new Shell();
-      Composite canvas = new Composite(shell, 33554432);
-      ScrollingGraphicalViewer viewer = new ScrollingGraphicalViewer();
       if (!CSExportJob.this.editorId.equals(CSEditor.ID)
           && !CSExportJob.this.editorId.equals(CSEditorWithPM.ID)) {
         // the editor id must be one of CSEditor or CSEditorWithPM
         return;
       }
+      Shell shell = new Shell();
+      Composite canvas = new Composite(shell, 33554432);
+      ScrollingGraphicalViewer viewer = new ScrollingGraphicalViewer();
 
       viewer.createControl(canvas);
       viewer.setEditPartFactory(new CSEditPartFactory(
@@ -331,7 +443,39 @@ public class CSExportJob extends XstamppJob {
         }
 
       }
+      CSExportJob.this.printableFigure = tmpFigure;
+      if (CSExportJob.this.imageType == IMAGE_SVG) {
+        paintVector(tmpFigure);
+      } else {
+        paintImage(tmpFigure);
+      }
+      // the figures are not needed anymore after the clipping has been calculated
+      CSExportJob.this.printableFigure = null;
+      shell.dispose();
+    }
 
+    /**
+     * paints the figure as svg, the document has the same size as the clipped image would have
+     * but its size in memory depends only on the number of figures
+     */
+    private void paintVector(IFigure tmpFigure) {
+      Rectangle bounds = getClippingRectangle();
+      int offset = CSExportJob.this.imgOffset;
+      SVGGraphics graphics = new SVGGraphics(
+          (int) (CSExportJob.this.factor * bounds.width) + (2 * offset),
+          (int) (CSExportJob.this.factor * bounds.height) + (2 * offset));
+      graphics.translate(offset, offset);
+      graphics.scale(CSExportJob.this.factor);
+      graphics.translate(-bounds.x, -bounds.y);
+      graphics.clipRect(bounds);
+      tmpFigure.paint(graphics);
+      graphics.dispose();
+      this.vectorImage = graphics.toByteArray();
+      this.vectorRatio = (float) ((CSExportJob.this.factor * bounds.width + (2 * offset))
+          / Math.max(1, CSExportJob.this.factor * bounds.height + (2 * offset)));
+    }
+
+    private void paintImage(IFigure tmpFigure) {
       // a plain Image is created on which we can draw any graphics
       CSExportJob.this.srcImage = new Image(null, (int) Math.max(
           CSExportJob.this.factor * tmpFigure.getBounds().width,
@@ -343,7 +487,9 @@ public class CSExportJob extends XstamppJob {
       Graphics graphics = new SWTGraphics(imageGC);
       graphics.scale(CSExportJob.this.factor);
       tmpFigure.paint(graphics);
-      CSExportJob.this.printableFigure = tmpFigure;
+      graphics.dispose();
+      imageGC.dispose();
+      this.clipRectangle = getImageClippingRectangle();
     }
 
   }
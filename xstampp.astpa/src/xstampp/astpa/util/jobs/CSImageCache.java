@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.astpa.util.jobs;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.UUID;
+
+import xstampp.model.ObserverValue;
+
+/**
+ * A cache for the encoded images of the control structure which are rendered by the
+ * {@link CSExportJob}.<br>
+ * The cache of each project is stamped with a version which is increased whenever the data model
+ * of the project notifies a change of the control structure or the control actions, all images
+ * rendered for an older version are discarded. Thus the pdf, word and image exports render the
+ * control structure only once until it is changed.<br>
+ * The cache of a project is removed when the project is deleted and replaced when the project is
+ * loaded again with a new data model.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public final class CSImageCache {
+
+  private static final Map<UUID, ProjectCache> CACHES = new HashMap<>();
+
+  private CSImageCache() {
+    // this class provides only static access
+  }
+
+  /**
+   * an encoded image of the control structure together with the ratio of its width and height
+   */
+  public static class Rendering {
+    private final byte[] image;
+    private final float ratio;
+
+    Rendering(byte[] image, float ratio) {
+      this.image = image;
+      this.ratio = ratio;
+    }
+
+    /**
+     * @return the encoded image, the returned array must not be changed
+     */
+    public byte[] getImage() {
+      return this.image;
+    }
+
+    public float getRatio() {
+      return this.ratio;
+    }
+  }
+
+  /**
+   * @param projectId
+   *          the id of the project
+   * @param model
+   *          the data model of the project which is observed to invalidate the cache
+   * @return the current version stamp of the control structure of the project
+   */
+  public static int getVersion(UUID projectId, Observable model) {
+    return getCache(projectId, model).getVersion();
+  }
+
+  /**
+   * @param projectId
+   *          the id of the project
+   * @param model
+   *          the data model of the project which is observed to invalidate the cache
+   * @param key
+   *          a key which describes all settings the image has been rendered with
+   * @param version
+   *          the version stamp as returned by {@link #getVersion(UUID, Observable)}
+   * @return the cached rendering or <code>null</code> if there is no rendering for the key and
+   *         version
+   */
+  public static Rendering get(UUID projectId, Observable model, String key, int version) {
+    return getCache(projectId, model).get(key, version);
+  }
+
+  /**
+   * stores the given rendering if the control structure has not been changed since the given
+   * version was requested
+   *
+   * @param projectId
+   *          the id of the project
+   * @param model
+   *          the data model of the project which is observed to invalidate the cache
+   * @param key
+   *          a key which describes all settings the image has been rendered with
+   * @param version
+   *          the version stamp which has been requested before the rendering was started
+   * @param rendering
+   *          the rendering
+   */
+  public static void put(UUID projectId, Observable model, String key, int version,
+      Rendering rendering) {
+    getCache(projectId, model).put(key, version, rendering);
+  }
+
+  private static synchronized ProjectCache getCache(UUID projectId, Observable model) {
+    ProjectCache cache = CACHES.get(projectId);
+    if (cache != null && cache.model.get() != model) {
+      // the project has been loaded again, the renderings of the former model are not valid
+      Observable formerModel = cache.model.get();
+      if (formerModel != null) {
+        formerModel.deleteObserver(cache);
+      }
+      cache = null;
+    }
+    if (cache == null) {
+      cache = new ProjectCache(projectId, model);
+      CACHES.put(projectId, cache);
+      if (model != null) {
+        model.addObserver(cache);
+      }
+    }
+    return cache;
+  }
+
+  private static synchronized void removeCache(ProjectCache cache) {
+    if (CACHES.get(cache.projectId) == cache) {
+      CACHES.remove(cache.projectId);
+    }
+  }
+
+  private static class ProjectCache implements Observer {
+    private final UUID projectId;
+    private final WeakReference<Observable> model;
+    private final Map<String, Rendering> renderings;
+    private int version;
+
+    ProjectCache(UUID projectId, Observable model) {
+      this.projectId = projectId;
+      this.model = new WeakReference<>(model);
+      this.renderings = new HashMap<>();
+      this.version = 0;
+    }
+
+    synchronized int getVersion() {
+      return this.version;
+    }
+
+    synchronized Rendering get(String key, int requestedVersion) {
+      if (requestedVersion != this.version) {
+        return null;
+      }
+      return this.renderings.get(key);
+    }
+
+    synchronized void put(String key, int requestedVersion, Rendering rendering) {
+      if (requestedVersion == this.version) {
+        this.renderings.put(key, rendering);
+      }
+    }
+
+    @Override
+    public void update(Observable model, Object value) {
+      if (value == ObserverValue.DELETE || value == ObserverValue.CLEAN_UP) {
+        model.deleteObserver(this);
+        removeCache(this);
+      }
+      if (value == null || value == ObserverValue.CONTROL_STRUCTURE
+          || value == ObserverValue.CONTROL_ACTION || value == ObserverValue.DELETE
+          || value == ObserverValue.CLEAN_UP) {
+        synchronized (this) {
+          this.version++;
+          this.renderings.clear();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.astpa.util.jobs;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Observable;
+import java.util.UUID;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import xstampp.astpa.model.controlstructure.LayeredLayout;
+import xstampp.ui.common.ProjectManager;
+import xstampp.util.XstamppJob;
+
+/**
+ * A job which computes a {@link LayeredLayout} outside of the ui thread, the result must be
+ * applied by the caller once the job is done.
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class CSLayoutJob extends XstamppJob {
+
+  private final LayeredLayout layout;
+  private final long timeBudget;
+  private final UUID projectId;
+  private Map<UUID, Rectangle> result;
+
+  /**
+   *
+   * @param layout
+   *          the layout which has been created from the control structure
+   * @param timeBudget
+   *          the time in milliseconds which may be spent to improve the layout
+   * @param projectId
+   *          the project which contains the control structure
+   */
+  public CSLayoutJob(LayeredLayout layout, long timeBudget, UUID projectId) {
+    super("Auto Layout"); //$NON-NLS-1$
+    this.layout = layout;
+    this.timeBudget = timeBudget;
+    this.projectId = projectId;
+    this.result = Collections.emptyMap();
+    setSystem(true);
+  }
+
+  @Override
+  protected IStatus run(IProgressMonitor monitor) {
+    monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
+    Map<UUID, Rectangle> layouts = this.layout.compute(this.timeBudget);
+    monitor.done();
+    if (monitor.isCanceled()) {
+      return Status.CANCEL_STATUS;
+    }
+    this.result = layouts;
+    return Status.OK_STATUS;
+  }
+
+  /**
+   * @return the new layouts mapped to the ids of the components, or an empty map if the job has
+   *         not finished successfully
+   */
+  public Map<UUID, Rectangle> getResult() {
+    return this.result;
+  }
+
+  @Override
+  protected Observable getModelObserver() {
+    return (Observable) ProjectManager.getContainerInstance().getDataModel(this.projectId);
+  }
+}
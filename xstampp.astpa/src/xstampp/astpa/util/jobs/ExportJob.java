@@ -9,18 +9,14 @@
 package xstampp.astpa.util.jobs;
 
 import java.io.File;
-import java.net.URL;
 import java.util.Observable;
 import java.util.UUID;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.URIResolver;
-import javax.xml.transform.stream.StreamSource;
 
+import org.apache.xmlgraphics.util.MimeConstants;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -32,6 +28,7 @@ import xstampp.astpa.model.DataModelController;
 import xstampp.astpa.model.interfaces.IControlStructureEditorDataModel;
 import xstampp.ui.common.ProjectManager;
 import xstampp.util.ExportPackage;
+import xstampp.util.FopResources;
 import xstampp.util.JAXBExportJob;
 
 /**
@@ -50,6 +47,7 @@ import xstampp.util.JAXBExportJob;
  */
 public class ExportJob extends JAXBExportJob {
 
+  private static final long EXPORT_WAIT_INTERVAL = 200;
   private final boolean decorate;
   private String imgPath;
   private boolean isCsDirty;
@@ -114,15 +112,43 @@ public class ExportJob extends JAXBExportJob {
   protected IStatus run(IProgressMonitor monitor) {
     monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
 
-    while (canExport()) {
-      if (monitor.isCanceled()) {
-        return Status.CANCEL_STATUS;
+    // waits without spinning until the model is prepared and checks the monitor in between
+    try {
+      while (canExport()) {
+        if (monitor.isCanceled()) {
+          return Status.CANCEL_STATUS;
+        }
+        ((DataModelController) getModel()).waitForExportInfo(EXPORT_WAIT_INTERVAL);
       }
+    } catch (InterruptedException e) {
+      return Status.CANCEL_STATUS;
     }
+    createCSImages();
+
+    return super.run(monitor);
+  }
+
+  /**
+   * creates the temporary images of the control structure and the control structure with process
+   * model if this job has been marked with {@link #setCSDirty()} and stores their paths in the
+   * model. The images are created only once and are deleted when this job is done.<br>
+   * This is called when the job is run but can also be called before the job is scheduled so that
+   * the image paths are already contained in a model xml set with {@link #setModelXml(byte[])}.<br>
+   * For a pdf export the images are created as svg so that the diagrams are embedded as vector
+   * graphics.
+   */
+  public void createCSImages() {
     this.imgPath = new File(this.getFilePath()).getParent();
     if (this.isCsDirty) {
-      this.csPath = new File(this.imgPath + File.separator + getThread().getId() + "cs.png");
-      this.csPmPath = new File(this.imgPath + File.separator + getThread().getId() + "cspm.png");
+      this.isCsDirty = false;
+      // the shared fop factory caches images by their path so every rendering needs a new name
+      String id = UUID.randomUUID().toString();
+      String extension = ".png"; //$NON-NLS-1$
+      if (MimeConstants.MIME_PDF.equals(getFileType()) && getModel() instanceof DataModelController) {
+        extension = ".svg"; //$NON-NLS-1$
+      }
+      this.csPath = new File(this.imgPath + File.separator + id + "cs" + extension);
+      this.csPmPath = new File(this.imgPath + File.separator + id + "cspm" + extension);
       CSExportJob csExport = new CSExportJob(this.csPath.getPath(), CSEditor.ID, projectId, 10,
           this.decorate);
       CSExportJob csPmExport = new CSExportJob(this.csPmPath.getPath(), CSEditorWithPM.ID,
@@ -134,8 +160,6 @@ public class ExportJob extends JAXBExportJob {
       ((IControlStructureEditorDataModel) getModel()).setCSImagePath(this.csPath.getPath());
       ((IControlStructureEditorDataModel) getModel()).setCSPMImagePath(this.csPmPath.getPath());
     }
-
-    return super.run(monitor);
   }
 
   @Override
@@ -162,21 +186,8 @@ public class ExportJob extends JAXBExportJob {
 
   @Override
   protected Transformer getxslTransformer(String resource, final Class clazz) {
-    URL xslUrl = clazz.getResource(resource);
-
-    if (xslUrl == null) {
-      return null;
-    }
     try {
-      StreamSource transformXSLSource = new StreamSource(xslUrl.openStream());
-      TransformerFactory transfact = TransformerFactory.newInstance();
-      transfact.setURIResolver(new URIResolver() {
-        @Override
-        public Source resolve(String href, String base) {
-          return new StreamSource(clazz.getResourceAsStream("/" + href)); //$NON-NLS-1$
-        }
-      });
-      return transfact.newTransformer(transformXSLSource);
+      return FopResources.newTransformer(resource, clazz);
     } catch (Exception e) {
       return null;
     }
@@ -201,14 +212,22 @@ public class ExportJob extends JAXBExportJob {
     super.canceling();
   }
 
-  @Override
-  public void done(IJobChangeEvent event) {
+  /**
+   * deletes the temporary images created by {@link #createCSImages()}, this is done when the job is
+   * done and must be called by the creator of the images if the job is never scheduled.
+   */
+  public void deleteCSImages() {
     if (this.csPath != null && this.csPath.exists()) {
       this.csPath.delete();
     }
     if (this.csPmPath != null && this.csPmPath.exists()) {
       this.csPmPath.delete();
     }
+  }
+
+  @Override
+  public void done(IJobChangeEvent event) {
+    deleteCSImages();
     super.done(event);
   }
 }
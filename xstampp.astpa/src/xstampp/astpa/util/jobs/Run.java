@@ -11,33 +11,41 @@
 package xstampp.astpa.util.jobs;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Observable;
 import java.util.UUID;
 
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.swt.widgets.Display;
 
 import messages.Messages;
+import xstampp.astpa.Activator;
 import xstampp.astpa.controlstructure.CSEditor;
 import xstampp.astpa.controlstructure.CSEditorWithPM;
 import xstampp.astpa.model.DataModelController;
 import xstampp.model.ObserverValue;
 import xstampp.ui.common.ProjectManager;
 import xstampp.ui.wizards.AbstractExportPage;
+import xstampp.util.ExportManifest;
 import xstampp.util.ExportPackage;
+import xstampp.util.JAXBExportJob;
+import xstampp.util.ParallelJobQueue;
 import xstampp.util.STPAPluginUtils;
 import xstampp.util.XstamppJob;
 
 /**
  * an export job which run s a complete export in all available formats.
- * the export is managed through the implementation of<code> IJobChangeListener</code>
- * which counts all scheduled jobs and notifys the system when the export is finished
+ * the model is prepared and marshalled only once, all exports then share the marshalled model
+ * and are run in parallel by a {@link ParallelJobQueue}, the system is notified when the export is finished<br>
+ * Unless a full export is forced only the files are exported whose inputs have changed since the last
+ * export into the same directory, the inputs of each file are recorded in an {@link ExportManifest}
  * 
  * @author Lukas Balzer
  * @since 2.0
@@ -84,7 +92,13 @@ public class Run extends XstamppJob {
    */
   public static final String EX_CSV_DIR = Extended_DIR + File.separator + "csv"; //$NON-NLS-1$
 
-  private List<Job> jobList;
+  private ParallelJobQueue jobQueue;
+  private byte[] modelXml;
+  /**
+   * the report job as long as its control structure images have been created but it has not been
+   * scheduled yet, the images are deleted by the job itself once it is done
+   */
+  private ExportJob unscheduledReport;
   private static final int CSV_WORK = 1;
   private static final int XSL_WORK = 4;
   private static final int CS_IMG_WORK = 1;
@@ -101,6 +115,45 @@ public class Run extends XstamppJob {
       Messages.SystemGoals, "/fopSystemGoals.xsl", //$NON-NLS-1$
       Messages.UnsafeControlActionsTable, "/fopuca.xsl" };//$NON-NLS-1$
 
+  /**
+   * the top level elements of the marshalled model which are read by the xsl files in the
+   * <code>xslMap</code>, the elements used in the header of every document are added in
+   * {@link #getXslKey(String[], Object...)}
+   */
+  private static final String[][] XSL_INPUTS = new String[][] { { "hazacc" }, //$NON-NLS-1$
+      { "hazacc" }, //$NON-NLS-1$
+      { "causalfactor", "cac", "hazacc" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+      { "cac" }, //$NON-NLS-1$
+      { "sds" }, //$NON-NLS-1$
+      { "sds" }, //$NON-NLS-1$
+      {},
+      { "sds" }, //$NON-NLS-1$
+      { "cac" } }; //$NON-NLS-1$
+
+  /**
+   * the top level elements of the marshalled model which are read by the csv export of each
+   * step in {@link ICSVExportConstants#STEPS}
+   */
+  private static final String[][] CSV_INPUTS = new String[][] { { "projectdata" }, //$NON-NLS-1$
+      { "hazacc" }, //$NON-NLS-1$
+      { "hazacc" }, //$NON-NLS-1$
+      { "sds" }, //$NON-NLS-1$
+      { "sds" }, //$NON-NLS-1$
+      { "sds" }, //$NON-NLS-1$
+      { "cac" }, //$NON-NLS-1$
+      { "cac" }, //$NON-NLS-1$
+      { "cac", "hazacc" }, //$NON-NLS-1$ //$NON-NLS-2$
+      { "causalfactor", "cac", "hazacc" } }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+  private static final String[] XSTPA_INPUTS = new String[] { "cac", "extendedData", //$NON-NLS-1$ //$NON-NLS-2$
+      "ignoreLTLValue", "controlstructure" }; //$NON-NLS-1$ //$NON-NLS-2$
+  private static final String[] CS_INPUTS = new String[] { "controlstructure", "cac" }; //$NON-NLS-1$ //$NON-NLS-2$
+  private static final String[] HEADER_INPUTS = new String[] { "projectdata", //$NON-NLS-1$
+      "exportinformation" }; //$NON-NLS-1$
+  private static final String[] ALL_INPUTS = new String[] { "exportinformation", "projectdata", //$NON-NLS-1$ //$NON-NLS-2$
+      "hazacc", "sds", "controlstructure", "ignoreLTLValue", "cac", "causalfactor", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+      "extendedData", "linkController" }; //$NON-NLS-1$ //$NON-NLS-2$
+
   private String[] xstpaXslMap = new String[] { Messages.ContextTables, "/fopContextTable.xsl", //$NON-NLS-1$
       Messages.RefinedSafetyConstraintsTable, "/fopRefinedConstraints.xsl", //$NON-NLS-1$
       Messages.RefinedUnsafeControlActions, "/fopRefinedUnsafeControlActions.xsl", //$NON-NLS-1$
@@ -113,6 +166,8 @@ public class Run extends XstamppJob {
   private boolean exportExtendedPDFs;
   private boolean exportExtendedIMGs;
   private boolean decorateCS;
+  private boolean forceFullExport;
+  private ExportManifest manifest;
 
   private String exportReportFormat;
   private String exportImagesFormat;
@@ -144,7 +199,8 @@ public class Run extends XstamppJob {
     this.exportPDFs = true;
     this.exportReport = true;
     this.isCanceled = false;
-    this.jobList = new ArrayList<>();
+    this.forceFullExport = false;
+    this.jobQueue = new ParallelJobQueue();
   }
 
   @Override
@@ -155,9 +211,7 @@ public class Run extends XstamppJob {
   @Override
   protected void canceling() {
     this.isCanceled = true;
-    for (Job job : this.jobList) {
-      job.cancel();
-    }
+    this.jobQueue.cancel();
     super.canceling();
   }
 
@@ -166,130 +220,229 @@ public class Run extends XstamppJob {
     monitor.beginTask("Main Run Export...", calcWork());
     String fileName;
     ProjectManager.getContainerInstance().getDataModel(getProjectID()).prepareForExport();
+    this.modelXml = marshalModel();
+    this.manifest = new ExportManifest(new File(this.dir));
+    // the creation date of the export information changes with every export
+    this.manifest.digestModel(this.modelXml, "exportinformation/date"); //$NON-NLS-1$
+    if (this.forceFullExport) {
+      this.manifest.clear();
+    }
+    ExportJob pdfRepJob = null;
+    File reportFile = new File(this.dir + getName() + ".pdf"); //$NON-NLS-1$
+    // the report contains the control structure images, so it depends on their decoration
+    String reportKey = getXslKey(ALL_INPUTS, "/fopxsl.xsl", exportReportFormat, //$NON-NLS-1$
+        this.decorateCS);
+    if (this.exportReport && !isUpToDate(reportFile, reportKey, REPORT_WORK, monitor)) {
+      ExportPackage data = new ExportPackage(getJobName("Final Report"),
+          reportFile.getPath(), "/fopxsl.xsl", DataModelController.class); //$NON-NLS-1$
+      pdfRepJob = new ExportJob(getProjectID(), data, true, this.decorateCS);
+      pdfRepJob.setCSDirty();
+      // the control structure images must be stored in the model before it is marshalled
+      pdfRepJob.createCSImages();
+      this.unscheduledReport = pdfRepJob;
+      this.modelXml = marshalModel();
+    }
 
     for (int i = 0; i < ICSVExportConstants.STEPS.size() && this.exportCSVs; i++) {
 
       fileName = ICSVExportConstants.STEPS.get(i) + ".csv";
-      StpaCSVExport job = new StpaCSVExport(getJobName(fileName),
-          this.dir + CSV_DIR + File.separator + fileName,
+      File file = new File(this.dir + CSV_DIR + File.separator + fileName);
+      String key = getKey(CSV_INPUTS[i], fileName);
+      if (isUpToDate(file, key, CSV_WORK, monitor)) {
+        continue;
+      }
+      StpaCSVExport job = new StpaCSVExport(getJobName(fileName), file.getPath(),
           ';', ProjectManager.getContainerInstance().getDataModel(getProjectID()), 1 << i);
       job.showPreview(false);
-      if (!addJob(job)) {
+      if (!addJob(job, CSV_WORK, monitor, file, key)) {
         return Status.CANCEL_STATUS;
       }
-      monitor.worked(CSV_WORK);
     }
     if (this.exportExtendedCSVs) {
       fileName = "Extended STPA Data.csv";
-      XCSVExportJob export = new XCSVExportJob(getJobName(fileName),
-          this.dir + EX_CSV_DIR + File.separator + fileName,
-          ';', ProjectManager.getContainerInstance().getDataModel(getProjectID()),
-          XCSVExportJob.REFINED_DATA);
-      if (!addJob(export)) {
-        return Status.CANCEL_STATUS;
+      File file = new File(this.dir + EX_CSV_DIR + File.separator + fileName);
+      String key = getKey(XSTPA_INPUTS, fileName);
+      if (!isUpToDate(file, key, CSV_WORK, monitor)) {
+        XCSVExportJob export = new XCSVExportJob(getJobName(fileName), file.getPath(),
+            ';', ProjectManager.getContainerInstance().getDataModel(getProjectID()),
+            XCSVExportJob.REFINED_DATA);
+        if (!addJob(export, CSV_WORK, monitor, file, key)) {
+          return Status.CANCEL_STATUS;
+        }
       }
-      monitor.worked(CSV_WORK);
     }
     for (int i = 0; i < this.xslMap.length && this.exportImages; i += 2) {
       fileName = this.xslMap[i] + ".png";
-      ExportPackage data = new ExportPackage(getJobName(fileName),
-          this.dir + IMAGE_DIR + File.separator + fileName,
+      File file = new File(this.dir + IMAGE_DIR + File.separator + fileName);
+      String key = getXslKey(XSL_INPUTS[i / 2], this.xslMap[i + 1], exportImagesFormat);
+      if (isUpToDate(file, key, XSL_WORK, monitor)) {
+        continue;
+      }
+      ExportPackage data = new ExportPackage(getJobName(fileName), file.getPath(),
           this.xslMap[i + 1], DataModelController.class);
       ExportJob job = new ExportJob(getProjectID(), data, true, false);
       job.setPageFormat(exportImagesFormat);
       job.showPreview(false);
-      if (!addJob(job)) {
+      if (!addJob(job, XSL_WORK, monitor, file, key)) {
         return Status.CANCEL_STATUS;
       }
-      monitor.worked(XSL_WORK);
     }
     for (int i = 0; i < this.xstpaXslMap.length && this.exportExtendedIMGs; i += 2) {
       fileName = this.xstpaXslMap[i] + ".png";
-      ExportPackage data = new ExportPackage(getJobName(fileName),
-          this.dir + EX_IMAGE_DIR + File.separator + fileName,
+      File file = new File(this.dir + EX_IMAGE_DIR + File.separator + fileName);
+      String key = getXslKey(XSTPA_INPUTS, this.xstpaXslMap[i + 1], exportExtendedIMGsFormat);
+      if (isUpToDate(file, key, XSL_WORK, monitor)) {
+        continue;
+      }
+      ExportPackage data = new ExportPackage(getJobName(fileName), file.getPath(),
           this.xstpaXslMap[i + 1], DataModelController.class);
       ExportJob job = new ExportJob(getProjectID(), data, true, false);
       job.setPageFormat(exportExtendedIMGsFormat);
       job.showPreview(false);
-      if (!addJob(job)) {
+      if (!addJob(job, XSL_WORK, monitor, file, key)) {
         return Status.CANCEL_STATUS;
       }
-      monitor.worked(XSL_WORK);
     }
     if (this.exportImages || this.exportReport) {
-      String csPath = this.dir + IMAGE_DIR + File.separator + Messages.ControlStructure + ".png";
-      String csPMPath = this.dir + IMAGE_DIR + File.separator
-          + Messages.ControlStructureDiagramWithProcessModel + ".png";
-      CSExportJob job = new CSExportJob(csPath, 5, CSEditor.ID, getProjectID(), false,
-          this.decorateCS);
-      CSExportJob pmJob = new CSExportJob(csPMPath, 5, CSEditorWithPM.ID, getProjectID(), false,
-          this.decorateCS);
-
-      if (!addJob(job)) {
-        return Status.CANCEL_STATUS;
+      File csFile = new File(this.dir + IMAGE_DIR + File.separator + Messages.ControlStructure
+          + ".png"); //$NON-NLS-1$
+      File csPMFile = new File(this.dir + IMAGE_DIR + File.separator
+          + Messages.ControlStructureDiagramWithProcessModel + ".png"); //$NON-NLS-1$
+      String csKey = getKey(CS_INPUTS, CSEditor.ID, this.decorateCS);
+      String csPMKey = getKey(CS_INPUTS, CSEditorWithPM.ID, this.decorateCS);
+      if (!isUpToDate(csFile, csKey, CS_IMG_WORK, monitor)) {
+        CSExportJob job = new CSExportJob(csFile.getPath(), 5, CSEditor.ID, getProjectID(), false,
+            this.decorateCS);
+        if (!addJob(job, CS_IMG_WORK, monitor, csFile, csKey)) {
+          return Status.CANCEL_STATUS;
+        }
       }
-      if (!addJob(pmJob)) {
-        return Status.CANCEL_STATUS;
+      if (!isUpToDate(csPMFile, csPMKey, 0, monitor)) {
+        CSExportJob pmJob = new CSExportJob(csPMFile.getPath(), 5, CSEditorWithPM.ID,
+            getProjectID(), false, this.decorateCS);
+        if (!addJob(pmJob, 0, monitor, csPMFile, csPMKey)) {
+          return Status.CANCEL_STATUS;
+        }
       }
-      monitor.worked(CS_IMG_WORK);
     }
     for (int i = 0; i < this.xslMap.length && this.exportPDFs; i += 2) {
+      File file = new File(this.dir + PDF_DIR + File.separator + this.xslMap[i] + ".pdf"); //$NON-NLS-1$
+      String key = getXslKey(XSL_INPUTS[i / 2], this.xslMap[i + 1], exportPDFsFormat);
+      if (isUpToDate(file, key, XSL_WORK, monitor)) {
+        continue;
+      }
       ExportPackage data = new ExportPackage("Expoting " + this.xslMap[i] + ".pdf",
-          this.dir + PDF_DIR + File.separator + this.xslMap[i] + ".pdf", //$NON-NLS-1$
-          this.xslMap[i + 1], DataModelController.class);
+          file.getPath(), this.xslMap[i + 1], DataModelController.class);
       ExportJob pdfJob = new ExportJob(getProjectID(), data, true, false);
       pdfJob.showPreview(false);
       pdfJob.setPageFormat(exportPDFsFormat);
-      if (!addJob(pdfJob)) {
+      if (!addJob(pdfJob, XSL_WORK, monitor, file, key)) {
         return Status.CANCEL_STATUS;
       }
-      monitor.worked(XSL_WORK);
     }
     for (int i = 0; i < this.xstpaXslMap.length && this.exportExtendedPDFs; i += 2) {
+      File file = new File(this.dir + EX_PDF_DIR + File.separator + this.xstpaXslMap[i] + ".pdf"); //$NON-NLS-1$
+      String key = getXslKey(XSTPA_INPUTS, this.xstpaXslMap[i + 1], exportExtendedPDFsFormat);
+      if (isUpToDate(file, key, XSL_WORK, monitor)) {
+        continue;
+      }
       ExportPackage data = new ExportPackage("Expoting " + this.xstpaXslMap[i] + ".pdf",
-          this.dir + EX_PDF_DIR + File.separator + this.xstpaXslMap[i] + ".pdf", //$NON-NLS-1$
-          this.xstpaXslMap[i + 1], DataModelController.class);
+          file.getPath(), this.xstpaXslMap[i + 1], DataModelController.class);
       ExportJob pdfJob = new ExportJob(getProjectID(), data, true, false);
       pdfJob.setPageFormat(exportExtendedPDFsFormat);
       pdfJob.showPreview(false);
-      if (!addJob(pdfJob)) {
+      if (!addJob(pdfJob, XSL_WORK, monitor, file, key)) {
         return Status.CANCEL_STATUS;
       }
-      monitor.worked(XSL_WORK);
     }
-    if (this.exportReport) {
-      ExportPackage data = new ExportPackage(getJobName("Final Report"),
-          this.dir + getName() + ".pdf", //$NON-NLS-1$
-          "/fopxsl.xsl", DataModelController.class);
-      ExportJob pdfRepJob = new ExportJob(getProjectID(), data, true, false); // $NON-NLS-1$
-      pdfRepJob.setCSDirty();
+    if (pdfRepJob != null) {
       pdfRepJob.setPageFormat(exportReportFormat);
       pdfRepJob.showPreview(false);
-      if (!addJob(pdfRepJob)) {
+      if (!addJob(pdfRepJob, REPORT_WORK, monitor, reportFile, reportKey)) {
         return Status.CANCEL_STATUS;
       }
-      monitor.worked(REPORT_WORK);
+      this.unscheduledReport = null;
+    }
+    if (!this.jobQueue.joinAll(monitor)) {
+      return Status.CANCEL_STATUS;
     }
     return Status.OK_STATUS;
   }
 
+  /**
+   * creates the key of an xsl export from the given model elements, the elements used in the
+   * header of every document and the given parameters, e.g. the xsl resource and the page format
+   */
+  private String getXslKey(String[] inputs, Object... parameters) {
+    String[] elements = new String[inputs.length + HEADER_INPUTS.length];
+    System.arraycopy(HEADER_INPUTS, 0, elements, 0, HEADER_INPUTS.length);
+    System.arraycopy(inputs, 0, elements, HEADER_INPUTS.length, inputs.length);
+    return getKey(elements, parameters);
+  }
+
+  /**
+   * creates a key from the given model elements and parameters, the version of this plugin is
+   * always part of the key as a new version may change the exported files
+   */
+  private String getKey(String[] elements, Object... parameters) {
+    Object[] allParameters = new Object[parameters.length + 1];
+    System.arraycopy(parameters, 0, allParameters, 0, parameters.length);
+    allParameters[parameters.length] = Activator.getDefault().getBundle().getVersion();
+    return this.manifest.getKey(elements, allParameters);
+  }
+
+  /**
+   * checks whether the given file has already been exported with the given key in which case
+   * the work of its export is reported as done
+   */
+  private boolean isUpToDate(File file, String key, int work, IProgressMonitor monitor) {
+    if (!this.forceFullExport && this.manifest.isUpToDate(file, key)) {
+      ProjectManager.getLOGGER().debug(file.getName() + " is up to date"); //$NON-NLS-1$
+      monitor.worked(work);
+      return true;
+    }
+    return false;
+  }
+
   private String getJobName(String file) {
     return "Exporting " + getName() + " - " + file + "...";
   }
 
-  private boolean addJob(Job job) {
+  /**
+   * marshals the prepared model once so that it can be shared by all xsl exports
+   * 
+   * @return the xml of the model or <code>null</code> if it could not be marshalled in which case
+   *         each export marshals the model itself
+   */
+  private byte[] marshalModel() {
+    try {
+      return JAXBExportJob.marshal(JAXBContext.newInstance(DataModelController.class),
+          ProjectManager.getContainerInstance().getDataModel(getProjectID()));
+    } catch (JAXBException e) {
+      ProjectManager.getLOGGER().error(e.getMessage(), e);
+      return null;
+    }
+  }
+
+  private boolean addJob(Job job, int work, IProgressMonitor monitor, final File file,
+      final String key) {
     if (this.isCanceled) {
       return false;
     }
-    try {
-      job.schedule();
-      job.join();
-      this.jobList.add(job);
-    } catch (InterruptedException e) {
-      e.printStackTrace();
+    if (job instanceof JAXBExportJob) {
+      ((JAXBExportJob) job).setModelXml(this.modelXml);
     }
-    return true;
-
+    // the file is only recorded in the manifest once it has been exported successfully
+    this.manifest.put(file, null);
+    job.addJobChangeListener(new JobChangeAdapter() {
+      @Override
+      public void done(IJobChangeEvent event) {
+        if (event.getResult().isOK()) {
+          Run.this.manifest.put(file, key);
+        }
+      }
+    });
+    return this.jobQueue.add(job, work, monitor);
   }
 
   /**
@@ -326,6 +479,13 @@ public class Run extends XstamppJob {
 
   @Override
   public void done(IJobChangeEvent event) {
+    if (this.unscheduledReport != null) {
+      this.unscheduledReport.deleteCSImages();
+      this.unscheduledReport = null;
+    }
+    if (this.manifest != null) {
+      this.manifest.save();
+    }
     if (this.isCanceled) {
       ProjectManager.getLOGGER().debug("STPA run export was canceled"); //$NON-NLS-1$
     } else {
@@ -411,6 +571,15 @@ public class Run extends XstamppJob {
     this.decorateCS = decoChoice;
   }
 
+  /**
+   * @param forceFullExport
+   *          whether all files should be exported even if their inputs have not changed since
+   *          the last export into the same directory
+   */
+  public void setForceFullExport(boolean forceFullExport) {
+    this.forceFullExport = forceFullExport;
+  }
+
   /**
    * @param exportExtendedCSVs
    *          the exportExtendedCSVs to set
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.astpa.util.jobs;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Set;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import xstampp.astpa.Activator;
+import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.model.controlaction.interfaces.IControlAction;
+import xstampp.astpa.model.controlstructure.components.ComponentType;
+import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
+import xstampp.model.AbstractLTLProvider;
+import xstampp.model.IDataModel;
+import xstampp.util.XstamppJob;
+
+/**
+ * A job that writes the process model variables, the control actions and all refined LTL rules
+ * of a project as a SMV module which can be used as input for model checkers like NuSMV/nuXmv.<br>
+ * The module is written entry by entry into a buffered file stream so that the complete text is
+ * never held in memory. Each process variable is declared as an enumeration of its values and
+ * all control actions are combined in the enumeration <code>controlAction</code>, the transitions
+ * are left unconstrained and must be added by the user.<br>
+ * Since the values are enumeration constants a value like <code>&lt;5</code> is declared as the
+ * constant <code>lt_5</code> and compared with <code>=</code> in the formulas. Names which are
+ * keywords or operators of SMV like <code>next</code> or <code>TRUE</code> get the suffix
+ * <code>_</code>. The module is first
+ * written to a temporary file which replaces the target file only if the export succeeds, the
+ * export fails without writing anything if two variables, values or control actions have the
+ * same identifier.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class SMVExportJob extends XstamppJob {
+
+  private static final String NO_ACTION = "none"; //$NON-NLS-1$
+  private static final String CONTROL_ACTION = "controlAction"; //$NON-NLS-1$
+  /**
+   * the keywords, constants and operators of the SMV and LTL syntax which can't be used as
+   * identifiers
+   */
+  private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList((
+      "MODULE DEFINE MDEFINE CONSTANTS VAR IVAR FROZENVAR INIT TRANS INVAR SPEC CTLSPEC LTLSPEC " //$NON-NLS-1$
+      + "PSLSPEC COMPUTE NAME INVARSPEC FAIRNESS JUSTICE COMPASSION ISA ASSIGN CONSTRAINT " //$NON-NLS-1$
+      + "SIMPWFF CTLWFF LTLWFF PSLWFF COMPWFF IN MIN MAX MIRROR PRED PREDICATES process array of " //$NON-NLS-1$
+      + "boolean integer real word word1 bool signed unsigned extend resize sizeof uwconst " //$NON-NLS-1$
+      + "swconst toint count abs max min case esac mod next init union in xor xnor self TRUE " //$NON-NLS-1$
+      + "FALSE EX AX EF AF EG AG E F O G H X Y Z A U S V T BU EBF ABF EBG ABG").split(" "))); //$NON-NLS-1$ //$NON-NLS-2$
+  private DataModelController controller;
+  private String filePath;
+
+  /**
+   *
+   * @param name
+   *          the name of the job
+   * @param filePath
+   *          the path of the .smv file which should be written
+   * @param model
+   *          the data model which must be of the type {@link DataModelController}
+   */
+  public SMVExportJob(String name, String filePath, IDataModel model) {
+    super(name);
+    Assert.isLegal(model instanceof DataModelController,
+        "This Export can only be executed for a data model of type DataModelController");
+    this.controller = (DataModelController) model;
+    this.filePath = filePath;
+  }
+
+  @Override
+  protected IStatus run(IProgressMonitor monitor) {
+    List<IRectangleComponent> variables = getProcessVariables();
+    List<IControlAction> controlActions = this.controller.getAllControlActionsU();
+    List<AbstractLTLProvider> rules = this.controller.getLTLPropertys();
+    List<String> clashes = getNameClashes(variables, controlActions);
+    if (!clashes.isEmpty()) {
+      return new Status(IStatus.ERROR, Activator.PLUGIN_ID,
+          "The following names are not unique in the SMV module: " + clashes); //$NON-NLS-1$
+    }
+    monitor.beginTask(getName(), variables.size() + controlActions.size() + rules.size());
+
+    File smvFile = new File(this.filePath).getAbsoluteFile();
+    File tempFile = null;
+    try {
+      tempFile = File.createTempFile(smvFile.getName(), ".tmp", smvFile.getParentFile()); //$NON-NLS-1$
+      if (!write(tempFile, variables, controlActions, rules, monitor)) {
+        return Status.CANCEL_STATUS;
+      }
+      Files.move(tempFile.toPath(), smvFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      addErrorMsg(this.filePath);
+      setError(e);
+      return Status.CANCEL_STATUS;
+    } finally {
+      monitor.done();
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+    }
+    return Status.OK_STATUS;
+  }
+
+  /**
+   * writes the module into the given file
+   *
+   * @return whether the module has been written completely, <code>false</code> if the job has been
+   *         canceled
+   * @throws IOException
+   *           if the file could not be written
+   */
+  private boolean write(File file, List<IRectangleComponent> variables,
+      List<IControlAction> controlActions, List<AbstractLTLProvider> rules,
+      IProgressMonitor monitor) throws IOException {
+    try (Writer writer = new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+      writer.write("-- generated from the project " + this.controller.getProjectName()); //$NON-NLS-1$
+      writer.write(System.lineSeparator());
+      writer.write("MODULE main"); //$NON-NLS-1$
+      writer.write(System.lineSeparator());
+      writer.write("VAR"); //$NON-NLS-1$
+      writer.write(System.lineSeparator());
+
+      for (IRectangleComponent variable : variables) {
+        if (monitor.isCanceled()) {
+          return false;
+        }
+        writer.write("  " + toIdentifier(variable.getText()) + " : {"); //$NON-NLS-1$ //$NON-NLS-2$
+        String separator = ""; //$NON-NLS-1$
+        for (IRectangleComponent value : variable.getChildren()) {
+          writer.write(separator);
+          writer.write(toValueIdentifier(value.getText()));
+          separator = ", "; //$NON-NLS-1$
+        }
+        writer.write("};"); //$NON-NLS-1$
+        writer.write(System.lineSeparator());
+        monitor.worked(1);
+      }
+
+      writer.write("  " + CONTROL_ACTION + " : {" + NO_ACTION); //$NON-NLS-1$ //$NON-NLS-2$
+      for (IControlAction controlAction : controlActions) {
+        writer.write(", "); //$NON-NLS-1$
+        writer.write(toIdentifier(controlAction.getTitle().replace(" ", ""))); //$NON-NLS-1$ //$NON-NLS-2$
+        monitor.worked(1);
+      }
+      writer.write("};"); //$NON-NLS-1$
+      writer.write(System.lineSeparator());
+      writer.write(System.lineSeparator());
+
+      for (AbstractLTLProvider rule : rules) {
+        if (monitor.isCanceled()) {
+          return false;
+        }
+        if (rule.getLtlProperty() != null && !rule.getLtlProperty().isEmpty()) {
+          writer.write("-- RSR1." + rule.getNumber()); //$NON-NLS-1$
+          writer.write(System.lineSeparator());
+          writer.write("LTLSPEC "); //$NON-NLS-1$
+          writeFormula(writer, rule.getLtlProperty());
+          writer.write(System.lineSeparator());
+        }
+        monitor.worked(1);
+      }
+    }
+    return !monitor.isCanceled();
+  }
+
+  /**
+   * @return a list of all identifiers which would be declared more than once, these are variables
+   *         with the same name, values of one variable or control actions with the same name and
+   *         values or control actions with the name of a variable. Since reserved words are
+   *         escaped, a name like <code>next</code> also clashes with the name <code>next_</code>
+   */
+  private static List<String> getNameClashes(List<IRectangleComponent> variables,
+      List<IControlAction> controlActions) {
+    List<String> clashes = new ArrayList<>();
+    Map<String, String> declared = new HashMap<>();
+    declared.put(CONTROL_ACTION, CONTROL_ACTION);
+    Map<String, String> constants = new HashMap<>();
+    for (IRectangleComponent variable : variables) {
+      addName(declared, toIdentifier(variable.getText()), variable.getText(), clashes);
+      Map<String, String> values = new HashMap<>();
+      for (IRectangleComponent value : variable.getChildren()) {
+        String text = variable.getText().trim() + "=" + value.getText().trim(); //$NON-NLS-1$
+        addName(values, toValueIdentifier(value.getText()), text, clashes);
+        constants.put(toValueIdentifier(value.getText()), text);
+      }
+    }
+    Map<String, String> actions = new HashMap<>();
+    actions.put(NO_ACTION, NO_ACTION);
+    for (IControlAction controlAction : controlActions) {
+      String identifier = toIdentifier(controlAction.getTitle().replace(" ", "")); //$NON-NLS-1$ //$NON-NLS-2$
+      addName(actions, identifier, controlAction.getTitle(), clashes);
+      constants.put(identifier, controlAction.getTitle());
+    }
+    constants.put(NO_ACTION, NO_ACTION);
+    // the enumeration constants share the name space with the variables
+    for (Map.Entry<String, String> constant : constants.entrySet()) {
+      if (declared.containsKey(constant.getKey())) {
+        addName(declared, constant.getKey(), constant.getValue(), clashes);
+      }
+    }
+    return clashes;
+  }
+
+  private static void addName(Map<String, String> declared, String identifier, String text,
+      List<String> clashes) {
+    String former = declared.put(identifier, text);
+    if (former != null) {
+      clashes.add(former.trim() + " / " + text.trim() + " (" + identifier + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+  }
+
+  /**
+   * translates the given formula from the syntax used in the XSTPA rules into the SMV syntax
+   * and writes it token by token to the writer, identifiers are converted with
+   * {@link #toIdentifier(String)}
+   *
+   * @param writer
+   *          the writer the formula is written to
+   * @param ltl
+   *          a formula like it is returned by {@link AbstractLTLProvider#getLtlProperty()}
+   * @throws IOException
+   *           if the writer fails
+   */
+  private void writeFormula(Writer writer, String ltl) throws IOException {
+    StringBuilder identifier = new StringBuilder();
+    String comparison = null;
+    int i = 0;
+    while (i < ltl.length()) {
+      String operator = null;
+      int length = 1;
+      if (ltl.startsWith("[]", i)) { //$NON-NLS-1$
+        operator = "G "; //$NON-NLS-1$
+        length = 2;
+      } else if (ltl.startsWith("<>", i)) { //$NON-NLS-1$
+        operator = "F "; //$NON-NLS-1$
+        length = 2;
+      } else if (ltl.startsWith("==", i)) { //$NON-NLS-1$
+        operator = " = "; //$NON-NLS-1$
+        length = 2;
+      } else if (ltl.startsWith("&&", i)) { //$NON-NLS-1$
+        operator = " & "; //$NON-NLS-1$
+        length = 2;
+      } else if (ltl.startsWith("||", i)) { //$NON-NLS-1$
+        operator = " | "; //$NON-NLS-1$
+        length = 2;
+      } else if (ltl.startsWith("->", i)) { //$NON-NLS-1$
+        operator = " -> "; //$NON-NLS-1$
+        length = 2;
+      } else if (ltl.charAt(i) == '<' || ltl.charAt(i) == '>') {
+        // the comparison is part of the value, it is written together with the value identifier
+        writeIdentifier(writer, identifier, null);
+        comparison = String.valueOf(ltl.charAt(i));
+        i++;
+        continue;
+      } else if ("()!".indexOf(ltl.charAt(i)) >= 0) { //$NON-NLS-1$
+        operator = String.valueOf(ltl.charAt(i));
+      }
+      if (operator == null) {
+        identifier.append(ltl.charAt(i));
+      } else {
+        writeIdentifier(writer, identifier, comparison);
+        comparison = null;
+        writer.write(operator);
+      }
+      i += length;
+    }
+    writeIdentifier(writer, identifier, comparison);
+  }
+
+  private void writeIdentifier(Writer writer, StringBuilder identifier, String comparison)
+      throws IOException {
+    String text = identifier.toString().trim();
+    identifier.setLength(0);
+    if (comparison != null) {
+      writer.write(" = "); //$NON-NLS-1$
+      writer.write(toValueIdentifier(comparison + text));
+    } else if (text.equals("U") || text.equals("X")) { //$NON-NLS-1$ //$NON-NLS-2$
+      // the temporal operators until and next
+      writer.write(' ' + text + ' ');
+    } else if (!text.isEmpty()) {
+      writer.write(toIdentifier(text));
+    }
+  }
+
+  /**
+   * @param text
+   *          the text of a process model value
+   * @return the enumeration constant of the value, values starting with a comparison like
+   *         <code>&lt;5</code> or <code>&gt;5</code> are prefixed with <code>lt_</code> or
+   *         <code>gt_</code> so that they can be distinguished from each other
+   */
+  static String toValueIdentifier(String text) {
+    String trimmed = text.trim();
+    String value = trimmed.replaceAll(">|<|=", ""); //$NON-NLS-1$ //$NON-NLS-2$
+    if (trimmed.startsWith("<")) { //$NON-NLS-1$
+      return toIdentifier("lt_" + value.trim()); //$NON-NLS-1$
+    }
+    if (trimmed.startsWith(">")) { //$NON-NLS-1$
+      return toIdentifier("gt_" + value.trim()); //$NON-NLS-1$
+    }
+    return toIdentifier(value);
+  }
+
+  /**
+   * @param text
+   *          a text
+   * @return the text itself if it is an integer, otherwise the text with all characters which are
+   *         not allowed in a SMV identifier replaced by '_', reserved words of SMV get the suffix
+   *         '_'
+   */
+  static String toIdentifier(String text) {
+    String trimmed = text.trim();
+    if (trimmed.matches("-?[0-9]+")) { //$NON-NLS-1$
+      return trimmed;
+    }
+    String identifier = trimmed.replaceAll("[^A-Za-z0-9_]", "_"); //$NON-NLS-1$ //$NON-NLS-2$
+    if (identifier.isEmpty() || !Character.isLetter(identifier.charAt(0))) {
+      identifier = '_' + identifier;
+    }
+    if (RESERVED_WORDS.contains(identifier)) {
+      identifier += '_';
+    }
+    return identifier;
+  }
+
+  private List<IRectangleComponent> getProcessVariables() {
+    List<IRectangleComponent> variables = new ArrayList<>();
+    for (IRectangleComponent child : this.controller.getRoot().getChildren()) {
+      if (child.getComponentType() == ComponentType.CONTROLLER) {
+        for (IRectangleComponent processModel : child.getChildren()) {
+          for (IRectangleComponent variable : processModel.getChildren()) {
+            if (!variable.getChildren().isEmpty()) {
+              variables.add(variable);
+            }
+          }
+        }
+      }
+    }
+    return variables;
+  }
+
+  @Override
+  protected Observable getModelObserver() {
+    return this.controller;
+  }
+}
@@ -11,36 +11,21 @@
 package xstampp.astpa.util.jobs;
 
 import java.awt.Desktop;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Observable;
 import java.util.UUID;
 
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.util.Units;
-import org.apache.poi.xwpf.usermodel.Document;
-import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
-import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
-import org.apache.poi.xwpf.usermodel.XWPFRun;
-import org.apache.poi.xwpf.usermodel.XWPFTable;
-import org.apache.poi.xwpf.usermodel.XWPFTableCell;
-import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.FontData;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTShd;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STShd;
 
 import messages.Messages;
 import xstampp.astpa.controlstructure.CSEditor;
@@ -52,15 +37,17 @@ import xstampp.astpa.model.controlaction.interfaces.IUnsafeControlAction;
 import xstampp.astpa.model.controlaction.interfaces.UnsafeControlActionType;
 import xstampp.astpa.model.interfaces.ITableModel;
 import xstampp.ui.common.ProjectManager;
+import xstampp.util.DocxStreamWriter;
+import xstampp.util.DocxStreamWriter.RunStyle;
 import xstampp.util.XstamppJob;
 
 /**
- * This Job creates a word document in the docx format using the <code>Apache Poi</code> Framework
+ * This Job creates a word document in the docx format, the document is streamed with the
+ * {@link DocxStreamWriter} so that only the currently written table row is kept in memory
  *
  * @author Lukas Balzer
  * @since 2.0.2
- * @see org.apache.poi.xwpf.usermodel
- * @see org.openxmlformats.schemas
+ * @see DocxStreamWriter
  */
 public class STPAWordJob extends XstamppJob {
 
@@ -72,8 +59,6 @@ public class STPAWordJob extends XstamppJob {
   private String backgoundColorStr;
   private String textColorStr;
   private boolean decorate;
-  private float csRatio = 1;
-  private float csPmRatio = 1;
 
   public STPAWordJob(String name, String path, DataModelController controller, boolean preview) {
     super(name);
@@ -90,9 +75,9 @@ public class STPAWordJob extends XstamppJob {
 
   @Override
   protected IStatus run(IProgressMonitor monitor) {
-
+    File docFile = new File(path);
     try {
-      while (controller.getExportInfo() == null) {
+      while (controller.waitForExportInfo(200) == null) {
         if (monitor.isCanceled()) {
           return Status.CANCEL_STATUS;
         }
@@ -102,67 +87,48 @@ public class STPAWordJob extends XstamppJob {
         backgoundColorStr = controller.getExportInfo().getBackgroundColor().replace("#", "");
       }
       textColorStr = "000000";
-      if (controller.getExportInfo().getBackgroundColor() != null) {
+      if (controller.getExportInfo().getFontColor() != null) {
         textColorStr = controller.getExportInfo().getFontColor().replace("#", "");
       }
+      // the images are taken from the render cache and embedded without being copied
       UUID projectID = ProjectManager.getContainerInstance().getProjectID(controller);
-      ByteArrayOutputStream controlStructureStream = new ByteArrayOutputStream();
-      CSExportJob csExport = new CSExportJob(controlStructureStream, 10, CSEditor.ID, projectID,
-          this.decorate);
-
-      csExport.getPrintableRoot();
-      byte[] normalCSArray = controlStructureStream.toByteArray();
-      controlStructureStream.close();
-      csRatio = csExport.getRatio();
-
-      controlStructureStream = new ByteArrayOutputStream();
-      csExport = new CSExportJob(controlStructureStream, 10, CSEditorWithPM.ID, projectID,
-          this.decorate);
-
-      csExport.getPrintableRoot();
-      byte[] pmCSArray = controlStructureStream.toByteArray();
-      csPmRatio = csExport.getRatio();
-      controlStructureStream.close();
-
-      // Blank Document
-      XWPFDocument document = new XWPFDocument();
-      // Write the Document in file system
-      FileOutputStream out;
-      out = new FileOutputStream(new File(path));
-      // The first run object draws the Title banner on the Word Doc
-      addNewTitle(title, document);
-
-      /*
-       * ******************************************************************
-       * form here on the run funktion will call all the neccessary functions to create the
-       * desired output document
-       */
-      addDescription(document);
-
-      addTableModel(controller.getAllSystemGoals(), "", Messages.SystemGoals, document);
-      addTableModel(controller.getAllAccidents(), "", Messages.Accidents, document);
-      addTableModel(controller.getAllHazards(), "", Messages.Hazards, document);
-      addTableModel(controller.getAllDesignRequirements(), "", Messages.DesignRequirements,
-          document);
-      addPicture(document, Messages.ControlStructure, normalCSArray, csRatio);
-      addPicture(document, Messages.ControlStructureDiagramWithProcessModel, pmCSArray, csPmRatio);
-      addUCATable(document, controller.getAllControlActionsU());
-      document.write(out);
-      out.close();
-
-      File docFile = new File(path);
+      CSImageCache.Rendering normalCS = new CSExportJob((ByteArrayOutputStream) null, 10,
+          CSEditor.ID, projectID, this.decorate).getRendering();
+      CSImageCache.Rendering pmCS = new CSExportJob((ByteArrayOutputStream) null, 10,
+          CSEditorWithPM.ID, projectID, this.decorate).getRendering();
+
+      try (DocxStreamWriter document = new DocxStreamWriter(new FileOutputStream(docFile),
+          null)) {
+        // The first run object draws the Title banner on the Word Doc
+        addNewTitle(title, document);
+
+        /*
+         * ******************************************************************
+         * form here on the run funktion will call all the neccessary functions to create the
+         * desired output document
+         */
+        addDescription(document);
+
+        addTableModel(controller.getAllSystemGoals(), "", Messages.SystemGoals, document);
+        addTableModel(controller.getAllAccidents(), "", Messages.Accidents, document);
+        addTableModel(controller.getAllHazards(), "", Messages.Hazards, document);
+        addTableModel(controller.getAllDesignRequirements(), "", Messages.DesignRequirements,
+            document);
+        addPicture(document, Messages.ControlStructure, normalCS);
+        addPicture(document, Messages.ControlStructureDiagramWithProcessModel, pmCS);
+        addUCATable(document, controller.getAllControlActionsU());
+      }
+
       if (docFile.exists() && this.enablePreview) {
         if (Desktop.isDesktopSupported()) {
           Desktop.getDesktop().open(docFile);
         }
       }
-    } catch (FileNotFoundException e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
-      return Status.CANCEL_STATUS;
     } catch (IOException e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
+      setError(e);
+      docFile.delete();
+      return Status.CANCEL_STATUS;
+    } catch (InterruptedException e) {
       return Status.CANCEL_STATUS;
     }
 
@@ -196,74 +162,59 @@ public class STPAWordJob extends XstamppJob {
 
   }
 
-  private void addNewTitle(String text, XWPFDocument document) {
-    XWPFParagraph paragraph = document.createParagraph();
-
-    XWPFRun run = paragraph.createRun();
-    CTShd cTShd = run.getCTR().addNewRPr().addNewShd();
-    cTShd.setVal(STShd.CLEAR);
-    cTShd.setColor("auto");
-    cTShd.setFill(backgoundColorStr);
-
-    run.setFontSize(titleSize);
-    run.setEmbossed(true);
-    run.setColor(textColorStr);
-    run.addCarriageReturn();
-    run.setText(text);
-    run.addCarriageReturn();
-    run.addCarriageReturn();
+  private void addNewTitle(String text, DocxStreamWriter document) throws IOException {
+    RunStyle style = new RunStyle().setFill(backgoundColorStr).setFontSize(titleSize)
+        .setColor(textColorStr);
+    document.writeParagraph("\n" + text + "\n\n", style, null);
   }
 
-  private void addPicture(XWPFDocument document, String controlStructure, byte[] array,
-      float ratio) {
-
-    try {
+  private void addPicture(DocxStreamWriter document, String controlStructure,
+      CSImageCache.Rendering rendering) throws IOException {
+    if (rendering != null) {
       addNewTitle(controlStructure, document);
-      ByteArrayInputStream pic = new ByteArrayInputStream(array);
-      document.createParagraph().createRun().addPicture(pic, Document.PICTURE_TYPE_PNG, "my pic",
-          Units.toEMU(400), Units.toEMU(400 / ratio));
-    } catch (InvalidFormatException e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
-    } catch (IOException e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
+      document.writePicture(rendering.getImage(), "png", 400, 400 / rendering.getRatio());
     }
   }
 
+  /**
+   * adds a row with the bold table heads in the colors of the export information
+   */
+  private void addHeadRow(DocxStreamWriter document, String[] heads) throws IOException {
+    RunStyle style = new RunStyle().setBold(true).setColor(textColorStr);
+    document.startRow(true);
+    for (String head : heads) {
+      document.writeCell(head, backgoundColorStr, style, null);
+    }
+    document.endRow();
+  }
+
   /**
    * This internal method adds the Table of unsafe Control Actions
    * 
-   * @param paragraph
+   * @param document
+   *          the document the table is written to
    */
-  private void addUCATable(XWPFDocument document, List<IControlAction> list) {
+  private void addUCATable(DocxStreamWriter document, List<IControlAction> list)
+      throws IOException {
     addNewTitle(Messages.UnsafeControlActionsTable, document);
-    XWPFTable ucaTable = document.createTable(1, 5);
-    XWPFTableRow row = ucaTable.getRow(0);
-    row.getCell(0);
+    int width = DocxStreamWriter.TEXT_WIDTH / 5;
+    document.startTable(width, width, width, width, width);
 
-    String[] heads = new String[] {
+    addHeadRow(document, new String[] {
         Messages.ControlAction, Messages.NotGiven,
         Messages.GivenIncorrectly, Messages.WrongTiming,
-        Messages.StoppedTooSoon };
-    XWPFRun run;
-    XWPFParagraph paragraph;
-    for (int i = 0; i < heads.length; i++) {
-      row.getCell(i).setColor(backgoundColorStr);
-      paragraph = row.getCell(i).addParagraph();
-      run = paragraph.createRun();
-      run.setColor(textColorStr);
-      run.setBold(true);
-      run.setText(heads[i]);
-    }
-    XWPFTableCell caCell;
+        Messages.StoppedTooSoon });
     for (IControlAction cAction : list) {
-      row = ucaTable.createRow();
-
-      caCell = row.getCell(0);
-      caCell.setText(cAction.getTitle());
+      document.startRow(false);
       // The first merged cell is set with RESTART merge value
-      caCell.getCTTc().addNewTcPr().addNewVMerge().setVal(STMerge.RESTART);
+      document.startCell(null, DocxStreamWriter.MERGE_RESTART);
+      document.writeParagraph(cAction.getTitle(), null, null);
+      document.endCell();
+      for (int i = 1; i < 5; i++) {
+        document.startCell(null, null);
+        document.endCell();
+      }
+      document.endRow();
 
       // all related unsafe control actions are fetched and stored in multiple list one for each
       // column
@@ -278,211 +229,129 @@ public class STPAWordJob extends XstamppJob {
       int maxNr = Math.max(allNotGiven.size(), allIncorrect.size());
       maxNr = Math.max(maxNr, allTooSoon.size());
       maxNr = Math.max(maxNr, allWrongTiming.size());
-      // This loop runs form 0 to the size of the largest ucaList
+      // This loop runs form 0 to the size of the largest ucaList, each entry is written as one
+      // row for the ids, one for the descriptions and one for the links
       for (int i = 0; i < maxNr; i++) {
-        XWPFTableRow idRow = ucaTable.createRow();
-        XWPFTableRow descRow = ucaTable.createRow();
-        XWPFTableRow linkRow = ucaTable.createRow();
-
-        // Cells which join (merge) the first one, are set with CONTINUE
-        idRow.getCell(0).getCTTc().addNewTcPr().addNewVMerge().setVal(STMerge.CONTINUE);
-        descRow.getCell(0).getCTTc().addNewTcPr().addNewVMerge().setVal(STMerge.CONTINUE);
-        linkRow.getCell(0).getCTTc().addNewTcPr().addNewVMerge().setVal(STMerge.CONTINUE);
-
-        addUCAEntry(idRow, descRow, linkRow, allNotGiven, i, 1);
-        addUCAEntry(idRow, descRow, linkRow, allIncorrect, i, 2);
-        addUCAEntry(idRow, descRow, linkRow, allWrongTiming, i, 3);
-        addUCAEntry(idRow, descRow, linkRow, allTooSoon, i, 4);
-
+        for (int line = 0; line < 3; line++) {
+          document.startRow(false);
+          // Cells which join (merge) the first one, are set with CONTINUE
+          document.startCell(null, DocxStreamWriter.MERGE_CONTINUE);
+          document.endCell();
+          addUCAEntry(document, allNotGiven, i, line);
+          addUCAEntry(document, allIncorrect, i, line);
+          addUCAEntry(document, allWrongTiming, i, line);
+          addUCAEntry(document, allTooSoon, i, line);
+          document.endRow();
+        }
       }
     }
+    document.endTable();
   }
 
-  private void addUCAEntry(XWPFTableRow idRow, XWPFTableRow descRow, XWPFTableRow linkRow,
-      List<IUnsafeControlAction> list, int index, int colNr) {
-
+  /**
+   * writes the cell of the given line of an unsafe control action entry
+   *
+   * @param line
+   *          0 for the identifier, 1 for the description and 2 for the links
+   */
+  private void addUCAEntry(DocxStreamWriter document, List<IUnsafeControlAction> list, int index,
+      int line) throws IOException {
+    String text = "";
+    String alignment = DocxStreamWriter.ALIGN_LEFT;
     if (index < list.size()) {
-      String identifier = String.valueOf(((UnsafeControlAction) list.get(index)).getNumber());
-      if (identifier != null && !identifier.isEmpty()) {
-        identifier = "UCA1." + identifier;
+      UnsafeControlAction uca = (UnsafeControlAction) list.get(index);
+      if (line == 0) {
+        text = "UCA1." + uca.getNumber();
+        alignment = DocxStreamWriter.ALIGN_CENTER;
+      } else if (line == 1) {
+        text = uca.getDescription();
+      } else {
+        text = uca.getLinks();
       }
-      addCell(idRow.getCell(colNr), index, identifier, ParagraphAlignment.CENTER);
-      addCell(descRow.getCell(colNr), index,
-          ((UnsafeControlAction) list.get(index)).getDescription());
-      addCell(linkRow.getCell(colNr), index, ((UnsafeControlAction) list.get(index)).getLinks());
-    } else {
-      addCell(idRow.getCell(colNr), index, "");
-      addCell(descRow.getCell(colNr), index, "");
-      addCell(linkRow.getCell(colNr), index, "");
     }
+    addCell(document, index, text, alignment);
   }
 
-  private void addCell(XWPFTableCell cell, int index, String text) {
-    addCell(cell, index, text, ParagraphAlignment.LEFT);
-  }
-
-  private void addCell(XWPFTableCell cell, int index, String text, ParagraphAlignment alignment) {
+  private void addCell(DocxStreamWriter document, int index, String text, String alignment)
+      throws IOException {
     String color;
-    XWPFParagraph paragraph = cell.addParagraph();
-    paragraph.setAlignment(alignment);
-    XWPFRun run = paragraph.createRun();
     if (index % 2 == 0) {
       color = "dd" + "dd" + "dd";
     } else {
       color = "ff" + "ff" + "ff";
     }
-    cell.setColor(color);
-    run.setBold(false);
-    run.setText(text);
+    document.writeCell(text, color, null, alignment);
   }
 
   /**
    * This internal method adds and formats the system description as defined in the
-   * system description editor
+   * system description editor, each style range is written as one run
    * 
-   * @param paragraph
+   * @param document
+   *          the document the description is written to
    */
-  private void addDescription(XWPFDocument document) {
-
-    XWPFParagraph paragraph = document.createParagraph();
-    XWPFRun run = paragraph.createRun();
-
-    char[] description = controller.getProjectDescription().toCharArray();
-    StyleRange[] rangeArray = controller.getStyleRangesAsArray();
-    int rangeNr = 0;
-    StyleRange defaultStyle = new StyleRange();
-
-    StyleRange range = defaultStyle;
-    boolean styleChanged = true;
-    for (int index = 0; index < description.length; index++) {
-      /*
-       * if the array of styleranges does contain a next style range
-       * which starts at the current index than this range is set active
-       */
-      if (rangeArray.length > rangeNr && rangeArray[rangeNr].start == index) {
-        range = rangeArray[rangeNr];
-        styleChanged = true;
-        rangeNr++;
-      }
-      /*
-       * if no starting range has been found but the currently active range has reached its
-       * extent than the active range is set to default and the styleChanged boolean is set
-       */
-      else if (range != null && range.start + range.length <= index) {
-        range = defaultStyle;
-        styleChanged = true;
+  private void addDescription(DocxStreamWriter document) throws IOException {
+    String description = controller.getProjectDescription();
+    document.startParagraph(null);
+    int index = 0;
+    for (StyleRange range : controller.getStyleRangesAsArray()) {
+      int start = Math.min(Math.max(index, range.start), description.length());
+      int end = Math.min(range.start + range.length, description.length());
+      // the text between two style ranges is written with the default style
+      if (start > index) {
+        document.writeRun(description.substring(index, start), null);
+        index = start;
       }
-      // if the style has changed than a new XWPFRun object is created containing the new style
-      if (styleChanged) {
-        run = paragraph.createRun();
-
-        if (range.underline) {
-          run.setUnderline(UnderlinePatterns.SINGLE);
-        } else {
-          run.setUnderline(UnderlinePatterns.NONE);
-        }
-        if ((range.fontStyle & SWT.BOLD) != 0) {
-          run.setBold(true);
-        }
-        if ((range.fontStyle & SWT.ITALIC) != 0) {
-          run.setItalic(true);
-        }
-        try {
-
-          FontData data = range.font.getFontData()[0];
-          run.setFontSize(data.getHeight());
-          run.setFontFamily(data.getName());
-          String red, green, blue, hexColor;
-          if (range.background != null) {
-            red = Integer.toHexString(range.background.getRed());
-            if (red.length() == 1) {
-              red = "0" + red;
-            }
-            green = Integer.toHexString(range.background.getGreen());
-            if (green.length() == 1) {
-              green = "0" + green;
-            }
-            blue = Integer.toHexString(range.background.getBlue());
-            if (blue.length() == 1) {
-              blue = "0" + blue;
-            }
-
-            hexColor = red + green + blue;
-
-            if (hexColor.length() == 6) {
-              // The background color is added using these mysterious classes which address the
-              // character shading
-              CTShd cTShd = run.getCTR().addNewRPr().addNewShd();
-              cTShd.setVal(STShd.CLEAR);
-              cTShd.setColor("auto");
-              cTShd.setFill(hexColor);
-            }
-
-          }
-          if (range.foreground != null) {
-            red = Integer.toHexString(range.foreground.getRed());
-            if (red.length() == 1) {
-              red = "0" + red;
-            }
-            green = Integer.toHexString(range.foreground.getGreen());
-            if (green.length() == 1) {
-              green = "0" + green;
-            }
-            blue = Integer.toHexString(range.foreground.getBlue());
-            if (blue.length() == 1) {
-              blue = "0" + blue;
-            }
-
-            hexColor = red + green + blue;
-
-            if (hexColor.length() == 6) {
-              run.setColor(hexColor);
-            }
-          }
-        } catch (NullPointerException e) {
-        }
-        styleChanged = false;
-      }
-
-      if (description[index] == '\n') {
-        run.addCarriageReturn();
-      } else {
-        run.setText(String.valueOf(description[index]));
+      if (end > start) {
+        document.writeRun(description.substring(start, end), getRunStyle(range));
+        index = end;
       }
+    }
+    if (index < description.length()) {
+      document.writeRun(description.substring(index), null);
+    }
+    document.endParagraph();
+  }
 
+  private RunStyle getRunStyle(StyleRange range) {
+    RunStyle style = new RunStyle();
+    style.setUnderline(range.underline);
+    style.setBold((range.fontStyle & SWT.BOLD) != 0);
+    style.setItalic((range.fontStyle & SWT.ITALIC) != 0);
+    if (range.font != null && !range.font.isDisposed()) {
+      FontData data = range.font.getFontData()[0];
+      style.setFontSize(data.getHeight());
+      style.setFontFamily(data.getName());
+    }
+    if (range.background != null && !range.background.isDisposed()) {
+      // The background color is added as character shading
+      style.setFill(toHex(range.background));
+    }
+    if (range.foreground != null && !range.foreground.isDisposed()) {
+      style.setColor(toHex(range.foreground));
     }
+    return style;
+  }
+
+  private static String toHex(Color color) {
+    return String.format("%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
   }
 
   private void addTableModel(List<ITableModel> models, String literals, String text,
-      XWPFDocument document) {
+      DocxStreamWriter document) throws IOException {
 
     addNewTitle(text, document);
+    document.startTable(1000, 2500, DocxStreamWriter.TEXT_WIDTH - 3500);
+    addHeadRow(document, new String[] { "ID", "Name", "Description" });
 
-    XWPFTable table = document.createTable(1, 3);
-    XWPFTableRow headRow = table.getRow(0);
-
-    String[] heads = new String[] { "ID", "Name", "Description" };
-    XWPFRun run;
-    XWPFParagraph paragraph;
-    for (int i = 0; i < heads.length; i++) {
-      headRow.getCell(i).setColor(backgoundColorStr);
-      paragraph = headRow.getCell(i).addParagraph();
-      run = paragraph.createRun();
-      run.setColor(textColorStr);
-      run.setBold(true);
-      run.setText(heads[i]);
-    }
-
-    XWPFTableRow tableRowTwo;
-    int i = 0;
     for (ITableModel data : models) {
-      tableRowTwo = table.createRow();
-      tableRowTwo.getCell(0).setText(literals + Integer.toString(i));
-      tableRowTwo.getCell(1).setText(data.getTitle());
-      tableRowTwo.getCell(2).setText(data.getDescription());
-      i++;
-
+      document.startRow(false);
+      document.writeCell(literals + data.getNumber(), null, null, null);
+      document.writeCell(data.getTitle(), null, null, null);
+      document.writeCell(data.getDescription(), null, null, null);
+      document.endRow();
     }
+    document.endTable();
   }
 
   /**
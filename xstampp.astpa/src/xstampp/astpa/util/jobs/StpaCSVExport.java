@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +53,9 @@ public class StpaCSVExport extends Job {
   private final DataModelController model;
   private final int type;
   private boolean enablePreview;
+  private Map<UUID, String> ucaIds;
+  private Map<UUID, String> ucaDescs;
+  private Map<UUID, List<ITableModel>> ucaHazards;
 
   /**
    * calls the Export function in the given view.
@@ -89,6 +93,7 @@ public class StpaCSVExport extends Job {
 
     try (BufferedCSVWriter csvWriter = new BufferedCSVWriter(
         new FileWriter(tableCSV), this.seperator);) {
+      prepareUCAIndex();
 
       if ((type & ICSVExportConstants.PROJECT_DESCRIPTION) != 0) {
         this.writeSystemDescCSV(csvWriter, Messages.SystemDescription);
@@ -192,7 +197,7 @@ public class StpaCSVExport extends Job {
     int i = 0;
     for (ITableModel data : models) {
       i++;
-      csvWriter.writeCell(Integer.toString(i));
+      csvWriter.writeCell(i);
 
       csvWriter.writeCell(data.getTitle());
       csvWriter.write(data.getDescription());
@@ -221,30 +226,12 @@ public class StpaCSVExport extends Job {
     for (ICausalComponent component : this.model.getCausalComponents()) {
       // this loop writes two lines
       for (ICausalFactor factor : component.getCausalFactors()) {
-        Map<UUID, String> ucaDescMap = new HashMap<>();
-        for (ICorrespondingUnsafeControlAction uca : model.getAllUnsafeControlActions()) {
-          ucaDescMap.put(uca.getId(), "UCA1." + uca.getNumber() + ": " + uca.getDescription());
-        }
         for (ICausalFactorEntry entry : factor.getAllEntries()) {
           String ucaCell = ""; //$NON-NLS-1$
-          String hazCell = ""; //$NON-NLS-1$
-          String scenarioCell = ""; //$NON-NLS-1$
-          String safetyCell = ""; //$NON-NLS-1$
-
           if (entry.getUcaLink() != null) {
-            ucaCell = ucaDescMap.get(entry.getUcaLink());
-            for (ITableModel haz : model.getLinkedHazardsOfUCA(entry.getUcaLink())) {
-              hazCell += "H-" + haz.getNumber() + ",";
-            }
-          } else {
-            String hazString = new String();
-            if (entry.getHazardIds() != null) {
-              for (UUID hazardId : entry.getHazardIds()) {
-                hazString += "H-" + model.getHazard(hazardId).getNumber() + ",";
-              }
-            }
+            ucaCell = this.ucaDescs.get(entry.getUcaLink());
           }
-          hazCell = hazCell.substring(0, hazCell.length() - 1);
+          String hazCell = getHazardLinks(entry);
 
           writer.writeCell(component.getText());
           writer.writeCell(factor.getText());
@@ -271,6 +258,51 @@ public class StpaCSVExport extends Job {
     }
   }
 
+  /**
+   * prepares the ids, the descriptions and the linked hazards of all unsafe control actions which
+   * are linked to a hazard once for the export, so that the tables don't have to look them up for
+   * each cell
+   */
+  private void prepareUCAIndex() {
+    this.ucaIds = new HashMap<>();
+    this.ucaDescs = new HashMap<>();
+    this.ucaHazards = new HashMap<>();
+    for (ICorrespondingUnsafeControlAction uca : this.model.getAllUnsafeControlActions()) {
+      this.ucaIds.put(uca.getId(), "UCA1." + this.model.getUCANumber(uca.getId())); //$NON-NLS-1$
+      this.ucaDescs.put(uca.getId(),
+          "UCA1." + uca.getNumber() + ": " + uca.getDescription()); //$NON-NLS-1$
+      this.ucaHazards.put(uca.getId(), this.model.getLinkedHazardsOfUCA(uca.getId()));
+    }
+  }
+
+  private List<ITableModel> getLinkedHazards(UUID ucaId) {
+    List<ITableModel> hazards = this.ucaHazards.get(ucaId);
+    if (hazards == null) {
+      return Collections.emptyList();
+    }
+    return hazards;
+  }
+
+  /**
+   * @return the hazards which are linked to the unsafe control action of the given entry or, if
+   *         there is none, to the entry itself as a comma separated list
+   */
+  private String getHazardLinks(ICausalFactorEntry entry) {
+    StringBuilder links = new StringBuilder();
+    if (entry.getUcaLink() != null) {
+      for (ITableModel haz : getLinkedHazards(entry.getUcaLink())) {
+        links.append(links.length() > 0 ? "," : "").append("H-") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            .append(haz.getNumber());
+      }
+    } else if (entry.getHazardIds() != null) {
+      for (UUID hazardId : entry.getHazardIds()) {
+        links.append(links.length() > 0 ? "," : "").append("H-") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            .append(this.model.getHazard(hazardId).getNumber());
+      }
+    }
+    return links.toString();
+  }
+
   private void writeSystemDescCSV(BufferedCSVWriter writer, String title)
       throws IOException {
 
@@ -332,17 +364,17 @@ public class StpaCSVExport extends Job {
         } else {
           writer.writeCell();
         }
-        if (!this.model.getLinkedHazardsOfUCA(notGiven.getUCAId(i)).isEmpty()) {
-          writer.writeCell("UCA1." + model.getUCANumber(notGiven.getUCAId(i)));
+        if (!getLinkedHazards(notGiven.getUCAId(i)).isEmpty()) {
+          writer.writeCell(this.ucaIds.get(notGiven.getUCAId(i)));
         }
-        if (!this.model.getLinkedHazardsOfUCA(givenInc.getUCAId(i)).isEmpty()) {
-          writer.writeCell("UCA1." + model.getUCANumber(givenInc.getUCAId(i)));
+        if (!getLinkedHazards(givenInc.getUCAId(i)).isEmpty()) {
+          writer.writeCell(this.ucaIds.get(givenInc.getUCAId(i)));
         }
-        if (!this.model.getLinkedHazardsOfUCA(wrongTiming.getUCAId(i)).isEmpty()) {
-          writer.writeCell("UCA1." + model.getUCANumber(wrongTiming.getUCAId(i)));
+        if (!getLinkedHazards(wrongTiming.getUCAId(i)).isEmpty()) {
+          writer.writeCell(this.ucaIds.get(wrongTiming.getUCAId(i)));
         }
-        if (!this.model.getLinkedHazardsOfUCA(stoppedTooSoon.getUCAId(i)).isEmpty()) {
-          writer.writeCell("UCA1." + model.getUCANumber(stoppedTooSoon.getUCAId(i)));
+        if (!getLinkedHazards(stoppedTooSoon.getUCAId(i)).isEmpty()) {
+          writer.writeCell(this.ucaIds.get(stoppedTooSoon.getUCAId(i)));
         }
         writer.newLine();
         // the description line starting with an empty cell
@@ -356,23 +388,19 @@ public class StpaCSVExport extends Job {
 
         // the hazard line starting with an empty cell
         writer.writeCell();
-        for (ITableModel haz : this.model
-            .getLinkedHazardsOfUCA(notGiven.getUCAId(i))) {
+        for (ITableModel haz : getLinkedHazards(notGiven.getUCAId(i))) {
           writer.write("[H-" + haz.getNumber() + "]");
         }
         writer.writeCell();
-        for (ITableModel haz : this.model
-            .getLinkedHazardsOfUCA(givenInc.getUCAId(i))) {
+        for (ITableModel haz : getLinkedHazards(givenInc.getUCAId(i))) {
           writer.write("[H-" + haz.getNumber() + "]");
         }
         writer.writeCell();
-        for (ITableModel haz : this.model
-            .getLinkedHazardsOfUCA(wrongTiming.getUCAId(i))) {
+        for (ITableModel haz : getLinkedHazards(wrongTiming.getUCAId(i))) {
           writer.write("[H-" + haz.getNumber() + "]");
         }
         writer.writeCell();
-        for (ITableModel haz : this.model
-            .getLinkedHazardsOfUCA(stoppedTooSoon.getUCAId(i))) {
+        for (ITableModel haz : getLinkedHazards(stoppedTooSoon.getUCAId(i))) {
           writer.write("[H-" + haz.getNumber() + "]");
         }
         writer.newLine();
@@ -406,7 +434,7 @@ public class StpaCSVExport extends Job {
       if (this.list.size() > i) {
         return this.list.get(i).getId();
       }
-      return UUID.randomUUID();
+      return null;
     }
 
   }
@@ -425,7 +453,7 @@ public class StpaCSVExport extends Job {
     for (ICorrespondingUnsafeControlAction data : this.model
         .getAllUnsafeControlActions()) {
 
-      csvWriter.writeCell("UCA1." + this.model.getUCANumber(data.getId()));
+      csvWriter.writeCell(this.ucaIds.get(data.getId()));
       csvWriter.writeCell(data.getDescription());
       csvWriter.writeCell("SR1." + this.model.getUCANumber(data.getId()));
       csvWriter.writeCell(data.getCorrespondingSafetyConstraint().getText());
@@ -0,0 +1,447 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.astpa.util.jobs;
+
+import java.awt.Desktop;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.UUID;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+
+import messages.Messages;
+import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.model.causalfactor.interfaces.ICausalComponent;
+import xstampp.astpa.model.causalfactor.interfaces.ICausalFactor;
+import xstampp.astpa.model.causalfactor.interfaces.ICausalFactorEntry;
+import xstampp.astpa.model.controlaction.interfaces.IControlAction;
+import xstampp.astpa.model.controlaction.interfaces.IUnsafeControlAction;
+import xstampp.astpa.model.controlaction.interfaces.UnsafeControlActionType;
+import xstampp.astpa.model.controlaction.safetyconstraint.ICorrespondingUnsafeControlAction;
+import xstampp.astpa.model.interfaces.ITableModel;
+import xstampp.astpa.util.jobs.statistics.Step0Progress;
+import xstampp.model.AbstractLTLProvider;
+import xstampp.model.IDataModel;
+import xstampp.model.IValueCombie;
+import xstampp.util.XstamppJob;
+
+/**
+ * This job exports the tables of the STPA DataModelController into an Excel workbook.<br>
+ * The workbook is streamed with a {@link SXSSFWorkbook} which keeps only a window of
+ * {@value #ROW_WINDOW} rows in memory and writes all other rows into a temporary file, so the
+ * heap stays flat for tables with hundreds of thousands of rows. A table which exceeds the row
+ * limit of a sheet is continued on a new sheet.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class StpaExcelExport extends XstamppJob {
+
+  public static final int UNSAFE_CONTROL_ACTIONS = 1 << 0;
+  public static final int CAUSAL_FACTORS = 1 << 1;
+  public static final int CONTEXT_TABLES = 1 << 2;
+  public static final int STATISTICS = 1 << 3;
+
+  /**
+   * the number of rows which are kept in memory for each sheet
+   */
+  public static final int ROW_WINDOW = 100;
+  private static final int COLUMN_WIDTH = 40 * 256;
+  private static final String[] HAZARDOUS_TYPES = new String[] { IValueCombie.TYPE_ANYTIME,
+      IValueCombie.TYPE_TOO_EARLY, IValueCombie.TYPE_TOO_LATE };
+
+  private final String path;
+  private final DataModelController model;
+  private final int tables;
+  private boolean enablePreview;
+  private IProgressMonitor monitor;
+  private CellStyle headerStyle;
+  private CellStyle defaultStyle;
+
+  /**
+   * @param name
+   *          the name of the job
+   * @param filePath
+   *          the path of the xlsx file
+   * @param controller
+   *          the data model which provides the necessary data
+   * @param tables
+   *          the tables which should be exported, a combination of the constants defined in this
+   *          class
+   */
+  public StpaExcelExport(String name, String filePath, IDataModel controller, int tables) {
+    super(name);
+    this.path = filePath;
+    this.model = (DataModelController) controller;
+    this.tables = tables;
+    this.enablePreview = true;
+  }
+
+  public void showPreview(boolean preview) {
+    this.enablePreview = preview;
+  }
+
+  @Override
+  protected Observable getModelObserver() {
+    return this.model;
+  }
+
+  @Override
+  protected IStatus run(IProgressMonitor monitor) {
+    this.monitor = monitor;
+    monitor.beginTask(getName(), calcWork());
+    File file = new File(this.path);
+    SXSSFWorkbook wb = new SXSSFWorkbook(ROW_WINDOW);
+    // the temporary files of large sheets would otherwise grow larger than the workbook itself
+    wb.setCompressTempFiles(true);
+    boolean complete = false;
+    try {
+      createStyles(wb);
+      if ((this.tables & STATISTICS) != 0) {
+        monitor.subTask("STPA Analysis Progress");
+        new Step0Progress(wb, this.model).createStep1Sheet();
+        monitor.worked(1);
+      }
+      if ((this.tables & UNSAFE_CONTROL_ACTIONS) != 0) {
+        monitor.subTask(Messages.UnsafeControlActionsTable);
+        writeUCASheet(wb);
+      }
+      if ((this.tables & CAUSAL_FACTORS) != 0) {
+        monitor.subTask(Messages.CausalFactorsTable);
+        writeCausalFactorsSheet(wb);
+      }
+      if ((this.tables & CONTEXT_TABLES) != 0) {
+        monitor.subTask(Messages.ContextTables);
+        writeContextSheets(wb);
+      }
+      checkCanceled();
+      try (OutputStream out = new FileOutputStream(file)) {
+        wb.write(out);
+      }
+      complete = true;
+    } catch (OperationCanceledException e) {
+      return Status.CANCEL_STATUS;
+    } catch (IOException e) {
+      addErrorMsg("could not write " + this.path); //$NON-NLS-1$
+      setError(e);
+      return Status.CANCEL_STATUS;
+    } finally {
+      // dispose deletes the temporary files of the streamed sheets
+      wb.dispose();
+      try {
+        wb.close();
+      } catch (IOException e) {
+        // the workbook has already been written or is discarded
+      }
+      if (!complete) {
+        file.delete();
+      }
+      monitor.done();
+    }
+    if (this.enablePreview && file.exists() && Desktop.isDesktopSupported()) {
+      try {
+        Desktop.getDesktop().open(file);
+      } catch (IOException e) {
+        return Status.CANCEL_STATUS;
+      }
+    }
+    return Status.OK_STATUS;
+  }
+
+  private int calcWork() {
+    int work = 0;
+    if ((this.tables & STATISTICS) != 0) {
+      work++;
+    }
+    if ((this.tables & UNSAFE_CONTROL_ACTIONS) != 0) {
+      work += this.model.getAllControlActionsU().size();
+    }
+    if ((this.tables & CAUSAL_FACTORS) != 0) {
+      work += this.model.getCausalComponents().size();
+    }
+    if ((this.tables & CONTEXT_TABLES) != 0) {
+      work += 2 * this.model.getAllControlActions().size();
+    }
+    return work;
+  }
+
+  private void checkCanceled() {
+    if (this.monitor.isCanceled()) {
+      throw new OperationCanceledException();
+    }
+  }
+
+  private void createStyles(SXSSFWorkbook wb) {
+    this.headerStyle = wb.createCellStyle();
+    this.headerStyle.setAlignment(HorizontalAlignment.CENTER);
+    this.headerStyle.setFillForegroundColor(IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex());
+    this.headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+    this.headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+    this.headerStyle.setWrapText(true);
+    this.headerStyle.setBorderBottom(BorderStyle.MEDIUM);
+
+    this.defaultStyle = wb.createCellStyle();
+    this.defaultStyle.setBorderBottom(BorderStyle.THIN);
+    this.defaultStyle.setBorderLeft(BorderStyle.THIN);
+    this.defaultStyle.setBorderTop(BorderStyle.THIN);
+    this.defaultStyle.setBorderRight(BorderStyle.THIN);
+    this.defaultStyle.setAlignment(HorizontalAlignment.LEFT);
+    this.defaultStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+    this.defaultStyle.setWrapText(true);
+  }
+
+  private void writeUCASheet(SXSSFWorkbook wb) {
+    SheetWriter writer = new SheetWriter(wb, Messages.UnsafeControlActionsTable,
+        Messages.ControlAction, Messages.NotGiven, Messages.GivenIncorrectly,
+        Messages.WrongTiming, Messages.StoppedTooSoon);
+    UnsafeControlActionType[] types = new UnsafeControlActionType[] {
+        UnsafeControlActionType.NOT_GIVEN, UnsafeControlActionType.GIVEN_INCORRECTLY,
+        UnsafeControlActionType.WRONG_TIMING, UnsafeControlActionType.STOPPED_TOO_SOON };
+    for (IControlAction action : this.model.getAllControlActionsU()) {
+      List<List<IUnsafeControlAction>> lists = new ArrayList<>();
+      int length = 1;
+      for (UnsafeControlActionType type : types) {
+        lists.add(action.getUnsafeControlActions(type));
+        length = Math.max(length, action.getUnsafeControlActions(type).size());
+      }
+      for (int i = 0; i < length; i++) {
+        String[] cells = new String[types.length + 1];
+        cells[0] = i == 0 ? action.getTitle() : null;
+        for (int j = 0; j < types.length; j++) {
+          if (i < lists.get(j).size()) {
+            cells[j + 1] = getUCAText(lists.get(j).get(i));
+          }
+        }
+        writer.writeRow(cells);
+      }
+      this.monitor.worked(1);
+    }
+  }
+
+  private String getUCAText(IUnsafeControlAction uca) {
+    List<ITableModel> hazards = this.model.getLinkedHazardsOfUCA(uca.getId());
+    if (hazards.isEmpty()) {
+      return uca.getDescription();
+    }
+    StringBuilder text = new StringBuilder();
+    text.append("UCA1.").append(this.model.getUCANumber(uca.getId())).append(": "); //$NON-NLS-1$ //$NON-NLS-2$
+    text.append(uca.getDescription()).append(' ');
+    for (ITableModel haz : hazards) {
+      text.append("[H-").append(haz.getNumber()).append(']'); //$NON-NLS-1$
+    }
+    return text.toString();
+  }
+
+  private void writeCausalFactorsSheet(SXSSFWorkbook wb) {
+    SheetWriter writer = new SheetWriter(wb, Messages.CausalFactorsTable, Messages.Component,
+        Messages.CausalFactors, Messages.UnsafeControlActions, Messages.HazardLinks, "Scenario", //$NON-NLS-1$
+        Messages.SafetyConstraints, Messages.NotesSlashRationale);
+    Map<UUID, String> ucaDescMap = new HashMap<>();
+    for (ICorrespondingUnsafeControlAction uca : this.model.getAllUnsafeControlActions()) {
+      ucaDescMap.put(uca.getId(), "UCA1." + uca.getNumber() + ": " + uca.getDescription()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    for (ICausalComponent component : this.model.getCausalComponents()) {
+      for (ICausalFactor factor : component.getCausalFactors()) {
+        for (ICausalFactorEntry entry : factor.getAllEntries()) {
+          String ucaCell = null;
+          StringBuilder hazCell = new StringBuilder();
+          if (entry.getUcaLink() != null) {
+            ucaCell = ucaDescMap.get(entry.getUcaLink());
+            for (ITableModel haz : this.model.getLinkedHazardsOfUCA(entry.getUcaLink())) {
+              hazCell.append(hazCell.length() > 0 ? "," : "").append("H-").append(haz.getNumber()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+          } else if (entry.getHazardIds() != null) {
+            for (UUID hazardId : entry.getHazardIds()) {
+              hazCell.append(hazCell.length() > 0 ? "," : "").append("H-") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                  .append(this.model.getHazard(hazardId).getNumber());
+            }
+          }
+          writer.writeRow(component.getText(), factor.getText(), ucaCell, hazCell.toString(), null,
+              this.model.getCausalFactorController().getConstraintTextFor(entry.getId()),
+              factor.getNote());
+          for (UUID provider : entry.getScenarioLinks()) {
+            AbstractLTLProvider scenario = this.model.getRefinedScenario(provider);
+            writer.writeRow(component.getText(), factor.getText(), ucaCell, hazCell.toString(),
+                scenario.getSafetyRule(), scenario.getRefinedSafetyConstraint(), factor.getNote());
+          }
+        }
+      }
+      this.monitor.worked(1);
+    }
+  }
+
+  /**
+   * writes the context tables of all control actions, the tables for the context provided and
+   * for the context not provided are written into separate sheets since they have different
+   * columns
+   */
+  private void writeContextSheets(SXSSFWorkbook wb) {
+    SheetWriter writer = new SheetWriter(wb, "Context Provided"); //$NON-NLS-1$
+    for (IControlAction controlAction : this.model.getAllControlActions()) {
+      List<UUID> variables = this.model.getCAProvidedVariables(controlAction.getId());
+      String[] header = new String[variables.size() + 4];
+      header[0] = Messages.ControlAction;
+      for (int i = 0; i < variables.size(); i++) {
+        header[i + 1] = this.model.getComponent(variables.get(i)).getText();
+      }
+      header[variables.size() + 1] = "Hazardous at any time"; //$NON-NLS-1$
+      header[variables.size() + 2] = "Hazardous if too early"; //$NON-NLS-1$
+      header[variables.size() + 3] = "Hazardous if too late"; //$NON-NLS-1$
+      writer.writeHeader(header);
+      for (IValueCombie combie : this.model.getIvaluesWhenCAProvided(controlAction.getId())) {
+        if (combie.getValueList().size() != variables.size()) {
+          continue;
+        }
+        String[] cells = getCombinationCells(controlAction, combie, HAZARDOUS_TYPES.length);
+        for (int i = 0; i < HAZARDOUS_TYPES.length; i++) {
+          cells[cells.length - HAZARDOUS_TYPES.length + i] = combie
+              .isCombiHazardous(HAZARDOUS_TYPES[i]) ? "yes" : "no"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        writer.writeRow(cells);
+      }
+      writer.skipRow();
+      this.monitor.worked(1);
+    }
+
+    writer = new SheetWriter(wb, "Context Not Provided"); //$NON-NLS-1$
+    for (IControlAction controlAction : this.model.getAllControlActions()) {
+      List<UUID> variables = this.model.getCANotProvidedVariables(controlAction.getId());
+      String[] header = new String[variables.size() + 2];
+      header[0] = Messages.ControlAction;
+      for (int i = 0; i < variables.size(); i++) {
+        header[i + 1] = this.model.getComponent(variables.get(i)).getText();
+      }
+      header[variables.size() + 1] = "Hazardous"; //$NON-NLS-1$
+      writer.writeHeader(header);
+      for (IValueCombie combie : this.model.getIValuesWhenCANotProvided(controlAction.getId())) {
+        if (combie.getValueList().size() != variables.size()) {
+          continue;
+        }
+        String[] cells = getCombinationCells(controlAction, combie, 1);
+        cells[cells.length - 1] = combie.isCombiHazardous(IValueCombie.TYPE_NOT_PROVIDED) ? "yes" //$NON-NLS-1$
+            : "no"; //$NON-NLS-1$
+        writer.writeRow(cells);
+      }
+      writer.skipRow();
+      this.monitor.worked(1);
+    }
+  }
+
+  /**
+   * @return the cells of a context table row with the title of the control action and the values
+   *         of the combination, followed by the given number of empty cells
+   */
+  private String[] getCombinationCells(IControlAction controlAction, IValueCombie combie,
+      int additionalCells) {
+    List<UUID> values = combie.getValueList();
+    String[] cells = new String[values.size() + 1 + additionalCells];
+    cells[0] = controlAction.getTitle();
+    for (int i = 0; i < values.size(); i++) {
+      cells[i + 1] = this.model.getComponent(values.get(i)).getText();
+    }
+    return cells;
+  }
+
+  /**
+   * Appends rows to a sheet of the streamed workbook, if the sheet is full the table is continued
+   * on a new sheet which repeats the last header.
+   */
+  private class SheetWriter {
+    private final SXSSFWorkbook wb;
+    private final String name;
+    private String[] header;
+    private Sheet sheet;
+    private int rowIndex;
+    private int part;
+
+    /**
+     * @param header
+     *          the column titles which are written in the first row, or no titles if the header
+     *          is written with {@link #writeHeader(String...)}
+     */
+    SheetWriter(SXSSFWorkbook wb, String name, String... header) {
+      this.wb = wb;
+      this.name = name;
+      this.part = 0;
+      if (header.length > 0) {
+        writeHeader(header);
+      }
+    }
+
+    void writeHeader(String... titles) {
+      this.header = titles;
+      writeRow(this.header, headerStyle);
+      for (int i = 0; i < titles.length; i++) {
+        this.sheet.setColumnWidth(i, COLUMN_WIDTH);
+      }
+    }
+
+    void writeRow(String... cells) {
+      writeRow(cells, defaultStyle);
+    }
+
+    void skipRow() {
+      this.rowIndex++;
+    }
+
+    private void writeRow(String[] cells, CellStyle style) {
+      checkCanceled();
+      if (this.sheet == null
+          || this.rowIndex > SpreadsheetVersion.EXCEL2007.getLastRowIndex()) {
+        createSheet();
+        if (this.part > 1 && cells != this.header) {
+          writeHeader(this.header);
+        }
+      }
+      Row row = this.sheet.createRow(this.rowIndex++);
+      for (int i = 0; i < cells.length; i++) {
+        if (cells[i] != null) {
+          row.createCell(i).setCellValue(cells[i]);
+        } else {
+          row.createCell(i);
+        }
+        row.getCell(i).setCellStyle(style);
+      }
+    }
+
+    private void createSheet() {
+      this.part++;
+      String sheetName = this.name;
+      if (this.part > 1) {
+        sheetName += " (" + this.part + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+      }
+      this.sheet = this.wb.createSheet(WorkbookUtil.createSafeSheetName(sheetName));
+      this.rowIndex = 0;
+    }
+  }
+}
@@ -12,12 +12,12 @@ package xstampp.astpa.util.jobs;
 
 import java.awt.Desktop;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.eclipse.core.runtime.Assert;
@@ -32,6 +32,7 @@ import xstampp.astpa.model.controlaction.interfaces.IControlAction;
 import xstampp.model.AbstractLTLProvider;
 import xstampp.model.IDataModel;
 import xstampp.model.IValueCombie;
+import xstampp.util.BufferedCSVWriter;
 
 public class XCSVExportJob extends Job {
   /**
@@ -65,8 +66,9 @@ public class XCSVExportJob extends Job {
   private DataModelController controller;
   private int tableConstant;
   private String filepath;
-  private String seperator = ";";
+  private char seperator;
   private boolean enablePreview;
+  private Map<UUID, String> componentTexts;
 
   public XCSVExportJob(String name, String filePath, char seperator2,
       IDataModel model, int tableConstant) {
@@ -77,15 +79,14 @@ public class XCSVExportJob extends Job {
     this.controller = (DataModelController) model;
     this.tableConstant = tableConstant;
     this.filepath = filePath;
+    this.seperator = seperator2;
   }
 
   @Override
   protected IStatus run(IProgressMonitor monitor) {
-
-    try {
-
-      File tableCSV = new File(filepath);
-      PrintWriter writer = new PrintWriter(tableCSV);
+    File tableCSV = new File(filepath);
+    this.componentTexts = new HashMap<>();
+    try (BufferedCSVWriter writer = new BufferedCSVWriter(new FileWriter(tableCSV), seperator)) {
       if ((tableConstant & CONTEXT_TABLES) != 0) {
         getContextTableString(writer);
       }
@@ -105,133 +106,140 @@ public class XCSVExportJob extends Job {
       if (this.enablePreview && tableCSV.exists() && Desktop.isDesktopSupported()) {
         Desktop.getDesktop().open(tableCSV);
       }
-    } catch (FileNotFoundException e) {
-
-      e.printStackTrace();
-      return Status.CANCEL_STATUS;
-    } catch (UnsupportedEncodingException e) {
-
-      e.printStackTrace();
-      return Status.CANCEL_STATUS;
     } catch (IOException e) {
-      // TODO Auto-generated catch block
       e.printStackTrace();
+      return Status.CANCEL_STATUS;
     }
     return Status.OK_STATUS;
   }
 
-  private void getContextTableString(PrintWriter writer) {
-    writer.println(Messages.ContextTables + " of project " + controller.getProjectName());
-    writer.println();
+  /**
+   * the texts of the process model variables and values are looked up once for each export since
+   * each of them occurs in many rows of the context tables
+   */
+  private String getComponentText(UUID componentId) {
+    String text = this.componentTexts.get(componentId);
+    if (text == null) {
+      text = controller.getComponent(componentId).getText();
+      this.componentTexts.put(componentId, text);
+    }
+    return text;
+  }
+
+  private void getContextTableString(BufferedCSVWriter writer) throws IOException {
+    writer.write(Messages.ContextTables + " of project " + controller.getProjectName());
+    writer.newLine();
+    writer.newLine();
     for (IControlAction controlAction : controller.getAllControlActions()) {
+      List<UUID> variables = controller.getCAProvidedVariables(controlAction.getId());
       // Context Table for context provided
-      writer.println(
-          "Context Table of control action " + controlAction.getTitle() + "in context provided");
+      writer.write(
+          "Context Table of control action " + controlAction.getTitle() + " in context provided");
+      writer.newLine();
 
-      writer.print(Messages.ControlAction + seperator);
-      for (UUID variableID : controller.getCAProvidedVariables(controlAction.getId())) {
-        writer.print(seperator);
+      writer.writeCell(Messages.ControlAction);
+      for (int i = 0; i < variables.size(); i++) {
+        writer.writeCell();
       }
-      writer.print("Hazardous " + seperator);
-      writer.print("when" + seperator);
-      writer.print("provided");
-      writer.println();
-
-      writer.print(controlAction.getTitle() + seperator);
-      for (UUID variableID : controller.getCAProvidedVariables(controlAction.getId())) {
-        writer.print(controller.getComponent(variableID).getText() + seperator);
+      writer.writeCell("Hazardous");
+      writer.writeCell("when");
+      writer.write("provided");
+      writer.newLine();
+
+      writer.writeCell(controlAction.getTitle());
+      for (UUID variableID : variables) {
+        writer.writeCell(getComponentText(variableID));
       }
-      writer.print("at any time" + seperator);
-      writer.print("too early" + seperator);
-      writer.print("too late");
-      writer.println();
+      writer.writeCell("at any time");
+      writer.writeCell("too early");
+      writer.write("too late");
+      writer.newLine();
       for (IValueCombie combie : controller.getIvaluesWhenCAProvided(controlAction.getId())) {
-        if (combie.getValueList().size() != controller.getCAProvidedVariables(controlAction.getId())
-            .size()) {
+        if (combie.getValueList().size() != variables.size()) {
           continue;
         }
-        writer.print(controlAction.getTitle() + seperator);
+        writer.writeCell(controlAction.getTitle());
         for (UUID valueID : combie.getValueList()) {
-          writer.print(controller.getComponent(valueID).getText() + seperator);
+          writer.writeCell(getComponentText(valueID));
         }
         for (String type : new String[] { IValueCombie.TYPE_ANYTIME, IValueCombie.TYPE_TOO_EARLY,
             IValueCombie.TYPE_TOO_LATE }) {
-          if (combie.isCombiHazardous(type)) {
-            writer.print("yes" + seperator);
-          } else {
-            writer.print("no" + seperator);
-          }
+          writer.writeCell(combie.isCombiHazardous(type) ? "yes" : "no");
         }
-        writer.println();
+        writer.newLine();
       }
-      writer.println();
-
-      writer.println("Context Table of control action " + controlAction.getTitle()
-          + "in context not provided");
-      writer.print(controlAction.getTitle() + seperator);
-      for (UUID variableID : controller.getCANotProvidedVariables(controlAction.getId())) {
-        writer.print(controller.getComponent(variableID).getText() + seperator);
+      writer.newLine();
+
+      variables = controller.getCANotProvidedVariables(controlAction.getId());
+      writer.write("Context Table of control action " + controlAction.getTitle()
+          + " in context not provided");
+      writer.newLine();
+      writer.writeCell(controlAction.getTitle());
+      for (UUID variableID : variables) {
+        writer.writeCell(getComponentText(variableID));
       }
-      writer.print("Hazardous");
-      writer.println();
+      writer.write("Hazardous");
+      writer.newLine();
 
       for (IValueCombie combie : controller.getIValuesWhenCANotProvided(controlAction.getId())) {
-        if (combie.getValueList().size() != controller
-            .getCANotProvidedVariables(controlAction.getId()).size()) {
+        if (combie.getValueList().size() != variables.size()) {
           continue;
         }
-        writer.print(controlAction.getTitle() + seperator);
+        writer.writeCell(controlAction.getTitle());
         for (UUID valueID : combie.getValueList()) {
-          writer.print(controller.getComponent(valueID).getText() + seperator);
+          writer.writeCell(getComponentText(valueID));
         }
-        if (combie.isCombiHazardous(IValueCombie.TYPE_NOT_PROVIDED)) {
-          writer.print("yes" + seperator);
-        } else {
-          writer.print("no" + seperator);
-        }
-        writer.println();
+        writer.writeCell(combie.isCombiHazardous(IValueCombie.TYPE_NOT_PROVIDED) ? "yes" : "no");
+        writer.newLine();
       }
-      writer.println();
+      writer.newLine();
     }
   }
 
-  private void getLTLTableString(PrintWriter writer) {
-    writer.println(Messages.LTLFormulasTable + " of project " + controller.getProjectName());
-    writer.print("ID" + seperator);
-    writer.println("LTL Formulas");
+  private void getLTLTableString(BufferedCSVWriter writer) throws IOException {
+    writer.write(Messages.LTLFormulasTable + " of project " + controller.getProjectName());
+    writer.newLine();
+    writer.writeCell("ID");
+    writer.write("LTL Formulas");
+    writer.newLine();
     for (AbstractLTLProvider provider : controller.getLTLPropertys()) {
-      writer.print("SSR1." + provider.getNumber() + seperator);
-      writer.println(provider.getLtlProperty());
+      writer.writeCell("SSR1." + provider.getNumber());
+      writer.write(provider.getLtlProperty());
+      writer.newLine();
     }
-    writer.println();
+    writer.newLine();
   }
 
-  private void getRulesTableString(PrintWriter writer) {
-    writer.println(Messages.RulesTable + " of project " + controller.getProjectName());
-    writer.print("ID" + seperator);
-    writer.print("Type" + seperator);
-    writer.print("Links" + seperator);
-    writer.println(Messages.RulesTable);
+  private void getRulesTableString(BufferedCSVWriter writer) throws IOException {
+    writer.write(Messages.RulesTable + " of project " + controller.getProjectName());
+    writer.newLine();
+    writer.writeCell("ID");
+    writer.writeCell("Type");
+    writer.writeCell("Links");
+    writer.write(Messages.RulesTable);
+    writer.newLine();
     for (AbstractLTLProvider provider : controller.getLTLPropertys()) {
-      writer.print("RSR1." + provider.getNumber() + seperator);
-      writer.print(provider.getType() + seperator);
-      writer.print(provider.getLinks() + seperator);
-      writer.println(provider.getRefinedSafetyConstraint());
+      writer.writeCell("RSR1." + provider.getNumber());
+      writer.writeCell(provider.getType());
+      writer.writeCell(provider.getLinks());
+      writer.write(provider.getRefinedSafetyConstraint());
+      writer.newLine();
     }
-    writer.println();
+    writer.newLine();
   }
 
-  private void getRUCATableString(PrintWriter writer) {
-    writer.println(
+  private void getRUCATableString(BufferedCSVWriter writer) throws IOException {
+    writer.write(
         Messages.RefinedUnsafeControlActions + " of project " + controller.getProjectName());
+    writer.newLine();
     ArrayList<AbstractLTLProvider> list_notProvided;
     ArrayList<AbstractLTLProvider> list_provided;
     ArrayList<AbstractLTLProvider> list_wrongProvided;
 
-    writer.print(Messages.ControlAction);
-    writer.print("Hazardous if not provided");
-    writer.print("Hazardous if provided");
-    writer.print("Hazardous if wrong provided");
+    writer.writeCell(Messages.ControlAction);
+    writer.writeCell("Hazardous if not provided");
+    writer.writeCell("Hazardous if provided");
+    writer.write("Hazardous if wrong provided");
     for (IControlAction action : controller.getAllControlActionsU()) {
 
       list_notProvided = new ArrayList<>();
@@ -248,73 +256,84 @@ public class XCSVExportJob extends Job {
           list_wrongProvided.add(provider);
         }
       }
-      writer.println();
-      writer.println(action.getTitle() + seperator + seperator + seperator + seperator);
+      writer.newLine();
+      writer.writeCell(action.getTitle());
+      writer.writeCell();
+      writer.writeCell();
+      writer.writeCell();
+      writer.newLine();
       int loopSize = Math.max(list_notProvided.size(), list_provided.size());
       loopSize = Math.max(loopSize, list_wrongProvided.size());
       for (int i = 0; i < loopSize; i++) {
 
-        writer.print(seperator);
-        writer.print(getRucaID(list_notProvided, i));
-        writer.print(getRucaID(list_provided, i));
-        writer.print(getRucaID(list_wrongProvided, i));
+        writer.writeCell();
+        writer.writeCell(getRucaID(list_notProvided, i));
+        writer.writeCell(getRucaID(list_provided, i));
+        writer.writeCell(getRucaID(list_wrongProvided, i));
 
-        writer.println();
-        writer.print(seperator);
+        writer.newLine();
+        writer.writeCell();
         // print line of ruca descriptions
-        writer.print(getRUCA(list_notProvided, i));
-        writer.print(getRUCA(list_provided, i));
-        writer.print(getRUCA(list_wrongProvided, i));
+        writer.writeCell(getRUCA(list_notProvided, i));
+        writer.writeCell(getRUCA(list_provided, i));
+        writer.writeCell(getRUCA(list_wrongProvided, i));
 
-        writer.println();
-        writer.print(seperator);
+        writer.newLine();
+        writer.writeCell();
         //
-        writer.print(getLinks(list_notProvided, i));
-        writer.print(getLinks(list_provided, i));
-        writer.print(getLinks(list_wrongProvided, i));
-        writer.println();
-        writer.println(seperator + seperator + seperator + seperator);
+        writer.writeCell(getLinks(list_notProvided, i));
+        writer.writeCell(getLinks(list_provided, i));
+        writer.writeCell(getLinks(list_wrongProvided, i));
+        writer.newLine();
+        writer.writeCell();
+        writer.writeCell();
+        writer.writeCell();
+        writer.writeCell();
+        writer.newLine();
 
       }
     }
 
-    writer.println();
+    writer.newLine();
   }
 
   private String getLinks(List<AbstractLTLProvider> list, int index) {
-    if (index < list.size() && list.get(index).getLinks() != null) {
-      return list.get(index).getLinks() + seperator;
+    if (index < list.size()) {
+      return list.get(index).getLinks();
     }
-    return seperator;
+    return null;
 
   }
 
   private String getRUCA(List<AbstractLTLProvider> list, int index) {
     if (index < list.size()) {
-      return list.get(index).getRefinedUCA() + seperator;
+      return list.get(index).getRefinedUCA();
     }
-    return seperator;
+    return null;
 
   }
 
   private String getRucaID(List<AbstractLTLProvider> list, int index) {
     if (index < list.size()) {
-      return "RUCA1." + list.get(index).getNumber() + seperator;
+      return "RUCA1." + list.get(index).getNumber();
     }
-    return seperator;
+    return null;
 
   }
 
-  private void getRefinedConstraintsString(PrintWriter writer) {
-    writer.println(
+  private void getRefinedConstraintsString(BufferedCSVWriter writer) throws IOException {
+    writer.write(
         Messages.RefinedSafetyConstraintsTable + " of project " + controller.getProjectName());
-    writer.print("ID" + seperator);
-    writer.println("Refined Safety Constraint");
+    writer.newLine();
+    writer.writeCell("ID");
+    writer.write("Refined Safety Constraint");
+    writer.newLine();
     for (AbstractLTLProvider provider : controller.getLTLPropertys()) {
-      writer.print("SC3." + provider.getNumber() + seperator);
-      writer.println(provider.getRefinedSafetyConstraint());
+      writer.writeCell("SC3." + provider.getNumber());
+      writer.write(provider.getRefinedSafetyConstraint());
+      writer.newLine();
     }
-    writer.println();
+    writer.newLine();
   }
 
   public void setEnablePreview(boolean enablePreview) {
@@ -31,6 +31,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 
 import xstampp.astpa.model.DataModelController;
 
@@ -107,6 +108,10 @@ abstract class AbstractProgressSheetCreator {
 
   Sheet createSheet() {
     Sheet sheet = getFactory().wb.createSheet("STPA Analysis Progress");
+    if (sheet instanceof SXSSFSheet) {
+      // a streamed sheet can only size the columns by the rows it has seen
+      ((SXSSFSheet) sheet).trackAllColumnsForAutoSizing();
+    }
     
     // turn off gridlines
     sheet.setDisplayGridlines(false);
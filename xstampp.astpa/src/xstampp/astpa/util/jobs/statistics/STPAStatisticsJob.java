@@ -16,18 +16,17 @@ package xstampp.astpa.util.jobs.statistics;
 
 import java.awt.Desktop;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Observable;
 
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 
 import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.util.jobs.StpaExcelExport;
 import xstampp.util.XstamppJob;
 
 public class STPAStatisticsJob extends XstamppJob {
@@ -47,26 +46,33 @@ public class STPAStatisticsJob extends XstamppJob {
 
   @Override
   protected IStatus run(IProgressMonitor monitor) {
-    Workbook wb = new XSSFWorkbook();
-    
-    new Step0Progress(wb, controller).createStep1Sheet();
-
-    // Write the output to a file
-
-    String fileName = "state.xls";
-    if (wb instanceof XSSFWorkbook) {
-      fileName += "x";
-    }
-    try (FileOutputStream out = new FileOutputStream(fileName);) {
-      wb.write(out);
-      out.close();
-      wb.close();
-    } catch (FileNotFoundException e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
-    } catch (IOException e1) {
-      // TODO Auto-generated catch block
-      e1.printStackTrace();
+    monitor.beginTask(getName(), 2);
+    SXSSFWorkbook wb = new SXSSFWorkbook(StpaExcelExport.ROW_WINDOW);
+    wb.setCompressTempFiles(true);
+    String fileName = "state.xlsx";
+    try {
+      new Step0Progress(wb, controller).createStep1Sheet();
+      monitor.worked(1);
+      if (monitor.isCanceled()) {
+        return Status.CANCEL_STATUS;
+      }
+      // Write the output to a file
+      try (FileOutputStream out = new FileOutputStream(fileName);) {
+        wb.write(out);
+      }
+      monitor.worked(1);
+    } catch (IOException e) {
+      setError(e);
+      return Status.CANCEL_STATUS;
+    } finally {
+      // dispose deletes the temporary files of the streamed sheet
+      wb.dispose();
+      try {
+        wb.close();
+      } catch (IOException e) {
+        // the workbook is discarded anyway
+      }
+      monitor.done();
     }
     File file = new File(fileName);
     if (file.exists() && file.canWrite()) {
@@ -58,10 +58,13 @@ public class Step0Progress extends AbstractProgressSheetCreator{
       createCell(hazRow, 0, hazModel.getIdString());
       createCell(hazRow, 1, hazModel.getTitle());
       createCell(hazRow, 2, ((EntryWithSeverity) hazModel).getSeverity().name());
-      int hazGroupStart = rowIndex;
-      rowIndex = addAccidents(sheet, hazRow, rowIndex, hazModel);
+      // the completion is written before the accidents since a streamed sheet may have flushed
+      // the hazard row when the last accident is added
+      collectProgress(hazModel);
       Float progress = getProgress(STEP.STEP_1, hazModel.getId(), 1);
       createCell(hazRow, 8, String.format("%.1f", progress) + "%");
+      int hazGroupStart = rowIndex;
+      rowIndex = addAccidents(sheet, hazRow, rowIndex, hazModel);
       if (rowIndex > hazGroupStart) {
         sheet.addMergedRegion(new CellRangeAddress(hazGroupStart, rowIndex, 0, 0));
         sheet.addMergedRegion(new CellRangeAddress(hazGroupStart, rowIndex, 1, 1));
@@ -75,6 +78,21 @@ public class Step0Progress extends AbstractProgressSheetCreator{
     }
   }
 
+  /**
+   * Calculates the progress of the given hazard and of all accidents that are linked to it
+   */
+  private void collectProgress(ITableModel hazModel) {
+    for (UUID accId : getController().getLinkController().getLinksFor(ObserverValue.HAZ_ACC_LINK,
+        hazModel.getId())) {
+      int constraints = getController().getLinkController()
+          .getLinksFor(ObserverValue.ACC_S0_LINK, accId).size();
+      for (int i = 0; i < constraints; i++) {
+        addProgress(STEP.STEP_1, accId, 100f);
+      }
+      addProgress(STEP.STEP_1, hazModel.getId(), getProgress(STEP.STEP_1, accId, 1));
+    }
+  }
+
   /**
    * Adds all accidents that are linked to the given {@link ITableModel}
    * 
@@ -90,6 +108,7 @@ public class Step0Progress extends AbstractProgressSheetCreator{
         createCell(accRow, 0, null);
         createCell(accRow, 1, null);
         createCell(accRow, 2, null);
+        createCell(accRow, 8, null);
       }
       ITableModel accModel = getController().getAccident(accId);
       createCell(accRow, 3, accModel.getIdString());
@@ -99,7 +118,6 @@ public class Step0Progress extends AbstractProgressSheetCreator{
       }
       int accGroupStart = index;
       index = addSafetyConstraints(sheet, accRow, index, accId);
-      addProgress(STEP.STEP_1, hazModel.getId(), getProgress(STEP.STEP_1, accId, 1));
       if (index > accGroupStart) {
         sheet.addMergedRegion(new CellRangeAddress(accGroupStart, index, 3, 3));
         sheet.addMergedRegion(new CellRangeAddress(accGroupStart, index, 4, 4));
@@ -107,14 +125,13 @@ public class Step0Progress extends AbstractProgressSheetCreator{
       accRow = null;
     }
     // if the index didn't change than no accidents have been added and empty cells need to be
-    // inserted
+    // inserted, the completion of the hazard row is left as it is
     if (accRow != null) {
       createCell(accRow, 3, null);
       createCell(accRow, 4, null);
       createCell(accRow, 5, null);
       createCell(accRow, 6, null);
       createCell(accRow, 7, null);
-      createCell(accRow, 8, null);
     }
     return index;
   }
@@ -137,20 +154,18 @@ public class Step0Progress extends AbstractProgressSheetCreator{
         createCell(scRow, 3, null);
         createCell(scRow, 4, null);
         createCell(scRow, 5, null);
+        createCell(scRow, 8, null);
       }
       ITableModel s0Model = getController().getSafetyConstraint(s0Id);
       createCell(scRow, 6, s0Model.getIdString());
       createCell(scRow, 7, s0Model.getTitle());
-      createCell(scRow, 8, null);
-      addProgress(STEP.STEP_1, accId, 100f);
       scRow = null;
     }
     // if the index didn't change than no accidents have been added and empty cells need to be
-    // inserted
+    // inserted, the completion column is filled by the creator of the row
     if (scRow != null) {
       createCell(scRow, 6, null);
       createCell(scRow, 7, null);
-      createCell(scRow, 8, null);
     }
     return index;
   }
@@ -30,6 +30,7 @@ import xstampp.astpa.Activator;
 import xstampp.astpa.model.DataModelController;
 import xstampp.astpa.util.jobs.ExportJob;
 import xstampp.astpa.util.jobs.StpaCSVExport;
+import xstampp.astpa.util.jobs.StpaExcelExport;
 import xstampp.model.IDataModel;
 import xstampp.model.ObserverValue;
 import xstampp.ui.common.ProjectManager;
@@ -110,6 +111,42 @@ public abstract class AbstractExportWizard extends Wizard implements
     return true;
   }
 
+  /**
+   * @return whether the export path of the export page points to an Excel workbook
+   */
+  protected boolean isExcelExport() {
+    String filePath = this.exportPage.getExportPath();
+    return filePath != null && filePath.toLowerCase().endsWith(".xlsx"); //$NON-NLS-1$
+  }
+
+  /**
+   * exports the given tables into the Excel workbook at the export path of the export page
+   *
+   * @param tables
+   *          a combination of the table constants defined in {@link StpaExcelExport}
+   * @return whether the export has been started
+   */
+  protected boolean performExcelExport(int tables) {
+
+    String filePath = this.exportPage.getExportPath();
+    try {
+      if (this.checkError(this.checkPath(filePath))) {
+        IDataModel model = ProjectManager.getContainerInstance()
+            .getDataModel(this.exportPage.getProjectID());
+        StpaExcelExport export = new StpaExcelExport("Export Excel", filePath, //$NON-NLS-1$
+            model, tables);
+        export.schedule();
+      } else {
+        return false;
+      }
+    } catch (IOException e) {
+      MessageDialog.openWarning(this.getShell(), Messages.Warning,
+          Messages.ChooseTheDestination);
+      return false;
+    }
+    return true;
+  }
+
   protected boolean performXSLExport(String fopName, String jobMessage,
       boolean forceCSDeco) {
     return performXSLExport(fopName, forceCSDeco, "", true);
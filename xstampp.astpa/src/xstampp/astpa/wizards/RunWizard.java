@@ -21,6 +21,7 @@ import org.eclipse.swt.layout.FormAttachment;
 import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.ui.PlatformUI;
@@ -57,7 +58,8 @@ public class RunWizard extends AbstractExportWizard {
     if (!outputDir.exists()) {
       outputDir.mkdirs();
     }
-    // delete/create or clear the folders that are needed for the run export
+    // delete/create the folders that are needed for the run export, the files in the folders
+    // are only cleared for a full export as the run export skips all files which are up to date
     HashMap<File, Boolean> folders = new HashMap<>();
     folders.put(new File(outputDir + File.separator + Run.PDF_DIR), this.page.getPdfChoice());
     folders.put(new File(outputDir + File.separator + Run.CSV_DIR), this.page.getCsvChoice());
@@ -71,7 +73,9 @@ public class RunWizard extends AbstractExportWizard {
         entry.getKey().mkdirs();
       } else if (entry.getKey().exists()) {
         for (File f : entry.getKey().listFiles()) {
-          f.delete();
+          if (this.page.getFullExportChoice() || !entry.getValue()) {
+            f.delete();
+          }
         }
         if (!entry.getValue()) {
           entry.getKey().delete();
@@ -89,6 +93,7 @@ public class RunWizard extends AbstractExportWizard {
     runjob.setExportExtendedIMGs(this.page.getXImgData());
     runjob.setExportExtendedPDFs(this.page.getXPdfData());
     runjob.setcsDecoration(page.getDecoChoice());
+    runjob.setForceFullExport(this.page.getFullExportChoice());
     runjob.schedule();
     return true;
   }
@@ -98,6 +103,7 @@ public class RunWizard extends AbstractExportWizard {
     Label csvCheckbox;
     private Label xstpaCSVCheckbox;
     private Label pdfCheckbox, imgCheckbox, reportCheckbox, xstpaPDFCheckbox, xstpaIMGCheckbox;
+    private Button fullExportButton;
 
     public RunPage(String pageName, String projectName) {
       super(pageName, projectName, PathComposite.DIR_DIALOG, Activator.PLUGIN_ID);
@@ -148,6 +154,12 @@ public class RunWizard extends AbstractExportWizard {
       this.xstpaIMGCheckbox = addFormatWidget(exportScope, checkBoxData, Run.IMAGE_DIR, true);
 
       this.xstpaCSVCheckbox = addFormatWidget(exportScope, checkBoxData, Run.CSV_DIR, false);
+
+      tooltip = "Files whose content has not changed since the last export into\n"
+          + "the chosen directory are skipped unless a full export is forced";
+      addLabelWithAssist(exportScope, new GridData(), "full export:", tooltip);
+      this.fullExportButton = new Button(exportScope, SWT.CHECK);
+      this.fullExportButton.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true, 4, 1));
       exportScope.layout(true);
       setPageComplete(checkFinish());
     }
@@ -235,5 +247,12 @@ public class RunWizard extends AbstractExportWizard {
     public boolean getXCSVChoice() {
       return this.xstpaCSVCheckbox.getData(EXPORT_DATA).equals(EXPORT);
     }
+
+    /**
+     * @return whether all files should be exported again
+     */
+    public boolean getFullExportChoice() {
+      return this.fullExportButton.getSelection();
+    }
   }
 }
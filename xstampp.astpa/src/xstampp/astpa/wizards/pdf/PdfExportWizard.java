@@ -49,11 +49,15 @@ public class PdfExportWizard extends AbstractExportWizard {
     this.page = new PdfExportPage("PDF Report", projectName, Activator.PLUGIN_ID);
     this.page.setFilterExtensions(new String[] { "*.pdf", "*.docx" },
         new String[] { "PDF", "Word Document" });
+    this.page.setLivePreview("/fopxsl.xsl", DataModelController.class, //$NON-NLS-1$
+        Messages.STPAPDFReport);
     this.setExportPage(this.page);
   }
 
   @Override
   public boolean performFinish() {
+    // the preview must not prepare or clean up the model while it is prepared for the export
+    this.page.stopLivePreview();
 
     this.getStore().setValue(IPreferenceConstants.COMPANY_NAME,
         this.page.getTextCompany().getText());
@@ -14,6 +14,7 @@ import messages.Messages;
 import xstampp.astpa.Activator;
 import xstampp.astpa.ui.causalfactors.CausalFactorsView;
 import xstampp.astpa.util.jobs.ICSVExportConstants;
+import xstampp.astpa.util.jobs.StpaExcelExport;
 import xstampp.astpa.wizards.AbstractExportWizard;
 import xstampp.ui.wizards.CSVExportPage;
 
@@ -31,13 +32,16 @@ public class CausalFactorsDataWizard extends AbstractExportWizard {
    */
   public CausalFactorsDataWizard() {
     super(CausalFactorsView.ID);
-    String[] filters = new String[] { "*.csv" }; //$NON-NLS-1$
+    String[] filters = new String[] { "*.csv", "*.xlsx" }; //$NON-NLS-1$ //$NON-NLS-2$
     this.setExportPage(new CSVExportPage(filters, Messages.CausalFactors + Messages.AsDataSet,
         Activator.PLUGIN_ID));
   }
 
   @Override
   public boolean performFinish() {
+    if (isExcelExport()) {
+      return this.performExcelExport(StpaExcelExport.CAUSAL_FACTORS);
+    }
     return this.performCSVExport(ICSVExportConstants.CAUSAL_FACTOR);
   }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import messages.Messages;
 import org.eclipse.jface.dialogs.MessageDialog;
 
 import xstampp.astpa.Activator;
+import xstampp.astpa.util.jobs.StpaExcelExport;
 import xstampp.astpa.util.jobs.XCSVExportJob;
 import xstampp.astpa.wizards.AbstractExportWizard;
 import xstampp.model.IDataModel;
@@ -41,13 +42,16 @@ public class ContextTablesCSVWizard extends AbstractExportWizard {
    */
   public ContextTablesCSVWizard() {
     super("");
-    String[] filters = new String[] { "*.csv" }; //$NON-NLS-1$
+    String[] filters = new String[] { "*.csv", "*.xlsx" }; //$NON-NLS-1$ //$NON-NLS-2$
     this.setExportPage(new CSVExportPage(filters, Messages.ContextTables + Messages.AsDataSet,
         Activator.PLUGIN_ID));
   }
 
   @Override
   public boolean performFinish() {
+    if (isExcelExport()) {
+      return this.performExcelExport(StpaExcelExport.CONTEXT_TABLES);
+    }
     String filePath = getExportPage().getExportPath();
     try {
       if (this.checkError(this.checkPath(filePath))) {
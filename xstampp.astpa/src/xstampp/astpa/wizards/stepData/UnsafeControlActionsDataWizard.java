@@ -14,6 +14,7 @@ import messages.Messages;
 import xstampp.astpa.Activator;
 import xstampp.astpa.ui.unsafecontrolaction.UnsafeControlActionsView;
 import xstampp.astpa.util.jobs.ICSVExportConstants;
+import xstampp.astpa.util.jobs.StpaExcelExport;
 import xstampp.astpa.wizards.AbstractExportWizard;
 import xstampp.ui.wizards.CSVExportPage;
 
@@ -31,13 +32,16 @@ public class UnsafeControlActionsDataWizard extends AbstractExportWizard {
    */
   public UnsafeControlActionsDataWizard() {
     super(UnsafeControlActionsView.ID);
-    String[] filters = new String[] { "*.csv" }; //$NON-NLS-1$
+    String[] filters = new String[] { "*.csv", "*.xlsx" }; //$NON-NLS-1$ //$NON-NLS-2$
     this.setExportPage(new CSVExportPage(filters,
         Messages.UnsafeControlActions + Messages.AsDataSet, Activator.PLUGIN_ID));
   }
 
   @Override
   public boolean performFinish() {
+    if (isExcelExport()) {
+      return this.performExcelExport(StpaExcelExport.UNSAFE_CONTROL_ACTIONS);
+    }
     return this.performCSVExport(ICSVExportConstants.UNSAFE_CONTROL_ACTION);
   }
 }
@@ -312,6 +312,53 @@ public class ControlAction extends ATableModel implements IControlAction {
     return false;
   }
 
+  /**
+   * sets the hazardous flag of the given type for the value combination with the given id
+   * 
+   * @param combieId
+   *          the id of a value combination of this control action
+   * @param type
+   *          one of the <code>TYPE</code> constants defined in {@link IValueCombie}
+   * @param hazardous
+   *          the new value of the flag
+   * @return whether the combination was found and the flag has been changed
+   */
+  public boolean setCombieHazardous(UUID combieId, String type, boolean hazardous) {
+    if (IValueCombie.TYPE_NOT_PROVIDED.equals(type)) {
+      for (NotProvidedValuesCombi combie : getValuesAffectedWhenNotProvided()) {
+        if (combie.getCombieId().equals(combieId)) {
+          if (combie.isCombiHazardous(type) == hazardous) {
+            return false;
+          }
+          combie.setHazardous(hazardous);
+          return true;
+        }
+      }
+      return false;
+    }
+    for (ProvidedValuesCombi combie : getValuesAffectedWhenProvided()) {
+      if (combie.getCombieId().equals(combieId)) {
+        if (combie.isCombiHazardous(type) == hazardous) {
+          return false;
+        }
+        switch (type) {
+        case IValueCombie.TYPE_ANYTIME:
+          combie.setHazardousAnyTime(hazardous);
+          return true;
+        case IValueCombie.TYPE_TOO_EARLY:
+          combie.setHazardousToEarly(hazardous);
+          return true;
+        case IValueCombie.TYPE_TOO_LATE:
+          combie.setHazardousToLate(hazardous);
+          return true;
+        default:
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+
   @Override
   public List<UUID> getNotProvidedVariables() {
     if (this.notProvidedVariables == null) {
@@ -912,6 +912,15 @@ public class SecControlActionController implements IControlActionController {
     return action.removeValueWhenProvided(combieId);
   }
 
+  @Override
+  public boolean setCombieHazardous(UUID caID, UUID combieId, String type, boolean hazardous) {
+    ControlAction action = getInternalControlAction(caID);
+    if (action == null) {
+      return false;
+    }
+    return action.setCombieHazardous(combieId, type, hazardous);
+  }
+
   /**
    * @param caID
    *          the control action id which is used to look up the action
@@ -12,12 +12,12 @@ package xstampp.stpapriv.util.jobs;
 
 import java.awt.Desktop;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.eclipse.core.runtime.Assert;
@@ -33,6 +33,7 @@ import xstampp.model.IDataModel;
 import xstampp.model.IValueCombie;
 import xstampp.stpapriv.messages.PrivMessages;
 import xstampp.stpapriv.model.PrivacyController;
+import xstampp.util.BufferedCSVWriter;
 
 public class XCSVExportJob extends Job {
 	/**
@@ -66,239 +67,274 @@ public class XCSVExportJob extends Job {
 	private PrivacyController controller;
 	private int tableConstant;
 	private String filepath;
-	private String seperator = ";";
+	private char seperator;
 	private boolean enablePreview;
+	private Map<UUID, String> componentTexts;
 
 	public XCSVExportJob(String name, String filePath, char seperator2,
 			IDataModel model, int tableConstant) {
 		super(name);
 
 		Assert.isLegal(model instanceof PrivacyController,
-						"This Export can only be executed for a data model of type PrivacyController");
+				"This Export can only be executed for a data model of type PrivacyController");
 		this.controller = (PrivacyController) model;
 		this.tableConstant = tableConstant;
 		this.filepath = filePath;
+		this.seperator = seperator2;
 	}
 
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
-		
-		try {
-
-				File tableCSV=new File(filepath);
-				PrintWriter writer = new PrintWriter(tableCSV);
-				if((tableConstant & CONTEXT_TABLES) != 0){
-					getContextTableString(writer);
-				}if((tableConstant & RULES_TABLE) != 0){
-					getRulesTableString(writer);
-				}if((tableConstant & REFINED_CONSTRAINTS) != 0){
-					getRefinedConstraintsString(writer);
-				}if((tableConstant & LTL_FORMULAS) != 0){
-					getLTLTableString(writer);
-				}if((tableConstant & REFINED_UCA) != 0){
-					getRUCATableString(writer);
-				}
-				writer.close();
-				if (this.enablePreview && tableCSV.exists() && Desktop.isDesktopSupported()) {
-					Desktop.getDesktop().open(tableCSV);
-				}
-		} catch (FileNotFoundException e) {
-			
-			e.printStackTrace();
-			return Status.CANCEL_STATUS;
-		} catch (UnsupportedEncodingException e) {
-			
-			e.printStackTrace();
-			return Status.CANCEL_STATUS;
+		File tableCSV = new File(filepath);
+		this.componentTexts = new HashMap<>();
+		try (BufferedCSVWriter writer = new BufferedCSVWriter(new FileWriter(tableCSV), seperator)) {
+			if ((tableConstant & CONTEXT_TABLES) != 0) {
+				getContextTableString(writer);
+			}
+			if ((tableConstant & RULES_TABLE) != 0) {
+				getRulesTableString(writer);
+			}
+			if ((tableConstant & REFINED_CONSTRAINTS) != 0) {
+				getRefinedConstraintsString(writer);
+			}
+			if ((tableConstant & LTL_FORMULAS) != 0) {
+				getLTLTableString(writer);
+			}
+			if ((tableConstant & REFINED_UCA) != 0) {
+				getRUCATableString(writer);
+			}
+			writer.close();
+			if (this.enablePreview && tableCSV.exists() && Desktop.isDesktopSupported()) {
+				Desktop.getDesktop().open(tableCSV);
+			}
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
 			e.printStackTrace();
+			return Status.CANCEL_STATUS;
 		}
 		return Status.OK_STATUS;
 	}
 
-	private void getContextTableString(PrintWriter writer){
-		writer.println(Messages.ContextTables + " of project " + controller.getProjectName());
-		writer.println();
-		for(IControlAction controlAction: controller.getAllControlActions()){
-			//Context Table for context provided
-			writer.println("Context Table of control action " + controlAction.getTitle() + "in context provided");
-			
-			writer.print(Messages.ControlAction + seperator);
-			for(UUID variableID : controller.getCAProvidedVariables(controlAction.getId())){
-				writer.print(seperator);
+	/**
+	 * the texts of the process model variables and values are looked up once for each export since
+	 * each of them occurs in many rows of the context tables
+	 */
+	private String getComponentText(UUID componentId) {
+		String text = this.componentTexts.get(componentId);
+		if (text == null) {
+			text = controller.getComponent(componentId).getText();
+			this.componentTexts.put(componentId, text);
+		}
+		return text;
+	}
+
+	private void getContextTableString(BufferedCSVWriter writer) throws IOException {
+		writer.write(Messages.ContextTables + " of project " + controller.getProjectName());
+		writer.newLine();
+		writer.newLine();
+		for (IControlAction controlAction : controller.getAllControlActions()) {
+			List<UUID> variables = controller.getCAProvidedVariables(controlAction.getId());
+			// Context Table for context provided
+			writer.write(
+					"Context Table of control action " + controlAction.getTitle() + " in context provided");
+			writer.newLine();
+
+			writer.writeCell(Messages.ControlAction);
+			for (int i = 0; i < variables.size(); i++) {
+				writer.writeCell();
 			}
-			writer.print("Vulnerable " + seperator);
-			writer.print("when" + seperator);
-			writer.print("provided");
-			writer.println();
-			
-			writer.print(controlAction.getTitle() + seperator);
-			for(UUID variableID : controller.getCAProvidedVariables(controlAction.getId())){
-				writer.print(controller.getComponent(variableID).getText() + seperator);
+			writer.writeCell("Vulnerable");
+			writer.writeCell("when");
+			writer.write("provided");
+			writer.newLine();
+
+			writer.writeCell(controlAction.getTitle());
+			for (UUID variableID : variables) {
+				writer.writeCell(getComponentText(variableID));
 			}
-			writer.print("at any time" + seperator);
-			writer.print("too early" + seperator);
-			writer.print("too late");
-			writer.println();
-			for(IValueCombie combie: controller.getIvaluesWhenCAProvided(controlAction.getId())){
-				if(combie.getValueList().size() != controller.getCAProvidedVariables(controlAction.getId()).size()){
+			writer.writeCell("at any time");
+			writer.writeCell("too early");
+			writer.write("too late");
+			writer.newLine();
+			for (IValueCombie combie : controller.getIvaluesWhenCAProvided(controlAction.getId())) {
+				if (combie.getValueList().size() != variables.size()) {
 					continue;
 				}
-				writer.print(controlAction.getTitle() + seperator);
-				for(UUID valueID : combie.getValueList()){
-					writer.print(controller.getComponent(valueID).getText() + seperator);
+				writer.writeCell(controlAction.getTitle());
+				for (UUID valueID : combie.getValueList()) {
+					writer.writeCell(getComponentText(valueID));
 				}
-				for(String type: new String[]{IValueCombie.TYPE_ANYTIME,IValueCombie.TYPE_TOO_EARLY,IValueCombie.TYPE_TOO_LATE}){
-					if(combie.isCombiHazardous(type)){
-						writer.print("yes" + seperator);
-					}else{
-						writer.print("no" + seperator);
-					}
+				for (String type : new String[] { IValueCombie.TYPE_ANYTIME, IValueCombie.TYPE_TOO_EARLY,
+						IValueCombie.TYPE_TOO_LATE }) {
+					writer.writeCell(combie.isCombiHazardous(type) ? "yes" : "no");
 				}
-				writer.println();
+				writer.newLine();
 			}
-			writer.println();
-			
-			writer.println("Context Table of control action " + controlAction.getTitle() + "in context not provided");
-			writer.print(controlAction.getTitle() + seperator);
-			for(UUID variableID : controller.getCANotProvidedVariables(controlAction.getId())){
-				writer.print(controller.getComponent(variableID).getText() + seperator);
+			writer.newLine();
+
+			variables = controller.getCANotProvidedVariables(controlAction.getId());
+			writer.write("Context Table of control action " + controlAction.getTitle()
+					+ " in context not provided");
+			writer.newLine();
+			writer.writeCell(controlAction.getTitle());
+			for (UUID variableID : variables) {
+				writer.writeCell(getComponentText(variableID));
 			}
-			writer.print("Vulnerable");
-			writer.println();
-			
-			for(IValueCombie combie: controller.getIValuesWhenCANotProvided(controlAction.getId())){
-				if(combie.getValueList().size() != controller.getCANotProvidedVariables(controlAction.getId()).size()){
+			writer.write("Vulnerable");
+			writer.newLine();
+
+			for (IValueCombie combie : controller.getIValuesWhenCANotProvided(controlAction.getId())) {
+				if (combie.getValueList().size() != variables.size()) {
 					continue;
 				}
-				writer.print(controlAction.getTitle() + seperator);
-				for(UUID valueID : combie.getValueList()){
-					writer.print(controller.getComponent(valueID).getText() + seperator);
-				}
-				if(combie.isCombiHazardous(IValueCombie.TYPE_NOT_PROVIDED)){
-					writer.print("yes" + seperator);
-				}else{
-					writer.print("no" + seperator);
+				writer.writeCell(controlAction.getTitle());
+				for (UUID valueID : combie.getValueList()) {
+					writer.writeCell(getComponentText(valueID));
 				}
-				writer.println();
+				writer.writeCell(combie.isCombiHazardous(IValueCombie.TYPE_NOT_PROVIDED) ? "yes" : "no");
+				writer.newLine();
 			}
-			writer.println();
+			writer.newLine();
 		}
 	}
 
-	private void getLTLTableString(PrintWriter writer){
-		writer.println(Messages.LTLFormulasTable +" of project " + controller.getProjectName());
-		writer.print("ID" +seperator);
-		writer.println("LTL Formulas");
-		for(AbstractLTLProvider provider: controller.getLTLPropertys()){
-			writer.print("SPR1." +provider.getNumber() +seperator);
-			writer.println(provider.getLtlProperty());
+	private void getLTLTableString(BufferedCSVWriter writer) throws IOException {
+		writer.write(Messages.LTLFormulasTable + " of project " + controller.getProjectName());
+		writer.newLine();
+		writer.writeCell("ID");
+		writer.write("LTL Formulas");
+		writer.newLine();
+		for (AbstractLTLProvider provider : controller.getLTLPropertys()) {
+			writer.writeCell("SPR1." + provider.getNumber());
+			writer.write(provider.getLtlProperty());
+			writer.newLine();
 		}
-		writer.println();
+		writer.newLine();
 	}
-	private void getRulesTableString(PrintWriter writer){
-		writer.println(Messages.RulesTable + " of project " + controller.getProjectName());
-		writer.print("ID" +seperator);
-		writer.print("Type" +seperator);
-		writer.print("Links" +seperator);
-		writer.println(Messages.RulesTable);
-		for(AbstractLTLProvider provider: controller.getLTLPropertys()){
-			writer.print("RPR1."+provider.getNumber() +seperator);
-			writer.print(provider.getType() +seperator);
-			writer.print(provider.getLinks() +seperator);
-			writer.println(provider.getRefinedSafetyConstraint());
+
+	private void getRulesTableString(BufferedCSVWriter writer) throws IOException {
+		writer.write(Messages.RulesTable + " of project " + controller.getProjectName());
+		writer.newLine();
+		writer.writeCell("ID");
+		writer.writeCell("Type");
+		writer.writeCell("Links");
+		writer.write(Messages.RulesTable);
+		writer.newLine();
+		for (AbstractLTLProvider provider : controller.getLTLPropertys()) {
+			writer.writeCell("RPR1." + provider.getNumber());
+			writer.writeCell(provider.getType());
+			writer.writeCell(provider.getLinks());
+			writer.write(provider.getRefinedSafetyConstraint());
+			writer.newLine();
 		}
-		writer.println();
+		writer.newLine();
 	}
-	private void getRUCATableString(PrintWriter writer){
-		writer.println(PrivMessages.RefinedUnsecureControlActions + " of project " + controller.getProjectName());
+
+	private void getRUCATableString(BufferedCSVWriter writer) throws IOException {
+		writer.write(
+				PrivMessages.RefinedUnsecureControlActions + " of project " + controller.getProjectName());
+		writer.newLine();
 		ArrayList<AbstractLTLProvider> list_notProvided;
 		ArrayList<AbstractLTLProvider> list_provided;
 		ArrayList<AbstractLTLProvider> list_wrongProvided;
 
-		writer.print(Messages.ControlAction);
-		writer.print("Vulnerable if not provided");
-		writer.print("Vulnerable if provided");
-		writer.print("Vulnerable if wrong provided");
-		for(IControlAction action : controller.getAllControlActionsU()){
+		writer.writeCell(Messages.ControlAction);
+		writer.writeCell("Vulnerable if not provided");
+		writer.writeCell("Vulnerable if provided");
+		writer.write("Vulnerable if wrong provided");
+		for (IControlAction action : controller.getAllControlActionsU()) {
 
 			list_notProvided = new ArrayList<>();
 			list_provided = new ArrayList<>();
 			list_wrongProvided = new ArrayList<>();
-			for(AbstractLTLProvider provider: action.getAllRefinedRules()){
-				if(provider.getType().equals(IValueCombie.TYPE_NOT_PROVIDED)){
+			for (AbstractLTLProvider provider : action.getAllRefinedRules()) {
+				if (provider.getType().equals(IValueCombie.TYPE_NOT_PROVIDED)) {
 					list_notProvided.add(provider);
-				}else if(provider.getType().equals(IValueCombie.TYPE_ANYTIME)){
+				} else if (provider.getType().equals(IValueCombie.TYPE_ANYTIME)) {
 					list_provided.add(provider);
-				}else if(provider.getType().equals(IValueCombie.TYPE_TOO_EARLY)){
+				} else if (provider.getType().equals(IValueCombie.TYPE_TOO_EARLY)) {
 					list_wrongProvided.add(provider);
-				}else if(provider.getType().equals(IValueCombie.TYPE_TOO_LATE)){
+				} else if (provider.getType().equals(IValueCombie.TYPE_TOO_LATE)) {
 					list_wrongProvided.add(provider);
 				}
 			}
-			writer.println();
-			writer.println(action.getTitle() + seperator + seperator + seperator + seperator);
+			writer.newLine();
+			writer.writeCell(action.getTitle());
+			writer.writeCell();
+			writer.writeCell();
+			writer.writeCell();
+			writer.newLine();
 			int loopSize = Math.max(list_notProvided.size(), list_provided.size());
 			loopSize = Math.max(loopSize, list_wrongProvided.size());
-			for(int i=0;i<loopSize;i++){
-				
-				writer.print(seperator);
-				writer.print(getRucaID(list_notProvided, i));
-				writer.print(getRucaID(list_provided, i));
-				writer.print(getRucaID(list_wrongProvided, i));
-				
-				writer.println();
-				writer.print(seperator);
-				//print line of ruca descriptions
-				writer.print(getRUCA(list_notProvided, i));
-				writer.print(getRUCA(list_provided, i));
-				writer.print(getRUCA(list_wrongProvided, i));
-				
-				writer.println();
-				writer.print(seperator);
+			for (int i = 0; i < loopSize; i++) {
+
+				writer.writeCell();
+				writer.writeCell(getRucaID(list_notProvided, i));
+				writer.writeCell(getRucaID(list_provided, i));
+				writer.writeCell(getRucaID(list_wrongProvided, i));
+
+				writer.newLine();
+				writer.writeCell();
+				// print line of ruca descriptions
+				writer.writeCell(getRUCA(list_notProvided, i));
+				writer.writeCell(getRUCA(list_provided, i));
+				writer.writeCell(getRUCA(list_wrongProvided, i));
+
+				writer.newLine();
+				writer.writeCell();
 				//
-				writer.print(getLinks(list_notProvided, i));
-				writer.print(getLinks(list_provided, i));
-				writer.print(getLinks(list_wrongProvided, i));
-				writer.println();
-				writer.println(seperator + seperator + seperator + seperator);
-				
+				writer.writeCell(getLinks(list_notProvided, i));
+				writer.writeCell(getLinks(list_provided, i));
+				writer.writeCell(getLinks(list_wrongProvided, i));
+				writer.newLine();
+				writer.writeCell();
+				writer.writeCell();
+				writer.writeCell();
+				writer.writeCell();
+				writer.newLine();
+
 			}
 		}
-		
-		writer.println();
+
+		writer.newLine();
 	}
-	private String getLinks(List<AbstractLTLProvider> list, int index){
-		if(index < list.size() && list.get(index).getLinks() != null){
-			return list.get(index).getLinks() + seperator;
+
+	private String getLinks(List<AbstractLTLProvider> list, int index) {
+		if (index < list.size()) {
+			return list.get(index).getLinks();
 		}
-		return seperator;
-		
+		return null;
+
 	}
-	private String getRUCA(List<AbstractLTLProvider> list, int index){
-		if(index < list.size()){
-			return list.get(index).getRefinedUCA() + seperator;
+
+	private String getRUCA(List<AbstractLTLProvider> list, int index) {
+		if (index < list.size()) {
+			return list.get(index).getRefinedUCA();
 		}
-		return seperator;
-		
+		return null;
+
 	}
-	private String getRucaID(List<AbstractLTLProvider> list, int index){
-		if(index < list.size()){
-			return "RPCA1." +list.get(index).getNumber() + seperator;
+
+	private String getRucaID(List<AbstractLTLProvider> list, int index) {
+		if (index < list.size()) {
+			return "RPCA1." + list.get(index).getNumber();
 		}
-		return seperator;
-		
+		return null;
+
 	}
-	private void getRefinedConstraintsString(PrintWriter writer){
-		writer.println(PrivMessages.RefinedSecurityConstraintsTable + " of project " + controller.getProjectName());
-		writer.print("ID" +seperator);
-		writer.println("Refined Privacy Constraint");
-		for(AbstractLTLProvider provider: controller.getLTLPropertys()){
-			writer.print("PC3." +provider.getNumber() +seperator);
-			writer.println(provider.getRefinedSafetyConstraint());
+
+	private void getRefinedConstraintsString(BufferedCSVWriter writer) throws IOException {
+		writer.write(
+				PrivMessages.RefinedSecurityConstraintsTable + " of project " + controller.getProjectName());
+		writer.newLine();
+		writer.writeCell("ID");
+		writer.write("Refined Privacy Constraint");
+		writer.newLine();
+		for (AbstractLTLProvider provider : controller.getLTLPropertys()) {
+			writer.writeCell("PC3." + provider.getNumber());
+			writer.write(provider.getRefinedSafetyConstraint());
+			writer.newLine();
 		}
-		writer.println();
+		writer.newLine();
 	}
 
 	public void setEnablePreview(boolean enablePreview) {
@@ -11,11 +11,12 @@
 package xstampp.stpasec.util.jobs;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Observable;
 import java.util.UUID;
 
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -34,13 +35,15 @@ import xstampp.stpasec.messages.SecMessages;
 import xstampp.ui.common.ProjectManager;
 import xstampp.ui.wizards.AbstractExportPage;
 import xstampp.util.ExportPackage;
+import xstampp.util.JAXBExportJob;
+import xstampp.util.ParallelJobQueue;
 import xstampp.util.STPAPluginUtils;
 import xstampp.util.XstamppJob;
 
 /**
  * an export job which run s a complete export in all available formats.
- * the export is managed through the implementation of<code> IJobChangeListener</code>
- * which counts all scheduled jobs and notifys the system when the export is finished
+ * the model is prepared and marshalled only once, all exports then share the marshalled model
+ * and are run in parallel by a {@link ParallelJobQueue}, the system is notified when the export is finished
  * 
  * @author Lukas Balzer
  * @since 2.0
@@ -82,7 +85,13 @@ public class Run extends XstamppJob{
 	 */
 	public static final String EX_CSV_DIR=Extended_DIR+File.separator+"csv"; //$NON-NLS-1$
 	
-	private List<Job> jobList;
+	private ParallelJobQueue jobQueue;
+	private byte[] modelXml;
+	/**
+	 * the report job as long as its control structure images have been created but it has not been
+	 * scheduled yet, the images are deleted by the job itself once it is done
+	 */
+	private ExportJob unscheduledReport;
 	private static final int CSV_WORK = 1;
 	private static final int XSL_WORK = 4;
 	private static final int CS_IMG_WORK = 1;
@@ -139,7 +148,7 @@ public class Run extends XstamppJob{
 		this.exportPDFs = true;
 		this.exportReport=true;
 		this.isCanceled = false;
-		this.jobList = new ArrayList<>();
+		this.jobQueue = new ParallelJobQueue();
 	}
 
 	@Override
@@ -150,9 +159,7 @@ public class Run extends XstamppJob{
 	@Override
 	protected void canceling() {
 		this.isCanceled = true;
-		for(Job job : this.jobList){
-			job.cancel();
-		}
+		this.jobQueue.cancel();
 		super.canceling();
 	}
 	@Override
@@ -160,6 +167,18 @@ public class Run extends XstamppJob{
 		monitor.beginTask("Main Run Export...", calcWork());
 		String fileName;
 		ProjectManager.getContainerInstance().getDataModel(getProjectID()).prepareForExport();
+		ExportJob pdfRepJob = null;
+		if(this.exportReport){
+			ExportPackage data = new ExportPackage(getJobName("Final Report"),
+					this.dir + getName()+".pdf", //$NON-NLS-1$
+					"/fopxsl.xsl", PrivacyController.class);
+			pdfRepJob = new ExportJob(getProjectID(), data, true, false); //$NON-NLS-1$
+			pdfRepJob.setCSDirty();
+			// the control structure images must be stored in the model before it is marshalled
+			pdfRepJob.createCSImages();
+			this.unscheduledReport = pdfRepJob;
+		}
+		this.modelXml = marshalModel();
 		
 		for(int i= 0;i<ICSVExportConstants.STEPS.size() && this.exportCSVs;i++){
 			
@@ -167,19 +186,17 @@ public class Run extends XstamppJob{
 			StpaCSVExport job = new StpaCSVExport(getJobName(fileName),this.dir+ CSV_DIR + File.separator + fileName,
 										 	';',ProjectManager.getContainerInstance().getDataModel(getProjectID()),1<<i);
 			job.showPreview(false);
-			if(!addJob(job)){
+			if(!addJob(job, CSV_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(CSV_WORK);
 		}
 		if(this.exportExtendedCSVs){
 			fileName = "Extended STPA Data.csv";
 			XCSVExportJob export = new XCSVExportJob(getJobName(fileName),	this.dir+ EX_CSV_DIR + File.separator + fileName,
 					';',ProjectManager.getContainerInstance().getDataModel(getProjectID()),XCSVExportJob.REFINED_DATA);
-			if(!addJob(export)){
+			if(!addJob(export, CSV_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(CSV_WORK);
 		}
 		for(int i= 0;i<this.xslMap.length && this.exportImages;i+=2){
 			fileName = this.xslMap[i] +".png";
@@ -189,10 +206,9 @@ public class Run extends XstamppJob{
 			ExportJob job = new ExportJob(getProjectID(), data, true, false);
 			job.setPageFormat(exportImagesFormat);
 			job.showPreview(false);
-			if(!addJob(job)){
+			if(!addJob(job, XSL_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(XSL_WORK);
 		}
 		for(int i= 0;i<this.xstpaXslMap.length && this.exportExtendedIMGs;i+=2){
 			fileName = this.xstpaXslMap[i] +".png";
@@ -202,10 +218,9 @@ public class Run extends XstamppJob{
 			ExportJob job = new ExportJob(getProjectID(), data, true, false);
 			job.setPageFormat(exportExtendedIMGsFormat);
 			job.showPreview(false);
-			if(!addJob(job)){
+			if(!addJob(job, XSL_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(XSL_WORK);
 		}
 		if(this.exportImages || this.exportReport){
 			String csPath = this.dir+ IMAGE_DIR + File.separator + Messages.ControlStructure +".png";
@@ -213,13 +228,12 @@ public class Run extends XstamppJob{
 			CSExportJob job = new CSExportJob(csPath, 5	, CSEditor.ID, getProjectID(), false,this.decorateCS);
 			CSExportJob pmJob = new CSExportJob(csPMPath, 5	, CSEditorWithPM.ID, getProjectID(), false,this.decorateCS);
 			
-			if(!addJob(job)){
+			if(!addJob(job, CS_IMG_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			if(!addJob(pmJob)){
+			if(!addJob(pmJob, 0, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(CS_IMG_WORK);
 		}
 		for(int i= 0;i<this.xslMap.length && this.exportPDFs;i+=2){
 			ExportPackage data = new ExportPackage("Expoting " +this.xslMap[i] +".pdf",
@@ -228,10 +242,9 @@ public class Run extends XstamppJob{
 			ExportJob pdfJob = new ExportJob(getProjectID(), data, true, false);
 			pdfJob.showPreview(false);
 			pdfJob.setPageFormat(exportPDFsFormat);
-			if(!addJob(pdfJob)){
+			if(!addJob(pdfJob, XSL_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(XSL_WORK);
 		}
 		for(int i= 0;i<this.xstpaXslMap.length && this.exportExtendedPDFs;i+=2){
 			ExportPackage data = new ExportPackage("Expoting " +this.xstpaXslMap[i] +".pdf",
@@ -240,23 +253,20 @@ public class Run extends XstamppJob{
 			ExportJob pdfJob = new ExportJob(getProjectID(), data, true, false);
 			pdfJob.setPageFormat(exportExtendedPDFsFormat);
 			pdfJob.showPreview(false);
-			if(!addJob(pdfJob)){
+			if(!addJob(pdfJob, XSL_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(XSL_WORK);
 		}
-		if(this.exportReport){
-			ExportPackage data = new ExportPackage(getJobName("Final Report"),
-					this.dir + getName()+".pdf", //$NON-NLS-1$
-					"/fopxsl.xsl", PrivacyController.class);
-			ExportJob pdfRepJob = new ExportJob(getProjectID(), data, true, false); //$NON-NLS-1$
-			pdfRepJob.setCSDirty();
+		if(pdfRepJob != null){
 			pdfRepJob.setPageFormat(exportReportFormat);
 			pdfRepJob.showPreview(false);
-			if(!addJob(pdfRepJob)){
+			if(!addJob(pdfRepJob, REPORT_WORK, monitor)){
 				return Status.CANCEL_STATUS;
 			}
-			monitor.worked(REPORT_WORK);
+			this.unscheduledReport = null;
+		}
+		if(!this.jobQueue.joinAll(monitor)){
+			return Status.CANCEL_STATUS;
 		}
 		return Status.OK_STATUS;
 	}
@@ -264,20 +274,31 @@ public class Run extends XstamppJob{
 	private String getJobName(String file){
 		return "Exporting "+ getName() + " - " +file+"...";
 	}
+
+	/**
+	 * marshals the prepared model once so that it can be shared by all xsl exports
+	 * 
+	 * @return the xml of the model or <code>null</code> if it could not be marshalled in which case
+	 * 			each export marshals the model itself
+	 */
+	private byte[] marshalModel(){
+		try {
+			return JAXBExportJob.marshal(JAXBContext.newInstance(PrivacyController.class),
+					ProjectManager.getContainerInstance().getDataModel(getProjectID()));
+		} catch (JAXBException e) {
+			ProjectManager.getLOGGER().error(e.getMessage(), e);
+			return null;
+		}
+	}
 	
-	private boolean addJob(Job job){
+	private boolean addJob(Job job, int work, IProgressMonitor monitor){
 		if(this.isCanceled){
 			return false;
 		}
-		try {
-			job.schedule();
-			job.join();
-			this.jobList.add(job);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+		if(job instanceof JAXBExportJob){
+			((JAXBExportJob) job).setModelXml(this.modelXml);
 		}
-		return true;
-		
+		return this.jobQueue.add(job, work, monitor);
 	}
 
 	/**
@@ -313,6 +334,10 @@ public class Run extends XstamppJob{
 	}
 	@Override
 	public void done(IJobChangeEvent event) {
+		if(this.unscheduledReport != null){
+			this.unscheduledReport.deleteCSImages();
+			this.unscheduledReport = null;
+		}
 		if(this.isCanceled){
 			ProjectManager.getLOGGER().debug("STPA run export was canceled"); //$NON-NLS-1$
 		}else{
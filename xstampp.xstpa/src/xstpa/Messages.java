@@ -16,6 +16,14 @@ public class Messages extends NLS {
 	private static final String BUNDLE_NAME = "xstpa.messages"; //$NON-NLS-1$
 	public static String AddsNewTableEntry;
 	public static String ChecksTableForConflicts;
+	public static String ClassificationDialog_AddPattern;
+	public static String ClassificationDialog_Apply;
+	public static String ClassificationDialog_Pattern;
+	public static String ClassificationDialog_Patterns;
+	public static String ClassificationDialog_Preview;
+	public static String ClassificationDialog_RemovePattern;
+	public static String ClassificationDialog_Title;
+	public static String ClassifiesTableByPatterns;
 	public static String ContextTableContext_NotProvided;
 	public static String ContextTableContext_Provided;
 	public static String ContextTableFilter_All;
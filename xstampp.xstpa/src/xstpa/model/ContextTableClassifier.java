@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstpa.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+
+import xstampp.model.AbstractLTLProvider;
+import xstampp.model.IValueCombie;
+
+/**
+ * Classifies the rows of a context table by a set of patterns.<br>
+ * A pattern consists of variable=value tuples, variables that are not part of the pattern or
+ * are mapped to the (don't care) value match any value. The patterns are compiled into one
+ * {@link BitSet} per variable value which contains a bit for each pattern that accepts the value,
+ * so that the patterns matching a row are found by intersecting one bit set per column.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class ContextTableClassifier {
+
+	/**
+	 * a partial value combination which marks all matching rows as hazardous for one type
+	 */
+	public static class Pattern{
+		private final Map<UUID,UUID> values;
+		private final String type;
+
+		/**
+		 * @param values the values of the pattern mapped to their variable ids
+		 * @param type one of the <code>TYPE</code> constants defined in {@link IValueCombie}
+		 */
+		public Pattern(Map<UUID,UUID> values, String type) {
+			this.values = new HashMap<>(values);
+			this.type = type;
+		}
+
+		/**
+		 * @return a copy of the values of the pattern mapped to their variable ids
+		 */
+		public Map<UUID, UUID> getValues() {
+			return new HashMap<>(this.values);
+		}
+
+		public String getType() {
+			return this.type;
+		}
+	}
+
+	/**
+	 * a change of one hazardous flag of a context table row which has been proposed by the classifier
+	 */
+	public static class Change{
+		private final ContextTableCombination combination;
+		private final String type;
+		private final boolean hazardous;
+
+		private Change(ContextTableCombination combination, String type, boolean hazardous) {
+			this.combination = combination;
+			this.type = type;
+			this.hazardous = hazardous;
+		}
+
+		public ContextTableCombination getCombination() {
+			return this.combination;
+		}
+
+		public String getType() {
+			return this.type;
+		}
+
+		/**
+		 * @return the new value of the flag
+		 */
+		public boolean isHazardous() {
+			return this.hazardous;
+		}
+	}
+
+	private final List<Pattern> patterns;
+	private final UUID ignoreId;
+	private List<UUID> variables;
+	private List<Map<UUID,BitSet>> index;
+	private List<BitSet> unconstrained;
+	private Map<String,BitSet> typeMasks;
+
+	/**
+	 * @param ignoreId the id of the (don't care) value
+	 */
+	public ContextTableClassifier(UUID ignoreId) {
+		this.ignoreId = ignoreId;
+		this.patterns = new ArrayList<>();
+	}
+
+	/**
+	 * adds a pattern to this classifier, the classifier must be recompiled after adding a pattern
+	 *
+	 * @param pattern the pattern
+	 */
+	public void addPattern(Pattern pattern){
+		this.patterns.add(pattern);
+		this.index = null;
+	}
+
+	public List<Pattern> getPatterns() {
+		return new ArrayList<>(this.patterns);
+	}
+
+	public boolean removePattern(Pattern pattern){
+		this.index = null;
+		return this.patterns.remove(pattern);
+	}
+
+	/**
+	 * adds a pattern for every rule that is stored in the data model for the given control action entry,
+	 * the pattern is build from the ids of the critical values which are stored with the rule.<br>
+	 * Rules which have been stored without these ids are matched with the combinations of the entry
+	 * they have been generated for in this session
+	 *
+	 * @param entry a control action entry
+	 * @param rules the rules currently stored in the data model
+	 */
+	public void addRulePatterns(ControlActionEntry entry, List<AbstractLTLProvider> rules){
+		List<ContextTableCombination> combinations = entry.getContextTableCombinations(false);
+		Map<UUID,UUID> valueVariables = new HashMap<>();
+		for (ContextTableCombination combination : combinations) {
+			for (Entry<UUID, UUID> mapping : combination.getValueIDTOVariableIdMap().entrySet()) {
+				valueVariables.put(mapping.getValue(), mapping.getKey());
+			}
+		}
+		Set<UUID> ruleIds = new HashSet<>();
+		for (AbstractLTLProvider rule : rules) {
+			if(!entry.getId().equals(rule.getRelatedControlActionID())){
+				continue;
+			}
+			if(rule.getCriticalValueIds() == null){
+				ruleIds.add(rule.getRuleId());
+			}else{
+				addRulePattern(rule, valueVariables);
+			}
+		}
+		if(ruleIds.isEmpty()){
+			return;
+		}
+		for (ContextTableCombination combination : combinations) {
+			addRulePattern(combination, combination.getAnytimeRule(), IValueCombie.TYPE_ANYTIME, ruleIds);
+			addRulePattern(combination, combination.getTooEarlyRule(), IValueCombie.TYPE_TOO_EARLY, ruleIds);
+			addRulePattern(combination, combination.getTooLateRule(), IValueCombie.TYPE_TOO_LATE, ruleIds);
+			addRulePattern(combination, combination.getNotProvidedRule(), IValueCombie.TYPE_NOT_PROVIDED, ruleIds);
+		}
+	}
+
+	/**
+	 * adds a pattern for the critical values of the given rule, a rule containing a value which is no longer
+	 * part of the context table is ignored as it can't match any row
+	 */
+	private void addRulePattern(AbstractLTLProvider rule, Map<UUID,UUID> valueVariables){
+		Map<UUID,UUID> values = new HashMap<>();
+		for (UUID valueId : rule.getCriticalValueIds()) {
+			if(!valueId.equals(this.ignoreId)){
+				UUID variableId = valueVariables.get(valueId);
+				if(variableId == null){
+					return;
+				}
+				values.put(variableId, valueId);
+			}
+		}
+		addPattern(new Pattern(values, rule.getType()));
+	}
+
+	private void addRulePattern(ContextTableCombination combination, UUID ruleId, String type, Set<UUID> ruleIds){
+		if(ruleId != null && ruleIds.contains(ruleId)){
+			addPattern(new Pattern(combination.getValueIDTOVariableIdMap(), type));
+		}
+	}
+
+	/**
+	 * compiles the patterns into one bit set per value of each given variable
+	 *
+	 * @param linkedVariables the variables that form the columns of the context table
+	 */
+	public void compile(List<ProcessModelVariables> linkedVariables){
+		this.variables = new ArrayList<>();
+		this.index = new ArrayList<>();
+		this.unconstrained = new ArrayList<>();
+		this.typeMasks = new HashMap<>();
+		for (ProcessModelVariables variable : linkedVariables) {
+			this.variables.add(variable.getId());
+			this.index.add(new HashMap<UUID,BitSet>());
+			this.unconstrained.add(new BitSet(this.patterns.size()));
+		}
+		for (int p = 0; p < this.patterns.size(); p++) {
+			Pattern pattern = this.patterns.get(p);
+			if(!isApplicable(pattern)){
+				// a pattern constraining a variable that is not part of the table can never match
+				continue;
+			}
+			if(!this.typeMasks.containsKey(pattern.getType())){
+				this.typeMasks.put(pattern.getType(), new BitSet(this.patterns.size()));
+			}
+			this.typeMasks.get(pattern.getType()).set(p);
+			for (int v = 0; v < this.variables.size(); v++) {
+				UUID value = pattern.values.get(this.variables.get(v));
+				if(value == null || value.equals(this.ignoreId)){
+					this.unconstrained.get(v).set(p);
+				}else{
+					if(!this.index.get(v).containsKey(value)){
+						this.index.get(v).put(value, new BitSet(this.patterns.size()));
+					}
+					this.index.get(v).get(value).set(p);
+				}
+			}
+		}
+		// every value bit set also contains the patterns which do not constrain the variable
+		for (int v = 0; v < this.variables.size(); v++) {
+			for (BitSet bits : this.index.get(v).values()) {
+				bits.or(this.unconstrained.get(v));
+			}
+		}
+	}
+
+	private boolean isApplicable(Pattern pattern){
+		for (Entry<UUID, UUID> entry : pattern.values.entrySet()) {
+			if(!entry.getValue().equals(this.ignoreId) && !this.variables.contains(entry.getKey())){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * classifies all given rows and returns the changes that would be necessary to
+	 * mark every row hazardous that is matched by at least one pattern,
+	 * the rows are not changed by this method
+	 *
+	 * @param combinations the rows of a context table
+	 * @param provided whether the rows belong to the context 'provided'
+	 * @return a list of changes which can be applied with {@link #apply(List)}
+	 */
+	public List<Change> classify(List<ContextTableCombination> combinations, boolean provided){
+		if(this.index == null){
+			throw new IllegalStateException("the classifier must be compiled before classifying rows"); //$NON-NLS-1$
+		}
+		List<Change> changes = new ArrayList<>();
+		if(combinations == null){
+			return changes;
+		}
+		String[] types;
+		if(provided){
+			types = new String[]{IValueCombie.TYPE_ANYTIME, IValueCombie.TYPE_TOO_EARLY, IValueCombie.TYPE_TOO_LATE};
+		}else{
+			types = new String[]{IValueCombie.TYPE_NOT_PROVIDED};
+		}
+		BitSet matches = new BitSet(this.patterns.size());
+		for (ContextTableCombination combination : combinations) {
+			matches.clear();
+			matches.set(0, this.patterns.size());
+			for (int v = 0; v < this.variables.size() && !matches.isEmpty(); v++) {
+				UUID value = combination.getValueIDForVariable(this.variables.get(v));
+				BitSet accepted = value == null ? null : this.index.get(v).get(value);
+				if(accepted == null){
+					accepted = this.unconstrained.get(v);
+				}
+				matches.and(accepted);
+			}
+			for (String type : types) {
+				BitSet mask = this.typeMasks.get(type);
+				if(mask != null && mask.intersects(matches) && !combination.isHazardous(type)){
+					changes.add(new Change(combination, type, true));
+				}
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * applies the given changes to their combinations
+	 *
+	 * @param changes a list of changes created by {@link #classify(List, boolean)}
+	 */
+	public static void apply(List<Change> changes){
+		for (Change change : changes) {
+			switch(change.getType()){
+				case IValueCombie.TYPE_ANYTIME:
+					change.getCombination().setHAnytime(change.isHazardous());
+					break;
+				case IValueCombie.TYPE_TOO_EARLY:
+					change.getCombination().setHEarly(change.isHazardous());
+					break;
+				case IValueCombie.TYPE_TOO_LATE:
+					change.getCombination().setHLate(change.isHazardous());
+					break;
+				case IValueCombie.TYPE_NOT_PROVIDED:
+					change.getCombination().setHazardous(change.isHazardous());
+					break;
+			}
+		}
+	}
+
+	/**
+	 * @param pattern a pattern
+	 * @param texts a map containing the texts of variables and values
+	 * @return a text representation of the pattern in the form <code>var=value, var=value</code>
+	 */
+	public static String getPatternText(Pattern pattern, Map<UUID,String> texts){
+		StringBuilder builder = new StringBuilder();
+		for (Entry<UUID, UUID> entry : pattern.values.entrySet()) {
+			if(texts.containsKey(entry.getValue())){
+				if(builder.length() > 0){
+					builder.append(", "); //$NON-NLS-1$
+				}
+				builder.append(texts.get(entry.getKey())).append('=').append(texts.get(entry.getValue()));
+			}
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstpa.model;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.xml.bind.JAXB;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.model.extendedData.RefinedSafetyRule;
+import xstampp.astpa.model.interfaces.IExtendedDataModel.ScenarioType;
+import xstampp.model.AbstractLTLProvider;
+import xstampp.model.AbstractLtlProviderData;
+import xstampp.model.IValueCombie;
+import xstpa.model.ContextTableClassifier.Change;
+import xstpa.model.ContextTableClassifier.Pattern;
+
+/**
+ * Tests the classification of context table rows by the {@link ContextTableClassifier}
+ * on a table of two variables with two and three values
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class ContextTableClassifierTest {
+
+	private UUID ignoreId;
+	private UUID varA;
+	private UUID varB;
+	private UUID[] valuesA;
+	private UUID[] valuesB;
+	private List<ProcessModelVariables> variables;
+	private List<ContextTableCombination> rows;
+
+	@Before
+	public void setUp() {
+		this.ignoreId = UUID.randomUUID();
+		this.varA = UUID.randomUUID();
+		this.varB = UUID.randomUUID();
+		this.valuesA = new UUID[]{UUID.randomUUID(), UUID.randomUUID()};
+		this.valuesB = new UUID[]{UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+		this.variables = new ArrayList<>();
+		this.variables.add(createVariable(this.varA, this.valuesA));
+		this.variables.add(createVariable(this.varB, this.valuesB));
+		this.rows = new ArrayList<>();
+		for (UUID a : this.valuesA) {
+			for (UUID b : this.valuesB) {
+				ContextTableCombination row = new ContextTableCombination();
+				row.addValueMapping(this.varA, a);
+				row.addValueMapping(this.varB, b);
+				this.rows.add(row);
+			}
+		}
+	}
+
+	/**
+	 * Tests that a pattern matches every row with the given value and treats the
+	 * missing variable as don't care
+	 */
+	@Test
+	public void singleValuePatternTest() {
+		ContextTableClassifier classifier = new ContextTableClassifier(this.ignoreId);
+		classifier.addPattern(new Pattern(values(this.valuesA[0], null), IValueCombie.TYPE_ANYTIME));
+		classifier.compile(this.variables);
+
+		List<Change> changes = classifier.classify(this.rows, true);
+		Assert.assertEquals(3, changes.size());
+		for (Change change : changes) {
+			Assert.assertEquals(this.valuesA[0], change.getCombination().getValueIDForVariable(this.varA));
+			Assert.assertEquals(IValueCombie.TYPE_ANYTIME, change.getType());
+			Assert.assertTrue(change.isHazardous());
+		}
+	}
+
+	/**
+	 * Tests that the (don't care) value matches every value and that a row matched by
+	 * several patterns of the same type is only changed once
+	 */
+	@Test
+	public void ignoreValueTest() {
+		ContextTableClassifier classifier = new ContextTableClassifier(this.ignoreId);
+		classifier.addPattern(new Pattern(values(this.ignoreId, this.valuesB[1]), IValueCombie.TYPE_TOO_LATE));
+		classifier.addPattern(new Pattern(values(this.valuesA[1], this.valuesB[1]), IValueCombie.TYPE_TOO_LATE));
+		classifier.addPattern(new Pattern(values(this.valuesA[1], this.valuesB[2]), IValueCombie.TYPE_TOO_EARLY));
+		classifier.compile(this.variables);
+
+		List<Change> changes = classifier.classify(this.rows, true);
+		Assert.assertEquals(3, changes.size());
+		int late = 0;
+		for (Change change : changes) {
+			if (IValueCombie.TYPE_TOO_LATE.equals(change.getType())) {
+				Assert.assertEquals(this.valuesB[1], change.getCombination().getValueIDForVariable(this.varB));
+				late++;
+			} else {
+				Assert.assertEquals(IValueCombie.TYPE_TOO_EARLY, change.getType());
+				Assert.assertSame(this.rows.get(5), change.getCombination());
+			}
+		}
+		Assert.assertEquals(2, late);
+	}
+
+	/**
+	 * Tests that only the types of the given context are classified, that rows which are already
+	 * hazardous are not changed and that patterns on unknown variables never match
+	 */
+	@Test
+	public void contextTest() {
+		ContextTableClassifier classifier = new ContextTableClassifier(this.ignoreId);
+		classifier.addPattern(new Pattern(values(this.valuesA[0], null), IValueCombie.TYPE_NOT_PROVIDED));
+		classifier.addPattern(new Pattern(values(this.valuesA[1], null), IValueCombie.TYPE_ANYTIME));
+		Map<UUID, UUID> unknown = values(null, null);
+		unknown.put(UUID.randomUUID(), UUID.randomUUID());
+		classifier.addPattern(new Pattern(unknown, IValueCombie.TYPE_NOT_PROVIDED));
+		classifier.compile(this.variables);
+		this.rows.get(0).setHazardous(true);
+
+		List<Change> changes = classifier.classify(this.rows, false);
+		Assert.assertEquals(2, changes.size());
+		for (Change change : changes) {
+			Assert.assertEquals(IValueCombie.TYPE_NOT_PROVIDED, change.getType());
+			Assert.assertNotSame(this.rows.get(0), change.getCombination());
+		}
+		Assert.assertTrue(classifier.classify(null, false).isEmpty());
+	}
+
+	/**
+	 * Tests that the changes are applied to the rows and that the classifier must be
+	 * recompiled after the patterns have changed
+	 */
+	@Test
+	public void applyTest() {
+		ContextTableClassifier classifier = new ContextTableClassifier(this.ignoreId);
+		Pattern pattern = new Pattern(values(null, this.valuesB[0]), IValueCombie.TYPE_TOO_EARLY);
+		classifier.addPattern(pattern);
+		classifier.compile(this.variables);
+		ContextTableClassifier.apply(classifier.classify(this.rows, true));
+		Assert.assertTrue(this.rows.get(0).getHEarly());
+		Assert.assertTrue(this.rows.get(3).getHEarly());
+		Assert.assertFalse(this.rows.get(1).getHEarly());
+		Assert.assertTrue(classifier.classify(this.rows, true).isEmpty());
+
+		Assert.assertTrue(classifier.removePattern(pattern));
+		try {
+			classifier.classify(this.rows, true);
+			Assert.fail("classify must fail on a classifier that has not been recompiled"); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		classifier.compile(this.variables);
+		Assert.assertTrue(classifier.classify(this.rows, true).isEmpty());
+	}
+
+	/**
+	 * Tests that the patterns are build from the critical values of rules which have been stored in
+	 * and loaded from a data model, the rows of the table don't know the ids of these rules
+	 */
+	@Test
+	public void storedRuleTest() {
+		DataModelController model = new DataModelController();
+		UUID controlAction = model.addControlAction("Control Action", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		UUID other = model.addControlAction("Other", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		AbstractLtlProviderData data = new AbstractLtlProviderData();
+		data.setCriticalValueIds(Arrays.asList(this.valuesA[1], this.ignoreId));
+		model.addRuleEntry(ScenarioType.BASIC_SCENARIO, data, controlAction, IValueCombie.TYPE_TOO_LATE);
+		data = new AbstractLtlProviderData();
+		data.setCriticalValueIds(Arrays.asList(this.valuesA[0], this.valuesB[0]));
+		model.addRuleEntry(ScenarioType.BASIC_SCENARIO, data, other, IValueCombie.TYPE_TOO_LATE);
+		data = new AbstractLtlProviderData();
+		data.setCriticalValueIds(Arrays.asList(this.valuesA[0], UUID.randomUUID()));
+		model.addRuleEntry(ScenarioType.BASIC_SCENARIO, data, controlAction, IValueCombie.TYPE_ANYTIME);
+
+		// the rules are read back the way they are stored in a project file
+		List<AbstractLTLProvider> rules = new ArrayList<>();
+		for (AbstractLTLProvider rule : model.getLTLPropertys()) {
+			StringWriter writer = new StringWriter();
+			JAXB.marshal(rule, writer);
+			rules.add(JAXB.unmarshal(new StringReader(writer.toString()), RefinedSafetyRule.class));
+		}
+		ControlActionEntry entry = new ControlActionEntry("provided"); //$NON-NLS-1$
+		entry.setId(controlAction);
+		entry.setContextTableCombinations(this.rows);
+
+		ContextTableClassifier classifier = new ContextTableClassifier(this.ignoreId);
+		classifier.addRulePatterns(entry, rules);
+		// the rule of the other control action and the rule with a removed value are ignored
+		Assert.assertEquals(1, classifier.getPatterns().size());
+		classifier.compile(this.variables);
+		List<Change> changes = classifier.classify(this.rows, true);
+		Assert.assertEquals(3, changes.size());
+		for (Change change : changes) {
+			Assert.assertEquals(IValueCombie.TYPE_TOO_LATE, change.getType());
+			Assert.assertEquals(this.valuesA[1], change.getCombination().getValueIDForVariable(this.varA));
+		}
+	}
+
+	private Map<UUID, UUID> values(UUID a, UUID b) {
+		Map<UUID, UUID> values = new HashMap<>();
+		if (a != null) {
+			values.put(this.varA, a);
+		}
+		if (b != null) {
+			values.put(this.varB, b);
+		}
+		return values;
+	}
+
+	private static ProcessModelVariables createVariable(UUID id, UUID[] values) {
+		ProcessModelVariables variable = new ProcessModelVariables();
+		variable.setId(id);
+		for (int i = 0; i < values.length; i++) {
+			variable.addValue("value" + i); //$NON-NLS-1$
+			variable.addValueId(values[i]);
+		}
+		return variable;
+	}
+}
@@ -27,6 +27,7 @@ public class ContextTableCombination {
 	private Map<UUID,UUID> valueIdTOvariableId = new HashMap<>();
 	private String linkedControlActionName = "";
 	private UUID linkedControlActionID = null;
+	private UUID combieId = null;
 	private String refinedSafetyRequirements ="";
 	private String context;
 	private int number;
@@ -215,6 +216,23 @@ public class ContextTableCombination {
 	}
 //
 //***********************************************************************************************
+	/**
+	 * @param type one of the <code>TYPE</code> constants defined in {@link IValueCombie}
+	 * @return whether this combination is hazardous for the given type
+	 */
+	public boolean isHazardous(String type) {
+		switch(type){
+			case IValueCombie.TYPE_ANYTIME:
+				return getHAnytime();
+			case IValueCombie.TYPE_TOO_EARLY:
+				return getHEarly();
+			case IValueCombie.TYPE_TOO_LATE:
+				return getHLate();
+			default:
+				return getGlobalHazardous();
+		}
+	}
+
 	public Boolean getConflict() {
 		return conflict;
 	}
@@ -326,6 +344,21 @@ public class ContextTableCombination {
 		this.linkedControlActionID = linkedControlActionID;
 	}
 
+	/**
+	 * @return the id of the value combination in the data model this combination has been created from,
+	 * 			or null if this combination has not yet been stored
+	 */
+	public UUID getCombieId() {
+		return this.combieId;
+	}
+
+	/**
+	 * @param combieId the id of the value combination in the data model
+	 */
+	public void setCombieId(UUID combieId) {
+		this.combieId = combieId;
+	}
+
 	/**
 	 * @return the rule
 	 */
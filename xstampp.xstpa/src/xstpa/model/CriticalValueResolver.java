@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstpa.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
+import xstampp.astpa.model.interfaces.IExtendedDataModel;
+
+/**
+ * A snapshot of the texts of all process model variables, values and control actions
+ * which is taken once before the refined rules are generated.<br>
+ * The snapshot is read only after its creation and can therefore be shared by several
+ * generation threads, components that are not contained in the snapshot are looked up in the data model.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class CriticalValueResolver {
+
+	private final IExtendedDataModel model;
+	private final Map<UUID,String> variableTexts;
+	private final Map<UUID,String> valueTexts;
+	private final Map<UUID,String> ltlNames;
+	private final String ignoreText;
+
+	/**
+	 * one variable-value tuple of a critical combination with its text already split into the operator
+	 * and the plain value text
+	 *
+	 * @author Lukas Balzer
+	 *
+	 */
+	public static class CriticalValue{
+		private static final Pattern OPERATORS = Pattern.compile("[<>=]"); //$NON-NLS-1$
+		private final String variable;
+		private final String value;
+		private final char operator;
+		private final boolean ignored;
+
+		private CriticalValue(String variable, String value, String ignoreText) {
+			this.variable = variable.trim();
+			String text = value.trim();
+			this.operator = text.isEmpty() ? ' ' : text.charAt(0);
+			this.value = OPERATORS.matcher(value).replaceAll("").trim(); //$NON-NLS-1$
+			this.ignored = this.variable.contains(ignoreText) || this.value.contains(ignoreText);
+		}
+
+		/**
+		 * appends the tuple to the given builder the same way as
+		 * {@link ContextTableCombination#getPmValues(IExtendedDataModel, String, boolean, boolean)} formats it
+		 *
+		 * @param builder the builder to append to
+		 * @param equalsSeq the sequence that is used to separate the variable from the value
+		 * @param parseBoolean whether or not  boolean expressions should be translated into natural language
+		 * @param useSpaces whether the variable, the equals sequence and the value should be separated by spaces
+		 */
+		void appendTo(StringBuilder builder, String equalsSeq, boolean parseBoolean, boolean useSpaces){
+			String prefix = equalsSeq.trim();
+			if(operator == '>' || operator == '<' || operator == '='){
+				if(!parseBoolean){
+					if(operator != '='){
+						prefix = String.valueOf(operator);
+					}
+				}else{
+					if(operator == '<'){
+						prefix = "is less than"; //$NON-NLS-1$
+					}else if(operator == '>'){
+						prefix = "is greater than"; //$NON-NLS-1$
+					}
+				}
+			}
+			builder.append(variable);
+			if(useSpaces){
+				builder.append(' ').append(prefix).append(' ');
+			}else{
+				builder.append(prefix);
+			}
+			builder.append(value);
+		}
+
+		/**
+		 * @return whether this tuple contains the (don't care) value and should therefore not
+		 * 			be part of any generated formula
+		 */
+		public boolean isIgnored() {
+			return this.ignored;
+		}
+	}
+
+	/**
+	 * creates a resolver which doesn't contain any texts and looks up every component in the data model
+	 *
+	 * @param model the data model
+	 */
+	public CriticalValueResolver(IExtendedDataModel model) {
+		this.model = model;
+		this.variableTexts = new HashMap<>();
+		this.valueTexts = new HashMap<>();
+		this.ltlNames = new HashMap<>();
+		this.ignoreText = model.getIgnoreLTLValue().getText();
+	}
+
+	/**
+	 * creates a resolver containing the texts of all values and variables currently
+	 * stored in the given controller
+	 *
+	 * @param controller the XSTPADataController which stores the process model values
+	 */
+	public CriticalValueResolver(XSTPADataController controller) {
+		this(controller.getModel());
+		for (ProcessModelValue value : controller.getValuesList(true)) {
+			this.valueTexts.put(value.getId(), value.getValueText());
+			if(value.getVariableID() != null){
+				this.variableTexts.put(value.getVariableID(), value.getPMV());
+			}
+		}
+		for (ControlActionEntry entry : controller.getDependenciesIFProvided()) {
+			this.ltlNames.put(entry.getId(), entry.getControlAction().replace(" ", "")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * resolves the value mappings of the given combination into a list of critical values
+	 *
+	 * @param combination a combination of process model values
+	 * @return a list with one {@link CriticalValue} for each variable-value mapping of the combination
+	 */
+	public List<CriticalValue> resolve(ContextTableCombination combination){
+		Map<UUID,UUID> mappings = combination.getValueIDTOVariableIdMap();
+		List<CriticalValue> values = new ArrayList<>(mappings.size());
+		for (Entry<UUID, UUID> valueMapping : mappings.entrySet()) {
+			values.add(new CriticalValue(getText(this.variableTexts, valueMapping.getKey()),
+										getText(this.valueTexts, valueMapping.getValue()),
+										this.ignoreText));
+		}
+		return values;
+	}
+
+	/**
+	 * @param combination a combination linked to a control action
+	 * @return the name of the linked control action without any white spaces as it is used in the LTL formulas
+	 */
+	public String getLTLName(ContextTableCombination combination){
+		String name = this.ltlNames.get(combination.getLinkedControlActionID());
+		if(name == null){
+			name = combination.getLinkedControlActionName().replace(" ", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return name;
+	}
+
+	private String getText(Map<UUID,String> texts, UUID id){
+		String text = texts.get(id);
+		if(text == null){
+			IRectangleComponent component = this.model.getComponent(id);
+			text = component == null ? "" : component.getText(); //$NON-NLS-1$
+		}
+		return text;
+	}
+}
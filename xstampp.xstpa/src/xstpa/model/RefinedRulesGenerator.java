@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import xstampp.astpa.model.interfaces.IExtendedDataModel;
+import xstampp.model.IValueCombie;
+
+/**
+ * Generates the {@link RefinedSafetyEntry}s for a list of control action entries.<br>
+ * The refined texts and ltl formulas are calculated in parallel for each control action and
+ * each hazard type, the results are numbered in the same order as they would have been when
+ * generated one by one and can then be stored in the data model with {@link #commit(List)}.
+ * All generators share one executor, small tables are calculated in the calling thread.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class RefinedRulesGenerator {
+
+	private static final String[] PROVIDED_TYPES = new String[]{IValueCombie.TYPE_ANYTIME,
+																IValueCombie.TYPE_TOO_EARLY,
+																IValueCombie.TYPE_TOO_LATE};
+	/**
+	 * below this number of combinations the entries are calculated in the calling thread
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
+	private static ExecutorService executor;
+	private final IExtendedDataModel model;
+	private final CriticalValueResolver resolver;
+
+	/**
+	 * @param controller the controller which provides the process model values used to resolve the names
+	 */
+	public RefinedRulesGenerator(XSTPADataController controller) {
+		this.model = controller.getModel();
+		this.resolver = new CriticalValueResolver(controller);
+	}
+
+	/**
+	 * calculates the refined entries for all hazardous combinations of the given entries,
+	 * combinations with conflicts are ignored
+	 *
+	 * @param providedEntries the control action entries for the context 'provided'
+	 * @param notProvidedEntries the control action entries for the context 'not provided', must have the same
+	 * 				order as the <code>providedEntries</code>
+	 * @return a list containing one list of calculated entries for each control action
+	 * @throws ExecutionException if the calculation of an entry has failed or the calculation has been interrupted,
+	 * 				in that case no entry has been stored in the data model
+	 */
+	public List<List<RefinedSafetyEntry>> generate(List<ControlActionEntry> providedEntries,
+													List<ControlActionEntry> notProvidedEntries) throws ExecutionException{
+		List<Callable<RefinedSafetyEntry[]>> tasks = new ArrayList<>();
+		int rows = 0;
+		for (int i = 0; i < providedEntries.size(); i++) {
+			List<ContextTableCombination> provided = providedEntries.get(i).getContextTableCombinations(false);
+			List<ContextTableCombination> notProvided = notProvidedEntries.get(i).getContextTableCombinations(false);
+			for (String type : PROVIDED_TYPES) {
+				tasks.add(createTask(provided, type));
+			}
+			tasks.add(createTask(notProvided, IValueCombie.TYPE_NOT_PROVIDED));
+			rows += provided.size() + notProvided.size();
+		}
+		List<RefinedSafetyEntry[]> results;
+		if(providedEntries.size() <= 1 || rows < PARALLEL_THRESHOLD){
+			results = callAll(tasks);
+		}else{
+			results = invokeAll(tasks);
+		}
+		List<List<RefinedSafetyEntry>> entries = new ArrayList<>();
+		int count = 0;
+		for (int i = 0; i < results.size(); i += PROVIDED_TYPES.length + 1) {
+			List<RefinedSafetyEntry> caEntries = new ArrayList<>();
+			RefinedSafetyEntry[] anytime = results.get(i);
+			RefinedSafetyEntry[] tooEarly = results.get(i + 1);
+			RefinedSafetyEntry[] tooLate = results.get(i + 2);
+			// the entries of the provided context are numbered combination by combination
+			for (int j = 0; j < anytime.length; j++) {
+				for (RefinedSafetyEntry entry : new RefinedSafetyEntry[]{anytime[j], tooEarly[j], tooLate[j]}) {
+					if(entry != null){
+						count++;
+						entry.setNumber(count);
+						caEntries.add(entry);
+					}
+				}
+			}
+			for (RefinedSafetyEntry entry : results.get(i + 3)) {
+				if(entry != null){
+					count++;
+					entry.setNumber(count);
+					caEntries.add(entry);
+				}
+			}
+			entries.add(caEntries);
+		}
+		return entries;
+	}
+
+	/**
+	 * runs the tasks one after another in the calling thread
+	 */
+	private static List<RefinedSafetyEntry[]> callAll(List<Callable<RefinedSafetyEntry[]>> tasks) throws ExecutionException{
+		List<RefinedSafetyEntry[]> results = new ArrayList<>(tasks.size());
+		for (Callable<RefinedSafetyEntry[]> task : tasks) {
+			try {
+				results.add(task.call());
+			} catch (Exception e) {
+				throw new ExecutionException(e);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * runs the tasks in parallel on the shared executor and waits for all of them
+	 */
+	private static List<RefinedSafetyEntry[]> invokeAll(List<Callable<RefinedSafetyEntry[]>> tasks) throws ExecutionException{
+		List<RefinedSafetyEntry[]> results = new ArrayList<>(tasks.size());
+		try {
+			for (Future<RefinedSafetyEntry[]> future : getExecutor().invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExecutionException(e);
+		}
+		return results;
+	}
+
+	/**
+	 * @return the executor which is shared by all generators, it is created on the first use and its
+	 * 			daemon threads are terminated when they have been idle for a minute
+	 */
+	private static synchronized ExecutorService getExecutor(){
+		if(executor == null){
+			int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+															new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Refined Rules Generator"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * stores all given entries in the data model, the caller is responsible for locking the model update
+	 *
+	 * @param entries the entries as returned by {@link #generate(List, List)}
+	 */
+	public void commit(List<List<RefinedSafetyEntry>> entries){
+		for (List<RefinedSafetyEntry> caEntries : entries) {
+			for (RefinedSafetyEntry entry : caEntries) {
+				entry.commit();
+			}
+		}
+	}
+
+	private Callable<RefinedSafetyEntry[]> createTask(final List<ContextTableCombination> combinations, final String type){
+		return new Callable<RefinedSafetyEntry[]>() {
+
+			@Override
+			public RefinedSafetyEntry[] call() throws Exception {
+				RefinedSafetyEntry[] entries = new RefinedSafetyEntry[combinations.size()];
+				for (int i = 0; i < entries.length; i++) {
+					ContextTableCombination combination = combinations.get(i);
+					if(!combination.getConflict() && combination.isHazardous(type)){
+						entries[i] = RefinedSafetyEntry.createEntry(type, combination, model);
+						entries[i].calculate(resolver);
+					}
+				}
+				return entries;
+			}
+		};
+	}
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package xstpa.model;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +18,7 @@ import xstampp.astpa.model.interfaces.IExtendedDataModel;
 import xstampp.astpa.model.interfaces.ITableModel;
 import xstampp.model.AbstractLtlProviderData;
 import xstampp.model.IValueCombie;
+import xstpa.model.CriticalValueResolver.CriticalValue;
 
 /**
  * an object of this class is used to generate the refined data of a hazardous process state.
@@ -43,6 +45,8 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	private String refinedRule;
 	private String ruca;
 	private String ltlProperty;
+	private List<CriticalValue> criticalValues;
+	private String controlActionLiteral;
 	
 	/**
 	 * This private constructor is only called by one of the four static methods provided by this class
@@ -79,9 +83,11 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	 * @return A string containing the critical combinations separated by the equalsSeq
 	 */
 	public String getCriticalCombinations(String equalsSeq, String andSeq, boolean useBrackets, boolean parseBoolean, boolean useSpaces){
-		String temp ="";
+		if(this.criticalValues == null){
+			this.criticalValues = new CriticalValueResolver(model).resolve(variable);
+		}
+		StringBuilder temp = new StringBuilder();
 		
-		List<String> valueCombies = variable.getPmValues(model, equalsSeq, parseBoolean, useSpaces);
 		String andLiteral = andSeq.trim();
 		if(useSpaces){
 			andLiteral = andLiteral +' ';
@@ -89,24 +95,21 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 		if(!andLiteral.equals(",") && useSpaces){
 			andLiteral = ' ' + andLiteral;
 		}
-		for (int i=0; i<valueCombies.size(); i++){
-			if(!valueCombies.get(i).contains(model.getIgnoreLTLValue().getText())){
+		for (CriticalValue value : this.criticalValues){
+			if(!value.isIgnored()){
+				if(temp.length() > 0){
+					temp.append(andLiteral);
+				}
 				if(useBrackets){
-					temp = temp.concat('(' + valueCombies.get(i) + ')');
+					temp.append('(');
+					value.appendTo(temp, equalsSeq, parseBoolean, useSpaces);
+					temp.append(')');
 				}else{
-					temp = temp.concat(valueCombies.get(i));
+					value.appendTo(temp, equalsSeq, parseBoolean, useSpaces);
 				}
-	
-				temp = temp.concat(andLiteral);
-				
 			}
 		}
-		try{
-			temp = temp.substring(0, temp.length() - andLiteral.length());
-		}catch(Exception e){
-			
-		}
-		return temp;
+		return temp.toString();
 	}
 	
 	public String getUCALinks(){
@@ -123,16 +126,36 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	}
 	
 	private void update(){
-		
+		calculate(new CriticalValueResolver(model));
+		commit();
+	}
+
+	/**
+	 * calculates the refined texts and the ltl property of this entry without
+	 * accessing the data model, this method can therefore be called concurrently for different entries
+	 * 
+	 * @param resolver a resolver containing the texts of the process model components
+	 */
+	void calculate(CriticalValueResolver resolver){
+		this.criticalValues = resolver.resolve(variable);
+		this.controlActionLiteral = "(controlAction==" + resolver.getLTLName(variable) + ")"; //$NON-NLS-1$ //$NON-NLS-2$
 		calcConstraint();
 		calcLTL();
 		calcRUCA();
 		calcRule();
+	}
+
+	/**
+	 * stores the calculated data in the data model, must be called after {@link #calculate(CriticalValueResolver)}
+	 * and should be called while the update of the model is locked
+	 */
+	void commit(){
 		AbstractLtlProviderData data = new AbstractLtlProviderData();
 		data.setRefinedUca(getRefinedUCA());
 		data.setRelatedUcas(getUCALinkIDs());
 		data.setRefinedConstraint(constraint);
 		data.setCombies(getCriticalCombinations("==", ",", false, false, false));
+		data.setCriticalValueIds(new ArrayList<>(variable.getValueIDTOVariableIdMap().values()));
 		data.setLtl(getLTLProperty());
 		data.setRule(getRefinedRule());
 		if(this.getDataRef() != null){
@@ -141,7 +164,20 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 			setDataRef(model.addRuleEntry(IExtendedDataModel.ScenarioType.BASIC_SCENARIO,data,	variable.getLinkedControlActionID(),
 											             type));
 		}
-		
+		switch(type){
+			case IValueCombie.TYPE_ANYTIME:
+				variable.setAnytimeRule(getDataRef());
+				break;
+			case IValueCombie.TYPE_TOO_EARLY:
+				variable.setTooEarlyRule(getDataRef());
+				break;
+			case IValueCombie.TYPE_TOO_LATE:
+				variable.setTooLateRule(getDataRef());
+				break;
+			case IValueCombie.TYPE_NOT_PROVIDED:
+				variable.setNotProvidedRule(getDataRef());
+				break;
+		}
 	}
 	public String getRelatedHazards() {
 
@@ -158,12 +194,12 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	}
 	
 	private void calcRUCA(){	
-		StringBuffer buffer = new StringBuffer();
-		buffer.append("The "+variable.getLinkedControlActionName());
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("The ").append(variable.getLinkedControlActionName());
 		buffer.append(" command is ");
 		buffer.append(getContext());//$NON-NLS-1$
 		if(!getType().equals(IValueCombie.TYPE_NOT_PROVIDED)){
-			buffer.append(" " + getType());
+			buffer.append(' ').append(getType());
 		}
 		String criticalString =getCriticalCombinations("is", "and", false, true, true);
 		if(!criticalString.isEmpty()){
@@ -174,8 +210,8 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	}
 
 	private void calcRule(){
-		StringBuffer buffer = new StringBuffer();
-		buffer.append("The " + variable.getLinkedControlActionName());
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("The ").append(variable.getLinkedControlActionName());
 		buffer.append(" command");
 		if(getType().equals(IValueCombie.TYPE_NOT_PROVIDED)){
 			buffer.append(" must be provided");
@@ -192,8 +228,8 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	}
 
 	private void calcConstraint(){
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(variable.getLinkedControlActionName() + " command");
+		StringBuilder buffer = new StringBuilder();
+		buffer.append(variable.getLinkedControlActionName()).append(" command");
 		if(getType().equals(IValueCombie.TYPE_NOT_PROVIDED)){
 			buffer.append(" must be provided");
 		}else{
@@ -218,10 +254,10 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 		final String UNTIL = " U ";
 		final char BRACKET_OPEN ='(';
 		final char BRACKET_CLOSE =')';
-		final String CONTROLACTION = "(controlAction" + EQUALS + getCombination().getLinkedControlActionName().replaceAll(" ", "")+")";
-		StringBuffer valueBuffer = new StringBuffer(); 
+		final String CONTROLACTION = this.controlActionLiteral;
+		StringBuilder valueBuffer = new StringBuilder(); 
 		
-		String values = getCriticalCombinations("==", "&&", true, false, false);
+		String values = getCriticalCombinations(EQUALS, "&&", true, false, false);
 		values = BRACKET_OPEN + values + BRACKET_CLOSE;
 		/*
 		 * for TYPE_ANYTIME rules the LTL can be generated as following: 
@@ -230,7 +266,7 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 		 */
 		if (type.equals(IValueCombie.TYPE_ANYTIME)) {
 			if(values != null && !values.isEmpty()){
-				valueBuffer = new StringBuffer();
+				valueBuffer = new StringBuilder();
 				valueBuffer.append(START);
 				valueBuffer.append(BRACKET_OPEN);
 					valueBuffer.append(implies(values, not(CONTROLACTION)));
@@ -243,7 +279,7 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 		 */
 		else if (type.equals(IValueCombie.TYPE_TOO_EARLY)) {
 			if(values != null && !values.isEmpty()){
-				valueBuffer = new StringBuffer();
+				valueBuffer = new StringBuilder();
 				valueBuffer.append(START);
 				valueBuffer.append(BRACKET_OPEN);
 					valueBuffer.append(implies(CONTROLACTION, until(not(CONTROLACTION),values)));
@@ -257,7 +293,7 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 		 */
 		else if (type.equals(IValueCombie.TYPE_TOO_LATE)) {
 			if(values != null && !values.isEmpty()){
-				valueBuffer = new StringBuffer();
+				valueBuffer = new StringBuilder();
 				valueBuffer.append(START);
 				valueBuffer.append(BRACKET_OPEN);
 					valueBuffer.append(and(implies(values,CONTROLACTION),not(until(values,CONTROLACTION))));
@@ -272,7 +308,7 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 		 */
 		else if (type.equals(IValueCombie.TYPE_NOT_PROVIDED)) {
 			if(values != null && !values.isEmpty()){
-				valueBuffer = new StringBuffer();
+				valueBuffer = new StringBuilder();
 				valueBuffer.append(START);
 				valueBuffer.append(BRACKET_OPEN);
 					valueBuffer.append(implies(values,CONTROLACTION));
@@ -397,39 +433,67 @@ public class RefinedSafetyEntry implements Comparable<RefinedSafetyEntry>{
 	}
 	
 	
+	/**
+	 * @param number the number of the entry
+	 */
+	void setNumber(int number) {
+		this.number = number;
+	}
+	
+	/**
+	 * creates an entry for the given type without calculating or storing any data,
+	 * the entry must be completed with {@link #calculate(CriticalValueResolver)} and {@link #commit()}
+	 * 
+	 * @param type one of the <code>TYPE</code> constants defined in IValueCombie
+	 * @param var the variable object which represents a hazardous value combination
+	 * @param controller the astpa data model in which the refined data should be stored
+	 * @return a new RefinedSafetyEntry with the number 0
+	 */
+	static RefinedSafetyEntry createEntry(String type,ContextTableCombination var,IExtendedDataModel controller){
+		RefinedSafetyEntry entry;
+		switch(type){
+			case IValueCombie.TYPE_ANYTIME:
+				entry = new RefinedSafetyEntry(0,type, IValueCombie.CONTEXT_PROVIDED, var,controller);
+				entry.setDataRef(var.getAnytimeRule());
+				break;
+			case IValueCombie.TYPE_TOO_EARLY:
+				entry = new RefinedSafetyEntry(0,type, IValueCombie.CONTEXT_PROVIDED, var,controller);
+				entry.setDataRef(var.getTooEarlyRule());
+				break;
+			case IValueCombie.TYPE_TOO_LATE:
+				entry = new RefinedSafetyEntry(0,type, IValueCombie.CONTEXT_PROVIDED, var,controller);
+				entry.setDataRef(var.getTooLateRule());
+				break;
+			default:
+				entry = new RefinedSafetyEntry(0,IValueCombie.TYPE_NOT_PROVIDED, IValueCombie.CONTEXT_NOT_PROVIDED, var,controller);
+				entry.setDataRef(var.getNotProvidedRule());
+				break;
+		}
+		return entry;
+	}
+	
 	public static RefinedSafetyEntry getAnytimeEntry(int number,ContextTableCombination var,IExtendedDataModel controller){
-		
-		RefinedSafetyEntry entry = new RefinedSafetyEntry(number,IValueCombie.TYPE_ANYTIME, IValueCombie.CONTEXT_PROVIDED, var,controller);
-		entry.setDataRef(var.getAnytimeRule());
+		RefinedSafetyEntry entry = createEntry(IValueCombie.TYPE_ANYTIME, var, controller);
+		entry.setNumber(number);
 		entry.update();
-		var.setAnytimeRule(entry.getDataRef());
-		
 		return entry;
 	}
 	public static RefinedSafetyEntry getTooLateEntry(int number,ContextTableCombination var,IExtendedDataModel controller){
-		RefinedSafetyEntry entry = new RefinedSafetyEntry(number,IValueCombie.TYPE_TOO_LATE, IValueCombie.CONTEXT_PROVIDED, var,controller);
-		entry.setDataRef(var.getTooLateRule());
+		RefinedSafetyEntry entry = createEntry(IValueCombie.TYPE_TOO_LATE, var, controller);
+		entry.setNumber(number);
 		entry.update();
-		var.setTooLateRule(entry.getDataRef());
-		
 		return entry;
 	}
 	public static RefinedSafetyEntry getTooEarlyEntry(int number,ContextTableCombination var,IExtendedDataModel controller){
-		RefinedSafetyEntry entry = new RefinedSafetyEntry(number,IValueCombie.TYPE_TOO_EARLY, IValueCombie.CONTEXT_PROVIDED, var,controller);
-		entry.setDataRef(var.getTooEarlyRule());
+		RefinedSafetyEntry entry = createEntry(IValueCombie.TYPE_TOO_EARLY, var, controller);
+		entry.setNumber(number);
 		entry.update();
-		var.setTooEarlyRule(entry.getDataRef());
-		
 		return entry;
 	}
 	public static RefinedSafetyEntry getNotProvidedEntry(int number,ContextTableCombination var,IExtendedDataModel controller){
-		
-			RefinedSafetyEntry entry = new RefinedSafetyEntry(number,IValueCombie.TYPE_NOT_PROVIDED, IValueCombie.CONTEXT_NOT_PROVIDED, var,controller);
-			entry.setDataRef(var.getNotProvidedRule());
-			entry.update();
-			var.setNotProvidedRule(entry.getDataRef());
-		
+		RefinedSafetyEntry entry = createEntry(IValueCombie.TYPE_NOT_PROVIDED, var, controller);
+		entry.setNumber(number);
+		entry.update();
 		return entry;
-		
 	}
 }
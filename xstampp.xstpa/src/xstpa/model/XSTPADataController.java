@@ -14,13 +14,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ui.statushandlers.StatusManager;
 
-import xstampp.astpa.model.controlaction.ControlAction;
 import xstampp.astpa.model.controlaction.NotProvidedValuesCombi;
 import xstampp.astpa.model.controlaction.ProvidedValuesCombi;
 import xstampp.astpa.model.controlaction.interfaces.IControlAction;
@@ -29,6 +35,7 @@ import xstampp.astpa.model.interfaces.IExtendedDataModel;
 import xstampp.model.AbstractLTLProvider;
 import xstampp.model.IValueCombie;
 import xstampp.model.ObserverValue;
+import xstpa.Activator;
 
 public class XSTPADataController extends Observable implements Observer{
 
@@ -43,9 +50,15 @@ public class XSTPADataController extends Observable implements Observer{
 	private IExtendedDataModel model;
 	private boolean controlActionProvided;
 	private List<RefinedSafetyEntry> refinedEntrys;
+	private List<ProcessModelValue> sortedValues;
+	private int structureVersion;
+	private Map<UUID,Integer> providedVersions;
+	private Map<UUID,Integer> notProvidedVersions;
 	
 	public XSTPADataController(IExtendedDataModel model) {
 		this.valuesList = new HashMap<>();
+		this.providedVersions = new HashMap<>();
+		this.notProvidedVersions = new HashMap<>();
 		this.variablesList = new HashMap<>();
 		this.refinedEntrys = new ArrayList<>();
 		this.dependenciesIFProvided  = new HashMap<>();
@@ -62,11 +75,38 @@ public class XSTPADataController extends Observable implements Observer{
 		this.linkedPMV = null;
 		this.dependenciesIFProvided.clear();
 		this.dependenciesNotProvided.clear();
+		this.providedVersions.clear();
+		this.notProvidedVersions.clear();
 		if(getModel() != null){
 			this.fetchProcessComponents();
 			this.fetchControlActions();
 		}
 	}
+
+	/**
+	 * re-reads the process model values if the control structure has changed and rebuilds only those control action entries
+	 * whose version in the data model has changed since they were last built, all other entries (and the linked entry) are kept as they are
+	 * 
+	 * @return whether any control action entry has been rebuild or removed
+	 */
+	public boolean refresh() {
+		if(getModel() == null){
+			return false;
+		}
+		if(this.structureVersion != getModel().getControlStructureVersion()){
+			fetchProcessComponents();
+			this.providedVersions.clear();
+			this.notProvidedVersions.clear();
+		}
+		boolean changed = fetchControlActions();
+		if(this.linkedCAE != null){
+			ControlActionEntry current = getControlActionEntry(this.controlActionProvided, this.linkedCAE.getId());
+			if(current != this.linkedCAE){
+				this.linkedCAE = current;
+			}
+		}
+		return changed;
+	}
 	
 //********************************************************************************************************************
 // Management of the PROCESS MODEL VALUES
@@ -77,16 +117,28 @@ public class XSTPADataController extends Observable implements Observer{
 	 * @see ProcessModelValue
 	 */
 	public List<ProcessModelValue> getValuesList(boolean includeDontCare) {
-		ArrayList<ProcessModelValue> returnedValues = new ArrayList<>();
-		for (ProcessModelValue value : this.valuesList.values()) {
-			if(includeDontCare || !value.getId().equals(getModel().getIgnoreLTLValue().getId())){
+		if(this.sortedValues == null){
+			this.sortedValues = new ArrayList<>(this.valuesList.values());
+			Collections.sort(this.sortedValues);
+		}
+		ArrayList<ProcessModelValue> returnedValues = new ArrayList<>(this.sortedValues.size());
+		UUID dontCareId = getModel().getIgnoreLTLValue().getId();
+		for (ProcessModelValue value : this.sortedValues) {
+			if(includeDontCare || !value.getId().equals(dontCareId)){
 				returnedValues.add(value);
 			}
 		}
-		Collections.sort(returnedValues);
 		return returnedValues;
 	}
 
+	/**
+	 * @param valueId the id of a value component
+	 * @return the ProcessModelValue registered for the given id or null if there is none
+	 */
+	public ProcessModelValue getValue(UUID valueId) {
+		return this.valuesList.get(valueId);
+	}
+
 	public int getValueCount() {
 		return this.valuesList.size();
 	}
@@ -105,9 +157,11 @@ public class XSTPADataController extends Observable implements Observer{
 	 */
 	public void addValue(ProcessModelValue value) {
 		this.valuesList.put(value.getId(),value);
+		this.sortedValues = null;
 	}
 
 	public boolean removeValue(int index) {
+		this.sortedValues = null;
 		return this.valuesList.remove(index) != null;
 	}
 //********************************************************************************************************************
@@ -152,6 +206,8 @@ public class XSTPADataController extends Observable implements Observer{
 
 		this.valuesList.clear();
 		this.variablesList.clear();
+		this.sortedValues = null;
+		this.structureVersion = getModel().getControlStructureVersion();
 		IRectangleComponent rootComponent = getModel().getRoot();
 		for (IRectangleComponent child : rootComponent.getChildren()) {
 			
@@ -202,21 +258,82 @@ public class XSTPADataController extends Observable implements Observer{
 	/**
 	 * this method pulls all control actions and fills the 
 	 * list of dependent variables with the information from 
-	 * this{@link #fetchProcessComponents(IExtendedDataModel)}
+	 * this{@link #fetchProcessComponents(IExtendedDataModel)}<p>
+	 * An entry is only rebuild if the version of its control action in the data model
+	 * differs from the one stored when the entry was last build
 	 * 
-	 * @param model the data model which should be used
+	 * @return whether any entry has been rebuild or removed
 	 */
-	private void fetchControlActions(){
-		this.dependenciesIFProvided.clear();
-		this.dependenciesNotProvided.clear();
+	private boolean fetchControlActions(){
+		boolean changed = false;
+		Map<UUID,ControlActionEntry> provided = new HashMap<>();
+		Map<UUID,ControlActionEntry> notProvided = new HashMap<>();
+		Map<UUID,Integer> providedVersions = new HashMap<>();
+		Map<UUID,Integer> notProvidedVersions = new HashMap<>();
 		  // get the controlActions
 	      for (IControlAction entry : getModel().getAllControlActionsU()) {
-	    	  this.dependenciesIFProvided.put(entry.getId(),getEntryFor(entry, getModel().getIvaluesWhenCAProvided(entry.getId()),CONTEXT_PROVIDED));
-	    	  this.dependenciesNotProvided.put(entry.getId(),getEntryFor(entry, getModel().getIValuesWhenCANotProvided(entry.getId()),CONTEXT_NOT_PROVIDED));
+	    	  changed |= fetchEntry(entry, CONTEXT_PROVIDED,
+	    			  				this.dependenciesIFProvided, this.providedVersions, provided, providedVersions);
+	    	  changed |= fetchEntry(entry, CONTEXT_NOT_PROVIDED,
+	    			  				this.dependenciesNotProvided, this.notProvidedVersions, notProvided, notProvidedVersions);
 	      }
+	      changed |= provided.size() != this.dependenciesIFProvided.size();
+	      changed |= notProvided.size() != this.dependenciesNotProvided.size();
+	      this.dependenciesIFProvided = provided;
+	      this.dependenciesNotProvided = notProvided;
+	      this.providedVersions = providedVersions;
+	      this.notProvidedVersions = notProvidedVersions;
+	      return changed;
+	}
+
+	private boolean fetchEntry(IControlAction entry, String context,
+								Map<UUID,ControlActionEntry> formerEntries, Map<UUID,Integer> formerVersions,
+								Map<UUID,ControlActionEntry> entries, Map<UUID,Integer> versions){
+		int version = getModel().getControlActionVersion(entry.getId());
+		Integer formerVersion = formerVersions.get(entry.getId());
+		ControlActionEntry caEntry = formerEntries.get(entry.getId());
+		// the number is compared as well since it changes when another control action is removed
+		boolean rebuild = caEntry == null || formerVersion == null || formerVersion != version
+							|| caEntry.getNumber() != entry.getNumber();
+		if(rebuild){
+			List<UUID> linkedIDs;
+			List<IValueCombie> combies;
+	  	  	if(context.equals(CONTEXT_PROVIDED)){
+	  	  		linkedIDs = entry.getProvidedVariables();
+	  	  		combies = getModel().getIvaluesWhenCAProvided(entry.getId());
+	  	  	}else{
+	  	  		linkedIDs = entry.getNotProvidedVariables();
+	  	  		combies = getModel().getIValuesWhenCANotProvided(entry.getId());
+	  	  	}
+			caEntry = getEntryFor(entry, combies, context, new HashSet<>(linkedIDs));
+		}
+		entries.put(entry.getId(), caEntry);
+		versions.put(entry.getId(), version);
+		return rebuild;
+	}
+
+	/**
+	 * stores the current version of the given control action for its entries after the content of the entry
+	 * has been written to the data model, so that the entries are not rebuild on the next {@link #refresh()}.<br>
+	 * The version is only updated if the entries were in sync with the version before the change.
+	 * 
+	 * @param caEntry a control action entry that is in sync with the data model
+	 * @param formerVersion the version of the control action before the entry was written to the data model
+	 */
+	private void stampEntry(ControlActionEntry caEntry, int formerVersion){
+		UUID id = caEntry.getId();
+		int version = getModel().getControlActionVersion(id);
+		Integer providedVersion = this.providedVersions.get(id);
+		if(providedVersion != null && providedVersion == formerVersion){
+			this.providedVersions.put(id, version);
+		}
+		Integer notProvidedVersion = this.notProvidedVersions.get(id);
+		if(notProvidedVersion != null && notProvidedVersion == formerVersion){
+			this.notProvidedVersions.put(id, version);
+		}
 	}
 	
-	private ControlActionEntry getEntryFor(IControlAction entry,List<IValueCombie> combies,String context){
+	private ControlActionEntry getEntryFor(IControlAction entry,List<IValueCombie> combies,String context,Set<UUID> linkedIDs){
 		ControlActionEntry tempCAEntry = new ControlActionEntry(context);
   	  
 		//tempCAE.setController(entry.);
@@ -225,12 +342,6 @@ public class XSTPADataController extends Observable implements Observer{
 		tempCAEntry.setNumber(entry.getNumber());
 		tempCAEntry.setId(entry.getId());	    	  
 		tempCAEntry.setSafetyCritical(getModel().isCASafetyCritical(entry.getId()));
-		List<UUID> linkedIDs;
-  	  	if(context.equals(CONTEXT_PROVIDED)){
-  	  		linkedIDs = ((ControlAction)entry).getProvidedVariables();
-  	  	}else{
-  	  		linkedIDs = ((ControlAction)entry).getNotProvidedVariables();
-  	  	}
 		/*
 		 *  set linkedItems and available items for the control action entry
 		 */
@@ -255,35 +366,33 @@ public class XSTPADataController extends Observable implements Observer{
 			contextTableEntry.setUcaLinks(valueCombie.getUCALinks(IValueCombie.TYPE_TOO_EARLY),IValueCombie.TYPE_TOO_EARLY);
 			contextTableEntry.setUcaLinks(valueCombie.getUCALinks(IValueCombie.TYPE_TOO_LATE),IValueCombie.TYPE_TOO_LATE);
 			
-			if(valueCombie.getPMValues() == null){
-				Map<UUID, UUID> valuesIdsTOvariableIDs= new HashMap<>();
-				for(ProcessModelValue value : getValuesList(true)){
-					if(valueCombie.getValueList().contains(value.getId())){
-						valuesIdsTOvariableIDs.put(value.getVariableID(), value.getId());
-					}
-				}
-				valueCombie.setValues(valuesIdsTOvariableIDs);
-			}
-			if(valueCombie.getPMValues() == null){
-				HashMap<UUID, UUID> map = new HashMap<>();
+			Map<UUID, UUID> pmValues = valueCombie.getPMValues();
+			if(pmValues == null){
+				//the values are looked up directly in the values map rather than searching the list of all values
+				pmValues = new HashMap<>();
 				for(UUID valueId : valueCombie.getValueList()){
-					map.put(valuesList.get(valueId).getVariableID(),valueId);
+					ProcessModelValue value = this.valuesList.get(valueId);
+					if(value != null){
+						pmValues.put(value.getVariableID(),valueId);
+					}
 				}
-				valueCombie.setValues(map);
+				valueCombie.setValues(pmValues);
 			}
 			
 			for (ProcessModelVariables var :  tempCAEntry.getLinkedItems()) {
 				//if the valueCombie contains a value or a variable that is not registered, it is considered invalid 
 				//and not added 
-				if(!valuesList.containsKey(valueCombie.getPMValues().get(var.getId()))){
+				UUID valueId = pmValues.get(var.getId());
+				if(!valuesList.containsKey(valueId)){
 					invalid = true;
 					break;
 				}else{
-					contextTableEntry.addValueMapping(var.getId(), valueCombie.getPMValues().get(var.getId()));
+					contextTableEntry.addValueMapping(var.getId(), valueId);
 				}
   					
 			}
 			contextTableEntry.setLinkedControlActionName(entry.getTitle(), entry.getId());
+			contextTableEntry.setCombieId(valueCombie.getCombieId());
 			contextTableEntry.setContext(context);
 			contextTableEntry.setRefinedSafetyRequirements(valueCombie.getSafetyConstraint());
 			contextTableEntry.setHazardous(valueCombie.isCombiHazardous(IValueCombie.TYPE_NOT_PROVIDED));
@@ -320,60 +429,46 @@ public class XSTPADataController extends Observable implements Observer{
 			return combiesToContextID;
 		}
 
-		getModel().lockUpdate();
-
-		int count = 0;
-		boolean consider;
-		ArrayList<UUID> currentRSR= new ArrayList<>();
-		for (IControlAction ca : getModel().getAllControlActionsU()) {
-  	    	consider = (caID == null) || ca.getId().equals(caID);
+		List<IControlAction> controlActions = getModel().getAllControlActionsU();
+		List<ControlActionEntry> providedEntries = new ArrayList<>();
+		List<ControlActionEntry> notProvidedEntries = new ArrayList<>();
+		for (IControlAction ca : controlActions) {
   	    	if(getControlActionEntry(true, ca.getId()) == null){
   	    		fetchControlActions();
   	    	}
-			RefinedSafetyEntry entry;
-			for(ContextTableCombination variable : getControlActionEntry(true, ca.getId()).getContextTableCombinations(false)){
-				if(variable.getConflict()){
-					//only variables without confilcts are forming rules
-					continue;
-				}
-				if(variable.getHAnytime()){
-					count++;
-						entry = RefinedSafetyEntry.getAnytimeEntry(count,variable,getModel());
-						currentRSR.add(entry.getDataRef());
-					if(consider){
-						combiesToContextID.get(IValueCombie.HAZ_IF_PROVIDED)
-												.add(entry);
-					}
-				}
-				if(variable.getHEarly()){
-					count++;
-						entry = RefinedSafetyEntry.getTooEarlyEntry(count,variable,getModel());
-						currentRSR.add(entry.getDataRef());
-					if(consider){
-						combiesToContextID.get(IValueCombie.HAZ_IF_WRONG_PROVIDED)
-												.add(entry);
-					}
-				}
-				if(variable.getHLate()){
-					count++;
-						entry = RefinedSafetyEntry.getTooLateEntry(count,variable,getModel());
-						currentRSR.add(entry.getDataRef());
-					if(consider){
-						combiesToContextID.get(IValueCombie.HAZ_IF_WRONG_PROVIDED).
-											add(entry);
-					}
-				}
-			}
-			
-			for (ContextTableCombination variable : getControlActionEntry(false, ca.getId()).
-					getContextTableCombinations(false)) {
-				if(variable.getGlobalHazardous() && !variable.getConflict()){
-					count++;
-						entry = RefinedSafetyEntry.getNotProvidedEntry(count,variable,getModel());
-						currentRSR.add(entry.getDataRef());
-					if(consider){
-						combiesToContextID.get(IValueCombie.HAZ_IF_NOT_PROVIDED).
-											add(entry);
+  	    	providedEntries.add(getControlActionEntry(true, ca.getId()));
+  	    	notProvidedEntries.add(getControlActionEntry(false, ca.getId()));
+		}
+		//the refined entries are calculated in parallel before they are all commited at once 
+		//while the update of the model is locked
+		RefinedRulesGenerator generator = new RefinedRulesGenerator(this);
+		List<List<RefinedSafetyEntry>> generated;
+		try {
+			generated = generator.generate(providedEntries, notProvidedEntries);
+		} catch (ExecutionException exc) {
+			// the data model is left unchanged
+			logFailure("the refined safety rules could not be generated", exc); //$NON-NLS-1$
+			return combiesToContextID;
+		}
+		getModel().lockUpdate();
+		generator.commit(generated);
+
+		Set<UUID> currentRSR= new HashSet<>();
+		for (int i = 0; i < controlActions.size(); i++) {
+			boolean consider = (caID == null) || controlActions.get(i).getId().equals(caID);
+			for (RefinedSafetyEntry entry : generated.get(i)) {
+				currentRSR.add(entry.getDataRef());
+				if(consider){
+					switch(entry.getType()){
+						case IValueCombie.TYPE_ANYTIME:
+							combiesToContextID.get(IValueCombie.HAZ_IF_PROVIDED).add(entry);
+							break;
+						case IValueCombie.TYPE_NOT_PROVIDED:
+							combiesToContextID.get(IValueCombie.HAZ_IF_NOT_PROVIDED).add(entry);
+							break;
+						default:
+							combiesToContextID.get(IValueCombie.HAZ_IF_WRONG_PROVIDED).add(entry);
+							break;
 					}
 				}
 			}
@@ -386,10 +481,69 @@ public class XSTPADataController extends Observable implements Observer{
 			  getModel().removeRefinedSafetyRule(IExtendedDataModel.ScenarioType.BASIC_SCENARIO,false, list.get(i).getRuleId());
 			}
 		}
-		total =getModel().getLTLPropertys().size()-1;
 		getModel().releaseLockAndUpdate(new ObserverValue[]{ObserverValue.Extended_DATA});
 		return combiesToContextID;
 	}
+
+	/**
+	 * regenerates the refined rules of the given control action and removes the rules of the control action
+	 * which are no longer hazardous, the rules of all other control actions are not touched.
+	 * The caller is responsible for locking the model update
+	 * 
+	 * @param caID the id of a control action
+	 * @return whether the rules have been generated, if the generation has failed the rules are left unchanged
+	 * 				and the failure is logged
+	 */
+	private boolean updateRules(UUID caID){
+		ControlActionEntry providedEntry = getControlActionEntry(true, caID);
+		ControlActionEntry notProvidedEntry = getControlActionEntry(false, caID);
+		RefinedRulesGenerator generator = new RefinedRulesGenerator(this);
+		List<List<RefinedSafetyEntry>> generated;
+		try {
+			generated = generator.generate(Collections.singletonList(providedEntry),
+											Collections.singletonList(notProvidedEntry));
+		} catch (ExecutionException exc) {
+			logFailure("the refined safety rules of a control action could not be generated", exc); //$NON-NLS-1$
+			return false;
+		}
+		generator.commit(generated);
+
+		Set<UUID> currentRSR= new HashSet<>();
+		for (RefinedSafetyEntry entry : generated.get(0)) {
+			currentRSR.add(entry.getDataRef());
+		}
+		Set<UUID> removedRSR = new HashSet<>();
+		for (AbstractLTLProvider rule : new ArrayList<>(getModel().getLTLPropertys())) {
+			if(caID.equals(rule.getRelatedControlActionID()) && !currentRSR.contains(rule.getRuleId())){
+				getModel().removeRefinedSafetyRule(IExtendedDataModel.ScenarioType.BASIC_SCENARIO,false, rule.getRuleId());
+				removedRSR.add(rule.getRuleId());
+			}
+		}
+		// the combinations are kept so they must not reference the removed rules any longer
+		for (ControlActionEntry entry : new ControlActionEntry[]{providedEntry, notProvidedEntry}) {
+			for (ContextTableCombination combination : entry.getContextTableCombinations(false)) {
+				if(removedRSR.contains(combination.getAnytimeRule())){
+					combination.setAnytimeRule(null);
+				}
+				if(removedRSR.contains(combination.getTooEarlyRule())){
+					combination.setTooEarlyRule(null);
+				}
+				if(removedRSR.contains(combination.getTooLateRule())){
+					combination.setTooLateRule(null);
+				}
+				if(removedRSR.contains(combination.getNotProvidedRule())){
+					combination.setNotProvidedRule(null);
+				}
+			}
+		}
+		return true;
+	}
+
+	private static void logFailure(String message, ExecutionException exc){
+		Throwable cause = exc.getCause() != null ? exc.getCause() : exc;
+		StatusManager.getManager().handle(new Status(IStatus.ERROR, Activator.PLUGIN_ID, message, cause),
+											StatusManager.LOG);
+	}
 //=====================================================================
 //START Save function
 //=====================================================================
@@ -423,15 +577,16 @@ public class XSTPADataController extends Observable implements Observer{
   		if(temp == null){
   			temp = linkedCAE;
   		}
-  		if (dependenciesIFProvided.containsValue(temp)) {
+  		int formerVersion = getModel().getControlActionVersion(temp.getId());
+  		if (dependenciesIFProvided.get(temp.getId()) == temp) {
   			syncCombiesWhenProvided(temp);
   		}
   		else {
   	    	syncCombiesWhenNotProvided(temp);
   		}
-  		getHazardousCombinations(null);
-  		
+  		stampEntry(temp, formerVersion);
 		}
+		getHazardousCombinations(null);
 		if(updateValue != null){
       setChanged();
       notifyObservers(updateValue);
@@ -439,6 +594,40 @@ public class XSTPADataController extends Observable implements Observer{
 		
 	}
 	
+	/**
+	 * Stores one changed hazardous flag of the given combination in the data model.<br>
+	 * Other than {@link #storeBooleans(ControlActionEntry, ObserverValue)} this only patches the value combination
+	 * which is stored under the id of the given combination and only regenerates the refined rules of its control action,
+	 * the data model is updated once for {@link ObserverValue#COMBINATION_STATES}.
+	 * Observers of this controller are not notified, the caller is responsible for updating its view.<p>
+	 * Combinations which have not yet been stored in the data model are stored with a full rewrite of their entry
+	 * 
+	 * @param combination a combination of a control action entry stored in this controller
+	 * @param type the type of the flag that has been changed, one of the <code>TYPE</code> constants defined in {@link IValueCombie}
+	 */
+	public void storeCombination(ContextTableCombination combination, String type){
+		UUID caID = combination.getLinkedControlActionID();
+		ControlActionEntry caEntry = getControlActionEntry(!IValueCombie.TYPE_NOT_PROVIDED.equals(type), caID);
+		if(caEntry == null){
+			return;
+		}
+		boolean patched = false;
+		if(combination.getCombieId() != null){
+			getModel().lockUpdate();
+			int formerVersion = getModel().getControlActionVersion(caID);
+			patched = getModel().setCombieHazardous(caID, combination.getCombieId(), type, combination.isHazardous(type));
+			if(patched){
+				stampEntry(caEntry, formerVersion);
+				updateRules(caID);
+			}
+			getModel().releaseLockAndUpdate(new ObserverValue[]{ObserverValue.COMBINATION_STATES});
+		}
+		if(!patched){
+			// the combination is not (or no longer) stored in the data model
+			storeBooleans(caEntry, ObserverValue.COMBINATION_STATES);
+		}
+	}
+
 	private void syncCombiesWhenProvided(ControlActionEntry caEntry){
   		  List<ProvidedValuesCombi> valuesIfProvided = new ArrayList<ProvidedValuesCombi>();
   		  ProvidedValuesCombi val = new ProvidedValuesCombi();
@@ -456,6 +645,11 @@ public class XSTPADataController extends Observable implements Observer{
   			  val.setHazardousAnyTime(combie.getHAnytime());
   			  val.setHazardousToEarly(combie.getHEarly());
   			  val.setHazardousToLate(combie.getHLate());
+  			  if(combie.getCombieId() != null){
+  			    val.setId(combie.getCombieId());
+  			  }else{
+  			    combie.setCombieId(val.getCombieId());
+  			  }
   			  valuesIfProvided.add(val);
   		  }
   		  getModel().setValuesWhenCAProvided(caEntry.getId(),valuesIfProvided);
@@ -474,6 +668,11 @@ public class XSTPADataController extends Observable implements Observer{
   			  val.setArchived(combie.isArchived());
   			  val.setConstraint(combie.getRefinedSafetyRequirements());
   			  val.setHazardous(combie.getGlobalHazardous());
+  			  if(combie.getCombieId() != null){
+  			    val.setId(combie.getCombieId());
+  			  }else{
+  			    combie.setCombieId(val.getCombieId());
+  			  }
   			  valuesIfProvided.add(val);
   		  }
   		  getModel().setValuesWhenCANotProvided(caEntry.getId(),valuesIfProvided);
@@ -601,9 +800,11 @@ public class XSTPADataController extends Observable implements Observer{
 				new Runnable() {
 					@Override
 					public void run() {
-						clear();
-						setChanged();
-						notifyObservers(value);
+						//observers are only notified if a change actually affected one of the entries
+						if(refresh()){
+							setChanged();
+							notifyObservers(value);
+						}
 					}
 				}.run();
 			default:
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstpa.model;
+
+import java.util.UUID;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xstampp.astpa.model.DataModelController;
+import xstampp.astpa.model.controlaction.NotProvidedValuesCombi;
+import xstampp.astpa.model.controlaction.ProvidedValuesCombi;
+
+/**
+ * Tests that the {@link XSTPADataController} only rebuilds the cached control action entries
+ * of the control actions which have been changed in the data model
+ *
+ * @author Lukas Balzer
+ *
+ */
+public class XSTPADataControllerTest {
+
+	private DataModelController model;
+	private XSTPADataController controller;
+	private UUID controlAction;
+	private UUID other;
+
+	@Before
+	public void setUp() {
+		this.model = new DataModelController();
+		this.model.setRoot(new Rectangle(), "root"); //$NON-NLS-1$
+		this.controlAction = this.model.addControlAction("Control Action 1", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		this.other = this.model.addControlAction("Control Action 2", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		this.controller = new XSTPADataController(this.model);
+	}
+
+	/**
+	 * Tests that adding and removing a value combination when provided rebuilds the entry of the
+	 * changed control action only
+	 */
+	@Test
+	public void providedCombinationTest() {
+		ControlActionEntry entry = this.controller.getControlActionEntry(true, this.controlAction);
+		ControlActionEntry otherEntry = this.controller.getControlActionEntry(true, this.other);
+		Assert.assertNotNull(entry);
+		this.controller.refresh();
+		Assert.assertSame(entry, this.controller.getControlActionEntry(true, this.controlAction));
+
+		ProvidedValuesCombi combie = new ProvidedValuesCombi();
+		Assert.assertTrue(this.model.addValueWhenProvided(this.controlAction, combie));
+		this.controller.refresh();
+		ControlActionEntry added = this.controller.getControlActionEntry(true, this.controlAction);
+		Assert.assertNotSame(entry, added);
+		Assert.assertSame(otherEntry, this.controller.getControlActionEntry(true, this.other));
+
+		Assert.assertTrue(this.model.removeValueWhenProvided(this.controlAction, combie.getCombieId()));
+		this.controller.refresh();
+		Assert.assertNotSame(added, this.controller.getControlActionEntry(true, this.controlAction));
+	}
+
+	/**
+	 * Tests that adding and removing a value combination when not provided rebuilds the entry of
+	 * the changed control action
+	 */
+	@Test
+	public void notProvidedCombinationTest() {
+		ControlActionEntry entry = this.controller.getControlActionEntry(false, this.controlAction);
+		Assert.assertNotNull(entry);
+
+		NotProvidedValuesCombi combie = new NotProvidedValuesCombi();
+		Assert.assertTrue(this.model.addValuesWhenNotProvided(this.controlAction, combie));
+		this.controller.refresh();
+		ControlActionEntry added = this.controller.getControlActionEntry(false, this.controlAction);
+		Assert.assertNotSame(entry, added);
+
+		Assert.assertTrue(this.model.removeValueWhenNotProvided(this.controlAction, combie.getCombieId()));
+		this.controller.refresh();
+		Assert.assertNotSame(added, this.controller.getControlActionEntry(false, this.controlAction));
+	}
+}
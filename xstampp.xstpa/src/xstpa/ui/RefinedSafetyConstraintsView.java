@@ -48,6 +48,7 @@ public class RefinedSafetyConstraintsView extends AbstractFilteredTableView {
   public void update(Observable IExtendedDataModel, Object updatedValue) {
     ObserverValue type = (ObserverValue) updatedValue;
     switch (type) {
+    case COMBINATION_STATES:
     case Extended_DATA:
       packColumns();
     default:
@@ -146,6 +146,8 @@ public class View extends ViewPart {
   public static final Image GENERATE = Activator.getImageDescriptor("icons/generate.png")
       .createImage();
 
+  public static final Image CLASSIFY = Activator.getImageDescriptor("icons/edit.png").createImage();
+
   public static final Device device = Display.getCurrent();
 
   public static final Color BACKGROUND = new Color(device, 204, 204, 255);
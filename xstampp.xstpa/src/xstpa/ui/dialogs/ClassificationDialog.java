@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstpa.ui.dialogs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+
+import xstampp.model.IValueCombie;
+import xstpa.Messages;
+import xstpa.model.ContextTableClassifier;
+import xstpa.model.ContextTableClassifier.Change;
+import xstpa.model.ContextTableClassifier.Pattern;
+import xstpa.model.ContextTableCombination;
+import xstpa.model.ControlActionEntry;
+import xstpa.model.ProcessModelValue;
+import xstpa.model.ProcessModelVariables;
+import xstpa.model.XSTPADataController;
+
+/**
+ * A dialog that lets the user define patterns for the automatic classification of the
+ * context table of the linked control action entry and shows a preview of all changes
+ * before they are applied.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class ClassificationDialog extends Dialog {
+
+	private final XSTPADataController controller;
+	private final ControlActionEntry entry;
+	private final boolean provided;
+	private final ContextTableClassifier classifier;
+	private final Map<UUID,String> texts;
+	private Map<UUID,Combo> valueCombos;
+	private Map<UUID,List<UUID>> valueIds;
+	private Combo typeCombo;
+	private Table patternTable;
+	private Table previewTable;
+	private List<Change> changes;
+	private Map<ContextTableCombination,Integer> rowNumbers;
+
+	/**
+	 * @param parentShell the parent shell
+	 * @param controller the controller which holds the linked control action entry
+	 */
+	public ClassificationDialog(Shell parentShell, XSTPADataController controller) {
+		super(parentShell);
+		setShellStyle(getShellStyle() | SWT.RESIZE);
+		this.controller = controller;
+		this.entry = controller.getLinkedCAE();
+		this.provided = controller.isControlActionProvided();
+		this.changes = new ArrayList<>();
+		this.classifier = new ContextTableClassifier(controller.getModel().getIgnoreLTLValue().getId());
+		this.classifier.addRulePatterns(this.entry, controller.getModel().getLTLPropertys());
+		this.texts = new HashMap<>();
+		for (ProcessModelValue value : controller.getValuesList(false)) {
+			this.texts.put(value.getId(), value.getValueText());
+			this.texts.put(value.getVariableID(), value.getPMV());
+		}
+	}
+
+	@Override
+	protected void configureShell(Shell newShell) {
+		super.configureShell(newShell);
+		newShell.setText(Messages.ClassificationDialog_Title);
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+		Composite container = (Composite) super.createDialogArea(parent);
+		container.setLayout(new GridLayout(1, false));
+
+		Group patternGroup = new Group(container, SWT.NONE);
+		patternGroup.setText(Messages.ClassificationDialog_Patterns);
+		patternGroup.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
+		patternGroup.setLayout(new GridLayout(1, false));
+
+		Composite combos = new Composite(patternGroup, SWT.NONE);
+		combos.setLayout(new GridLayout(this.entry.getLinkedItems().size() + 2, false));
+		this.valueCombos = new HashMap<>();
+		this.valueIds = new HashMap<>();
+		for (ProcessModelVariables variable : this.entry.getLinkedItems()) {
+			//for each variable a combo with all its values and the don't care value is added
+			Composite comp = new Composite(combos, SWT.NONE);
+			comp.setLayout(new GridLayout(1, false));
+			new Label(comp, SWT.NONE).setText(variable.getName() + ":"); //$NON-NLS-1$
+			Combo combo = new Combo(comp, SWT.READ_ONLY);
+			List<UUID> ids = new ArrayList<>();
+			combo.add(this.controller.getModel().getIgnoreLTLValue().getText());
+			ids.add(this.controller.getModel().getIgnoreLTLValue().getId());
+			for (int i = 0; i < variable.getValueIds().size(); i++) {
+				combo.add(variable.getValues().get(i));
+				ids.add(variable.getValueIds().get(i));
+			}
+			combo.select(0);
+			this.valueCombos.put(variable.getId(), combo);
+			this.valueIds.put(variable.getId(), ids);
+		}
+		Composite typeComp = new Composite(combos, SWT.NONE);
+		typeComp.setLayout(new GridLayout(1, false));
+		new Label(typeComp, SWT.NONE).setText(Messages.RefinedRulesTable_Type + ":"); //$NON-NLS-1$
+		this.typeCombo = new Combo(typeComp, SWT.READ_ONLY);
+		for (String type : getTypes()) {
+			this.typeCombo.add(type);
+		}
+		this.typeCombo.select(0);
+
+		Button addPattern = new Button(combos, SWT.PUSH);
+		addPattern.setText(Messages.ClassificationDialog_AddPattern);
+		addPattern.setLayoutData(new GridData(SWT.LEFT, SWT.END, false, false));
+		addPattern.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				Map<UUID,UUID> values = new HashMap<>();
+				for (UUID variable : valueCombos.keySet()) {
+					values.put(variable, valueIds.get(variable).get(valueCombos.get(variable).getSelectionIndex()));
+				}
+				classifier.addPattern(new Pattern(values, typeCombo.getText()));
+				refreshPatterns();
+			}
+		});
+
+		this.patternTable = new Table(patternGroup, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI);
+		GridData data = new GridData(SWT.FILL, SWT.FILL, true, true);
+		data.heightHint = 120;
+		this.patternTable.setLayoutData(data);
+		this.patternTable.setHeaderVisible(true);
+		new TableColumn(this.patternTable, SWT.NONE).setText(Messages.ClassificationDialog_Pattern);
+		new TableColumn(this.patternTable, SWT.NONE).setText(Messages.RefinedRulesTable_Type);
+
+		Button removePattern = new Button(patternGroup, SWT.PUSH);
+		removePattern.setText(Messages.ClassificationDialog_RemovePattern);
+		removePattern.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				for (TableItem item : patternTable.getSelection()) {
+					classifier.removePattern((Pattern) item.getData());
+				}
+				refreshPatterns();
+			}
+		});
+
+		Group previewGroup = new Group(container, SWT.NONE);
+		previewGroup.setText(Messages.ClassificationDialog_Preview);
+		previewGroup.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
+		previewGroup.setLayout(new GridLayout(1, false));
+		this.previewTable = new Table(previewGroup, SWT.BORDER | SWT.FULL_SELECTION | SWT.VIRTUAL);
+		data = new GridData(SWT.FILL, SWT.FILL, true, true);
+		data.heightHint = 200;
+		this.previewTable.setLayoutData(data);
+		this.previewTable.setHeaderVisible(true);
+		new TableColumn(this.previewTable, SWT.NONE).setText("ID"); //$NON-NLS-1$
+		for (ProcessModelVariables variable : this.entry.getLinkedItems()) {
+			new TableColumn(this.previewTable, SWT.NONE).setText(variable.getName());
+		}
+		new TableColumn(this.previewTable, SWT.NONE).setText(Messages.RefinedRulesTable_Type);
+		for (TableColumn column : this.previewTable.getColumns()) {
+			column.setWidth(100);
+		}
+		//the preview items are only filled when they become visible
+		this.previewTable.addListener(SWT.SetData, new Listener() {
+			@Override
+			public void handleEvent(Event event) {
+				TableItem item = (TableItem) event.item;
+				item.setText(getPreviewText(changes.get(event.index)));
+			}
+		});
+
+		refreshPatterns();
+		return container;
+	}
+
+	/**
+	 * recompiles the classifier and updates both the pattern and the preview table
+	 */
+	private void refreshPatterns(){
+		this.patternTable.removeAll();
+		for (Pattern pattern : this.classifier.getPatterns()) {
+			TableItem item = new TableItem(this.patternTable, SWT.NONE);
+			item.setText(new String[]{ContextTableClassifier.getPatternText(pattern, this.texts), pattern.getType()});
+			item.setData(pattern);
+		}
+		for (TableColumn column : this.patternTable.getColumns()) {
+			column.pack();
+		}
+		this.classifier.compile(this.entry.getLinkedItems());
+		// the patterns are applied to the whole table, not only to the rows passing the current filter
+		List<ContextTableCombination> rows = this.entry.getContextTableCombinations(false);
+		this.rowNumbers = new IdentityHashMap<>();
+		for (int i = 0; rows != null && i < rows.size(); i++) {
+			this.rowNumbers.put(rows.get(i), i + 1);
+		}
+		this.changes = this.classifier.classify(rows, this.provided);
+
+		this.previewTable.clearAll();
+		this.previewTable.setItemCount(this.changes.size());
+		Button okButton = getButton(IDialogConstants.OK_ID);
+		if(okButton != null){
+			okButton.setEnabled(!this.changes.isEmpty());
+		}
+	}
+
+	private String[] getPreviewText(Change change){
+		String[] columns = new String[this.entry.getLinkedItems().size() + 2];
+		columns[0] = String.valueOf(this.rowNumbers.get(change.getCombination()));
+		for (int i = 0; i < this.entry.getLinkedItems().size(); i++) {
+			UUID value = change.getCombination().getValueIDForVariable(this.entry.getLinkedItem(i).getId());
+			columns[i + 1] = this.texts.containsKey(value) ? this.texts.get(value)
+														: this.controller.getModel().getIgnoreLTLValue().getText();
+		}
+		columns[columns.length - 1] = change.getType();
+		return columns;
+	}
+
+	@Override
+	protected void createButtonsForButtonBar(Composite parent) {
+		super.createButtonsForButtonBar(parent);
+		getButton(IDialogConstants.OK_ID).setText(Messages.ClassificationDialog_Apply);
+		getButton(IDialogConstants.OK_ID).setEnabled(!this.changes.isEmpty());
+	}
+
+	private String[] getTypes(){
+		if(this.provided){
+			return new String[]{IValueCombie.TYPE_ANYTIME, IValueCombie.TYPE_TOO_EARLY, IValueCombie.TYPE_TOO_LATE};
+		}
+		return new String[]{IValueCombie.TYPE_NOT_PROVIDED};
+	}
+
+	/**
+	 * @return the changes which have been proposed by the classifier for the current patterns
+	 */
+	public List<Change> getChanges() {
+		return this.changes;
+	}
+}
@@ -126,6 +126,7 @@ public class LTLPropertiesTable extends CommonGridView<IExtendedDataModel>{
 	public void update(final Observable IExtendedDataModel, Object updatedValue) {
 		final ObserverValue value= (ObserverValue) updatedValue; 
 		switch(value){
+			case COMBINATION_STATES:
 			case Extended_DATA:
 			  reloadTable();
 		default:
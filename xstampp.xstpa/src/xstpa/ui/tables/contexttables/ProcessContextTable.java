@@ -30,6 +30,7 @@ import org.eclipse.jface.viewers.ITableLabelProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TextCellEditor;
+import org.eclipse.jface.window.Window;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -61,17 +62,20 @@ import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
 
 import xstampp.astpa.model.controlstructure.interfaces.IRectangleComponent;
+import xstampp.model.IValueCombie;
 import xstampp.model.ObserverValue;
 import xstampp.ui.common.ProjectManager;
 import xstampp.util.STPAPluginUtils;
 import xstpa.Messages;
 import xstpa.model.ACTSController;
+import xstpa.model.ContextTableClassifier;
 import xstpa.model.ContextTableCombination;
 import xstpa.model.ControlActionEntry;
 import xstpa.model.ProcessModelVariables;
 import xstpa.settings.PreferencePageSettings;
 import xstpa.ui.View;
 import xstpa.ui.dialogs.AddEntryShell;
+import xstpa.ui.dialogs.ClassificationDialog;
 import xstpa.ui.dialogs.EditWindow;
 import xstpa.ui.tables.AbstractTableComposite;
 import xstpa.ui.tables.utils.ContextCheckJob;
@@ -308,31 +312,31 @@ public class ProcessContextTable extends AbstractTableComposite {
 			            
 				            if (contextTableCellX == contextTable.getColumnCount()-1) {
 
-			                	boolean changed = false;
+			                	String changedType = null;
+			                	ContextTableCombination combination = contextRightContent.get(contextTableCellY);
 			                	if (dataController.isControlActionProvided()) {
 				                	int tempWidth = rect.width / 3;
 				                	boolean checkboxAnytimeClicked =(rect.x < pt.x)&(pt.x < rect.x+tempWidth);
 				                	boolean checkboxtooEarlyClicked =(rect.x+tempWidth < pt.x)&(pt.x < rect.x+(2*tempWidth));
 						            boolean checkboxtooLateClicked =(rect.x+(2*tempWidth) < pt.x)&(pt.x < rect.x + rect.width);
-				                	changed = checkboxAnytimeClicked || checkboxtooEarlyClicked || checkboxtooLateClicked;
 				                	if (checkboxAnytimeClicked) {
-				                		contextRightContent.get(contextTableCellY).
-				                							setHAnytime(!contextRightContent.get(contextTableCellY).getHAnytime());
+				                		combination.setHAnytime(!combination.getHAnytime());
+				                		changedType = IValueCombie.TYPE_ANYTIME;
 				                	}else if (checkboxtooEarlyClicked) {
-				                		contextRightContent.get(contextTableCellY).
-				                							setHEarly(!contextRightContent.get(contextTableCellY).getHEarly());
+				                		combination.setHEarly(!combination.getHEarly());
+				                		changedType = IValueCombie.TYPE_TOO_EARLY;
 				                	}else if (checkboxtooLateClicked) {
-				                		contextRightContent.get(contextTableCellY).
-				                							setHLate(!contextRightContent.get(contextTableCellY).getHLate());
+				                		combination.setHLate(!combination.getHLate());
+				                		changedType = IValueCombie.TYPE_TOO_LATE;
 				                	}
 			                	}else  if (!dataController.isControlActionProvided()) {
-			                		contextRightContent.get(contextTableCellY).setHazardous(!contextRightContent.get(contextTableCellY).getGlobalHazardous());
-			                		changed = true;
+			                		combination.setHazardous(!combination.getGlobalHazardous());
+			                		changedType = IValueCombie.TYPE_NOT_PROVIDED;
 			                	}
-			                	if(changed){
-			                		contextTableViewer.refresh(false);
-			    	    		  	dataController.storeBooleans((List)null, ObserverValue.COMBINATION_STATES);
-					                
+			                	if(changedType != null){
+			                		//only the changed row is updated and only the changed combination is stored
+			                		contextTableViewer.update(combination, null);
+			    	    		  	dataController.storeCombination(combination, changedType);
 			                	}
 				            }
 		                	return;
@@ -496,6 +500,11 @@ public class ProcessContextTable extends AbstractTableComposite {
 		    checkConflictsBtn.setImage(View.CHECK_CONFLICTS);
 		    checkConflictsBtn.pack();
 		    
+		    Button classifyBtn = new Button(editTableComposite, SWT.PUSH);
+		    classifyBtn.setToolTipText(Messages.ClassifiesTableByPatterns);
+		    classifyBtn.setImage(View.CLASSIFY);
+		    classifyBtn.pack();
+		    
 		    contextTable.addSelectionListener(new SelectionAdapter() {
 	        @Override
 	        public void widgetSelected(SelectionEvent e) {
@@ -537,6 +546,27 @@ public class ProcessContextTable extends AbstractTableComposite {
 			    	 setConflictLabel();
 			      }  
 			  });
+		    /**
+			 * Listener for the classify button
+			 * 	opens a dialog to mark all rows as hazardous which match a rule or a pattern
+			 */
+		    classifyBtn.addSelectionListener(new SelectionAdapter() {
+			      public void widgetSelected(SelectionEvent event) {
+			    	  if (dataController.getLinkedCAE() == null) {
+			    		  MessageDialog.openInformation(null,"Select a Control Action", Messages.SelectAControlAction); //$NON-NLS-1$
+			    	  }
+			    	  else if (dataController.getLinkedCAE().getLinkedItems().isEmpty()) {
+			    		  MessageDialog.openInformation(null, Messages.NoLinkedVariables, Messages.NoLinkedVariablesMsg);
+			    	  }
+			    	  else{
+			    		  ClassificationDialog dialog = new ClassificationDialog(getShell(), dataController);
+			    		  if(dialog.open() == Window.OK && !dialog.getChanges().isEmpty()){
+			    			  ContextTableClassifier.apply(dialog.getChanges());
+			    			  dataController.storeBooleans((ControlActionEntry)null, ObserverValue.COMBINATION_STATES);
+			    		  }
+			    	  }
+			      }  
+			  });
 		    /**
 		     * Listener for the generate Entry Button for Refined Safety
 		     */
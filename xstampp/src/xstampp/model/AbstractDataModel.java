@@ -60,6 +60,22 @@ public abstract class AbstractDataModel extends Observable implements IDataModel
     this.updateValue(ObserverValue.UNSAVED_CHANGES);
   }
 
+  /**
+   * {@inheritDoc}<br>
+   * By default the model is prepared with {@link #prepareForExport()} for every preview.
+   */
+  @Override
+  public int prepareForPreview() {
+    return prepareForExport() ? 1 : 0;
+  }
+
+  @Override
+  public void releasePreview(int preparation) {
+    if (preparation != 0) {
+      prepareForSave();
+    }
+  }
+
   @Override
   public void updateValue(ObserverValue value) {
     this.setChanged();
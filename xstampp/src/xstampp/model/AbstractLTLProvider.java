@@ -58,6 +58,10 @@ public abstract class AbstractLTLProvider implements ITableEntry {
   @XmlElement(name = "relatedCaID")
   protected UUID caID;
 
+  @XmlElementWrapper(name = "criticalValueIDs")
+  @XmlElement(name = "valueID")
+  protected List<UUID> criticalValueIds;
+
   /**
    * @return A formula which formulates the critical combination in Linear Temporal Logic
    */
@@ -129,4 +133,12 @@ public abstract class AbstractLTLProvider implements ITableEntry {
   public String getLinks() {
     return this.links;
   }
+
+  /**
+   * @return the ids of the process model values which form the critical combination of this rule,
+   *         or null if the rule has been stored without them
+   */
+  public List<UUID> getCriticalValueIds() {
+    return this.criticalValueIds;
+  }
 }
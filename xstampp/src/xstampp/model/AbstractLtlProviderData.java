@@ -28,6 +28,8 @@ public class AbstractLtlProviderData {
 
   private List<UUID> relatedUcas;
 
+  private List<UUID> criticalValueIds;
+
   /**
    * @return A formula which formulates the critical combination in Linear Temporal Logic.
    */
@@ -100,4 +102,15 @@ public class AbstractLtlProviderData {
     this.combies = combies;
   }
 
+  /**
+   * @return the ids of the process model values which form the critical combination
+   */
+  public List<UUID> getCriticalValueIds() {
+    return this.criticalValueIds;
+  }
+
+  public void setCriticalValueIds(List<UUID> criticalValueIds) {
+    this.criticalValueIds = criticalValueIds;
+  }
+
 }
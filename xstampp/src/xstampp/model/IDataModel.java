@@ -86,6 +86,25 @@ public interface IDataModel {
    */
   void prepareForSave();
 
+  /**
+   * Prepares the data model for a preview of an export. Unlike {@link #prepareForExport()} a model
+   * which is already prepared for an export is not prepared again.
+   * 
+   * @return a number which identifies the preparation and must be passed to
+   *         {@link #releasePreview(int)}, <code>0</code> if the model has not been prepared by this
+   *         call
+   */
+  int prepareForPreview();
+
+  /**
+   * Removes the preparations of {@link #prepareForPreview()} unless the model has been prepared for
+   * an export in the meantime, that export removes the preparations itself.
+   * 
+   * @param preparation
+   *          the number returned by {@link #prepareForPreview()}
+   */
+  void releasePreview(int preparation);
+
   /**
    * Triggers an update of the given value
    * 
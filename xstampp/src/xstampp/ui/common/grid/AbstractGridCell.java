@@ -11,9 +11,12 @@
 
 package xstampp.ui.common.grid;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.graphics.Color;
-import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -46,6 +49,11 @@ public abstract class AbstractGridCell implements IGridCell {
 
   private boolean showSelection;
 
+  private String layoutText;
+  private Font layoutFont;
+  private int layoutWidth;
+  private List<String> layoutLines;
+
   /**
    * Ctor.
    * 
@@ -209,13 +217,52 @@ public abstract class AbstractGridCell implements IGridCell {
   protected final Point wrapText(Rectangle bounds, GC gc, String text, int left_space,
       int right_space) {
     Point textBounds = new Point(bounds.width - left_space - right_space, 0);
-    FontMetrics metrics = gc.getFontMetrics();
     if (text.isEmpty() || bounds.width < 0) {
       return textBounds;
     }
     // the line height is set absolute so that the strings are drawn on the
     // right position
     int lineHeight = bounds.y;
+    int fontHeight = gc.getFontMetrics().getHeight();
+    for (String line : layoutText(gc, text, textBounds.x)) {
+      gc.drawString(line, bounds.x + left_space, lineHeight);
+      lineHeight += fontHeight;
+    }
+
+    // since line_height was initialized in absolute scale but this function
+    // should calculate the
+    // relative text height the y -coordinate must be subtracted
+    textBounds.y = lineHeight - (bounds.y - 2);
+    return textBounds;
+
+  }
+
+  /**
+   * returns the lines in which the text is wrapped for the given width. The lines are only
+   * calculated again if the text, the font of the gc or the width has changed since the last call.
+   *
+   * @param gc
+   *          the GC element which is used to measure the text
+   * @param text
+   *          the given string line( given CRs are considert)
+   * @param width
+   *          the width which is available for the text
+   * @return the lines of the wrapped text
+   */
+  protected final List<String> layoutText(GC gc, String text, int width) {
+    Font font = gc.getFont();
+    if (this.layoutLines == null || width != this.layoutWidth || !text.equals(this.layoutText)
+        || !font.equals(this.layoutFont)) {
+      this.layoutLines = calculateLines(gc, text, width);
+      this.layoutText = text;
+      this.layoutFont = font;
+      this.layoutWidth = width;
+    }
+    return this.layoutLines;
+  }
+
+  private List<String> calculateLines(GC gc, String text, int width) {
+    List<String> lines = new ArrayList<>();
     String[] words = text.split(" |\t");
     String line = "";
     String tmpLine = words[0];
@@ -233,10 +280,9 @@ public abstract class AbstractGridCell implements IGridCell {
       // and when it does
       // a new line is started and the line break is removed
       if (tmpLine.startsWith(System.lineSeparator()) || tmpLine.startsWith("\n")) {
-        gc.drawString(line, bounds.x + left_space, lineHeight);
+        lines.add(line);
         line = "";
         tmpLine = tmpLine.replaceFirst("\n|" + System.lineSeparator(), "");
-        lineHeight += metrics.getHeight();
         first = true;
         carryOver = false;
         continue;
@@ -249,15 +295,12 @@ public abstract class AbstractGridCell implements IGridCell {
         tmpLine = tmpLine.substring(0, tmpLine.indexOf("\n"));
         first = line.isEmpty();
         carryOver = true;
-      } else if (!tmpLine.isEmpty() && gc.stringExtent(tmpLine).x >= textBounds.x) {
-        int end = wrap(gc, tmpLine, textBounds.x - 1, 0, tmpLine.length() - 1, 0, 1, 1);
-        gc.drawString(tmpLine.substring(0, end), bounds.x + left_space, lineHeight);
-        lineHeight += metrics.getHeight();
+      } else if (!tmpLine.isEmpty() && gc.stringExtent(tmpLine).x >= width) {
+        int end = wrap(gc, tmpLine, width - 1, 0, tmpLine.length() - 1, 0, 1, 1);
+        lines.add(tmpLine.substring(0, end));
         tmpLine = tmpLine.substring(end);
-      } else if (gc.stringExtent(line + space + tmpLine).x >= textBounds.x) {
-
-        gc.drawString(line, bounds.x + left_space, lineHeight);
-        lineHeight += metrics.getHeight();
+      } else if (gc.stringExtent(line + space + tmpLine).x >= width) {
+        lines.add(line);
         first = true;
         line = "";
       } else if (carryOver) {
@@ -267,8 +310,7 @@ public abstract class AbstractGridCell implements IGridCell {
         first = false;
       } else if (wordIndex == words.length) {
         line += space + tmpLine;
-        gc.drawString(line, bounds.x + left_space, lineHeight);
-        lineHeight += metrics.getHeight();
+        lines.add(line);
         line = "";
         tmpLine = "";
         wordIndex++;
@@ -279,13 +321,7 @@ public abstract class AbstractGridCell implements IGridCell {
         first = false;
       }
     }
-
-    // since line_height was initialized in absolute scale but this function
-    // should calculate the
-    // relative text height the y -coordinate must be subtracted
-    textBounds.y = lineHeight - (bounds.y - 2);
-    return textBounds;
-
+    return lines;
   }
 
   /**
@@ -110,7 +110,7 @@ public class GridCellEditor extends GridCellComposite {
       public void modifyText(ModifyEvent e) {
         GridCellEditor.this.currentText = GridCellEditor.this.description.getText();
 
-        GridCellEditor.this.grid.resizeRows();
+        GridCellEditor.this.grid.scheduleResizeRows();
       }
     });
 
@@ -13,6 +13,11 @@
 
 package xstampp.ui.common.grid;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.nebula.widgets.grid.GridItem;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
@@ -52,6 +57,22 @@ public class GridCellRenderer extends org.eclipse.nebula.widgets.grid.GridCellRe
   private int insideMargin = 3;
 
   int treeIndent = 20;
+
+  private static final int MAX_CACHED_LAYOUTS = 256;
+
+  /**
+   * the heights of the wrapped texts mapped to their text, font, width and alignment, the least
+   * recently used heights are removed when the cache is full.
+   */
+  private final Map<List<Object>, Integer> textHeights = new LinkedHashMap<List<Object>, Integer>(
+      16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<Object>, Integer> eldest) {
+      return size() > MAX_CACHED_LAYOUTS;
+    }
+  };
   private static Color foreground = new Color(Display.getCurrent(), 255, 255, 255);
 
   /**
@@ -118,20 +139,11 @@ public class GridCellRenderer extends org.eclipse.nebula.widgets.grid.GridCellRe
       else
         plainTextWidth = wHint - x - rightMargin;
 
-      TextLayout currTextLayout = new TextLayout(gc.getDevice());
-      currTextLayout.setFont(gc.getFont());
-      currTextLayout.setText(item.getText(getColumn()));
-      currTextLayout.setAlignment(getAlignment());
-      currTextLayout.setWidth(plainTextWidth < 1 ? 1 : plainTextWidth);
-
       x += plainTextWidth + rightMargin;
 
       textHeight += topMargin + textTopMargin;
-      for (int cnt = 0; cnt < currTextLayout.getLineCount(); cnt++)
-        textHeight += currTextLayout.getLineBounds(cnt).height;
+      textHeight += getTextHeight(gc, item.getText(getColumn()), plainTextWidth);
       textHeight += textBottomMargin + bottomMargin;
-
-      currTextLayout.dispose();
     }
 
     y = Math.max(y, textHeight);
@@ -139,6 +151,24 @@ public class GridCellRenderer extends org.eclipse.nebula.widgets.grid.GridCellRe
     return new Point(x, y);
   }
 
+  private int getTextHeight(GC gc, String text, int width) {
+    List<Object> key = Arrays.<Object>asList(text, gc.getFont(), width, getAlignment());
+    Integer height = this.textHeights.get(key);
+    if (height == null) {
+      TextLayout currTextLayout = new TextLayout(gc.getDevice());
+      currTextLayout.setFont(gc.getFont());
+      currTextLayout.setText(text);
+      currTextLayout.setAlignment(getAlignment());
+      currTextLayout.setWidth(width < 1 ? 1 : width);
+      height = 0;
+      for (int cnt = 0; cnt < currTextLayout.getLineCount(); cnt++)
+        height += currTextLayout.getLineBounds(cnt).height;
+      currTextLayout.dispose();
+      this.textHeights.put(key, height);
+    }
+    return height;
+  }
+
   /**
    * {@inheritDoc}
    */
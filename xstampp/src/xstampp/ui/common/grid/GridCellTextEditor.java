@@ -16,6 +16,7 @@ import java.util.UUID;
 import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.gef.tools.CellEditorLocator;
 import org.eclipse.jface.viewers.CellEditor;
+import org.eclipse.jface.viewers.ICellEditorListener;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.FocusAdapter;
 import org.eclipse.swt.events.FocusEvent;
@@ -54,6 +55,11 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
 
   private GridWrapper grid = null;
   private String currentText = ""; //$NON-NLS-1$
+  /**
+   * the text which has been written to the data model last, this is <code>null</code> as long as
+   * the inline editor has not been opened
+   */
+  private String committedText;
   private Color bgColor;
   private DirectEditor editor;
   private Rectangle deleteSpace;
@@ -189,7 +195,7 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
     setPreferredHeight(item, textBounds.y);
     this.editField = new Rectangle(bounds.x, bounds.y, textBounds.x, textBounds.y);
     if (bounds.height + 2 < this.editField.height || bounds.height - 2 > this.editField.height) {
-      this.grid.resizeRows();
+      this.grid.scheduleResizeRows();
     }
     // restore bg color
     gc.setBackground(this.bgColor);
@@ -229,6 +235,7 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
           @Override
           public void focusLost(FocusEvent error) {
             editor.deactivate();
+            commitText();
             editorClosing();
           }
 
@@ -246,7 +253,6 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
               GridCellTextEditor.this.currentText = ((Text) error.widget).getText() != null ? ((Text) error.widget).getText() : "";
               Rectangle rect = GridCellTextEditor.this.editField;
               Text text = (Text) error.getSource();
-              updateDataModel(currentText);
               onTextChange(GridCellTextEditor.this.currentText);
               // if the size is determined to be larger than the text lines
               // itself
@@ -262,8 +268,28 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
             }
           }
         });
+        editor.addListener(new ICellEditorListener() {
+
+          @Override
+          public void applyEditorValue() {
+            // the editor is applied with Enter
+            commitText();
+          }
+
+          @Override
+          public void cancelEditor() {
+            // the editor is canceled with Esc
+            revertText();
+          }
+
+          @Override
+          public void editorValueChanged(boolean oldValidState, boolean newValidState) {
+            // the changes are written by the modify listener
+          }
+        });
       }
 
+      this.committedText = this.currentText;
       editor.activate(new TextLocator(editField));
       editor.setTextColor(ColorConstants.black);
       editor.getControl().setBackground(HOVER_COLOR);
@@ -275,7 +301,7 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
       point = Display.getDefault().map(grid.getGrid(), null, editField.x, editField.y);
       Rectangle rectangle = new Rectangle(point.x, point.y, editField.width, cellBounds.height);
       String string = editorProvider.open(currentText, rectangle);
-      if (string != null) {
+      if (string != null && !string.trim().equals(currentText)) {
         currentText = string.trim();
         grid.setUpdateLock();
         updateDataModel(currentText);
@@ -316,8 +342,36 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
     super.onFocusLost();
   }
 
+  /**
+   * writes the text of the inline editor to the data model if it has been modified since it has
+   * been written the last time, all modifications since then are written as one change.
+   */
+  private void commitText() {
+    if (this.committedText != null && !this.committedText.equals(this.currentText)) {
+      this.committedText = this.currentText;
+      // the grid shows the text already so the update must not reload the table
+      this.grid.setUpdateLock();
+      updateDataModel(this.currentText);
+    }
+  }
+
+  /**
+   * discards the modifications of the inline editor since the text has been written to the data
+   * model the last time.
+   */
+  private void revertText() {
+    if (this.committedText != null && !this.committedText.equals(this.currentText)) {
+      this.currentText = this.committedText;
+      onTextChange(this.currentText);
+      if (!this.grid.getGrid().isDisposed()) {
+        this.grid.getGrid().redraw();
+      }
+    }
+  }
+
   @Override
   public void cleanUp() {
+    commitText();
     if (this.editor != null && !this.editor.getControl().isDisposed()) {
       this.editor.getControl().dispose();
     }
@@ -367,6 +421,16 @@ public abstract class GridCellTextEditor extends AbstractGridCell {
     this.showDelete = showDelete;
   }
 
+  /**
+   * @param useInlineEditor
+   *          whether the text should be edited in an editor inside the cell instead of a separate
+   *          editor shell, the text of the inline editor is written to the data model as one change
+   *          when the editor loses the focus or when Enter is pressed, Esc discards the changes
+   */
+  public void setUseInlineEditor(boolean useInlineEditor) {
+    this.useInlineEditor = useInlineEditor;
+  }
+
   /**
    * @return the isReadOnly
    */
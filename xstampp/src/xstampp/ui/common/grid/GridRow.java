@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import org.eclipse.swt.graphics.Point;
 
@@ -47,6 +48,8 @@ public class GridRow {
 
   private int[] rowSpanningCells;
 
+  private Object key;
+
   /**
    * Ctor.
    * 
@@ -267,6 +270,40 @@ public class GridRow {
     this.rowSpanningCells = spanningCells;
   }
 
+  /**
+   * sets a key which identifies this row between two reloads of the {@link GridWrapper}, a row
+   * which has the same key as a row of the last reload reuses its grid item.
+   * 
+   * @param key
+   *          a key which must implement equals and hashCode or <b>null</b> to use the ids of the
+   *          cells in this row
+   */
+  public void setKey(Object key) {
+    this.key = key;
+  }
+
+  /**
+   * returns the key which has been set with {@link #setKey(Object)} or if no key is set the list
+   * of the ids which are returned by {@link IGridCell#getUUID()} for the cells of this row.
+   * 
+   * @return the key of this row or <b>null</b> if no key is set and no cell has an id
+   */
+  public Object getKey() {
+    if (this.key != null) {
+      return this.key;
+    }
+    List<UUID> ids = new ArrayList<>();
+    for (IGridCell cell : this.cells) {
+      if (cell.getUUID() != null) {
+        ids.add(cell.getUUID());
+      }
+    }
+    if (ids.isEmpty()) {
+      return null;
+    }
+    return ids;
+  }
+
   /**
    * @return the nebulaRow
    */
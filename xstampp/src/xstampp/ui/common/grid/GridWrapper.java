@@ -14,7 +14,10 @@ package xstampp.ui.common.grid;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.log4j.Logger;
@@ -33,8 +36,6 @@ import org.eclipse.swt.events.FocusListener;
 import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.MouseListener;
 import org.eclipse.swt.events.MouseMoveListener;
-import org.eclipse.swt.events.PaintEvent;
-import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -189,6 +190,23 @@ public class GridWrapper {
     }
   }
 
+  /**
+   * An entry of the flattened row tree which is synchronized with the items of the grid.
+   */
+  private static class RowEntry {
+    private GridRow row;
+    private int parent;
+    private Object key;
+    private int descendants;
+    private NebulaGridRowWrapper item;
+
+    private RowEntry(GridRow row, int parent, Object key) {
+      this.row = row;
+      this.parent = parent;
+      this.key = key;
+    }
+  }
+
   /**
    * Wrapper for a grid item, representing a row in the grid.
    * 
@@ -228,6 +246,42 @@ public class GridWrapper {
       this.parentRow = parentRow;
     }
 
+    /**
+     * Ctor.
+     * 
+     * @param parent
+     *          the grid in which the row is inserted.
+     * @param style
+     *          swt style.
+     * @param index
+     *          the index at which the row is inserted into the grid.
+     * @param row
+     *          the row to take the cells from.
+     * @param parentRow
+     *          the parent of the row. Can be null if it doesn't have a parent.
+     */
+    public NebulaGridRowWrapper(Grid parent, int style, int index, GridRow row,
+        GridRow parentRow) {
+      super(parent, style, index);
+      this.parent = null;
+      setGridRow(row, parentRow);
+    }
+
+    /**
+     * replaces the row which is shown by this item, used to reuse the item for the row which
+     * replaces its row on a reload.
+     * 
+     * @param row
+     *          the row to take the cells from.
+     * @param parentRow
+     *          the parent of the row. Can be null if it doesn't have a parent.
+     */
+    void setGridRow(GridRow row, GridRow parentRow) {
+      this.gridRow = row;
+      this.gridRow.setNebulaRow(this);
+      this.parentRow = parentRow;
+    }
+
     protected int getParentDepth(int depth) {
       if (getParentGridRow() != null) {
         return getParentWrapper().getParentDepth(depth + 1);
@@ -321,6 +375,11 @@ public class GridWrapper {
   // private GridCellRenderer cellRenderer;
 
   private static final int DEFAULT_COLUMN_WIDTH = 200;
+
+  /**
+   * the time in milliseconds between two resizes of the grid, one frame of a 60Hz display.
+   */
+  private static final int FRAME_INTERVAL = 16;
   private static final String DELETE_LINK_ICON_PATH_16 = "/icons/buttons/grid/DeleteButton_InCell_16.png"; //$NON-NLS-1$
   private static final String EDIT_LINK_ICON_PATH_16 = "/icons/buttons/grid/LinkButton_InCell_16.png"; //$NON-NLS-1$
   private static final String ADD_ICON_PATH_16 = "/icons/buttons/grid/AddButton_InCell_16.png"; //$NON-NLS-1$
@@ -344,8 +403,9 @@ public class GridWrapper {
   private static Image editLinkImage24;
 
   private float[] columnratios;
-  public Integer persistedScrollIndex;
   private boolean lockLocalUpdate;
+  private boolean resizePending;
+  private boolean columnResizePending;
   private Point mousePosition;
   private String[] headerToolTips = null;
 
@@ -473,6 +533,12 @@ public class GridWrapper {
 
   private List<NebulaGridRowWrapper> nebulaRows;
 
+  /**
+   * the keys of the {@link #nebulaRows}, they are used to find the items which can be reused on the
+   * next reload.
+   */
+  private List<Object> rowKeys;
+
   private String[] columnLabels = null;
 
   private GridCellRenderer cellRenderer;
@@ -494,6 +560,7 @@ public class GridWrapper {
   public GridWrapper(Composite parent, String[] columnLabels) {
     this.rows = new ArrayList<GridRow>();
     this.nebulaRows = new ArrayList<NebulaGridRowWrapper>();
+    this.rowKeys = new ArrayList<Object>();
     this.hoveredCell = null;
     this.mousePosition = new Point(0, 0);
     this.actualGrid = new Grid(parent, SWT.V_SCROLL | SWT.H_SCROLL | SWT.VIRTUAL);
@@ -517,19 +584,6 @@ public class GridWrapper {
         return getToolTip() != null;
       }
     };
-    this.actualGrid.addPaintListener(new PaintListener() {
-
-      @Override
-      public void paintControl(PaintEvent paintEvent) {
-        // setToolTip(null);
-        int maximum = actualGrid.getVerticalBar().getMaximum();
-        if (persistedScrollIndex != null && persistedScrollIndex < maximum) {
-          actualGrid.getVerticalBar().setSelection(Math.min(persistedScrollIndex + 1, maximum));
-          actualGrid.redraw();
-          persistedScrollIndex = null;
-        }
-      }
-    });
     this.setColumnLabels(columnLabels);
     this.actualGrid.addDisposeListener(new DisposeListener() {
 
@@ -548,7 +602,7 @@ public class GridWrapper {
 
       @Override
       public void controlResized(ControlEvent e) {
-        GridWrapper.this.resizeColumns();
+        GridWrapper.this.scheduleResize(true);
       }
     });
   }
@@ -626,6 +680,8 @@ public class GridWrapper {
   public void clearTable() {
     this.actualGrid.disposeAllItems();
     this.actualGrid.clearItems();
+    this.nebulaRows.clear();
+    this.rowKeys.clear();
   }
 
   /**
@@ -635,43 +691,119 @@ public class GridWrapper {
    * 
    */
   public void fillTable() {
-    this.nebulaRows.clear();
-    for (int i = 0; i < this.rows.size(); i++) {
-      addChildRows(null, this.rows.get(i), i, 0);
-    }
+    this.syncTable();
   }
 
-  private int addChildRows(NebulaGridRowWrapper parent, GridRow row, int rowIndex, int startIndex) {
-    row.setRowIndex(rowIndex++);
-    GridRow parentrow = null;
-    if (parent != null) {
-      parentrow = parent.getGridRow();
-    }
-    NebulaGridRowWrapper item = new NebulaGridRowWrapper(this.getGrid(), SWT.NONE, row, parentrow);
-
-    if (row.getColumnSpan() != null) {
-      item.setColumnSpan(row.getColumnSpan().x, row.getColumnSpan().y);
+  /**
+   * flattens the given row and its children into the list of entries in the order in which they
+   * are shown in the grid.
+   * 
+   * @return the number of descendants of the row
+   */
+  private int addChildRows(List<RowEntry> entries, int parent, GridRow row, int rowIndex) {
+    row.setRowIndex(rowIndex);
+    Object parentKey = null;
+    if (parent >= 0) {
+      parentKey = entries.get(parent).key;
     }
-    // parentItem.pack();
-    if (parent != null) {
-      item.setParentWrapper(parent);
+    // rows without a key are identified by their position among their siblings
+    Object rowKey = row.getKey();
+    if (rowKey == null) {
+      rowKey = rowIndex;
     }
+    RowEntry entry = new RowEntry(row, parent, Arrays.asList(parentKey, rowKey));
+    int entryIndex = entries.size();
+    entries.add(entry);
     int childRowCount = row.getChildren().size();
-
-    item.setHeight(row.getPreferredHeight());
-
-    this.nebulaRows.add(item);
-    // add cells for children cells
     for (int childI = 0; childI < row.getChildren().size(); childI++) {
       GridRow childRow = row.getChildren().get(childI);
-      childRowCount += addChildRows(item, childRow, childI, startIndex + 1);
-    }
-    for (int cellIndices : row.getRowSpanningCells()) {
-      item.setRowSpan(cellIndices, childRowCount);
+      childRowCount += addChildRows(entries, entryIndex, childRow, childI);
     }
+    entry.descendants = childRowCount;
     return childRowCount;
   }
 
+  /**
+   * synchronizes the items of the grid with the current rows. The items of rows which have the same
+   * key as a row of the last reload are kept and only updated, the items of rows which are no
+   * longer there are disposed and new items are only inserted for new rows.
+   */
+  private void syncTable() {
+    List<RowEntry> entries = new ArrayList<>();
+    for (int i = 0; i < this.rows.size(); i++) {
+      addChildRows(entries, -1, this.rows.get(i), i);
+    }
+
+    Map<Object, LinkedList<Integer>> oldIndices = new HashMap<>();
+    for (int i = 0; i < this.rowKeys.size(); i++) {
+      LinkedList<Integer> indices = oldIndices.get(this.rowKeys.get(i));
+      if (indices == null) {
+        indices = new LinkedList<>();
+        oldIndices.put(this.rowKeys.get(i), indices);
+      }
+      indices.add(i);
+    }
+    // the reused items must keep their order, an item which has been moved is inserted anew
+    boolean[] kept = new boolean[this.nebulaRows.size()];
+    int lastKept = -1;
+    for (RowEntry entry : entries) {
+      LinkedList<Integer> indices = oldIndices.get(entry.key);
+      if (indices != null && !indices.isEmpty() && indices.getFirst() > lastKept) {
+        lastKept = indices.removeFirst();
+        kept[lastKept] = true;
+        entry.item = this.nebulaRows.get(lastKept);
+      }
+    }
+    if (lastKept < 0) {
+      this.actualGrid.disposeAllItems();
+      this.actualGrid.clearItems();
+    } else {
+      for (int i = this.nebulaRows.size() - 1; i >= 0; i--) {
+        if (!kept[i]) {
+          this.nebulaRows.get(i).dispose();
+        }
+      }
+    }
+
+    this.nebulaRows.clear();
+    this.rowKeys.clear();
+    int columnCount = this.actualGrid.getColumnCount();
+    for (int index = 0; index < entries.size(); index++) {
+      RowEntry entry = entries.get(index);
+      GridRow parentRow = null;
+      NebulaGridRowWrapper parentItem = null;
+      if (entry.parent >= 0) {
+        parentRow = entries.get(entry.parent).row;
+        parentItem = entries.get(entry.parent).item;
+      }
+      NebulaGridRowWrapper item = entry.item;
+      if (item == null) {
+        item = new NebulaGridRowWrapper(this.actualGrid, SWT.NONE, index, entry.row, parentRow);
+        entry.item = item;
+      } else {
+        item.setGridRow(entry.row, parentRow);
+        for (int column = 0; column < columnCount; column++) {
+          if (item.getColumnSpan(column) != 0) {
+            item.setColumnSpan(column, 0);
+          }
+          if (item.getRowSpan(column) != 0) {
+            item.setRowSpan(column, 0);
+          }
+        }
+      }
+      item.setParentWrapper(parentItem);
+      if (entry.row.getColumnSpan() != null) {
+        item.setColumnSpan(entry.row.getColumnSpan().x, entry.row.getColumnSpan().y);
+      }
+      item.setHeight(entry.row.getPreferredHeight());
+      for (int cellIndices : entry.row.getRowSpanningCells()) {
+        item.setRowSpan(cellIndices, entry.descendants);
+      }
+      this.nebulaRows.add(item);
+      this.rowKeys.add(entry.key);
+    }
+  }
+
   public IGridCell getEditClient() {
     return this.editClient;
   }
@@ -863,14 +995,59 @@ public class GridWrapper {
   }
 
   /**
-   * Clears and fills the whole table.
+   * Updates the table with the current rows. Only the items of rows which have been added or
+   * removed since the last reload are created or disposed, the focused cell, the selection and the
+   * row at the top of the visible area are kept if their rows are still there.
    * 
    * @author Benedikt Markt, Patrick Wickenhaeuser, Lukas Balzer
    * 
+   * @see GridRow#setKey(Object)
    */
   public void reloadTable() {
-    this.clearTable();
-    this.fillTable();
+    GridItem topItem = null;
+    int topIndex = this.actualGrid.getVerticalBar().getSelection();
+    if (topIndex >= 0 && topIndex < this.nebulaRows.size()) {
+      topItem = this.nebulaRows.get(topIndex);
+    }
+    GridItem focusItem = this.actualGrid.getFocusItem();
+    GridColumn focusColumn = this.actualGrid.getFocusColumn();
+    List<GridItem> selectedItems = new ArrayList<>();
+    List<Integer> selectedColumns = new ArrayList<>();
+    for (Point selection : this.actualGrid.getCellSelection()) {
+      if (selection.y >= 0 && selection.y < this.nebulaRows.size()) {
+        selectedItems.add(this.nebulaRows.get(selection.y));
+        selectedColumns.add(selection.x);
+      }
+    }
+
+    this.actualGrid.setRedraw(false);
+    try {
+      this.syncTable();
+
+      List<Point> selection = new ArrayList<>();
+      for (int i = 0; i < selectedItems.size(); i++) {
+        if (!selectedItems.get(i).isDisposed()) {
+          selection.add(
+              new Point(selectedColumns.get(i), this.actualGrid.indexOf(selectedItems.get(i))));
+        }
+      }
+      this.actualGrid.setCellSelection(selection.toArray(new Point[selection.size()]));
+      if (focusItem != null && !focusItem.isDisposed()) {
+        this.actualGrid.setFocusItem(focusItem);
+        if (focusColumn != null && !focusColumn.isDisposed()) {
+          this.actualGrid.setFocusColumn(focusColumn);
+          int column = this.actualGrid.indexOf(focusColumn);
+          setFocusedCell(((NebulaGridRowWrapper) focusItem).getCell(column));
+        }
+      } else {
+        setFocusedCell(null);
+      }
+      if (topItem != null && !topItem.isDisposed()) {
+        this.actualGrid.getVerticalBar().setSelection(this.actualGrid.indexOf(topItem));
+      }
+    } finally {
+      this.actualGrid.setRedraw(true);
+    }
   }
 
   public void setColumnratios(float[] columnratios) {
@@ -921,6 +1098,38 @@ public class GridWrapper {
     }
   }
 
+  /**
+   * Resizes the rows which need a refresh with the next frame, all requests which arrive until then
+   * are handled by one resize.
+   */
+  public void scheduleResizeRows() {
+    scheduleResize(false);
+  }
+
+  private void scheduleResize(boolean columns) {
+    this.columnResizePending |= columns;
+    if (this.resizePending) {
+      return;
+    }
+    this.resizePending = true;
+    this.actualGrid.getDisplay().timerExec(FRAME_INTERVAL, new Runnable() {
+
+      @Override
+      public void run() {
+        GridWrapper.this.resizePending = false;
+        if (GridWrapper.this.actualGrid.isDisposed()) {
+          return;
+        }
+        if (GridWrapper.this.columnResizePending) {
+          GridWrapper.this.columnResizePending = false;
+          GridWrapper.this.resizeColumns();
+        } else {
+          GridWrapper.this.resizeRows();
+        }
+      }
+    });
+  }
+
   /**
    * Resize the rows accodring to the their preferred heights.
    * 
@@ -386,6 +386,7 @@ public abstract class AbstractExportPage extends AbstractWizardPage implements I
                 .setImage(Activator.getImageDescriptor("/icons/exportPortrait.png").createImage()); //$NON-NLS-1$
             pageFormat = A4_PORTRAIT;
           }
+          pageFormatChanged();
         }
       });
       return chooser;
@@ -403,6 +404,7 @@ public abstract class AbstractExportPage extends AbstractWizardPage implements I
           @Override
           public void widgetSelected(SelectionEvent e) {
             pageFormat = format;
+            pageFormatChanged();
           }
         });
         if (format.equals(pageFormat)) {
@@ -488,6 +490,13 @@ public abstract class AbstractExportPage extends AbstractWizardPage implements I
   // }
   // }
 
+  /**
+   * called when the page format has been changed with the format chooser, does nothing by default
+   */
+  protected void pageFormatChanged() {
+    // does nothing by default
+  }
+
   /**
    * @return the pageFormat
    */
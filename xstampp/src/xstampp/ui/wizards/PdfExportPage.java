@@ -18,16 +18,24 @@ import java.util.UUID;
 
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.layout.FormAttachment;
 import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
@@ -36,6 +44,8 @@ import org.eclipse.swt.widgets.Text;
 
 import messages.Messages;
 import xstampp.preferences.IPreferenceConstants;
+import xstampp.ui.common.ProjectManager;
+import xstampp.util.PdfPreviewJob;
 
 /**
  * Create export page.
@@ -45,6 +55,8 @@ import xstampp.preferences.IPreferenceConstants;
  */
 public class PdfExportPage extends AbstractExportPage implements ModifyListener {
 
+  private static final int LIVE_PREVIEW_HEIGHT = 280;
+  private static final int LIVE_PREVIEW_GAP = 10;
   private Composite container;
   private Text textCompany;
   private ColorChooser bgChooser, fontChooser;
@@ -61,6 +73,12 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
   private String[] filterExtensions;
   private String[] filterNames;
   private Control topElement;
+  private String previewXsl;
+  private Class<?> previewClass;
+  private String previewTitle;
+  private PdfPreviewJob previewJob;
+  private Canvas previewCanvas;
+  private Image[] previewImages;
 
   /**
    * Constructor.
@@ -172,7 +190,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
         @Override
         public void modifyText(ModifyEvent e) {
           store.setValue(IPreferenceConstants.COMPANY_NAME, textCompany.getText());
-
+          requestPreview();
         }
       });
       if (companyName != null) {
@@ -190,6 +208,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
         @Override
         public void modifyText(ModifyEvent e) {
           store.setValue(IPreferenceConstants.COMPANY_LOGO, logoComposite.getText());
+          requestPreview();
         }
       });
       String logoName = this.store.getString(IPreferenceConstants.COMPANY_LOGO);
@@ -359,12 +378,140 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
       data.width = parent.getBounds().width;
       this.sampleComp.setLayoutData(data);
       topElement = this.sampleComp;
+      if (this.previewXsl != null) {
+        createLivePreview();
+      }
     }
     // Required to avoid an error in the system
     this.setControl(this.container);
 
   }
 
+  /**
+   * creates the canvas which shows the first pages of the export as they are rendered by the
+   * {@link PdfPreviewJob}
+   */
+  private void createLivePreview() {
+    this.previewCanvas = new Canvas(this.container, SWT.BORDER | SWT.DOUBLE_BUFFERED);
+    FormData data = new FormData();
+    data.top = new FormAttachment(topElement, AbstractWizardPage.COMPONENT_OFFSET);
+    data.left = new FormAttachment(4);
+    data.right = new FormAttachment(96);
+    data.height = LIVE_PREVIEW_HEIGHT;
+    this.previewCanvas.setLayoutData(data);
+    this.previewCanvas.addPaintListener(new PaintListener() {
+
+      @Override
+      public void paintControl(PaintEvent e) {
+        paintLivePreview(e);
+      }
+    });
+    this.previewCanvas.addDisposeListener(new DisposeListener() {
+
+      @Override
+      public void widgetDisposed(DisposeEvent e) {
+        if (previewJob != null) {
+          previewJob.setModel(null);
+          previewJob.cancel();
+          previewJob = null;
+        }
+        disposePreviewImages();
+      }
+    });
+    this.previewJob = new PdfPreviewJob(this.previewXsl, this.previewClass, this.previewTitle,
+        new PdfPreviewJob.IPreviewListener() {
+
+          @Override
+          public void previewRendered(ImageData[] pages) {
+            if (previewCanvas == null || previewCanvas.isDisposed()) {
+              return;
+            }
+            disposePreviewImages();
+            previewImages = new Image[pages.length];
+            for (int i = 0; i < pages.length; i++) {
+              previewImages[i] = new Image(previewCanvas.getDisplay(), pages[i]);
+            }
+            previewCanvas.redraw();
+          }
+        });
+    topElement = this.previewCanvas;
+    requestPreview();
+  }
+
+  private void paintLivePreview(PaintEvent e) {
+    Rectangle area = this.previewCanvas.getClientArea();
+    if (this.previewImages == null) {
+      e.gc.drawText(Messages.Preview, LIVE_PREVIEW_GAP, LIVE_PREVIEW_GAP, true);
+      return;
+    }
+    int x = LIVE_PREVIEW_GAP;
+    int height = area.height - 2 * LIVE_PREVIEW_GAP;
+    for (Image image : this.previewImages) {
+      Rectangle bounds = image.getBounds();
+      int width = bounds.width * height / Math.max(1, bounds.height);
+      e.gc.drawImage(image, 0, 0, bounds.width, bounds.height, x, LIVE_PREVIEW_GAP, width, height);
+      e.gc.drawRectangle(x, LIVE_PREVIEW_GAP, width, height);
+      x += width + LIVE_PREVIEW_GAP;
+    }
+  }
+
+  private void disposePreviewImages() {
+    if (this.previewImages != null) {
+      for (Image image : this.previewImages) {
+        image.dispose();
+      }
+      this.previewImages = null;
+    }
+  }
+
+  /**
+   * requests a new rendering of the live preview with the current settings, the rendering starts
+   * after a short delay so that a series of changes leads to only one rendering
+   */
+  private void requestPreview() {
+    if (this.previewJob == null || getProjectID() == null) {
+      return;
+    }
+    this.previewJob.setModel(ProjectManager.getContainerInstance().getDataModel(getProjectID()));
+    this.previewJob.update(getPageFormat(), getTitleSize(), getHeadSize(), getContentSize());
+  }
+
+  /**
+   * stops the live preview and waits until a running rendering has finished, so that the preview
+   * does not use the model while it is prepared for the export. The preview is not rendered again
+   * afterwards.
+   */
+  public void stopLivePreview() {
+    if (this.previewJob != null) {
+      PdfPreviewJob job = this.previewJob;
+      this.previewJob = null;
+      job.stop();
+    }
+  }
+
+  /**
+   * enables a live preview which renders the first pages of the export whenever a setting is
+   * changed, the preview is only shown if the preview canvas is enabled for this page.<br>
+   * This must be called before the control of this page is created.
+   *
+   * @param xslResource
+   *          the path of the xsl file as it is passed to {@link Class#getResource(String)}
+   * @param xslClass
+   *          a class of the bundle which contains the xsl file
+   * @param pdfTitle
+   *          the title which is printed in the head of each page
+   */
+  public void setLivePreview(String xslResource, Class<?> xslClass, String pdfTitle) {
+    this.previewXsl = xslResource;
+    this.previewClass = xslClass;
+    this.previewTitle = pdfTitle;
+  }
+
+  @Override
+  protected void pageFormatChanged() {
+    requestPreview();
+  }
+
   protected Control getBottomControl() {
     return topElement;
   }
@@ -415,6 +562,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
     if (this.sampleComp != null) {
       this.sampleComp.redraw();
     }
+    requestPreview();
   }
 
   /**
@@ -431,6 +579,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
     if (this.sampleComp != null) {
       this.sampleComp.setProjectID(projectID);
     }
+    requestPreview();
   }
 
   /**
@@ -494,6 +643,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
     if (this.sampleComp != null) {
       this.sampleComp.setContentSize(contentSize);
     }
+    requestPreview();
   }
 
   @Override
@@ -503,6 +653,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
     if (this.sampleComp != null) {
       this.sampleComp.setTitleSize(titleSize);
     }
+    requestPreview();
   }
 
   @Override
@@ -511,6 +662,7 @@ public class PdfExportPage extends AbstractExportPage implements ModifyListener
       this.sampleComp.setHeadSize(headSize);
     }
     super.setHeadSize(headSize);
+    requestPreview();
   }
 
   /**
@@ -73,6 +73,16 @@ public class EmptyProject extends AbstractDataModel implements IUserProject {
 
   }
 
+  @Override
+  public int prepareForPreview() {
+    return 0;
+  }
+
+  @Override
+  public void releasePreview(int preparation) {
+    // an empty project is never prepared
+  }
+
   @Override
   public String getProjectName() {
     // TODO Auto-generated method stub
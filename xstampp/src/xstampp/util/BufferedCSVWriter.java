@@ -2,7 +2,7 @@
  * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
  * Institute of Software Technology, Software Engineering Group
  * University of Stuttgart, Germany
- * 
+ *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License v1.0 which
  * accompanies this distribution, and is available at
@@ -15,17 +15,30 @@ import java.io.IOException;
 import java.io.Writer;
 
 /**
- * a Writer Class which extends the functionality of the BufferedWriter to
- * enhance the function to write an csv file
- * 
+ * a Writer which writes a csv file as it is defined by RFC 4180.<br>
+ * Each cell ends with the separator character and each line ends with a CRLF. A cell which
+ * contains the separator, a quote or a line break is enclosed in quotes and the quotes in it are
+ * doubled, so that all cell contents survive the export unchanged.<br>
+ * The text passed to the write methods of this writer is collected in the current cell, it is
+ * written when the cell is finished by one of the <code>writeCell</code> methods or by
+ * {@link #newLine()}.
+ *
  * @author Lukas Balzer
- * 
+ *
  */
-public class BufferedCSVWriter extends BufferedWriter {
+public class BufferedCSVWriter extends Writer {
+  private static final char QUOTE = '"';
+  private static final String LINE_END = "\r\n"; //$NON-NLS-1$
+  private static final int MIN_INT_LENGTH = 11;
+
+  private final Writer out;
   private final char seperator;
+  private char[] cell;
+  private int cellLength;
+  private boolean cellOpen;
 
   /**
-   * 
+   *
    * @author Lukas Balzer
    * @param fileWriter
    *          the writer Object which shall be buffered
@@ -33,51 +46,157 @@ public class BufferedCSVWriter extends BufferedWriter {
    *          the separator for the csv file
    */
   public BufferedCSVWriter(Writer fileWriter, char seperator) {
-    super(fileWriter);
+    this.out = fileWriter instanceof BufferedWriter ? fileWriter : new BufferedWriter(fileWriter);
     this.seperator = seperator;
+    this.cell = new char[256];
+    this.cellLength = 0;
+    this.cellOpen = false;
   }
 
   /**
    * writes a cell to the CSV file which ends with the separator character
-   * 
+   *
    * @author Lukas Balzer
-   * 
+   *
    * @param text
-   *          the contents of the cell
+   *          the contents of the cell, <code>null</code> is written as an empty cell
    * @throws IOException
    *           if the text can not be written
    */
   public void writeCell(String text) throws IOException {
     if (text != null) {
-      write(text.replaceAll("\\n|[\\r]\\n|" + seperator, ""));
+      write(text, 0, text.length());
     }
-    write(this.seperator);
+    endCell();
+    this.out.write(this.seperator);
   }
 
   /**
    * writes a cell to the CSV file which ends with the separator character
-   * 
+   *
    * @author Lukas Balzer
-   * 
+   *
    * @param nr
    *          the contents of the cell
    * @throws IOException
    *           if the text can not be written
    */
   public void writeCell(int nr) throws IOException {
-    super.write(nr);
-    super.write(this.seperator);
+    if (this.cellOpen) {
+      // the number is appended to the text which has been written into this cell
+      writeCell(Integer.toString(nr));
+      return;
+    }
+    // a number never needs to be quoted so its digits are written directly
+    ensureCapacity(MIN_INT_LENGTH);
+    int end = MIN_INT_LENGTH;
+    long value = Math.abs((long) nr);
+    do {
+      this.cell[--end] = (char) ('0' + value % 10);
+      value /= 10;
+    } while (value > 0);
+    if (nr < 0) {
+      this.cell[--end] = '-';
+    }
+    this.out.write(this.cell, end, MIN_INT_LENGTH - end);
+    this.out.write(this.seperator);
   }
 
   /**
    * writes a cell to the CSV file which ends with the separator character
-   * 
+   *
    * @author Lukas Balzer
-   * 
+   *
    * @throws IOException
    *           if the text can not be written
    */
   public void writeCell() throws IOException {
-    super.write(this.seperator);
+    endCell();
+    this.out.write(this.seperator);
+  }
+
+  /**
+   * finishes the current cell without a separator and starts a new line
+   *
+   * @throws IOException
+   *           if the line can not be written
+   */
+  public void newLine() throws IOException {
+    endCell();
+    this.out.write(LINE_END);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    ensureCapacity(this.cellLength + len);
+    System.arraycopy(cbuf, off, this.cell, this.cellLength, len);
+    this.cellLength += len;
+    this.cellOpen = true;
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    ensureCapacity(this.cellLength + len);
+    str.getChars(off, off + len, this.cell, this.cellLength);
+    this.cellLength += len;
+    this.cellOpen = true;
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    ensureCapacity(this.cellLength + 1);
+    this.cell[this.cellLength++] = (char) c;
+    this.cellOpen = true;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    endCell();
+    this.out.close();
+  }
+
+  /**
+   * writes the collected text of the current cell, the text is quoted if it contains the
+   * separator, a quote or a line break
+   */
+  private void endCell() throws IOException {
+    if (!this.cellOpen) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < this.cellLength && !quote; i++) {
+      char c = this.cell[i];
+      quote = c == this.seperator || c == QUOTE || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      this.out.write(this.cell, 0, this.cellLength);
+    } else {
+      this.out.write(QUOTE);
+      int start = 0;
+      for (int i = 0; i < this.cellLength; i++) {
+        if (this.cell[i] == QUOTE) {
+          // writes the text up to and including the quote, the quote is written again as escape
+          this.out.write(this.cell, start, i + 1 - start);
+          start = i;
+        }
+      }
+      this.out.write(this.cell, start, this.cellLength - start);
+      this.out.write(QUOTE);
+    }
+    this.cellLength = 0;
+    this.cellOpen = false;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (this.cell.length < capacity) {
+      char[] newCell = new char[Math.max(capacity, 2 * this.cell.length)];
+      System.arraycopy(this.cell, 0, newCell, 0, this.cellLength);
+      this.cell = newCell;
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,781 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * A writer which streams a word document in the docx format.<br>
+ * The package is started from a template which holds the styles, headers and footers of the
+ * document, the body is written with StAX directly into the <code>word/document.xml</code> entry
+ * of the zip so that only the element which is currently written is kept in memory. The images
+ * added to the document are only referenced until the document is closed, they are written into
+ * the package without being copied.<br>
+ * If no template is given the document is started from the template package which is stored
+ * unzipped in the <code>docx</code> folder next to this class.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class DocxStreamWriter implements Closeable {
+
+  /**
+   * the value of a vertical merge which starts a merged cell
+   */
+  public static final String MERGE_RESTART = "restart"; //$NON-NLS-1$
+  /**
+   * the value of a vertical merge which continues the merged cell of the previous row
+   */
+  public static final String MERGE_CONTINUE = "continue"; //$NON-NLS-1$
+  public static final String ALIGN_LEFT = "left"; //$NON-NLS-1$
+  public static final String ALIGN_CENTER = "center"; //$NON-NLS-1$
+
+  /**
+   * the width of a page with the margins of the default template in twentieths of a point
+   */
+  public static final int TEXT_WIDTH = 9026;
+
+  private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main"; //$NON-NLS-1$
+  private static final String R_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships"; //$NON-NLS-1$
+  private static final String WP_NS = "http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing"; //$NON-NLS-1$
+  private static final String A_NS = "http://schemas.openxmlformats.org/drawingml/2006/main"; //$NON-NLS-1$
+  private static final String PIC_NS = "http://schemas.openxmlformats.org/drawingml/2006/picture"; //$NON-NLS-1$
+  private static final String CT_NS = "http://schemas.openxmlformats.org/package/2006/content-types"; //$NON-NLS-1$
+  private static final String REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships"; //$NON-NLS-1$
+  private static final String IMAGE_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/image"; //$NON-NLS-1$
+  private static final String DOCUMENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml"; //$NON-NLS-1$
+
+  private static final String CONTENT_TYPES = "[Content_Types].xml"; //$NON-NLS-1$
+  private static final String DOCUMENT = "word/document.xml"; //$NON-NLS-1$
+  private static final String DOCUMENT_RELS = "word/_rels/document.xml.rels"; //$NON-NLS-1$
+  private static final String[] DEFAULT_TEMPLATE = { CONTENT_TYPES, "_rels/.rels", DOCUMENT, //$NON-NLS-1$
+      DOCUMENT_RELS, "word/styles.xml", "word/settings.xml", "word/header1.xml" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+  private final ZipOutputStream zip;
+  private final XMLStreamWriter xml;
+  private final Map<String, String> defaultTypes;
+  private final Map<String, String> overrideTypes;
+  private final Map<String, String[]> relationships;
+  private final List<XMLEvent> sectionProperties;
+  private final List<Image> images;
+  private int tableDepth;
+  private boolean cellHasParagraph;
+  private boolean closed;
+
+  /**
+   * a style of the text runs in the document, all properties which are not set are taken from the
+   * paragraph style of the template
+   */
+  public static class RunStyle {
+    private boolean bold;
+    private boolean italic;
+    private boolean underline;
+    private int fontSize;
+    private String fontFamily;
+    private String color;
+    private String fill;
+
+    public RunStyle setBold(boolean bold) {
+      this.bold = bold;
+      return this;
+    }
+
+    public RunStyle setItalic(boolean italic) {
+      this.italic = italic;
+      return this;
+    }
+
+    public RunStyle setUnderline(boolean underline) {
+      this.underline = underline;
+      return this;
+    }
+
+    /**
+     * @param fontSize
+     *          the size of the font in points or 0 for the size of the template
+     */
+    public RunStyle setFontSize(int fontSize) {
+      this.fontSize = fontSize;
+      return this;
+    }
+
+    public RunStyle setFontFamily(String fontFamily) {
+      this.fontFamily = fontFamily;
+      return this;
+    }
+
+    /**
+     * @param color
+     *          the color of the text as hex string without a leading <code>#</code>
+     */
+    public RunStyle setColor(String color) {
+      this.color = color;
+      return this;
+    }
+
+    /**
+     * @param fill
+     *          the background color of the text as hex string without a leading <code>#</code>
+     */
+    public RunStyle setFill(String fill) {
+      this.fill = fill;
+      return this;
+    }
+  }
+
+  private static class Image {
+    private final byte[] data;
+    private final String part;
+
+    Image(byte[] data, String part) {
+      this.data = data;
+      this.part = part;
+    }
+  }
+
+  /**
+   * the stream of an entry of the zip, closing the stream only flushes it so that the zip stays
+   * open
+   */
+  private static class EntryStream extends FilterOutputStream {
+
+    EntryStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      this.out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+
+  /**
+   * starts a document which is written into the given stream
+   *
+   * @param out
+   *          the stream the docx package is written to, the stream is closed when this writer is
+   *          closed
+   * @param template
+   *          a docx or dotx file whose styles, headers and page settings are used for the document
+   *          or <code>null</code> for the default template
+   * @throws IOException
+   *           if the template can not be read or the package can not be written
+   */
+  public DocxStreamWriter(OutputStream out, File template) throws IOException {
+    this.zip = new ZipOutputStream(out);
+    this.defaultTypes = new LinkedHashMap<>();
+    this.overrideTypes = new LinkedHashMap<>();
+    this.relationships = new LinkedHashMap<>();
+    this.sectionProperties = new ArrayList<>();
+    this.images = new ArrayList<>();
+    this.tableDepth = 0;
+    this.closed = false;
+    try {
+      if (template == null) {
+        for (String name : DEFAULT_TEMPLATE) {
+          try (InputStream stream = DocxStreamWriter.class.getResourceAsStream("docx/" + name)) { //$NON-NLS-1$
+            readTemplatePart(name, readAll(stream));
+          }
+        }
+      } else {
+        try (ZipFile templateZip = new ZipFile(template)) {
+          Enumeration<? extends ZipEntry> entries = templateZip.entries();
+          while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory()) {
+              try (InputStream stream = templateZip.getInputStream(entry)) {
+                readTemplatePart(entry.getName(), readAll(stream));
+              }
+            }
+          }
+        }
+      }
+      this.overrideTypes.put("/" + DOCUMENT, DOCUMENT_TYPE); //$NON-NLS-1$
+
+      this.zip.putNextEntry(new ZipEntry(DOCUMENT));
+      this.xml = XMLOutputFactory.newInstance().createXMLStreamWriter(new EntryStream(this.zip),
+          "UTF-8"); //$NON-NLS-1$
+      this.xml.writeStartDocument("UTF-8", "1.0"); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeStartElement("w", "document", W_NS); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeNamespace("w", W_NS); //$NON-NLS-1$
+      this.xml.writeNamespace("r", R_NS); //$NON-NLS-1$
+      this.xml.writeNamespace("wp", WP_NS); //$NON-NLS-1$
+      this.xml.writeNamespace("a", A_NS); //$NON-NLS-1$
+      this.xml.writeNamespace("pic", PIC_NS); //$NON-NLS-1$
+      this.xml.writeStartElement(W_NS, "body"); //$NON-NLS-1$
+    } catch (XMLStreamException e) {
+      this.zip.close();
+      throw new IOException(e);
+    } catch (IOException e) {
+      this.zip.close();
+      throw e;
+    }
+  }
+
+  /**
+   * starts a new paragraph, the paragraph must be finished with {@link #endParagraph()}
+   *
+   * @param alignment
+   *          one of the <code>ALIGN_*</code> constants or <code>null</code> for the alignment of
+   *          the template
+   */
+  public void startParagraph(String alignment) throws IOException {
+    try {
+      this.xml.writeStartElement(W_NS, "p"); //$NON-NLS-1$
+      if (alignment != null) {
+        this.xml.writeStartElement(W_NS, "pPr"); //$NON-NLS-1$
+        writeValue("jc", alignment); //$NON-NLS-1$
+        this.xml.writeEndElement();
+      }
+      this.cellHasParagraph = true;
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  public void endParagraph() throws IOException {
+    try {
+      this.xml.writeEndElement();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * writes a run of text into the current paragraph, line breaks and tabulators in the text are
+   * written as breaks and tabs of the run
+   *
+   * @param text
+   *          the text of the run, <code>null</code> is ignored
+   * @param style
+   *          the style of the run or <code>null</code>
+   */
+  public void writeRun(String text, RunStyle style) throws IOException {
+    if (text == null) {
+      return;
+    }
+    try {
+      this.xml.writeStartElement(W_NS, "r"); //$NON-NLS-1$
+      writeRunProperties(style);
+      StringBuilder chunk = new StringBuilder();
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c == '\n' || c == '\t') {
+          writeText(chunk);
+          this.xml.writeEmptyElement(W_NS, c == '\n' ? "br" : "tab"); //$NON-NLS-1$ //$NON-NLS-2$
+        } else if (c >= 0x20 || c == '\r') {
+          // a carriage return is only written as part of a line break
+          if (c != '\r') {
+            chunk.append(c);
+          }
+        }
+      }
+      writeText(chunk);
+      this.xml.writeEndElement();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * writes a paragraph which contains only the given text
+   */
+  public void writeParagraph(String text, RunStyle style, String alignment) throws IOException {
+    startParagraph(alignment);
+    writeRun(text, style);
+    endParagraph();
+  }
+
+  /**
+   * starts a new table, the table must be finished with {@link #endTable()}
+   *
+   * @param columnWidths
+   *          the widths of the columns in twentieths of a point
+   */
+  public void startTable(int... columnWidths) throws IOException {
+    try {
+      this.xml.writeStartElement(W_NS, "tbl"); //$NON-NLS-1$
+      this.xml.writeStartElement(W_NS, "tblPr"); //$NON-NLS-1$
+      writeValue("tblStyle", "TableGrid"); //$NON-NLS-1$ //$NON-NLS-2$
+      int width = 0;
+      for (int columnWidth : columnWidths) {
+        width += columnWidth;
+      }
+      this.xml.writeEmptyElement(W_NS, "tblW"); //$NON-NLS-1$
+      this.xml.writeAttribute("w", W_NS, "w", Integer.toString(width)); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeAttribute("w", W_NS, "type", "dxa"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+      this.xml.writeEndElement();
+      this.xml.writeStartElement(W_NS, "tblGrid"); //$NON-NLS-1$
+      for (int columnWidth : columnWidths) {
+        this.xml.writeEmptyElement(W_NS, "gridCol"); //$NON-NLS-1$
+        this.xml.writeAttribute("w", W_NS, "w", Integer.toString(columnWidth)); //$NON-NLS-1$ //$NON-NLS-2$
+      }
+      this.xml.writeEndElement();
+      this.tableDepth++;
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * starts a new row which is repeated on each page if it is a header row
+   */
+  public void startRow(boolean header) throws IOException {
+    try {
+      this.xml.writeStartElement(W_NS, "tr"); //$NON-NLS-1$
+      if (header) {
+        this.xml.writeStartElement(W_NS, "trPr"); //$NON-NLS-1$
+        this.xml.writeEmptyElement(W_NS, "tblHeader"); //$NON-NLS-1$
+        this.xml.writeEndElement();
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  public void endRow() throws IOException {
+    endElement();
+  }
+
+  /**
+   * starts a new cell in the current row, the cell must contain at least one paragraph so an
+   * empty paragraph is added by {@link #endCell()} if none has been written
+   *
+   * @param fill
+   *          the background color of the cell as hex string or <code>null</code>
+   * @param merge
+   *          {@link #MERGE_RESTART}, {@link #MERGE_CONTINUE} or <code>null</code> if the cell
+   *          is not merged with the cells above or below
+   */
+  public void startCell(String fill, String merge) throws IOException {
+    try {
+      this.xml.writeStartElement(W_NS, "tc"); //$NON-NLS-1$
+      if (fill != null || merge != null) {
+        this.xml.writeStartElement(W_NS, "tcPr"); //$NON-NLS-1$
+        if (merge != null) {
+          writeValue("vMerge", merge); //$NON-NLS-1$
+        }
+        if (fill != null) {
+          writeShading(fill);
+        }
+        this.xml.writeEndElement();
+      }
+      this.cellHasParagraph = false;
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  public void endCell() throws IOException {
+    if (!this.cellHasParagraph) {
+      startParagraph(null);
+      endParagraph();
+    }
+    endElement();
+  }
+
+  /**
+   * writes a cell which contains one paragraph with the given text
+   */
+  public void writeCell(String text, String fill, RunStyle style, String alignment)
+      throws IOException {
+    startCell(fill, null);
+    writeParagraph(text, style, alignment);
+    endCell();
+  }
+
+  public void endTable() throws IOException {
+    endElement();
+    this.tableDepth--;
+    if (this.tableDepth == 0) {
+      // two tables which follow each other would be merged by word
+      startParagraph(null);
+      endParagraph();
+    }
+  }
+
+  /**
+   * adds a paragraph which shows the given image, the image is only referenced until the
+   * document is closed
+   *
+   * @param image
+   *          the encoded image, the array must not be changed until the document is closed
+   * @param extension
+   *          the file extension of the image format, e.g. <code>png</code>
+   * @param width
+   *          the width of the image in points
+   * @param height
+   *          the height of the image in points
+   */
+  public void writePicture(byte[] image, String extension, float width, float height)
+      throws IOException {
+    int nr = this.images.size() + 1;
+    String relId = "rIdImage" + nr; //$NON-NLS-1$
+    while (this.relationships.containsKey(relId)) {
+      relId += "_"; //$NON-NLS-1$
+    }
+    String name = "image" + nr + "." + extension; //$NON-NLS-1$ //$NON-NLS-2$
+    this.images.add(new Image(image, "word/media/" + name)); //$NON-NLS-1$
+    this.relationships.put(relId, new String[] { IMAGE_REL, "media/" + name, null }); //$NON-NLS-1$
+    if (!this.defaultTypes.containsKey(extension)) {
+      this.defaultTypes.put(extension, "image/" + (extension.equals("jpg") ? "jpeg" : extension)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+    // one point are 12700 english metric units
+    String cx = Long.toString(Math.round(width * 12700));
+    String cy = Long.toString(Math.round(height * 12700));
+    try {
+      startParagraph(null);
+      this.xml.writeStartElement(W_NS, "r"); //$NON-NLS-1$
+      this.xml.writeStartElement(W_NS, "drawing"); //$NON-NLS-1$
+      this.xml.writeStartElement(WP_NS, "inline"); //$NON-NLS-1$
+      this.xml.writeEmptyElement(WP_NS, "extent"); //$NON-NLS-1$
+      this.xml.writeAttribute("cx", cx); //$NON-NLS-1$
+      this.xml.writeAttribute("cy", cy); //$NON-NLS-1$
+      this.xml.writeEmptyElement(WP_NS, "docPr"); //$NON-NLS-1$
+      this.xml.writeAttribute("id", Integer.toString(nr)); //$NON-NLS-1$
+      this.xml.writeAttribute("name", name); //$NON-NLS-1$
+      this.xml.writeStartElement(A_NS, "graphic"); //$NON-NLS-1$
+      this.xml.writeStartElement(A_NS, "graphicData"); //$NON-NLS-1$
+      this.xml.writeAttribute("uri", PIC_NS); //$NON-NLS-1$
+      this.xml.writeStartElement(PIC_NS, "pic"); //$NON-NLS-1$
+      this.xml.writeStartElement(PIC_NS, "nvPicPr"); //$NON-NLS-1$
+      this.xml.writeEmptyElement(PIC_NS, "cNvPr"); //$NON-NLS-1$
+      this.xml.writeAttribute("id", "0"); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeAttribute("name", name); //$NON-NLS-1$
+      this.xml.writeEmptyElement(PIC_NS, "cNvPicPr"); //$NON-NLS-1$
+      this.xml.writeEndElement();
+      this.xml.writeStartElement(PIC_NS, "blipFill"); //$NON-NLS-1$
+      this.xml.writeEmptyElement(A_NS, "blip"); //$NON-NLS-1$
+      this.xml.writeAttribute("r", R_NS, "embed", relId); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeStartElement(A_NS, "stretch"); //$NON-NLS-1$
+      this.xml.writeEmptyElement(A_NS, "fillRect"); //$NON-NLS-1$
+      this.xml.writeEndElement();
+      this.xml.writeEndElement();
+      this.xml.writeStartElement(PIC_NS, "spPr"); //$NON-NLS-1$
+      this.xml.writeStartElement(A_NS, "xfrm"); //$NON-NLS-1$
+      this.xml.writeEmptyElement(A_NS, "off"); //$NON-NLS-1$
+      this.xml.writeAttribute("x", "0"); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeAttribute("y", "0"); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeEmptyElement(A_NS, "ext"); //$NON-NLS-1$
+      this.xml.writeAttribute("cx", cx); //$NON-NLS-1$
+      this.xml.writeAttribute("cy", cy); //$NON-NLS-1$
+      this.xml.writeEndElement();
+      this.xml.writeStartElement(A_NS, "prstGeom"); //$NON-NLS-1$
+      this.xml.writeAttribute("prst", "rect"); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeEmptyElement(A_NS, "avLst"); //$NON-NLS-1$
+      this.xml.writeEndElement();
+      // spPr, pic, graphicData, graphic, inline, drawing, r
+      for (int i = 0; i < 7; i++) {
+        this.xml.writeEndElement();
+      }
+      endParagraph();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * finishes the document with the page settings of the template and writes the images and the
+   * package information
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      writeEvents(this.sectionProperties);
+      this.xml.writeEndElement();
+      this.xml.writeEndElement();
+      this.xml.writeEndDocument();
+      this.xml.close();
+      this.zip.closeEntry();
+
+      for (Image image : this.images) {
+        this.zip.putNextEntry(new ZipEntry(image.part));
+        this.zip.write(image.data);
+        this.zip.closeEntry();
+      }
+      this.images.clear();
+
+      XMLStreamWriter part = startPart(DOCUMENT_RELS, "Relationships", REL_NS); //$NON-NLS-1$
+      for (Map.Entry<String, String[]> relationship : this.relationships.entrySet()) {
+        part.writeEmptyElement(REL_NS, "Relationship"); //$NON-NLS-1$
+        part.writeAttribute("Id", relationship.getKey()); //$NON-NLS-1$
+        part.writeAttribute("Type", relationship.getValue()[0]); //$NON-NLS-1$
+        part.writeAttribute("Target", relationship.getValue()[1]); //$NON-NLS-1$
+        if (relationship.getValue()[2] != null) {
+          part.writeAttribute("TargetMode", relationship.getValue()[2]); //$NON-NLS-1$
+        }
+      }
+      endPart(part);
+
+      part = startPart(CONTENT_TYPES, "Types", CT_NS); //$NON-NLS-1$
+      for (Map.Entry<String, String> type : this.defaultTypes.entrySet()) {
+        part.writeEmptyElement(CT_NS, "Default"); //$NON-NLS-1$
+        part.writeAttribute("Extension", type.getKey()); //$NON-NLS-1$
+        part.writeAttribute("ContentType", type.getValue()); //$NON-NLS-1$
+      }
+      for (Map.Entry<String, String> type : this.overrideTypes.entrySet()) {
+        part.writeEmptyElement(CT_NS, "Override"); //$NON-NLS-1$
+        part.writeAttribute("PartName", type.getKey()); //$NON-NLS-1$
+        part.writeAttribute("ContentType", type.getValue()); //$NON-NLS-1$
+      }
+      endPart(part);
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    } finally {
+      this.zip.close();
+    }
+  }
+
+  /**
+   * copies a part of the template into the package, the parts which describe the document are
+   * read so that they can be written when the document is closed
+   */
+  private void readTemplatePart(String name, byte[] data) throws IOException, XMLStreamException {
+    if (name.equals(CONTENT_TYPES)) {
+      XMLStreamReader reader = createReader(data);
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+          if (reader.getLocalName().equals("Default")) { //$NON-NLS-1$
+            this.defaultTypes.put(reader.getAttributeValue(null, "Extension"), //$NON-NLS-1$
+                reader.getAttributeValue(null, "ContentType")); //$NON-NLS-1$
+          } else if (reader.getLocalName().equals("Override")) { //$NON-NLS-1$
+            this.overrideTypes.put(reader.getAttributeValue(null, "PartName"), //$NON-NLS-1$
+                reader.getAttributeValue(null, "ContentType")); //$NON-NLS-1$
+          }
+        }
+      }
+      reader.close();
+    } else if (name.equals(DOCUMENT_RELS)) {
+      XMLStreamReader reader = createReader(data);
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT
+            && reader.getLocalName().equals("Relationship")) { //$NON-NLS-1$
+          this.relationships.put(reader.getAttributeValue(null, "Id"), //$NON-NLS-1$
+              new String[] { reader.getAttributeValue(null, "Type"), //$NON-NLS-1$
+                  reader.getAttributeValue(null, "Target"), //$NON-NLS-1$
+                  reader.getAttributeValue(null, "TargetMode") }); //$NON-NLS-1$
+        }
+      }
+      reader.close();
+    } else if (name.equals(DOCUMENT)) {
+      readSectionProperties(data);
+    } else {
+      this.zip.putNextEntry(new ZipEntry(name));
+      this.zip.write(data);
+      this.zip.closeEntry();
+    }
+  }
+
+  /**
+   * stores the events of the last section properties of the template body which define the page
+   * size, the margins and the headers and footers of the document
+   */
+  private void readSectionProperties(byte[] data) throws XMLStreamException {
+    XMLEventReader reader = XMLInputFactory.newInstance()
+        .createXMLEventReader(new ByteArrayInputStream(data));
+    int depth = 0;
+    int sectionDepth = -1;
+    while (reader.hasNext()) {
+      XMLEvent event = reader.nextEvent();
+      if (event.isStartElement()) {
+        depth++;
+        // the section properties of the body are a child of w:document/w:body
+        if (depth == 3 && event.asStartElement().getName().getLocalPart().equals("sectPr")) { //$NON-NLS-1$
+          this.sectionProperties.clear();
+          sectionDepth = depth;
+        }
+      }
+      if (sectionDepth > 0) {
+        this.sectionProperties.add(event);
+      }
+      if (event.isEndElement()) {
+        if (depth == sectionDepth) {
+          sectionDepth = -1;
+        }
+        depth--;
+      }
+    }
+    reader.close();
+  }
+
+  private void writeEvents(List<XMLEvent> events) throws XMLStreamException {
+    for (XMLEvent event : events) {
+      if (event.isStartElement()) {
+        StartElement element = event.asStartElement();
+        String ns = element.getName().getNamespaceURI();
+        String prefix = this.xml.getPrefix(ns);
+        if (prefix == null) {
+          // a namespace of the template which is not declared on the document element
+          prefix = element.getName().getPrefix();
+          this.xml.writeStartElement(prefix, element.getName().getLocalPart(), ns);
+          this.xml.writeNamespace(prefix, ns);
+        } else {
+          this.xml.writeStartElement(prefix, element.getName().getLocalPart(), ns);
+        }
+        Iterator<?> attributes = element.getAttributes();
+        while (attributes.hasNext()) {
+          Attribute attr = (Attribute) attributes.next();
+          String attrNs = attr.getName().getNamespaceURI();
+          if (attrNs == null || attrNs.isEmpty()) {
+            this.xml.writeAttribute(attr.getName().getLocalPart(), attr.getValue());
+          } else {
+            String attrPrefix = this.xml.getPrefix(attrNs);
+            if (attrPrefix == null) {
+              attrPrefix = attr.getName().getPrefix();
+              this.xml.writeNamespace(attrPrefix, attrNs);
+            }
+            this.xml.writeAttribute(attrPrefix, attrNs, attr.getName().getLocalPart(),
+                attr.getValue());
+          }
+        }
+      } else if (event.isEndElement()) {
+        this.xml.writeEndElement();
+      } else if (event.isCharacters() && !event.asCharacters().isWhiteSpace()) {
+        this.xml.writeCharacters(event.asCharacters().getData());
+      }
+    }
+  }
+
+  private void writeRunProperties(RunStyle style) throws XMLStreamException {
+    if (style == null) {
+      return;
+    }
+    this.xml.writeStartElement(W_NS, "rPr"); //$NON-NLS-1$
+    if (style.fontFamily != null) {
+      this.xml.writeEmptyElement(W_NS, "rFonts"); //$NON-NLS-1$
+      this.xml.writeAttribute("w", W_NS, "ascii", style.fontFamily); //$NON-NLS-1$ //$NON-NLS-2$
+      this.xml.writeAttribute("w", W_NS, "hAnsi", style.fontFamily); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    if (style.bold) {
+      this.xml.writeEmptyElement(W_NS, "b"); //$NON-NLS-1$
+    }
+    if (style.italic) {
+      this.xml.writeEmptyElement(W_NS, "i"); //$NON-NLS-1$
+    }
+    if (style.color != null) {
+      writeValue("color", style.color); //$NON-NLS-1$
+    }
+    if (style.fontSize > 0) {
+      // the size is given in half points
+      writeValue("sz", Integer.toString(2 * style.fontSize)); //$NON-NLS-1$
+    }
+    if (style.underline) {
+      writeValue("u", "single"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    if (style.fill != null) {
+      writeShading(style.fill);
+    }
+    this.xml.writeEndElement();
+  }
+
+  private void writeShading(String fill) throws XMLStreamException {
+    this.xml.writeEmptyElement(W_NS, "shd"); //$NON-NLS-1$
+    this.xml.writeAttribute("w", W_NS, "val", "clear"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    this.xml.writeAttribute("w", W_NS, "color", "auto"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    this.xml.writeAttribute("w", W_NS, "fill", fill); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  private void writeText(StringBuilder text) throws XMLStreamException {
+    if (text.length() > 0) {
+      this.xml.writeStartElement(W_NS, "t"); //$NON-NLS-1$
+      this.xml.writeAttribute("xml", XMLConstants.XML_NS_URI, "space", "preserve"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+      this.xml.writeCharacters(text.toString());
+      this.xml.writeEndElement();
+      text.setLength(0);
+    }
+  }
+
+  private void writeValue(String element, String value) throws XMLStreamException {
+    this.xml.writeEmptyElement(W_NS, element);
+    this.xml.writeAttribute("w", W_NS, "val", value); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  private void endElement() throws IOException {
+    try {
+      this.xml.writeEndElement();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private XMLStreamWriter startPart(String name, String root, String ns)
+      throws IOException, XMLStreamException {
+    this.zip.putNextEntry(new ZipEntry(name));
+    XMLStreamWriter part = XMLOutputFactory.newInstance()
+        .createXMLStreamWriter(new EntryStream(this.zip), "UTF-8"); //$NON-NLS-1$
+    part.writeStartDocument("UTF-8", "1.0"); //$NON-NLS-1$ //$NON-NLS-2$
+    part.writeStartElement("", root, ns); //$NON-NLS-1$
+    part.writeDefaultNamespace(ns);
+    return part;
+  }
+
+  private void endPart(XMLStreamWriter part) throws IOException, XMLStreamException {
+    part.writeEndElement();
+    part.writeEndDocument();
+    part.close();
+    this.zip.closeEntry();
+  }
+
+  private static XMLStreamReader createReader(byte[] data) throws XMLStreamException {
+    return XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(data));
+  }
+
+  private static byte[] readAll(InputStream stream) throws IOException {
+    if (stream == null) {
+      throw new IOException("the template part could not be found"); //$NON-NLS-1$
+    }
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = stream.read(buffer)) >= 0) {
+      data.write(buffer, 0, read);
+    }
+    return data.toByteArray();
+  }
+}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import xstampp.ui.common.ProjectManager;
+
+/**
+ * A manifest which is stored in the output directory of an export and records for each exported
+ * file a key that describes all inputs the file has been created from.<br>
+ * The key of a file is build from the digests of the top level elements of the marshalled model
+ * the export reads and from the parameters of the export (e.g. the xsl resource and the page
+ * format). An export which is run again can skip every file whose key has not changed since the
+ * file has been created.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class ExportManifest {
+
+  /**
+   * the name of the manifest file in the output directory
+   */
+  public static final String FILE_NAME = ".export-manifest.properties"; //$NON-NLS-1$
+  private static final String DIGEST_ALGORITHM = "SHA-1"; //$NON-NLS-1$
+
+  private final File dir;
+  private final File file;
+  private final Properties entries;
+  private final Map<String, String> digests;
+
+  /**
+   * creates a manifest for the given output directory, the entries of an existing manifest file
+   * are loaded
+   *
+   * @param dir
+   *          the output directory of the export
+   */
+  public ExportManifest(File dir) {
+    this.dir = dir;
+    this.file = new File(dir, FILE_NAME);
+    this.entries = new Properties();
+    this.digests = new HashMap<>();
+    if (this.file.exists()) {
+      try (InputStream stream = new FileInputStream(this.file)) {
+        this.entries.load(stream);
+      } catch (IOException e) {
+        ProjectManager.getLOGGER().error("could not read the export manifest", e); //$NON-NLS-1$
+        this.entries.clear();
+      }
+    }
+  }
+
+  /**
+   * calculates a digest for each top level element of the given model, only the digests are
+   * kept so the xml can be discarded afterwards
+   *
+   * @param modelXml
+   *          the marshalled model or <code>null</code> in which case no file is up to date
+   * @param ignoredPaths
+   *          paths of elements relative to the root which change with every export and must not be
+   *          part of the digest, e.g. <code>exportinformation/date</code>
+   */
+  public void digestModel(byte[] modelXml, String... ignoredPaths) {
+    this.digests.clear();
+    if (modelXml == null) {
+      return;
+    }
+    Set<String> ignored = new HashSet<>(Arrays.asList(ignoredPaths));
+    try {
+      XMLStreamReader reader = XMLInputFactory.newInstance()
+          .createXMLStreamReader(new ByteArrayInputStream(modelXml));
+      try {
+        StringBuilder path = new StringBuilder();
+        MessageDigest digest = null;
+        String element = null;
+        int depth = 0;
+        int ignoredDepth = 0;
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            depth++;
+            if (depth == 1) {
+              continue;
+            }
+            if (depth == 2) {
+              element = reader.getLocalName();
+              path.setLength(0);
+              digest = newDigest();
+            }
+            path.append(depth == 2 ? "" : "/").append(reader.getLocalName()); //$NON-NLS-1$ //$NON-NLS-2$
+            if (ignoredDepth == 0 && ignored.contains(path.toString())) {
+              ignoredDepth = depth;
+            }
+            if (ignoredDepth == 0) {
+              update(digest, "<" + reader.getLocalName()); //$NON-NLS-1$
+              for (int i = 0; i < reader.getAttributeCount(); i++) {
+                update(digest, " " + reader.getAttributeLocalName(i) + "=" //$NON-NLS-1$ //$NON-NLS-2$
+                    + reader.getAttributeValue(i));
+              }
+              update(digest, ">"); //$NON-NLS-1$
+            }
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            if (depth == ignoredDepth) {
+              ignoredDepth = 0;
+            } else if (depth > 1 && ignoredDepth == 0) {
+              update(digest, "</>"); //$NON-NLS-1$
+            }
+            if (depth == 2) {
+              String value = toHex(digest.digest());
+              // elements which occur several times are digested together
+              String previous = this.digests.get(element);
+              this.digests.put(element, previous == null ? value : previous + value);
+            } else if (depth > 2) {
+              path.setLength(Math.max(0, path.lastIndexOf("/"))); //$NON-NLS-1$
+            }
+            depth--;
+          } else if (depth > 1 && ignoredDepth == 0 && reader.hasText()) {
+            update(digest, reader.getText());
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      ProjectManager.getLOGGER().error("could not digest the exported model", e); //$NON-NLS-1$
+      this.digests.clear();
+    }
+  }
+
+  /**
+   * creates the key for a file from the digests of the model elements the export reads and the
+   * parameters of the export
+   *
+   * @param elements
+   *          the names of the top level elements of the model the export depends on
+   * @param parameters
+   *          all parameters that influence the exported file, the parameters are compared by
+   *          their string representation
+   * @return the key or <code>null</code> if the model has not been digested
+   */
+  public String getKey(String[] elements, Object... parameters) {
+    if (this.digests.isEmpty()) {
+      return null;
+    }
+    MessageDigest digest = newDigest();
+    for (String element : elements) {
+      update(digest, element + "=" + this.digests.get(element) + ";"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    for (Object parameter : parameters) {
+      update(digest, String.valueOf(parameter) + ";"); //$NON-NLS-1$
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * @param artifact
+   *          an exported file
+   * @param key
+   *          the key as returned by {@link #getKey(String[], Object...)}
+   * @return whether the file exists and has been exported with the given key
+   */
+  public synchronized boolean isUpToDate(File artifact, String key) {
+    return key != null && artifact.exists() && key.equals(this.entries.get(getName(artifact)));
+  }
+
+  /**
+   * records that the given file has been exported successfully with the given key
+   *
+   * @param artifact
+   *          an exported file
+   * @param key
+   *          the key as returned by {@link #getKey(String[], Object...)}
+   */
+  public synchronized void put(File artifact, String key) {
+    if (key == null) {
+      this.entries.remove(getName(artifact));
+    } else {
+      this.entries.put(getName(artifact), key);
+    }
+  }
+
+  /**
+   * removes all entries so that every file is exported again
+   */
+  public synchronized void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * writes the manifest into the output directory
+   */
+  public synchronized void save() {
+    try (OutputStream stream = new FileOutputStream(this.file)) {
+      this.entries.store(stream, "keys of the exported files"); //$NON-NLS-1$
+    } catch (IOException e) {
+      ProjectManager.getLOGGER().error("could not write the export manifest", e); //$NON-NLS-1$
+    }
+  }
+
+  private String getName(File artifact) {
+    String path = artifact.getAbsolutePath();
+    String dirPath = this.dir.getAbsolutePath() + File.separator;
+    if (path.startsWith(dirPath)) {
+      path = path.substring(dirPath.length());
+    }
+    return path.replace(File.separatorChar, '/');
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      // every java platform must support SHA-1
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void update(MessageDigest digest, String text) {
+    digest.update(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.fop.apps.FopFactory;
+
+/**
+ * Provides the resources which are shared by all xsl-fo exports.<br>
+ * The xsl files are compiled once into {@link Templates} which are cached for each xsl resource
+ * and the class loader of the bundle they are loaded from, the {@link FopFactory}s are created
+ * once for each page size so that the font and image caches of FOP are kept between exports.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public final class FopResources {
+
+  private static final Map<ClassLoader, Map<String, Templates>> TEMPLATES = new WeakHashMap<>();
+  private static final Map<String, FopFactory> FACTORIES = new HashMap<>();
+
+  private FopResources() {
+    // this class provides only static access
+  }
+
+  /**
+   * creates a new transformer for the given xsl resource, the xsl is only compiled the first time
+   * it is requested for the bundle of the given class.<br>
+   * A transformer must not be used by several threads at the same time, thus each export must
+   * request its own transformer.
+   *
+   * @param resource
+   *          the path of the xsl file as it is passed to {@link Class#getResource(String)}
+   * @param clazz
+   *          a class of the bundle which contains the xsl file and all files included by it
+   * @return a new transformer or <code>null</code> if the resource does not exist
+   * @throws TransformerConfigurationException
+   *           if the xsl can not be compiled
+   */
+  public static Transformer newTransformer(String resource, Class<?> clazz)
+      throws TransformerConfigurationException {
+    Templates templates = getTemplates(resource, clazz);
+    if (templates == null) {
+      return null;
+    }
+    Transformer transformer = templates.newTransformer();
+    transformer.setURIResolver(new BundleResolver(clazz));
+    return transformer;
+  }
+
+  /**
+   * @param resource
+   *          the path of the xsl file as it is passed to {@link Class#getResource(String)}
+   * @param clazz
+   *          a class of the bundle which contains the xsl file and all files included by it
+   * @return the compiled xsl or <code>null</code> if the resource does not exist
+   * @throws TransformerConfigurationException
+   *           if the xsl can not be compiled
+   */
+  public static Templates getTemplates(String resource, Class<?> clazz)
+      throws TransformerConfigurationException {
+    Map<String, Templates> bundleTemplates;
+    synchronized (TEMPLATES) {
+      bundleTemplates = TEMPLATES.get(clazz.getClassLoader());
+      if (bundleTemplates == null) {
+        bundleTemplates = new HashMap<>();
+        TEMPLATES.put(clazz.getClassLoader(), bundleTemplates);
+      }
+    }
+    synchronized (bundleTemplates) {
+      Templates templates = bundleTemplates.get(resource);
+      if (templates == null) {
+        URL xslUrl = clazz.getResource(resource);
+        if (xslUrl == null) {
+          return null;
+        }
+        try (InputStream xslStream = xslUrl.openStream()) {
+          TransformerFactory transfact = TransformerFactory.newInstance();
+          transfact.setURIResolver(new BundleResolver(clazz));
+          templates = transfact.newTemplates(new StreamSource(xslStream, xslUrl.toExternalForm()));
+        } catch (IOException e) {
+          throw new TransformerConfigurationException(e);
+        }
+        bundleTemplates.put(resource, templates);
+      }
+      return templates;
+    }
+  }
+
+  /**
+   * @return the shared fop factory which uses the default page size of FOP
+   */
+  public static FopFactory getFopFactory() {
+    return getFopFactory(null, null);
+  }
+
+  /**
+   * returns the shared fop factory for the given page size, the page size is used by FOP for all
+   * pages with the page size <code>auto</code>.<br>
+   * The returned factory must not be reconfigured, all settings which only concern one export
+   * must be made in the FOUserAgent or as transformer parameter.
+   *
+   * @param pageWidth
+   *          the page width e.g. <code>8.26in</code> or <code>null</code> for the default width
+   * @param pageHeight
+   *          the page height e.g. <code>11in</code> or <code>null</code> for the default height
+   * @return the fop factory which is shared for the given page size
+   */
+  public static synchronized FopFactory getFopFactory(String pageWidth, String pageHeight) {
+    String key = pageWidth + "x" + pageHeight; //$NON-NLS-1$
+    FopFactory factory = FACTORIES.get(key);
+    if (factory == null) {
+      factory = FopFactory.newInstance();
+      factory.setUseCache(true);
+      if (pageWidth != null) {
+        factory.setPageWidth(pageWidth);
+      }
+      if (pageHeight != null) {
+        factory.setPageHeight(pageHeight);
+      }
+      FACTORIES.put(key, factory);
+    }
+    return factory;
+  }
+
+  /**
+   * resolves the files included by an xsl relative to the root of the bundle of a class
+   */
+  private static class BundleResolver implements URIResolver {
+    private final Class<?> clazz;
+
+    private BundleResolver(Class<?> clazz) {
+      this.clazz = clazz;
+    }
+
+    @Override
+    public Source resolve(String href, String base) {
+      return new StreamSource(this.clazz.getResourceAsStream("/" + href)); //$NON-NLS-1$
+    }
+  }
+}
@@ -20,6 +20,8 @@ import java.io.OutputStream;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
+import javax.xml.bind.util.JAXBSource;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.sax.SAXResult;
@@ -49,7 +51,7 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
 
   private boolean enablePreview = true;
   private static final Logger LOGGER = Logger.getRootLogger();
-  private ByteArrayOutputStream outStream;
+  private byte[] modelXml;
   private final String fileType;
   private String pageFormat = AbstractExportPage.A4_PORTRAIT;
   private String pdfTitle = "";
@@ -73,30 +75,25 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
   protected IStatus run(IProgressMonitor monitor) {
 
     // monitor.worked(1);
-    // put the xml jaxb content into an output stream
-    this.outStream = new ByteArrayOutputStream();
-    if (exportData.getFilePath() != null) {
-      JAXBContext context;
+    // the model is streamed as sax events directly into the transformer if no marshalled xml is
+    // shared with this job
+    Source informationSource;
+    if (exportData.getFilePath() == null) {
+      JAXBExportJob.LOGGER.error("Report cannot be exported: Invalid file path"); //$NON-NLS-1$
+      return Status.CANCEL_STATUS;
+    } else if (this.modelXml == null) {
       try {
-        context = getModelContent();
-        Marshaller contextMarshaller = context.createMarshaller();
-        contextMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        contextMarshaller.marshal(getModel(), this.outStream);
+        informationSource = new JAXBSource(getModelContent(), getModel());
       } catch (JAXBException e) {
         JAXBExportJob.LOGGER.error(e.getMessage(), e);
         return Status.OK_STATUS;
       }
     } else {
-      JAXBExportJob.LOGGER.error("Report cannot be exported: Invalid file path"); //$NON-NLS-1$
-      return Status.CANCEL_STATUS;
+      informationSource = new StreamSource(new ByteArrayInputStream(this.modelXml));
     }
     // monitor.worked(2);
 
-    FopFactory fopFactory = FopFactory.newInstance();
-    ByteArrayOutputStream pdfoutStream = new ByteArrayOutputStream();
-
-    StreamSource informationSource = new StreamSource(
-        new ByteArrayInputStream(this.outStream.toByteArray()));
+    FopFactory fopFactory = FopResources.getFopFactory();
 
     try {
 
@@ -108,29 +105,26 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
       }
 
       File pdfFile = new File(exportData.getFilePath());
-      if (!pdfFile.exists()) {
-        pdfFile.createNewFile();
-      }
       if (monitor.isCanceled()) {
         return Status.CANCEL_STATUS;
       }
       // this.xslfoTransformer.setParameter("page.layout", pageFormat);
       this.xslfoTransformer.setParameter("page.title", pdfTitle);
-      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(pdfFile));
-          FileOutputStream str = new FileOutputStream(pdfFile);) {
+      // FOP writes the rendered document directly into the file
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(pdfFile))) {
         if (this.fileType.equals(org.apache.xmlgraphics.util.MimeConstants.MIME_PNG)) {
           exportData.setTitleSize(exportData.getTitleSize() * 2);
           exportData.setTextSize(exportData.getTextSize() * 2);
           exportData.setTableHeadSize(exportData.getTableHeadSize() * 2);
 
+          // the doubled page size is set on a separate shared factory as the factories are not
+          // reconfigured for single exports
           float width = 2 * Float.parseFloat(fopFactory.getPageWidth().replace("in", ""));
           float height = 2 * Float.parseFloat(fopFactory.getPageHeight().replace("in", ""));
           if (pageFormat.equals(AbstractExportPage.A4_LANDSCAPE)) {
-            fopFactory.setPageWidth(height + "in");
-            fopFactory.setPageHeight(width + "in");
+            fopFactory = FopResources.getFopFactory(height + "in", width + "in");
           } else {
-            fopFactory.setPageWidth(width + "in");
-            fopFactory.setPageHeight(height + "in");
+            fopFactory = FopResources.getFopFactory(width + "in", height + "in");
           }
 
           this.xslfoTransformer.setParameter("page.layout", "auto");
@@ -138,6 +132,10 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
           this.xslfoTransformer.setParameter("table.head.size", exportData.getTableHeadSize());
           this.xslfoTransformer.setParameter("text.size", exportData.getTextSize());
           this.xslfoTransformer.setParameter("header.omit", "true"); //$NON-NLS-1$
+          // an image shows only one page, thus tables must not be split into several page
+          // sequences
+          this.xslfoTransformer.setParameter("uca.chunk.size", 0); //$NON-NLS-1$
+          this.xslfoTransformer.setParameter("table.chunk.size", 0); //$NON-NLS-1$
           // this.getFirstDocumentSpan(this.xslfoTransformer,fopFactory);
         } else {
           this.xslfoTransformer.setParameter("page.layout", pageFormat);
@@ -151,22 +149,19 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
         Fop fop;
         FOUserAgent foUserAgent = fopFactory.newFOUserAgent();
         foUserAgent.setOutputFile(pdfFile);
-        fop = fopFactory.newFop(this.fileType, foUserAgent, pdfoutStream);
+        fop = fopFactory.newFop(this.fileType, foUserAgent, out);
 
         SAXResult res = new SAXResult(fop.getDefaultHandler());
 
         // transform the informationSource with the transformXSLSource
 
         this.xslfoTransformer.transform(informationSource, res);
+      }
 
-        str.write(pdfoutStream.toByteArray());
-        str.close();
-
-        // monitor.worked(5);
-        if (pdfFile.exists() && this.enablePreview) {
-          if (Desktop.isDesktopSupported()) {
-            Desktop.getDesktop().open(pdfFile);
-          }
+      // monitor.worked(5);
+      if (pdfFile.exists() && this.enablePreview) {
+        if (Desktop.isDesktopSupported()) {
+          Desktop.getDesktop().open(pdfFile);
         }
       }
     } catch (SAXException | IOException | TransformerException e) {
@@ -210,6 +205,38 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
     this.pdfTitle = pdfTitle;
   }
 
+  /**
+   * Sets the xml representation of the model which should be transformed instead of marshalling
+   * the model again when the job is run. This allows several jobs to share one marshalled model, the
+   * buffer is only read by this job and must not be changed after it has been set.
+   * 
+   * @param modelXml
+   *          the xml as it is returned by {@link #marshal(JAXBContext, Object)} or <code>null</code>
+   *          if the model should be marshalled by this job
+   */
+  public void setModelXml(byte[] modelXml) {
+    this.modelXml = modelXml;
+  }
+
+  /**
+   * marshals the given model into a formatted xml document.
+   * 
+   * @param context
+   *          the jaxb context created for the class of the model
+   * @param model
+   *          the model which should be marshalled
+   * @return the xml document as byte array
+   * @throws JAXBException
+   *           if the model can not be marshalled
+   */
+  public static byte[] marshal(JAXBContext context, Object model) throws JAXBException {
+    ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+    Marshaller contextMarshaller = context.createMarshaller();
+    contextMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+    contextMarshaller.marshal(model, outStream);
+    return outStream.toByteArray();
+  }
+
   /**
    * @return the model file from which the export informations are created,, implementers must take
    *         care that the returned object can be parsed to an xml file
@@ -235,6 +262,14 @@ public abstract class JAXBExportJob extends XstamppJob implements IJobChangeList
 
   protected abstract Transformer getxslTransformer(String resource, Class clazz);
 
+  /**
+   * @return the mime type of the export file as defined in
+   *         {@link org.apache.xmlgraphics.util.MimeConstants}
+   */
+  public String getFileType() {
+    return this.fileType;
+  }
+
   /**
    * @return the filePath
    */
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Schedules a number of jobs so that at most a fixed number of them runs at the same time.<br>
+ * When a job is added while the queue is full the oldest running job is joined first, the work
+ * registered for a job is reported to the progress monitor of the calling job as soon as the job
+ * has been joined. All jobs which have been added can be canceled at once with {@link #cancel()}.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class ParallelJobQueue {
+
+  private final int maxRunning;
+  private final LinkedHashMap<Job, Integer> running;
+  private final List<Job> jobs;
+  private volatile boolean canceled;
+
+  /**
+   * creates a queue which runs as many jobs in parallel as processors are available
+   */
+  public ParallelJobQueue() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param maxRunning
+   *          the maximum number of jobs that are running at the same time, must be at least 1
+   */
+  public ParallelJobQueue(int maxRunning) {
+    this.maxRunning = Math.max(1, maxRunning);
+    this.running = new LinkedHashMap<>();
+    this.jobs = new ArrayList<>();
+    this.canceled = false;
+  }
+
+  /**
+   * schedules the given job, if the maximum number of jobs is already running this call blocks
+   * until the oldest of them is done
+   *
+   * @param job
+   *          the job which should be scheduled
+   * @param work
+   *          the work which is reported to the monitor when the job is done
+   * @param monitor
+   *          the progress monitor of the calling job
+   * @return false if the queue or the monitor has been canceled, true otherwise
+   */
+  public boolean add(Job job, int work, IProgressMonitor monitor) {
+    while (size() >= this.maxRunning) {
+      if (!joinNext(monitor)) {
+        return false;
+      }
+    }
+    if (isCanceled(monitor)) {
+      return false;
+    }
+    synchronized (this) {
+      this.jobs.add(job);
+      this.running.put(job, work);
+    }
+    job.schedule();
+    return true;
+  }
+
+  /**
+   * waits until all jobs which have been added to this queue are done
+   *
+   * @param monitor
+   *          the progress monitor of the calling job
+   * @return false if the queue or the monitor has been canceled, true otherwise
+   */
+  public boolean joinAll(IProgressMonitor monitor) {
+    while (size() > 0) {
+      if (!joinNext(monitor)) {
+        return false;
+      }
+    }
+    return !isCanceled(monitor);
+  }
+
+  /**
+   * cancels all jobs which have been added to this queue, jobs that are added afterwards are not
+   * scheduled anymore
+   */
+  public void cancel() {
+    this.canceled = true;
+    synchronized (this) {
+      for (Job job : this.jobs) {
+        job.cancel();
+      }
+    }
+  }
+
+  private boolean joinNext(IProgressMonitor monitor) {
+    Job job;
+    int work;
+    synchronized (this) {
+      Iterator<Entry<Job, Integer>> iterator = this.running.entrySet().iterator();
+      Entry<Job, Integer> next = iterator.next();
+      iterator.remove();
+      job = next.getKey();
+      work = next.getValue();
+    }
+    if (isCanceled(monitor)) {
+      return false;
+    }
+    try {
+      job.join();
+    } catch (InterruptedException e) {
+      cancel();
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    monitor.worked(work);
+    return !isCanceled(monitor);
+  }
+
+  private synchronized int size() {
+    return this.running.size();
+  }
+
+  private boolean isCanceled(IProgressMonitor monitor) {
+    if (!this.canceled && monitor.isCanceled()) {
+      cancel();
+    }
+    return this.canceled;
+  }
+}
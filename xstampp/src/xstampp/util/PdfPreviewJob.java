@@ -0,0 +1,641 @@
+/*******************************************************************************
+ * Copyright (c) 2013, 2017 Lukas Balzer, Asim Abdulkhaleq, Stefan Wagner
+ * Institute of Software Technology, Software Engineering Group
+ * University of Stuttgart, Germany
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package xstampp.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.ErrorListener;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
+
+import org.apache.fop.apps.FOPException;
+import org.apache.fop.apps.FOUserAgent;
+import org.apache.fop.apps.Fop;
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.area.PageViewport;
+import org.apache.fop.render.java2d.Java2DRenderer;
+import org.apache.xmlgraphics.util.MimeConstants;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.preference.PreferenceConverter;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import xstampp.Activator;
+import xstampp.model.IDataModel;
+import xstampp.preferences.IPreferenceConstants;
+import xstampp.ui.common.ProjectManager;
+import xstampp.ui.wizards.AbstractExportPage;
+
+/**
+ * A job which renders the first pages of an xsl-fo export into images for the preview in the
+ * export wizard.<br>
+ * The preview is requested with {@link #update(String, int, int, int)} whenever a setting changes,
+ * each request cancels a running rendering and schedules the job again after a short delay so
+ * that a series of changes only leads to one rendering. The model is marshalled in the job thread
+ * and kept between the renderings until the model notifies its observers about a change, the
+ * company name, logo and colors are replaced in the marshalled model for each rendering so that
+ * changing them doesn't marshal the model again. The xsl is compiled only once by
+ * {@link FopResources}.<br>
+ * Only the beginning of the formatting objects is passed to FOP, the flow of a page sequence is
+ * cut after a fixed number of elements and the transformation is stopped as soon as enough pages
+ * are formatted. Thus the preview does not depend on the size of the project.
+ *
+ * @author Lukas Balzer
+ * @since 2.5.2
+ *
+ */
+public class PdfPreviewJob extends Job implements Observer {
+
+  /**
+   * the delay in milliseconds between the last change of a setting and the start of the rendering
+   */
+  public static final long DEBOUNCE_DELAY = 300;
+  private static final int MAX_PAGES = 2;
+  private static final int PREVIEW_RESOLUTION = 48;
+  private static final int FLOW_ELEMENT_BUDGET = 600;
+
+  /**
+   * a listener which receives the rendered pages of the preview
+   */
+  public interface IPreviewListener {
+    /**
+     * called in the ui thread when a preview has been rendered
+     *
+     * @param pages
+     *          the rendered pages, the array is empty if the preview could not be rendered
+     */
+    void previewRendered(ImageData[] pages);
+  }
+
+  private final String xslResource;
+  private final Class<?> xslClass;
+  private final String pdfTitle;
+  private final IPreviewListener listener;
+  private IDataModel model;
+  private byte[] modelXml;
+  private volatile Thread preparingThread;
+  private int modelChanges;
+  private Map<String, String> style;
+  private String pageFormat;
+  private int titleSize;
+  private int headSize;
+  private int textSize;
+
+  /**
+   * @param xslResource
+   *          the path of the xsl file as it is passed to {@link Class#getResource(String)}
+   * @param xslClass
+   *          a class of the bundle which contains the xsl file
+   * @param pdfTitle
+   *          the title which is printed in the head of each page
+   * @param listener
+   *          the listener which receives the rendered pages
+   */
+  public PdfPreviewJob(String xslResource, Class<?> xslClass, String pdfTitle,
+      IPreviewListener listener) {
+    super("Pdf Preview"); //$NON-NLS-1$
+    this.xslResource = xslResource;
+    this.xslClass = xslClass;
+    this.pdfTitle = pdfTitle;
+    this.listener = listener;
+    this.pageFormat = AbstractExportPage.A4_PORTRAIT;
+    this.style = new LinkedHashMap<>();
+    setSystem(true);
+  }
+
+  /**
+   * sets the model of the project for which the preview is rendered, the marshalled model is
+   * discarded if the model has changed. The job observes the model to discard the marshalled model
+   * when the model changes, thus this must be called with <code>null</code> when the preview is no
+   * longer needed
+   *
+   * @param model
+   *          the data model of the project or <code>null</code>
+   */
+  public synchronized void setModel(IDataModel model) {
+    if (this.model != model) {
+      if (this.model instanceof Observable) {
+        ((Observable) this.model).deleteObserver(this);
+      }
+      this.model = model;
+      this.modelXml = null;
+      if (model instanceof Observable) {
+        ((Observable) model).addObserver(this);
+      }
+    }
+  }
+
+  @Override
+  public void update(Observable o, Object arg) {
+    // the preparation of the model for the preview notifies the observers as well, every other
+    // notification is counted so that a model which is marshalled at the same time is not cached
+    if (Thread.currentThread() != this.preparingThread) {
+      synchronized (this) {
+        this.modelXml = null;
+        this.modelChanges++;
+      }
+    }
+  }
+
+  /**
+   * requests a new preview with the given settings and the company name, logo and colors which are
+   * currently stored in the preferences, a running rendering is canceled
+   *
+   * @param pageFormat
+   *          one of {@link AbstractExportPage#A4_PORTRAIT} or
+   *          {@link AbstractExportPage#A4_LANDSCAPE}
+   * @param titleSize
+   *          the font size of titles
+   * @param headSize
+   *          the font size of table heads
+   * @param textSize
+   *          the font size of the text
+   */
+  public void update(String pageFormat, int titleSize, int headSize, int textSize) {
+    Map<String, String> currentStyle = getStyle();
+    synchronized (this) {
+      this.style = currentStyle;
+      if (AbstractExportPage.A4_LANDSCAPE.equals(pageFormat)) {
+        this.pageFormat = AbstractExportPage.A4_LANDSCAPE;
+      } else {
+        this.pageFormat = AbstractExportPage.A4_PORTRAIT;
+      }
+      this.titleSize = titleSize;
+      this.headSize = headSize;
+      this.textSize = textSize;
+    }
+    cancel();
+    schedule(DEBOUNCE_DELAY);
+  }
+
+  /**
+   * cancels the preview and waits until a running rendering has finished and removed its
+   * preparation of the model, afterwards the model is no longer observed. As the preparation is
+   * removed in the ui thread, the ui thread keeps dispatching events while it waits.
+   */
+  public void stop() {
+    setModel(null);
+    cancel();
+    final Display display = Display.getCurrent();
+    if (display == null) {
+      try {
+        join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return;
+    }
+    JobChangeAdapter wakeUp = new JobChangeAdapter() {
+
+      @Override
+      public void done(IJobChangeEvent event) {
+        display.wake();
+      }
+    };
+    addJobChangeListener(wakeUp);
+    try {
+      while (getState() != Job.NONE) {
+        if (!display.readAndDispatch()) {
+          display.sleep();
+        }
+      }
+    } finally {
+      removeJobChangeListener(wakeUp);
+    }
+  }
+
+  @Override
+  protected IStatus run(IProgressMonitor monitor) {
+    String format;
+    int title;
+    int head;
+    int text;
+    Map<String, String> currentStyle;
+    synchronized (this) {
+      currentStyle = this.style;
+      format = this.pageFormat;
+      title = this.titleSize;
+      head = this.headSize;
+      text = this.textSize;
+    }
+    byte[] xml = getModelXml(monitor);
+    if (xml == null || monitor.isCanceled()) {
+      return Status.CANCEL_STATUS;
+    }
+    final List<ImageData> pages = new ArrayList<>();
+    try {
+      Transformer transformer = FopResources.newTransformer(this.xslResource, this.xslClass);
+      if (transformer == null) {
+        ProjectManager.getLOGGER().error("Fop xsl: " + this.xslResource + " not found"); //$NON-NLS-1$ //$NON-NLS-2$
+        return Status.CANCEL_STATUS;
+      }
+      transformer.setParameter("page.layout", format); //$NON-NLS-1$
+      transformer.setParameter("page.title", this.pdfTitle); //$NON-NLS-1$
+      transformer.setParameter("title.size", title); //$NON-NLS-1$
+      transformer.setParameter("table.head.size", head); //$NON-NLS-1$
+      transformer.setParameter("text.size", text); //$NON-NLS-1$
+      transformer.setParameter("header.omit", "false"); //$NON-NLS-1$ //$NON-NLS-2$
+      // the stop of the transformation by the filter must not be reported as an error
+      transformer.setErrorListener(new ErrorListener() {
+
+        @Override
+        public void warning(TransformerException exception) {
+          // warnings are ignored for the preview
+        }
+
+        @Override
+        public void error(TransformerException exception) throws TransformerException {
+          throw exception;
+        }
+
+        @Override
+        public void fatalError(TransformerException exception) throws TransformerException {
+          throw exception;
+        }
+      });
+
+      FopFactory fopFactory = FopResources.getFopFactory();
+      FOUserAgent userAgent = fopFactory.newFOUserAgent();
+      userAgent.setTargetResolution(PREVIEW_RESOLUTION);
+      PreviewRenderer renderer = new PreviewRenderer(userAgent);
+      userAgent.setRendererOverride(renderer);
+      Fop fop = fopFactory.newFop(userAgent);
+      PreviewFilter filter = new PreviewFilter(monitor);
+      filter.setContentHandler(fop.getDefaultHandler());
+      SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+      parserFactory.setNamespaceAware(true);
+      StyleFilter styleFilter = new StyleFilter(currentStyle);
+      styleFilter.setParent(parserFactory.newSAXParser().getXMLReader());
+      try {
+        transformer.transform(
+            new SAXSource(styleFilter, new InputSource(new ByteArrayInputStream(xml))),
+            new SAXResult(filter));
+      } catch (TransformerException e) {
+        // the filter stops the transformation as soon as enough pages are formatted
+        if (!filter.isDone()) {
+          throw e;
+        }
+      }
+      for (BufferedImage image : renderer.getImages()) {
+        pages.add(toImageData(image));
+      }
+    } catch (TransformerException | FOPException | IOException | ParserConfigurationException
+        | SAXException e) {
+      if (monitor.isCanceled()) {
+        return Status.CANCEL_STATUS;
+      }
+      ProjectManager.getLOGGER().error("the pdf preview could not be rendered", e); //$NON-NLS-1$
+    }
+    if (monitor.isCanceled()) {
+      return Status.CANCEL_STATUS;
+    }
+    Display.getDefault().asyncExec(new Runnable() {
+
+      @Override
+      public void run() {
+        PdfPreviewJob.this.listener.previewRendered(pages.toArray(new ImageData[pages.size()]));
+      }
+    });
+    return Status.OK_STATUS;
+  }
+
+  /**
+   * returns the cached xml of the model or marshals the model again.<br>
+   * The model is prepared and marshalled in the job thread like in the export jobs, only the
+   * clean up which notifies the observers of the model is done in the ui thread. The preparation
+   * is shared with the exports, thus a model which has been prepared for an export in the meantime
+   * is left to that export.
+   */
+  private byte[] getModelXml(IProgressMonitor monitor) {
+    final IDataModel dataModel;
+    final int changes;
+    synchronized (this) {
+      if (this.modelXml != null || this.model == null || monitor.isCanceled()) {
+        return this.modelXml;
+      }
+      dataModel = this.model;
+      changes = this.modelChanges;
+    }
+    byte[] xml = null;
+    final int preparation;
+    this.preparingThread = Thread.currentThread();
+    try {
+      preparation = dataModel.prepareForPreview();
+    } finally {
+      this.preparingThread = null;
+    }
+    try {
+      xml = JAXBExportJob.marshal(JAXBContext.newInstance(dataModel.getClass()), dataModel);
+    } catch (JAXBException e) {
+      ProjectManager.getLOGGER().error("the model could not be marshalled", e); //$NON-NLS-1$
+    } finally {
+      Display.getDefault().syncExec(new Runnable() {
+
+        @Override
+        public void run() {
+          PdfPreviewJob.this.preparingThread = Thread.currentThread();
+          try {
+            dataModel.releasePreview(preparation);
+          } finally {
+            PdfPreviewJob.this.preparingThread = null;
+          }
+        }
+      });
+    }
+    synchronized (this) {
+      if (this.model == dataModel && this.modelChanges == changes) {
+        this.modelXml = xml;
+      }
+    }
+    return xml;
+  }
+
+  /**
+   * reads the company name, logo and colors from the preferences in the way they are stored in the
+   * export information of the model
+   *
+   * @return the values mapped to the names of the elements of the export information, values which
+   *         are not exported are mapped to <code>null</code>
+   */
+  private static Map<String, String> getStyle() {
+    IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+    Map<String, String> style = new LinkedHashMap<>();
+    File logo = new File(store.getString(IPreferenceConstants.COMPANY_LOGO));
+    style.put("logoPath", logo.exists() ? logo.toURI().toString() : null); //$NON-NLS-1$
+    String company = store.getString(IPreferenceConstants.COMPANY_NAME);
+    style.put("company", company.isEmpty() ? null : company); //$NON-NLS-1$
+    style.put("backgroundColor", toHex(PreferenceConverter.getColor(store, //$NON-NLS-1$
+        IPreferenceConstants.COMPANY_BACKGROUND_COLOR)));
+    style.put("fontColor", toHex(PreferenceConverter.getColor(store, //$NON-NLS-1$
+        IPreferenceConstants.COMPANY_FONT_COLOR)));
+    return style;
+  }
+
+  private static String toHex(RGB rgb) {
+    return String.format("#%02x%02x%02x", rgb.red, rgb.green, rgb.blue); //$NON-NLS-1$
+  }
+
+  private static ImageData toImageData(BufferedImage image) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out); //$NON-NLS-1$
+    return new ImageLoader().load(new ByteArrayInputStream(out.toByteArray()))[0];
+  }
+
+  /**
+   * paints the first pages which are formatted by FOP into images, the pages are painted as soon
+   * as they are passed to the renderer as FOP clears the areas of a page afterwards
+   */
+  private static class PreviewRenderer extends Java2DRenderer {
+    private final List<BufferedImage> images;
+
+    PreviewRenderer(FOUserAgent userAgent) {
+      super(userAgent);
+      this.images = new ArrayList<>();
+    }
+
+    @Override
+    public String getMimeType() {
+      return MimeConstants.MIME_PNG;
+    }
+
+    @Override
+    public void renderPage(PageViewport pageViewport) throws IOException, FOPException {
+      if (this.images.size() < MAX_PAGES) {
+        this.images.add(getPageImage(pageViewport));
+      }
+    }
+
+    List<BufferedImage> getImages() {
+      return this.images;
+    }
+  }
+
+  /**
+   * Replaces the company name, logo and colors in the export information of the marshalled model
+   * with the given values, so that the preview shows changes of these settings without marshalling
+   * the model again.
+   */
+  private static class StyleFilter extends XMLFilterImpl {
+    private static final String EXPORT_INFORMATION = "exportinformation"; //$NON-NLS-1$
+
+    private final Map<String, String> style;
+    private int depth;
+    private int skippedDepth;
+    private boolean inExportInformation;
+
+    StyleFilter(Map<String, String> style) {
+      this.style = style;
+      this.depth = 0;
+      this.skippedDepth = 0;
+      this.inExportInformation = false;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts)
+        throws SAXException {
+      if (this.skippedDepth > 0) {
+        this.skippedDepth++;
+        return;
+      }
+      if (this.inExportInformation && this.depth == 2 && this.style.containsKey(localName)) {
+        this.skippedDepth = 1;
+        return;
+      }
+      this.depth++;
+      if (this.depth == 2 && EXPORT_INFORMATION.equals(localName)) {
+        this.inExportInformation = true;
+      }
+      super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      if (this.skippedDepth > 0) {
+        this.skippedDepth--;
+        return;
+      }
+      if (this.inExportInformation && this.depth == 2) {
+        for (Map.Entry<String, String> entry : this.style.entrySet()) {
+          if (entry.getValue() != null) {
+            char[] value = entry.getValue().toCharArray();
+            super.startElement("", entry.getKey(), entry.getKey(), new AttributesImpl()); //$NON-NLS-1$
+            super.characters(value, 0, value.length);
+            super.endElement("", entry.getKey(), entry.getKey()); //$NON-NLS-1$
+          }
+        }
+        this.inExportInformation = false;
+      }
+      this.depth--;
+      super.endElement(uri, localName, qName);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+      if (this.skippedDepth == 0) {
+        super.characters(ch, start, length);
+      }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+      if (this.skippedDepth == 0) {
+        super.ignorableWhitespace(ch, start, length);
+      }
+    }
+  }
+
+  /**
+   * Passes only the beginning of the formatting objects to FOP.<br>
+   * When more than {@link PdfPreviewJob#FLOW_ELEMENT_BUDGET} elements have been passed in the flow
+   * of a page sequence every further element is skipped unless it is the first child of its
+   * parent or required by the structure of a table or list, so the cut document stays valid. After
+   * {@link PdfPreviewJob#MAX_PAGES} page sequences or after the first page sequence that has been
+   * cut the document is closed and the transformation is stopped.
+   */
+  private static class PreviewFilter extends XMLFilterImpl {
+    private static final String FO_NS = "http://www.w3.org/1999/XSL/Format"; //$NON-NLS-1$
+    private static final Set<String> REQUIRED = new HashSet<>(Arrays.asList("table-column", //$NON-NLS-1$
+        "table-header", "table-footer", "table-body", "list-item-label", "list-item-body")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+    private final IProgressMonitor monitor;
+    private final Deque<boolean[]> hasChild;
+    private int flowDepth;
+    private int flowElements;
+    private int skippedDepth;
+    private int sequences;
+    private boolean cut;
+    private boolean done;
+
+    PreviewFilter(IProgressMonitor monitor) {
+      this.monitor = monitor;
+      this.hasChild = new ArrayDeque<>();
+      this.flowDepth = 0;
+      this.flowElements = 0;
+      this.skippedDepth = 0;
+      this.sequences = 0;
+      this.cut = false;
+      this.done = false;
+    }
+
+    boolean isDone() {
+      return this.done;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts)
+        throws SAXException {
+      if (this.monitor.isCanceled()) {
+        throw new SAXException("the preview has been canceled"); //$NON-NLS-1$
+      }
+      if (this.skippedDepth > 0) {
+        this.skippedDepth++;
+        return;
+      }
+      if (this.flowDepth > 0) {
+        this.flowElements++;
+        boolean[] parent = this.hasChild.peek();
+        if (this.flowElements > FLOW_ELEMENT_BUDGET && parent[0]
+            && !(FO_NS.equals(uri) && REQUIRED.contains(localName))) {
+          this.cut = true;
+          this.skippedDepth = 1;
+          return;
+        }
+        parent[0] = true;
+        this.flowDepth++;
+      } else if (FO_NS.equals(uri) && "flow".equals(localName)) { //$NON-NLS-1$
+        this.flowDepth = 1;
+        this.flowElements = 0;
+      }
+      this.hasChild.push(new boolean[] { false });
+      super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      if (this.skippedDepth > 0) {
+        this.skippedDepth--;
+        return;
+      }
+      if (this.flowDepth > 0) {
+        this.flowDepth--;
+      }
+      this.hasChild.pop();
+      super.endElement(uri, localName, qName);
+      if (FO_NS.equals(uri) && "page-sequence".equals(localName)) { //$NON-NLS-1$
+        this.sequences++;
+        if (this.cut || this.sequences >= MAX_PAGES) {
+          // closes the root element and the document and stops the transformation
+          ContentHandler handler = getContentHandler();
+          handler.endElement(FO_NS, "root", "fo:root"); //$NON-NLS-1$ //$NON-NLS-2$
+          handler.endDocument();
+          this.done = true;
+          throw new SAXException("the preview is complete"); //$NON-NLS-1$
+        }
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+      if (this.skippedDepth == 0) {
+        super.characters(ch, start, length);
+      }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+      if (this.skippedDepth == 0) {
+        super.ignorableWhitespace(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+      this.done = true;
+      super.endDocument();
+    }
+  }
+}